@@ -131,6 +131,18 @@ public class CFGIndividual extends AbstractIndividual {
 		return ObjectUtils.equals(parseTree, individual.parseTree);
 	}
 	
+	/**
+	 * Returns a hash code for this individual, consistent with the 
+	 * <code>equals</code> method. It is the hash code of the parse tree, or zero
+	 * if the parse tree has not been set.
+	 * 
+	 * @return a hash code for this individual
+	 */
+	@Override
+	public int hashCode() {
+		return ObjectUtils.hashCode(parseTree);
+	}
+	
 	/**
 	 * Compares this individual to another based on their fitness. It returns a
 	 * negative integer, zero, or a positive integer as this instance represents
@@ -23,6 +23,7 @@ package org.epochx.cfg.fitness;
 
 import org.epochx.AbstractFitnessFunction;
 import org.epochx.Config.ConfigKey;
+import org.epochx.epox.EpoxTranslator;
 import org.epochx.cfg.CFGIndividual;
 import org.epochx.interpret.Interpreter;
 
@@ -38,6 +39,13 @@ public abstract class CFGFitnessFunction extends AbstractFitnessFunction {
 	 */
 	public static final ConfigKey<Interpreter<CFGIndividual>> INTERPRETER = new ConfigKey<Interpreter<CFGIndividual>>();
 	
+	/**
+	 * The key for setting the translator used to convert the parse trees of
+	 * individuals directly into Epox programs. If it is set, individuals are
+	 * evaluated with the translator instead of the interpreter.
+	 */
+	public static final ConfigKey<EpoxTranslator> TRANSLATOR = new ConfigKey<EpoxTranslator>();
+	
 	/**
 	 * The key for setting the program's argument identifiers
 	 */
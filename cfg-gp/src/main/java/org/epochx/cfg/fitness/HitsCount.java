@@ -27,6 +27,7 @@ import org.epochx.Config;
 import org.epochx.Config.ConfigKey;
 import org.epochx.Individual;
 import org.epochx.cfg.CFGIndividual;
+import org.epochx.epox.EpoxTranslator;
 import org.epochx.event.ConfigEvent;
 import org.epochx.event.EventManager;
 import org.epochx.event.Listener;
@@ -66,6 +67,7 @@ public class HitsCount extends CFGFitnessFunction implements Listener<ConfigEven
 
 	// Configuration settings
 	private Interpreter<CFGIndividual> interpreter;
+	private EpoxTranslator translator;
 	private Object[] expectedOutputs;
 	private String[] argNames;
 	private Object[][] inputValueSets;
@@ -110,6 +112,7 @@ public class HitsCount extends CFGFitnessFunction implements Listener<ConfigEven
 	 * <li>{@link #EXPECTED_OUTPUTS}
 	 * <li>{@link #POINT_ERROR}
 	 * <li>{@link CFGFitnessFunction#INTERPRETER}
+	 * <li>{@link CFGFitnessFunction#TRANSLATOR}
 	 * <li>{@link #MALFORMED_PENALTY}
 	 * </ul>
 	 */
@@ -119,6 +122,7 @@ public class HitsCount extends CFGFitnessFunction implements Listener<ConfigEven
 		expectedOutputs = Config.getInstance().get(EXPECTED_OUTPUTS);
 		pointError = Config.getInstance().get(POINT_ERROR, pointError);
 		interpreter = Config.getInstance().get(INTERPRETER);
+		translator = Config.getInstance().get(TRANSLATOR);
 		malformedPenalty = Config.getInstance().get(MALFORMED_PENALTY, malformedPenalty);
 	}
 	
@@ -131,7 +135,7 @@ public class HitsCount extends CFGFitnessFunction implements Listener<ConfigEven
 	 */
 	@Override
 	public void onEvent(ConfigEvent event) {
-		if (event.isKindOf(TEMPLATE, INPUT_IDENTIFIERS, INPUT_VALUE_SETS, EXPECTED_OUTPUTS, POINT_ERROR, INTERPRETER, MALFORMED_PENALTY)) {
+		if (event.isKindOf(TEMPLATE, INPUT_IDENTIFIERS, INPUT_VALUE_SETS, EXPECTED_OUTPUTS, POINT_ERROR, INTERPRETER, TRANSLATOR, MALFORMED_PENALTY)) {
 			setup();
 		}
 	}
@@ -157,7 +161,11 @@ public class HitsCount extends CFGFitnessFunction implements Listener<ConfigEven
 		
 		Object[] results;
 		try {
-			results = interpreter.eval(program, argNames, inputValueSets);
+			if (translator == null) {
+				results = interpreter.eval(program, argNames, inputValueSets);
+			} else {
+				results = translator.eval(program.getParseTree(), argNames, inputValueSets);
+			}
 		} catch (MalformedProgramException e) {
 			return new DoubleFitness.Minimise(malformedPenalty);
 		}
@@ -328,4 +336,28 @@ public class HitsCount extends CFGFitnessFunction implements Listener<ConfigEven
 	public void setInterpreter(Interpreter<CFGIndividual> interpreter) {
 		this.interpreter = interpreter;
 	}
+
+	/**
+	 * Returns the translator used to convert parse trees into Epox programs, or
+	 * <code>null</code> if individuals are evaluated with the interpreter
+	 * 
+	 * @return the translator in use
+	 */
+	public EpoxTranslator getTranslator() {
+		return translator;
+	}
+	
+	/**
+	 * Sets the translator used to convert parse trees into Epox programs. If a
+	 * translator is set it is used instead of the interpreter.
+	 * 
+	 * If automatic configuration is enabled then any value set here will be 
+	 * overwritten by the {@link CFGFitnessFunction#TRANSLATOR} configuration setting on the 
+	 * next config event.
+	 * 
+	 * @param translator the translator to evaluate individuals with
+	 */
+	public void setTranslator(EpoxTranslator translator) {
+		this.translator = translator;
+	}
 }
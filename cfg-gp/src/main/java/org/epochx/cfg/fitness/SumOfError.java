@@ -27,6 +27,7 @@ import org.epochx.Config;
 import org.epochx.Config.ConfigKey;
 import org.epochx.Individual;
 import org.epochx.cfg.CFGIndividual;
+import org.epochx.epox.EpoxTranslator;
 import org.epochx.event.ConfigEvent;
 import org.epochx.event.EventManager;
 import org.epochx.event.Listener;
@@ -62,6 +63,7 @@ public class SumOfError extends CFGFitnessFunction implements Listener<ConfigEve
 	
 	// Configuration settings
 	private Interpreter<CFGIndividual> interpreter;
+	private EpoxTranslator translator;
 	private String[] argNames;
 	private Object[][] inputValueSets;
 	private Double[] expectedOutputs;
@@ -103,6 +105,7 @@ public class SumOfError extends CFGFitnessFunction implements Listener<ConfigEve
 	 * <li>{@link #INPUT_VALUE_SETS}
 	 * <li>{@link #EXPECTED_OUTPUTS}
 	 * <li>{@link #INTERPRETER}
+	 * <li>{@link CFGFitnessFunction#TRANSLATOR}
 	 * <li>{@link #MALFORMED_PENALTY}
 	 * </ul>
 	 */
@@ -111,6 +114,7 @@ public class SumOfError extends CFGFitnessFunction implements Listener<ConfigEve
 		inputValueSets = Config.getInstance().get(INPUT_VALUE_SETS);
 		expectedOutputs = Config.getInstance().get(EXPECTED_OUTPUTS);
 		interpreter = Config.getInstance().get(INTERPRETER);
+		translator = Config.getInstance().get(TRANSLATOR);
 		malformedPenalty = Config.getInstance().get(MALFORMED_PENALTY, malformedPenalty);
 	}
 	
@@ -123,7 +127,7 @@ public class SumOfError extends CFGFitnessFunction implements Listener<ConfigEve
 	 */
 	@Override
 	public void onEvent(ConfigEvent event) {
-		if (event.isKindOf(TEMPLATE, INPUT_IDENTIFIERS, INPUT_VALUE_SETS, EXPECTED_OUTPUTS, INTERPRETER, MALFORMED_PENALTY)) {
+		if (event.isKindOf(TEMPLATE, INPUT_IDENTIFIERS, INPUT_VALUE_SETS, EXPECTED_OUTPUTS, INTERPRETER, TRANSLATOR, MALFORMED_PENALTY)) {
 			setup();
 		}
 	}
@@ -153,7 +157,11 @@ public class SumOfError extends CFGFitnessFunction implements Listener<ConfigEve
 		
 		Object[] results;
 		try {
-			results = interpreter.eval(program, argNames, inputValueSets);
+			if (translator == null) {
+				results = interpreter.eval(program, argNames, inputValueSets);
+			} else {
+				results = translator.eval(program.getParseTree(), argNames, inputValueSets);
+			}
 		} catch (MalformedProgramException e) {
 			return new DoubleFitness.Minimise(malformedPenalty);
 		}
@@ -294,4 +302,28 @@ public class SumOfError extends CFGFitnessFunction implements Listener<ConfigEve
 	public void setInterpreter(Interpreter<CFGIndividual> interpreter) {
 		this.interpreter = interpreter;
 	}
+
+	/**
+	 * Returns the translator used to convert parse trees into Epox programs, or
+	 * <code>null</code> if individuals are evaluated with the interpreter
+	 * 
+	 * @return the translator in use
+	 */
+	public EpoxTranslator getTranslator() {
+		return translator;
+	}
+	
+	/**
+	 * Sets the translator used to convert parse trees into Epox programs. If a
+	 * translator is set it is used instead of the interpreter.
+	 * 
+	 * If automatic configuration is enabled then any value set here will be 
+	 * overwritten by the {@link CFGFitnessFunction#TRANSLATOR} configuration setting on the 
+	 * next config event.
+	 * 
+	 * @param translator the translator to evaluate individuals with
+	 */
+	public void setTranslator(EpoxTranslator translator) {
+		this.translator = translator;
+	}
 }
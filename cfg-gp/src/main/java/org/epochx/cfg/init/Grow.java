@@ -27,8 +27,6 @@ import static org.epochx.RandomSequence.RANDOM_SEQUENCE;
 import static org.epochx.cfg.CFGIndividual.MAXIMUM_DEPTH;
 import static org.epochx.grammar.Grammar.GRAMMAR;
 
-import java.util.*;
-
 import org.epochx.Config;
 import org.epochx.InitialisationMethod;
 import org.epochx.Population;
@@ -193,11 +191,19 @@ public class Grow implements CFGInitialisation, Listener<ConfigEvent> {
 			throw new IllegalStateException("no random number generator has been set");
 		} else if (maxDepth < 1) {
 			throw new IllegalStateException("maximum depth must be 1 or greater");
+		} else if (grammar == null) {
+			throw new IllegalStateException("no grammar has been set");
+		}
+
+		CompiledGrammar tables = grammar.compile();
+		int rule = tables.getRuleId(startRule);
+		if (rule == -1) {
+			throw new IllegalArgumentException("rule is not part of the grammar: " + startRule.getName());
 		}
 
 		NonTerminalSymbol parseTree = new NonTerminalSymbol(startRule);
 
-		buildDerivationTree(parseTree, startRule, 0, maxDepth);
+		buildDerivationTree(parseTree, tables, rule, 0, maxDepth);
 
 		return parseTree;
 	}
@@ -205,56 +211,35 @@ public class Grow implements CFGInitialisation, Listener<ConfigEvent> {
 	/*
 	 * Recursive helper for the growParseTree method
 	 */
-	private void buildDerivationTree(NonTerminalSymbol parseTree, GrammarRule rule, int currentDepth, int maxDepth) {
+	private void buildDerivationTree(NonTerminalSymbol parseTree, CompiledGrammar tables, int rule, int currentDepth,
+			int maxDepth) {
 		// Check if there's more than one production
 		int productionIndex = 0;
-		int noProductions = rule.getNoProductions();
+		int noProductions = tables.getNoProductions(rule);
 		if (noProductions > 1) {
 			int nextDepth = maxDepth - currentDepth - 1;
-			List<Integer> validProductions = validProductionIndexes(rule.getProductions(), nextDepth);
 
 			// Choose a production randomly
-			int chosenProduction = random.nextInt(validProductions.size());
-			productionIndex = validProductions.get(chosenProduction);
+			int chosenProduction = random.nextInt(tables.getNoValidProductions(rule, nextDepth));
+			productionIndex = tables.getValidProduction(rule, nextDepth, chosenProduction);
 		}
 
 		// Drop down the tree at this production
-		GrammarProduction p = rule.getProduction(productionIndex);
+		int production = tables.getProduction(rule, productionIndex);
 
-		List<GrammarNode> grammarNodes = p.getGrammarNodes();
-		for (GrammarNode node: grammarNodes) {
-			if (node instanceof GrammarRule) {
-				// Create the parse tree symbol
-				GrammarRule r = (GrammarRule) node;
-				NonTerminalSymbol nt = new NonTerminalSymbol(r);
-
-				// Build this symbol's subtree
-				buildDerivationTree(nt, r, currentDepth + 1, maxDepth);
-
-				parseTree.addChild(nt);
+		int noSymbols = tables.getNoSymbols(production);
+		for (int i = 0; i < noSymbols; i++) {
+			int symbol = tables.getSymbol(production, i);
+			if (CompiledGrammar.isLiteral(symbol)) {
+				parseTree.addChild(new TerminalSymbol(tables.getLiteral(symbol)));
 			} else {
-				// Must be a grammar literal
-				parseTree.addChild(new TerminalSymbol((GrammarLiteral) node));
-			}
-		}
-	}
-
-	/*
-	 * Returns a list of indexes for the valid productions in the list given. A valid production
-	 * is one which can be used within the specified maximum depth constraint.
-	 */
-	private List<Integer> validProductionIndexes(List<GrammarProduction> grammarProductions, int maxDepth) {
-		List<Integer> valid = new ArrayList<Integer>();
-
-		for (int i = 0; i < grammarProductions.size(); i++) {
-			GrammarProduction p = grammarProductions.get(i);
+				// Create the parse tree symbol and build its subtree
+				NonTerminalSymbol nt = new NonTerminalSymbol(tables.getRule(symbol));
+				buildDerivationTree(nt, tables, symbol, currentDepth + 1, maxDepth);
 
-			if (p.getMinDepth() <= maxDepth) {
-				valid.add(i);
+				parseTree.addChild(nt);
 			}
 		}
-
-		return valid;
 	}
 
 	/**
@@ -24,12 +24,8 @@ package org.epochx.cfg.stats;
 
 import java.util.Arrays;
 
-import org.epochx.Individual;
-import org.epochx.Population;
-import org.epochx.cfg.CFGIndividual;
 import org.epochx.event.GenerationEvent.EndGeneration;
 import org.epochx.event.stat.AbstractStat;
-import org.epochx.grammar.NonTerminalSymbol;
 
 /**
  * A stat that returns the depth of all parse trees in the population from
@@ -47,7 +43,7 @@ public class GenerationDepths extends AbstractStat<EndGeneration> {
 	 * its dependencies
 	 */
 	public GenerationDepths() {
-		super(NO_DEPENDENCIES);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -60,21 +56,7 @@ public class GenerationDepths extends AbstractStat<EndGeneration> {
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		Population population = event.getPopulation();
-		depths = new int[population.size()];
-		int index = 0;
-
-		for (Individual individual: population) {
-			if (individual instanceof CFGIndividual) {
-				NonTerminalSymbol parseTree = ((CFGIndividual) individual).getParseTree();
-				int depth = -1;
-				if (parseTree != null) {
-					depth = parseTree.getDepth();
-				}
-				
-				depths[index++] = depth;
-			}
-		}
+		depths = AbstractStat.get(GenerationTreeMetrics.class).getValues(GenerationTreeMetrics.DEPTH);
 	}
 	
 	/**
@@ -43,7 +43,7 @@ public class GenerationMinimumDepth extends AbstractStat<EndGeneration> {
 	 * dependencies
 	 */
 	public GenerationMinimumDepth() {
-		super(GenerationDepths.class);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -56,14 +56,7 @@ public class GenerationMinimumDepth extends AbstractStat<EndGeneration> {
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		int[] depths = AbstractStat.get(GenerationDepths.class).getDepths();
-		min = Integer.MAX_VALUE;
-
-		for (int depth: depths) {
-			if (depth < min) {
-				min = depth;
-			}
-		}
+		min = AbstractStat.get(GenerationTreeMetrics.class).getMinimum(GenerationTreeMetrics.DEPTH);
 	}
 	
 	/**
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.cfg.stats;
+
+import java.util.Arrays;
+
+import org.epochx.Individual;
+import org.epochx.Population;
+import org.epochx.event.GenerationEvent.EndGeneration;
+import org.epochx.event.stat.AbstractStat;
+import org.epochx.event.stat.OnlineStatistics;
+import org.epochx.cfg.CFGIndividual;
+import org.epochx.grammar.NonTerminalSymbol;
+
+/**
+ * A stat that collects the size metrics of all individuals in the population
+ * from the previous generation. Each parse tree is traversed exactly once per
+ * generation and the summary values (mean, standard deviation, minimum and
+ * maximum) are accumulated at the same time. The other depth stats of this
+ * package are views over this stat. All individuals in the population must be
+ * instances of <code>CFGIndividual</code>.
+ * 
+ * @since 2.0
+ */
+public class GenerationTreeMetrics extends AbstractStat<EndGeneration> {
+
+	/**
+	 * The index of the depth metric. Individuals without a parse tree have a
+	 * depth of <code>-1</code>.
+	 */
+	public static final int DEPTH = 0;
+
+	/**
+	 * The number of metrics.
+	 */
+	private static final int METRICS = 1;
+
+	// The running mean, variance and range of each metric over the population
+	private final OnlineStatistics statistics = new OnlineStatistics(METRICS);
+
+	// The value of each metric for each individual, indexed by metric
+	private int[][] values = new int[METRICS][0];
+
+	/**
+	 * Constructs a <code>GenerationTreeMetrics</code> stat.
+	 */
+	public GenerationTreeMetrics() {
+		super(true, NO_DEPENDENCIES);
+	}
+
+	/**
+	 * Triggers the generation of an updated value for this stat. Once this stat
+	 * has been registered, this method will be called on each
+	 * <code>EndGeneration</code> event.
+	 * 
+	 * @param event an object that encapsulates information about the event that
+	 *        occurred
+	 */
+	@Override
+	public void refresh(EndGeneration event) {
+		Population population = event.getPopulation();
+
+		values = new int[METRICS][population.size()];
+		statistics.reset();
+
+		int index = 0;
+
+		for (Individual individual: population) {
+			if (individual instanceof CFGIndividual) {
+				NonTerminalSymbol parseTree = ((CFGIndividual) individual).getParseTree();
+
+				record(DEPTH, index, (parseTree == null) ? -1 : parseTree.getDepth());
+
+				index++;
+			}
+		}
+	}
+
+	/*
+	 * Stores the value of a metric for the individual at the specified index.
+	 */
+	private void record(int metric, int index, int value) {
+		values[metric][index] = value;
+		statistics.add(metric, value);
+	}
+
+	/**
+	 * Returns an array of the values of the specified metric for each
+	 * individual in the population from the previous generation. The returned
+	 * array must not be modified.
+	 * 
+	 * @param metric the metric index.
+	 * @return an array of the values of the metric
+	 */
+	public int[] getValues(int metric) {
+		return values[metric];
+	}
+
+	/**
+	 * Returns the mean of the specified metric.
+	 * 
+	 * @param metric the metric index.
+	 * @return the mean of the metric
+	 */
+	public double getMean(int metric) {
+		return statistics.getMean(metric);
+	}
+
+	/**
+	 * Returns the standard deviation of the specified metric.
+	 * 
+	 * @param metric the metric index.
+	 * @return the standard deviation of the metric
+	 */
+	public double getStandardDeviation(int metric) {
+		return statistics.getStandardDeviation(metric);
+	}
+
+	/**
+	 * Returns the standard error of the mean of the specified metric.
+	 * 
+	 * @param metric the metric index.
+	 * @return the standard error of the mean of the metric
+	 */
+	public double getStandardError(int metric) {
+		return statistics.getStandardError(metric);
+	}
+
+	/**
+	 * Returns the minimum value of the specified metric, or
+	 * <code>Integer.MAX_VALUE</code> if there are no individuals.
+	 * 
+	 * @param metric the metric index.
+	 * @return the minimum value of the metric
+	 */
+	public int getMinimum(int metric) {
+		return (int) statistics.getMinimum(metric);
+	}
+
+	/**
+	 * Returns the maximum value of the specified metric, or <code>-1</code> if
+	 * there are no individuals.
+	 * 
+	 * @param metric the metric index.
+	 * @return the maximum value of the metric
+	 */
+	public int getMaximum(int metric) {
+		return (statistics.getCount(metric) == 0) ? -1 : (int) statistics.getMaximum(metric);
+	}
+
+	/**
+	 * Returns a string representation of the value of this stat
+	 * 
+	 * @return a <code>String</code> that represents the value of this stat
+	 */
+	@Override
+	public String toString() {
+		return Arrays.deepToString(values);
+	}
+}
@@ -24,9 +24,38 @@ package org.epochx.cfg;
 
 import junit.framework.TestCase;
 
+import org.epochx.grammar.*;
+
 public class CFGIndividualTest extends TestCase {
 
 	public void testEmpty() {
 
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Tests that individuals with equal parse trees have equal hash codes.
+	 */
+	public void testHashCode() {
+		GrammarRule rule = new Grammar("<expr> ::= x | y\n").getStartRule();
+		CFGIndividual individual1 = new CFGIndividual(parseTree(rule, 0));
+		CFGIndividual individual2 = new CFGIndividual(parseTree(rule, 0));
+
+		assertEquals("individuals with equal parse trees not equal", individual1, individual2);
+		assertEquals("equal individuals with different hash codes", individual1.hashCode(), individual2.hashCode());
+		assertEquals("clone with different hash code", individual1.hashCode(), individual1.clone().hashCode());
+
+		individual2 = new CFGIndividual(parseTree(rule, 1));
+		assertFalse("individuals with different parse trees equal", individual1.equals(individual2));
+	}
+
+	/*
+	 * Returns a parse tree of the rule with the terminal of the given
+	 * production.
+	 */
+	private NonTerminalSymbol parseTree(GrammarRule rule, int production) {
+		NonTerminalSymbol parseTree = new NonTerminalSymbol(rule);
+		parseTree.addChild(new TerminalSymbol((GrammarLiteral) rule.getProduction(production).getGrammarNode(0)));
+
+		return parseTree;
+	}
+}
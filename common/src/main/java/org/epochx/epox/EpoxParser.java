@@ -22,6 +22,8 @@
 package org.epochx.epox;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.epochx.epox.ant.AntMove;
 import org.epochx.epox.ant.AntSkip;
@@ -89,14 +91,38 @@ import org.epochx.interpret.MalformedProgramException;
  * is set to <code>true</code> then all the built-in Epox node types will be loaded
  * into the parser at construction. 
  * 
+ * <p>
+ * Program strings are tokenized in a single pass into a template, which lists
+ * the identifiers of the nodes in pre-order together with their arities. The
+ * most recently used templates are cached by source string (see 
+ * {@link #setCacheSize(int)}), so parsing a program that has been parsed before
+ * only involves creating its nodes. Since templates do not refer to any node, 
+ * the cache remains valid when nodes are declared or undeclared.
+ * 
+ * <p>
+ * Parsers are thread-safe. Nodes that are only valid for a single program, such
+ * as the variables of an interpreter, should be passed to 
+ * {@link #parse(String, Node...)} rather than declared, so that concurrent calls 
+ * do not interfere with each other.
+ * 
  * @see Node
  * 
  * @since 2.0
  */
 public class EpoxParser {
 
+	/**
+	 * The default maximum number of templates in the cache.
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 1024;
+
 	// The language that the parser recognises
-	private Map<String, Node> nodes;
+	private final ConcurrentMap<String, Node> nodes;
+
+	// The most recently used templates, guarded by itself
+	private final LinkedHashMap<String, Template> cache;
+
+	private volatile int cacheSize;
 
 	/**
 	 * Constructs an <code>EpoxParser</code> with no nodes declared
@@ -104,7 +130,9 @@ public class EpoxParser {
 	 * @param load whether to load the built-in Epox nodes or not
 	 */
 	public EpoxParser(boolean load) {
-		nodes = new HashMap<String, Node>();
+		nodes = new ConcurrentHashMap<String, Node>();
+		cache = new LinkedHashMap<String, Template>(16, 0.75f, true);
+		cacheSize = DEFAULT_CACHE_SIZE;
 		
 		if (load) {
 			load();			
@@ -127,49 +155,106 @@ public class EpoxParser {
 	 *         a valid Epox program.
 	 */
 	public Node parse(String source) throws MalformedProgramException {
+		return parse(source, new Node[0]);
+	}
+
+	/**
+	 * Parses an Epox program string as an executable <code>Node</code> tree,
+	 * where the given nodes are declared in addition to the nodes declared in
+	 * the parser. The additional nodes take precedence over the declared nodes
+	 * with the same identifier, and only apply to this call.
+	 * 
+	 * @param source the program string to be parsed as an Epox program.
+	 * @param declarations the nodes to declare for this program only.
+	 * @return a <code>Node</code> which is the root of a tree which is
+	 *         equivalent to the provided source string. A <code>null</code>
+	 *         value will be returned if the <code>source</code> parameter is
+	 *         <code>null</code>.
+	 * @throws MalformedProgramException if the given string does not represent
+	 *         a valid Epox program.
+	 */
+	public Node parse(String source, Node ... declarations) throws MalformedProgramException {
 		if (source == null) {
 			return null;
 		}
 
-		// Locate the first bracket (straight after function name)
-		int openingBracket = source.indexOf('(');
+		return instantiate(template(source), declarations);
+	}
 
-		String identifier = null;
-		List<String> args = null;
+	/*
+	 * Creates the node tree described by a template, resolving the identifiers
+	 * against the given declarations and then the declared nodes.
+	 */
+	Node instantiate(Template template, Node ... declarations) throws MalformedProgramException {
+		Map<String, Node> local = null;
+		if (declarations.length > 0) {
+			local = new HashMap<String, Node>();
+			for (Node node: declarations) {
+				local.put(node.getIdentifier(), node);
+			}
+		}
 
-		// If there is no bracket then it must be a terminal
-		if (openingBracket == -1) {
-			identifier = source;
-			args = new ArrayList<String>();
-		} else {
-			// Get the name of the function
-			identifier = source.substring(0, openingBracket).trim();
+		int[] position = new int[1];
 
-			// Locate the closing bracket
-			int closingBracket = source.lastIndexOf(')');
+		return build(template, position, local);
+	}
 
-			// Get the comma separated arguments - without brackets
-			String argumentStr = source.substring(openingBracket + 1, closingBracket);
+	/*
+	 * Returns the template of the source, from the cache if possible.
+	 */
+	private Template template(String source) throws MalformedProgramException {
+		Template template;
 
-			// Separate the arguments
-			args = splitArguments(argumentStr);
+		synchronized (cache) {
+			template = cache.get(source);
+		}
+
+		if (template == null) {
+			template = tokenize(source);
+
+			synchronized (cache) {
+				if (cacheSize > 0) {
+					cache.put(source, template);
+
+					Iterator<String> eldest = cache.keySet().iterator();
+					while (cache.size() > cacheSize) {
+						eldest.next();
+						eldest.remove();
+					}
+				}
+			}
 		}
 
-		// Construct the node
-		Node node = nodes.get(identifier);
+		return template;
+	}
+
+	/*
+	 * Creates the node at the current position of the template and its
+	 * children, advancing the position past the subtree.
+	 */
+	private Node build(Template template, int[] position, Map<String, Node> local)
+			throws MalformedProgramException {
+		int index = position[0]++;
+		String identifier = template.identifiers[index];
+		int arity = template.arities[index];
+
+		Node node = (local == null) ? null : local.get(identifier);
+		if (node == null) {
+			node = nodes.get(identifier);
+		}
 
 		// Check the arities match
 		if (node == null) {
 			throw new MalformedProgramException("unknown node type: " + identifier);
-		} else if (node.getArity() != args.size()) {
+		} else if (node.getArity() != arity) {
 			throw new MalformedProgramException("unexpected arity for node: " + identifier + "(expected: "
-					+ node.getArity() + ", found: " + args.size() + ")");
+					+ node.getArity() + ", found: " + arity + ")");
 		} else {
 			node = node.newInstance();
 			
-			// Recursively parse and set each child node
-			for (int i = 0; i < args.size(); i++) {
-				node.setChild(i, parse(args.get(i)));
+			// Recursively create and set each child node
+			for (int i = 0; i < arity; i++) {
+				node.setChild(i, build(template, position, local));
 			}
 
 			// Validate the node's input data-types
@@ -207,45 +292,149 @@ public class EpoxParser {
 		nodes.remove(node.getIdentifier());
 	}
 
+	/**
+	 * Returns the maximum number of templates kept in the cache.
+	 * 
+	 * @return the maximum number of cached templates
+	 */
+	public int getCacheSize() {
+		return cacheSize;
+	}
+
+	/**
+	 * Sets the maximum number of templates kept in the cache. A value of 
+	 * <code>0</code> disables the cache. The default size is 
+	 * {@link #DEFAULT_CACHE_SIZE}.
+	 * 
+	 * @param cacheSize the maximum number of cached templates
+	 */
+	public void setCacheSize(int cacheSize) {
+		synchronized (cache) {
+			this.cacheSize = cacheSize;
+
+			Iterator<String> eldest = cache.keySet().iterator();
+			while (cache.size() > cacheSize) {
+				eldest.next();
+				eldest.remove();
+			}
+		}
+	}
+
 	/*
-	 * Splits a string that represents zero or more arguments to a function,
-	 * separated by either commas or spaces, into the separate arguments. Each
-	 * argument may contain nested method calls, which themselves have multiple
-	 * arguments - this method splits just the top level of arguments so that
-	 * they can themselves be parsed individually.
+	 * Returns true if the character separates identifiers.
 	 */
-	private List<String> splitArguments(String argStr) {
-		int depth = 0;
+	static boolean isDelimiter(char c) {
+		return c == '(' || c == ')' || c == ',' || Character.isWhitespace(c);
+	}
 
-		List<String> args = new ArrayList<String>(5);
-		StringBuilder buffer = new StringBuilder();
+	/*
+	 * Splits a program string into a template, without using the cache.
+	 */
+	static Template tokenize(String source) throws MalformedProgramException {
+		return new Tokenizer(source).tokenize();
+	}
+
+	/*
+	 * The identifiers and arities of the nodes of a program in pre-order.
+	 */
+	static final class Template {
+
+		final String[] identifiers;
+
+		final int[] arities;
 
-		argStr = argStr.trim();
+		Template(String[] identifiers, int[] arities) {
+			this.identifiers = identifiers;
+			this.arities = arities;
+		}
+	}
+
+	/*
+	 * Splits a program string into a template in a single pass. Arguments are
+	 * separated by commas and/or white space.
+	 */
+	private static final class Tokenizer {
 
-		for (int i = 0; i < argStr.length(); i++) {
-			char c = argStr.charAt(i);
+		private final String source;
 
-			if (c == '(') {
-				depth++;
-			} else if (c == ')') {
-				depth--;
+		private final char[] chars;
+
+		private int position;
+
+		private final List<String> identifiers = new ArrayList<String>();
+
+		private int[] arities = new int[16];
+
+		private Tokenizer(String source) {
+			this.source = source;
+			this.chars = source.toCharArray();
+		}
+
+		private Template tokenize() throws MalformedProgramException {
+			expression();
+			skipWhitespace();
+
+			if (position < chars.length) {
+				throw error("unexpected character '" + chars[position] + "'");
+			}
+
+			String[] ids = identifiers.toArray(new String[identifiers.size()]);
+			return new Template(ids, Arrays.copyOf(arities, ids.length));
+		}
+
+		private void expression() throws MalformedProgramException {
+			skipWhitespace();
+
+			int start = position;
+			while (position < chars.length && !isDelimiter(chars[position])) {
+				position++;
+			}
+
+			if (position == start) {
+				throw error((position == chars.length) ? "missing node" : "unexpected character '"
+						+ chars[position] + "'");
 			}
-			if (((c == ' ') || (c == ',')) && (depth == 0)) {
-				args.add(buffer.toString());
-				buffer = new StringBuilder();
-				while (argStr.charAt(i + 1) == ' ') {
-					i++;
+
+			int index = identifiers.size();
+			identifiers.add(new String(chars, start, position - start));
+			if (index == arities.length) {
+				arities = Arrays.copyOf(arities, index * 2);
+			}
+
+			skipWhitespace();
+
+			if (position < chars.length && chars[position] == '(') {
+				position++;
+				skipWhitespace();
+
+				int arity = 0;
+				while (position == chars.length || chars[position] != ')') {
+					if (position == chars.length) {
+						throw error("missing closing bracket");
+					}
+					if (arity > 0 && chars[position] == ',') {
+						position++;
+					}
+					expression();
+					skipWhitespace();
+					arity++;
 				}
-			} else {
-				buffer.append(c);
+
+				// skip the closing bracket
+				position++;
+				arities[index] = arity;
 			}
 		}
 
-		if (buffer.length() > 0) {
-			args.add(buffer.toString());
+		private void skipWhitespace() {
+			while (position < chars.length && Character.isWhitespace(chars[position])) {
+				position++;
+			}
 		}
 
-		return args;
+		private MalformedProgramException error(String message) {
+			return new MalformedProgramException(message + " at position " + position + " in: " + source);
+		}
 	}
 	
 	/**
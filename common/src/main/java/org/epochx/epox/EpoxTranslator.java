@@ -0,0 +1,335 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.epox;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.epochx.epox.EpoxParser.Template;
+import org.epochx.grammar.*;
+import org.epochx.interpret.MalformedProgramException;
+
+/**
+ * Translates the parse trees of grammar based individuals, such as those of
+ * GE and CFG-GP, directly into Epox node trees. This avoids building the
+ * source string of the parse tree and tokenizing it again, which is what an
+ * <code>EpoxInterpreter</code> does.
+ * 
+ * <p>
+ * Each production of the grammar is compiled once into a template of Epox
+ * nodes, where the grammar rules of the production are holes to be filled
+ * with the translation of the corresponding child symbols. For example, the
+ * production <code>ADD( &lt;node&gt; , &lt;node&gt; )</code> is compiled into an
+ * <code>ADD</code> node with two holes. A production can be compiled if it
+ * forms a single Epox expression in which each grammar rule stands for a
+ * whole argument. Parse trees that use any other production, for instance one
+ * that builds an identifier from several rules, are translated through their
+ * source strings with the parser, so the result is always the same as parsing
+ * the string representation of the parse tree.
+ * 
+ * <p>
+ * The node types are resolved with an <code>EpoxParser</code>, so any node
+ * that should be recognised must be declared in the parser. Instances of this
+ * class are thread-safe.
+ * 
+ * @see EpoxParser
+ * 
+ * @since 2.0
+ */
+public class EpoxTranslator {
+
+	// Marks the identifiers that stand for grammar rules
+	private static final char HOLE = '\u0000';
+
+	// The template of productions that cannot be compiled
+	private static final Template UNSUPPORTED = new Template(new String[0], new int[0]);
+
+	// The parser used to resolve the node types
+	private final EpoxParser parser;
+
+	// The compiled productions, by identity
+	private final ConcurrentMap<GrammarProduction, Template> productions;
+
+	/**
+	 * Constructs an <code>EpoxTranslator</code> with a new <code>EpoxParser</code>
+	 * in which the built-in Epox node types are declared.
+	 */
+	public EpoxTranslator() {
+		this(new EpoxParser(true));
+	}
+
+	/**
+	 * Constructs an <code>EpoxTranslator</code> that resolves node types with
+	 * the given parser.
+	 * 
+	 * @param parser the Epox language parser
+	 */
+	public EpoxTranslator(EpoxParser parser) {
+		this.parser = parser;
+
+		productions = new ConcurrentHashMap<GrammarProduction, Template>();
+	}
+
+	/**
+	 * Translates a parse tree into an equivalent Epox node tree, where the
+	 * given nodes are declared in addition to the nodes declared in the parser
+	 * (see {@link EpoxParser#parse(String, Node...)}).
+	 * 
+	 * @param parseTree the parse tree to be translated
+	 * @param declarations the nodes to declare for this program only
+	 * @return the root of the node tree that is equivalent to the parse tree,
+	 *         or <code>null</code> if the parse tree is <code>null</code>
+	 * @throws MalformedProgramException if the parse tree does not represent a
+	 *         valid Epox program
+	 */
+	public Node translate(NonTerminalSymbol parseTree, Node ... declarations) throws MalformedProgramException {
+		if (parseTree == null) {
+			return null;
+		}
+
+		Buffer buffer = new Buffer();
+
+		if (emit(parseTree, buffer)) {
+			return parser.instantiate(buffer.toTemplate(), declarations);
+		} else {
+			return parser.parse(parseTree.toString(), declarations);
+		}
+	}
+
+	/**
+	 * Evaluates the program represented by a parse tree once for each set of
+	 * argument values, in the same way as an <code>EpoxInterpreter</code>. The
+	 * variables named in <code>argNames</code> are declared for this program
+	 * only and assigned the values of each set in turn.
+	 * 
+	 * @param parseTree the parse tree of the program to be evaluated
+	 * @param argNames the names of the variables
+	 * @param argValues the sets of values of the variables
+	 * @return the results of evaluating the program for each set of values
+	 * @throws MalformedProgramException if the parse tree is <code>null</code>
+	 *         or does not represent a valid Epox program
+	 */
+	public Object[] eval(NonTerminalSymbol parseTree, String[] argNames, Object[][] argValues)
+			throws MalformedProgramException {
+		if (parseTree == null) {
+			throw new MalformedProgramException("Individual has no parse tree");
+		} else if (argValues.length <= 0) {
+			throw new IllegalArgumentException("Empty argument values input");
+		}
+
+		VariableNode[] variables = new VariableNode[argNames.length];
+		for (int j = 0; j < argNames.length; j++) {
+			variables[j] = new VariableNode(new Variable(argNames[j], argValues[0][j]));
+		}
+
+		Node root = translate(parseTree, variables);
+		Object[] results = new Object[argValues.length];
+
+		for (int i = 0; i < argValues.length; i++) {
+			for (int j = 0; j < argNames.length; j++) {
+				variables[j].getVariable().setValue(argValues[i][j]);
+			}
+
+			results[i] = root.evaluate();
+		}
+
+		return results;
+	}
+
+	/**
+	 * Returns the parser used to resolve the node types.
+	 * 
+	 * @return the Epox parser
+	 */
+	public EpoxParser getParser() {
+		return parser;
+	}
+
+	/*
+	 * Appends the template of the symbol to the buffer. Returns false if any
+	 * production in the subtree cannot be compiled.
+	 */
+	private boolean emit(NonTerminalSymbol symbol, Buffer buffer) {
+		GrammarProduction production = production(symbol);
+		Template template = (production == null) ? UNSUPPORTED : compile(production);
+
+		if (template == UNSUPPORTED) {
+			return false;
+		}
+
+		for (int i = 0; i < template.identifiers.length; i++) {
+			if (template.identifiers[i] == null) {
+				// a hole, the arity is the index of the child symbol
+				if (!emit((NonTerminalSymbol) symbol.getChild(template.arities[i]), buffer)) {
+					return false;
+				}
+			} else {
+				buffer.add(template.identifiers[i], template.arities[i]);
+			}
+		}
+
+		return true;
+	}
+
+	/*
+	 * Returns the production of the symbol's rule that its children were
+	 * derived from, or null if none matches.
+	 */
+	private GrammarProduction production(NonTerminalSymbol symbol) {
+		List<Symbol> children = symbol.getChildren();
+
+		for (GrammarProduction production: symbol.getGrammarRule().getProductions()) {
+			if (matches(production, children)) {
+				return production;
+			}
+		}
+
+		return null;
+	}
+
+	private boolean matches(GrammarProduction production, List<Symbol> children) {
+		if (production.getNoGrammarNodes() != children.size()) {
+			return false;
+		}
+
+		for (int i = 0; i < children.size(); i++) {
+			GrammarNode node = production.getGrammarNode(i);
+			Symbol child = children.get(i);
+
+			if (node instanceof GrammarRule) {
+				if (!(child instanceof NonTerminalSymbol) || ((NonTerminalSymbol) child).getGrammarRule() != node) {
+					return false;
+				}
+			} else if (!(child instanceof TerminalSymbol) || !node.toString().equals(child.toString())) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/*
+	 * Returns the template of the production, compiling it on first use. In
+	 * the template, holes have a null identifier and the index of the grammar
+	 * rule as arity.
+	 */
+	private Template compile(GrammarProduction production) {
+		Template template = productions.get(production);
+
+		if (template == null) {
+			template = UNSUPPORTED;
+
+			StringBuilder source = new StringBuilder();
+			boolean separated = true;
+			boolean afterHole = false;
+
+			for (int i = 0; i < production.getNoGrammarNodes() && separated; i++) {
+				GrammarNode node = production.getGrammarNode(i);
+
+				if (node instanceof GrammarRule) {
+					// a rule must be a whole argument, so it must be delimited
+					int length = source.length();
+					separated = !afterHole && (length == 0 || EpoxParser.isDelimiter(source.charAt(length - 1)));
+					source.append(HOLE).append(i);
+					afterHole = true;
+				} else {
+					String text = node.toString();
+					if (text.length() > 0) {
+						separated = !afterHole || EpoxParser.isDelimiter(text.charAt(0));
+						source.append(text);
+						afterHole = false;
+					}
+				}
+			}
+
+			if (separated) {
+				try {
+					template = holes(EpoxParser.tokenize(source.toString()));
+				} catch (MalformedProgramException e) {
+					// not a single expression
+				}
+			}
+
+			productions.put(production, template);
+		}
+
+		return template;
+	}
+
+	/*
+	 * Replaces the hole identifiers of a template with null identifiers and
+	 * the index of the rule as arity.
+	 */
+	private Template holes(Template template) {
+		String[] identifiers = template.identifiers.clone();
+		int[] arities = template.arities.clone();
+
+		for (int i = 0; i < identifiers.length; i++) {
+			if (identifiers[i].charAt(0) == HOLE) {
+				if (arities[i] != 0) {
+					// a rule with arguments
+					return UNSUPPORTED;
+				}
+
+				try {
+					arities[i] = Integer.parseInt(identifiers[i].substring(1));
+				} catch (NumberFormatException e) {
+					// a rule followed by other characters
+					return UNSUPPORTED;
+				}
+				identifiers[i] = null;
+			}
+		}
+
+		return new Template(identifiers, arities);
+	}
+
+	/*
+	 * A growable template.
+	 */
+	private static final class Buffer {
+
+		private String[] identifiers = new String[32];
+
+		private int[] arities = new int[32];
+
+		private int size;
+
+		private void add(String identifier, int arity) {
+			if (size == identifiers.length) {
+				identifiers = Arrays.copyOf(identifiers, size * 2);
+				arities = Arrays.copyOf(arities, size * 2);
+			}
+
+			identifiers[size] = identifier;
+			arities[size] = arity;
+			size++;
+		}
+
+		private Template toTemplate() {
+			return new Template(Arrays.copyOf(identifiers, size), Arrays.copyOf(arities, size));
+		}
+	}
+}
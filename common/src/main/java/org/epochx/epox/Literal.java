@@ -100,6 +100,8 @@ public class Literal extends Node {
 	 */
 	protected void setValue(Object value) {
 		this.value = value;
+
+		invalidate();
 	}
 
 	/**
@@ -145,6 +147,17 @@ public class Literal extends Node {
 		return ObjectUtils.equals(objVal, thisVal);
 	}
 
+	/**
+	 * Returns the hash code of the literal value, so that literals are hashed
+	 * without converting their values to strings.
+	 * 
+	 * @return the hash of this literal
+	 */
+	@Override
+	protected int nodeHash() {
+		return ObjectUtils.hashCode(value);
+	}
+
 	/**
 	 * Creates a new <code>Literal</code> instance which is a copy of this instance.
 	 * The clone will contain a value which is a reference to the same object as
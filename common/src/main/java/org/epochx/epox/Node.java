@@ -22,6 +22,9 @@
 package org.epochx.epox;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang.*;
 import org.epochx.tools.DataTypeUtils;
@@ -42,6 +45,22 @@ import org.epochx.tools.DataTypeUtils;
  * methods are also heavily used, so implementations should ensure this classes 
  * implementations are sufficient or override as necessary.
  * 
+ * <p>
+ * The length, depth, number of terminals, data-type and hash code of a node
+ * tree are cached once computed, and are discarded along the chain of parents
+ * whenever a child node is replaced. A node must therefore only be the child
+ * of one node at a time; subtrees that are shared between trees should be
+ * cloned.
+ * 
+ * <p>
+ * The hash code is structural (Merkle-style): it combines the hash of the
+ * node itself, given by {@link #nodeHash()}, with the cached hash codes of the
+ * children. Identifiers are interned as integer ids, so neither hashing nor
+ * {@link #equals(Object)} compare identifier strings, and trees with different
+ * hash codes are found to be different without being traversed. Subclasses
+ * that override <code>equals</code> must override <code>nodeHash</code>
+ * consistently.
+ * 
  * @since 2.0
  */
 public abstract class Node implements Cloneable {
@@ -52,6 +71,24 @@ public abstract class Node implements Cloneable {
 	
 	private Node parent;
 
+	/*
+	 * Sentinel for a data-type that has not been computed yet, since dataType()
+	 * returns null for invalid data-types
+	 */
+	private static final Class<?> UNKNOWN = Unknown.class;
+
+	// Cached properties of the node tree rooted at this node, see invalidate()
+	private int length = -1;
+	private int depth = -1;
+	private int terminals = -1;
+	private int hash;
+	private Class<?> type = UNKNOWN;
+	private int identifier;
+
+	// The interned identifiers, see identifierId()
+	private static final ConcurrentMap<String, Integer> IDENTIFIERS = new ConcurrentHashMap<String, Integer>();
+	private static final AtomicInteger NEXT_IDENTIFIER = new AtomicInteger();
+
 	/**
 	 * Constructs a new <code>Node</code> with the given child nodes. The arity of 
 	 * the node will be the number of child nodes provided. The child nodes may 
@@ -120,6 +157,9 @@ public abstract class Node implements Cloneable {
 		for (Node child: children) {
 			setChild(index++, child);
 		}
+
+		// The arity may have changed, even without children
+		invalidate();
 	}
 
 	/**
@@ -299,7 +339,7 @@ public abstract class Node implements Cloneable {
 		}
 
 		int result = -1;
-		for (Node child: children) {
+		for (Node child: current.children) {
 			int noNodes = child.length();
 			int noTerminals = child.countTerminals();
 
@@ -369,6 +409,33 @@ public abstract class Node implements Cloneable {
 		if (child != null) {
 			child.parent = this;
 		}
+
+		invalidate();
+	}
+
+	/**
+	 * Discards the cached properties of this node tree and of all the node
+	 * trees that contain it, by following the chain of parents up to the root.
+	 * This method is called automatically when a child node is replaced;
+	 * subclasses must call it whenever they modify a state that their
+	 * identifier or data-type depend on, such as the value of a literal.
+	 */
+	protected void invalidate() {
+		for (Node node = this; node != null; node = node.parent) {
+			node.clearCache();
+		}
+	}
+
+	/*
+	 * Discards the cached properties of this node only
+	 */
+	private void clearCache() {
+		length = -1;
+		depth = -1;
+		terminals = -1;
+		hash = 0;
+		type = UNKNOWN;
+		identifier = 0;
 	}
 
 	/**
@@ -388,15 +455,18 @@ public abstract class Node implements Cloneable {
 	 * @return the number of terminal nodes in this node tree
 	 */
 	public int countTerminals() {
-		if (isTerminal()) {
-			return 1;
-		} else {
-			int result = 0;
-			for (int i = 0; i < getArity(); i++) {
-				result += getChild(i).countTerminals();
+		if (terminals == -1) {
+			if (isTerminal()) {
+				terminals = 1;
+			} else {
+				int result = 0;
+				for (int i = 0; i < getArity(); i++) {
+					result += getChild(i).countTerminals();
+				}
+				terminals = result;
 			}
-			return result;
 		}
+		return terminals;
 	}
 
 	/**
@@ -439,15 +509,7 @@ public abstract class Node implements Cloneable {
 	 * @return the number of non-terminal nodes in this node tree
 	 */
 	public int countNonTerminals() {
-		if (isTerminal()) {
-			return 0;
-		} else {
-			int result = 1;
-			for (int i = 0; i < getArity(); i++) {
-				result += getChild(i).countNonTerminals();
-			}
-			return result;
-		}
+		return length() - countTerminals();
 	}
 
 	/**
@@ -456,20 +518,26 @@ public abstract class Node implements Cloneable {
 	 * @return the number of unique non-terminal nodes in this node tree
 	 */
 	public int countDistinctNonTerminals() {
-		List<Node> nonTerminals = listNonTerminals();
-
-		// Remove duplicates. Cannot use equals because that compares children
-		List<String> identifiers = new ArrayList<String>();
-		for (Node f: nonTerminals) {
-			String name = f.getIdentifier();
-			if (!identifiers.contains(name)) {
-				identifiers.add(name);
-			}
-		}
+		// Cannot use equals because that compares children
+		Set<Integer> identifiers = new HashSet<Integer>();
+		addNonTerminalIdentifiers(identifiers);
 
 		return identifiers.size();
 	}
 
+	/*
+	 * Adds the identifier ids of the non-terminals of this node tree to the set
+	 */
+	private void addNonTerminalIdentifiers(Set<Integer> identifiers) {
+		if (isNonTerminal()) {
+			identifiers.add(identifierId());
+
+			for (Node child: children) {
+				child.addNonTerminalIdentifiers(identifiers);
+			}
+		}
+	}
+
 	/**
 	 * Returns a list of all the non-terminal nodes in this node tree
 	 * 
@@ -497,24 +565,12 @@ public abstract class Node implements Cloneable {
 	 * @return the depth of the deepest node in the node tree
 	 */
 	public int depth() {
-		return depth(this, 0, 0);
-	}
-
-	/*
-	 * A private helper function for depth() which recurses down the node
-	 * tree to determine the deepest node's depth
-	 */
-	private int depth(Node rootNode, int currentDepth, int depth) {
-		if (currentDepth > depth) {
-			depth = currentDepth;
-		}
-
-		int arity = rootNode.getArity();
-		if (arity > 0) {
-			for (int i = 0; i < arity; i++) {
-				Node childNode = rootNode.getChild(i);
-				depth = depth(childNode, (currentDepth + 1), depth);
+		if (depth == -1) {
+			int result = 0;
+			for (Node child: children) {
+				result = Math.max(result, child.depth() + 1);
 			}
+			depth = result;
 		}
 		return depth;
 	}
@@ -525,22 +581,12 @@ public abstract class Node implements Cloneable {
 	 * @return the number of nodes in the node tree
 	 */
 	public int length() {
-		return length(this, 0);
-	}
-
-	/*
-	 * A private recursive helper function for length() which traverses the
-	 * the node tree counting the number of nodes
-	 */
-	private int length(Node rootNode, int length) {
-		length++;
-
-		int arity = rootNode.getArity();
-		if (arity > 0) {
-			for (int i = 0; i < arity; i++) {
-				Node childNode = rootNode.getChild(i);
-				length = length(childNode, length);
+		if (length == -1) {
+			int result = 1;
+			for (Node child: children) {
+				result += child.length();
 			}
+			length = result;
 		}
 		return length;
 	}
@@ -554,6 +600,45 @@ public abstract class Node implements Cloneable {
 	 */
 	public abstract String getIdentifier();
 
+	/**
+	 * Returns the interned id of the identifier of this node. Nodes have the
+	 * same id if and only if their identifiers are equal. The id is cached, so
+	 * the identifier must not change unless the cached properties of the node
+	 * are discarded (see {@link #invalidate()}).
+	 * 
+	 * @return the id of the identifier of this node
+	 */
+	protected final int identifierId() {
+		if (identifier == 0) {
+			String name = getIdentifier();
+			Integer id = IDENTIFIERS.get(name);
+
+			if (id == null) {
+				// ids start at 1, since 0 means not computed
+				Integer candidate = NEXT_IDENTIFIER.incrementAndGet();
+				id = IDENTIFIERS.putIfAbsent(name, candidate);
+				if (id == null) {
+					id = candidate;
+				}
+			}
+			identifier = id;
+		}
+		return identifier;
+	}
+
+	/**
+	 * Returns the hash of this node, ignoring its children. It is combined with
+	 * the hash codes of the children to obtain the hash code of the node tree.
+	 * The default implementation returns the id of the identifier; nodes that
+	 * override <code>equals</code> must override this method so that equal
+	 * nodes have equal hashes.
+	 * 
+	 * @return the hash of this node
+	 */
+	protected int nodeHash() {
+		return identifierId();
+	}
+
 	/**
 	 * Returns the data-type of this node based on the child nodes that are
 	 * currently set. If any of this node's child nodes are currently
@@ -564,16 +649,20 @@ public abstract class Node implements Cloneable {
 	 *         children remain unset or are of an invalid data-type
 	 */
 	public final Class<?> dataType() {
-		Class<?>[] argTypes = new Class<?>[getArity()];
-		for (int i = 0; i < getArity(); i++) {
-			Node child = getChild(i);
-			if (child != null) {
-				argTypes[i] = child.dataType();
-			} else {
-				return null;
+		if (type == UNKNOWN) {
+			Class<?>[] argTypes = new Class<?>[getArity()];
+			for (int i = 0; i < getArity(); i++) {
+				Node child = getChild(i);
+				if (child != null) {
+					argTypes[i] = child.dataType();
+				} else {
+					// Not cached, the child will be set with setChild
+					return null;
+				}
 			}
+			type = dataType(argTypes);
 		}
-		return dataType(argTypes);
+		return type;
 	}
 
 	/**
@@ -625,13 +714,15 @@ public abstract class Node implements Cloneable {
 	 */
 	@Override
 	public int hashCode() {
-		int result = getIdentifier().hashCode();
-		for (final Node child: children) {
-			if (child != null) {
-				result = 37 * result + child.hashCode();
+		// A hash of zero is recomputed on each call, as in String
+		if (hash == 0) {
+			int result = nodeHash() * 0x9E3779B9;
+			for (final Node child: children) {
+				result = 37 * result + ((child == null) ? 0 : child.hashCode());
 			}
+			hash = result ^ (result >>> 16);
 		}
-		return result;
+		return hash;
 	}
 
 	/**
@@ -652,6 +743,7 @@ public abstract class Node implements Cloneable {
 													// this line.
 				if (clone.children[i] != null) {
 					clone.children[i] = clone.children[i].clone();
+					clone.children[i].parent = clone;
 				}
 			}
 
@@ -679,6 +771,8 @@ public abstract class Node implements Cloneable {
 		try {
 			Node n = (Node) super.clone();
 			n.children = new Node[children.length];
+			n.parent = null;
+			n.clearCache();
 			return n;
 		} catch (final CloneNotSupportedException e) {
 			assert false;
@@ -691,7 +785,8 @@ public abstract class Node implements Cloneable {
 	 * Compares an this node to another object for equality. Two nodes may be
 	 * considered equal if they have equal arity, equal identifiers, and their
 	 * children are also equal (and in the same order). Some nodes may wish to
-	 * enforce a stricter contract.
+	 * enforce a stricter contract. Nodes with different (cached) hash codes are
+	 * not equal, so the children are only compared when the hash codes match.
 	 * 
 	 * @param obj {@inheritDoc}
 	 * @return {@inheritDoc}
@@ -700,12 +795,16 @@ public abstract class Node implements Cloneable {
 	public boolean equals(Object obj) {
 		boolean equal = true;
 
-		if (obj instanceof Node) {
+		if (obj == this) {
+			equal = true;
+		} else if (obj instanceof Node) {
 			Node n = (Node) obj;
 
 			if (n.getArity() != getArity()) {
 				equal = false;
-			} else if (!getIdentifier().equals(n.getIdentifier())) {
+			} else if (n.hashCode() != hashCode()) {
+				equal = false;
+			} else if (identifierId() != n.identifierId()) {
 				equal = false;
 			} else {
 				for (int i = 0; (i < n.getArity()) && equal; i++) {
@@ -755,4 +854,9 @@ public abstract class Node implements Cloneable {
 		return builder.toString();
 	}
 
+	/*
+	 * The class of the sentinel for data-types that have not been computed
+	 */
+	private static final class Unknown {
+	}
 }
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.epox;
+
+import org.epochx.epox.bool.*;
+import org.epochx.epox.lang.If;
+import org.epochx.epox.math.*;
+
+/**
+ * Simplifies node trees by removing code that does not affect their result.
+ * The following transformations are applied bottom-up:
+ * 
+ * <ul>
+ * <li>constant folding: a node whose arguments are all literals (including
+ * ERCs) is replaced by a literal with its value;</li>
+ * <li>identity rules, such as <code>ADD(x, 0)</code>, <code>MUL(1, x)</code>,
+ * <code>AND(x, true)</code>, <code>OR(x, x)</code> or
+ * <code>NOT(NOT(x))</code>, which are replaced by <code>x</code>;</li>
+ * <li>annihilator rules, such as <code>MUL(x, 0)</code>,
+ * <code>SUB(x, x)</code>, <code>AND(x, false)</code> or
+ * <code>XOR(x, x)</code>, which are replaced by a literal;</li>
+ * <li>dead-branch elimination: <code>IF(true, a, b)</code> is replaced by
+ * <code>a</code>, <code>IF(false, a, b)</code> by <code>b</code> and
+ * <code>IF(c, a, a)</code> by <code>a</code>.</li>
+ * </ul>
+ * 
+ * <p>
+ * Only subtrees composed of nodes without side-effects are simplified (see
+ * {@link #isPure(Node)}) and a node is only replaced by a node of the same
+ * data-type. The algebraic rules assume finite numeric values: for example,
+ * <code>SUB(x, x)</code> is replaced by <code>0</code>, although it evaluates
+ * to <code>NaN</code> when <code>x</code> is infinite.
+ * 
+ * @since 2.0
+ */
+public class Simplifier {
+
+	/**
+	 * Returns a simplified copy of the node tree. The given node tree is not
+	 * modified.
+	 * 
+	 * @param root the root node of the node tree to be simplified
+	 * @return the root node of the simplified node tree
+	 */
+	public Node simplify(Node root) {
+		return simplify(root, new boolean[1]);
+	}
+
+	/*
+	 * Returns a simplified copy of the node tree and stores whether it is
+	 * free of side-effects in pure[0]
+	 */
+	private Node simplify(Node node, boolean[] pure) {
+		int arity = node.getArity();
+
+		if (arity == 0) {
+			pure[0] = isPure(node);
+			return node.clone();
+		}
+
+		Node copy = node.newInstance();
+		boolean pureTree = isPure(node);
+
+		for (int i = 0; i < arity; i++) {
+			copy.setChild(i, simplify(node.getChild(i), pure));
+			pureTree &= pure[0];
+		}
+
+		pure[0] = pureTree;
+
+		if (pureTree) {
+			Node simplified = rewrite(copy);
+
+			if (simplified != copy && simplified.dataType() == copy.dataType()) {
+				return simplified;
+			}
+		}
+
+		return copy;
+	}
+
+	/**
+	 * Returns a simpler node tree that is equivalent to the given one, or the
+	 * given node if no simplification applies. This method is only called for
+	 * node trees without side-effects whose subtrees have already been
+	 * simplified; the result is discarded if its data-type is not the same.
+	 * Subclasses may override this method to add rules for other node types.
+	 * 
+	 * @param node the root node of the node tree
+	 * @return the simplified node tree, or <code>node</code>
+	 */
+	protected Node rewrite(Node node) {
+		if (isConstant(node)) {
+			Object value = node.evaluate();
+			return (value == null) ? node : new Literal(value);
+		}
+
+		Node a = node.getChild(0);
+		Node b = (node.getArity() > 1) ? node.getChild(1) : null;
+
+		if (node instanceof Add) {
+			if (isNumber(b, 0)) {
+				return a;
+			} else if (isNumber(a, 0)) {
+				return b;
+			}
+		} else if (node instanceof Subtract) {
+			if (isNumber(b, 0)) {
+				return a;
+			} else if (a.equals(b)) {
+				return number(node, 0);
+			}
+		} else if (node instanceof Multiply) {
+			if (isNumber(b, 1)) {
+				return a;
+			} else if (isNumber(a, 1)) {
+				return b;
+			} else if (isNumber(a, 0) || isNumber(b, 0)) {
+				return number(node, 0);
+			}
+		} else if (node instanceof DivisionProtected) {
+			if (isNumber(b, 1)) {
+				return a;
+			}
+		} else if (node instanceof And) {
+			if (isBoolean(b, true) || a.equals(b)) {
+				return a;
+			} else if (isBoolean(a, true)) {
+				return b;
+			} else if (isBoolean(a, false) || isBoolean(b, false)) {
+				return new Literal(Boolean.FALSE);
+			}
+		} else if (node instanceof Or) {
+			if (isBoolean(b, false) || a.equals(b)) {
+				return a;
+			} else if (isBoolean(a, false)) {
+				return b;
+			} else if (isBoolean(a, true) || isBoolean(b, true)) {
+				return new Literal(Boolean.TRUE);
+			}
+		} else if (node instanceof Xor) {
+			if (isBoolean(b, false)) {
+				return a;
+			} else if (isBoolean(a, false)) {
+				return b;
+			} else if (a.equals(b)) {
+				return new Literal(Boolean.FALSE);
+			}
+		} else if (node instanceof Not) {
+			if (a instanceof Not) {
+				return a.getChild(0);
+			}
+		} else if (node instanceof If) {
+			Node c = node.getChild(2);
+
+			if (isBoolean(a, true) || b.equals(c)) {
+				return b;
+			} else if (isBoolean(a, false)) {
+				return c;
+			}
+		}
+
+		return node;
+	}
+
+	/**
+	 * Returns <code>true</code> if the node has no side-effects, so that it may
+	 * be evaluated fewer times or removed without changing the result of the
+	 * program. The default implementation returns <code>true</code> for
+	 * literals, variables, the <code>If</code> node and the nodes of the
+	 * <code>math</code>, <code>bool</code> and <code>trig</code> packages.
+	 * 
+	 * @param node the node to be checked
+	 * @return <code>true</code> if the node has no side-effects;
+	 *         <code>false</code> otherwise
+	 */
+	protected boolean isPure(Node node) {
+		if (node instanceof Literal || node instanceof VariableNode || node instanceof If) {
+			return true;
+		}
+
+		String name = node.getClass().getName();
+
+		return name.startsWith("org.epochx.epox.math.") || name.startsWith("org.epochx.epox.bool.")
+				|| name.startsWith("org.epochx.epox.trig.");
+	}
+
+	/*
+	 * Returns true if all the arguments of the node are literals
+	 */
+	private boolean isConstant(Node node) {
+		for (int i = 0; i < node.getArity(); i++) {
+			if (!(node.getChild(i) instanceof Literal)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/*
+	 * Returns true if the node is a numeric literal with the specified value
+	 */
+	private boolean isNumber(Node node, int value) {
+		if (node instanceof Literal) {
+			Object literal = ((Literal) node).getValue();
+			return (literal instanceof Number) && (((Number) literal).doubleValue() == value);
+		}
+
+		return false;
+	}
+
+	/*
+	 * Returns true if the node is a boolean literal with the specified value
+	 */
+	private boolean isBoolean(Node node, boolean value) {
+		return (node instanceof Literal) && Boolean.valueOf(value).equals(((Literal) node).getValue());
+	}
+
+	/*
+	 * Returns a literal with the value and the data-type of the node, or the
+	 * node itself if its data-type is not a known number type
+	 */
+	private Node number(Node node, int value) {
+		Class<?> type = node.dataType();
+
+		if (type == Double.class) {
+			return new Literal(Double.valueOf(value));
+		} else if (type == Float.class) {
+			return new Literal(Float.valueOf(value));
+		} else if (type == Long.class) {
+			return new Literal(Long.valueOf(value));
+		} else if (type == Integer.class) {
+			return new Literal(Integer.valueOf(value));
+		}
+
+		return node;
+	}
+}
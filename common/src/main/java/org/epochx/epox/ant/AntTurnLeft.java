@@ -23,6 +23,7 @@ package org.epochx.epox.ant;
 
 import org.epochx.epox.Node;
 import org.epochx.tools.ant.Ant;
+import org.epochx.tools.ant.AntContext;
 
 /**
  * This class defines a function which causes an <code>Ant</code> instance to turn
@@ -41,8 +42,9 @@ import org.epochx.tools.ant.Ant;
  */
 public class AntTurnLeft extends Node {
 
-	// This may remain null, depending on the constructor used.
+	// These may remain null, depending on the constructor used.
 	private Ant ant;
+	private AntContext context;
 
 	/**
 	 * Constructs an <code>AntTurnLeftFunction</code> with one <code>null</code> child
@@ -82,6 +84,25 @@ public class AntTurnLeft extends Node {
 		this.ant = ant;
 	}
 
+	/**
+	 * Constructs an <code>AntTurnLeftFunction</code> with no child nodes, that operates
+	 * on the ant bound to the given context when it is evaluated. This makes
+	 * the function a terminal node with arity 0, which can be evaluated
+	 * concurrently in several threads with a different ant bound in each.
+	 * 
+	 * @param context the context that provides the ant. An exception will be
+	 *        thrown if this argument is <code>null</code>.
+	 */
+	public AntTurnLeft(AntContext context) {
+		super();
+
+		if (context == null) {
+			throw new IllegalArgumentException("context must not be null");
+		}
+
+		this.context = context;
+	}
+
 	/**
 	 * Evaluates this function. The ant is made to turn left from its current
 	 * orientation in its landscape. The return type of this
@@ -96,6 +117,8 @@ public class AntTurnLeft extends Node {
 		Ant evalAnt = ant;
 		if (getArity() > 0) {
 			evalAnt = (Ant) getChild(0).evaluate();
+		} else if (context != null) {
+			evalAnt = context.getAnt();
 		}
 
 		evalAnt.turnLeft();
@@ -23,6 +23,7 @@ package org.epochx.epox.ant;
 
 import org.epochx.epox.Node;
 import org.epochx.tools.ant.Ant;
+import org.epochx.tools.ant.AntContext;
 
 /**
  * This class defines a function which conditionally evaluates one of two
@@ -36,8 +37,9 @@ import org.epochx.tools.ant.Ant;
  */
 public class IfFoodAhead extends Node {
 
-	// This may remain null, depending on the constructor used.
+	// These may remain null, depending on the constructor used.
 	private Ant ant;
+	private AntContext context;
 
 	/**
 	 * Constructs an <code>IfFoodAheadFunction</code> with three <code>null</code>
@@ -95,6 +97,40 @@ public class IfFoodAhead extends Node {
 		this(ant, null, null);
 	}
 
+	/**
+	 * Constructs an <code>IfFoodAheadFunction</code> with two child nodes that
+	 * checks for food in front of the ant bound to the given context when it
+	 * is evaluated. This makes the function have arity of two, and it can be
+	 * evaluated concurrently in several threads with a different ant bound in
+	 * each.
+	 * 
+	 * @param context the context that provides the ant. An exception will be
+	 *        thrown if this argument is <code>null</code>.
+	 * @param child1 the first conditionally evaluated child node
+	 * @param child2 the second conditionally evaluated child node
+	 */
+	public IfFoodAhead(AntContext context, Node child1, Node child2) {
+		super(child1, child2);
+
+		if (context == null) {
+			throw new IllegalArgumentException("context must not be null");
+		}
+
+		this.context = context;
+	}
+
+	/**
+	 * Constructs an <code>IfFoodAheadFunction</code> with two <code>null</code> child
+	 * nodes, that checks for food in front of the ant bound to the given
+	 * context when it is evaluated.
+	 * 
+	 * @param context the context that provides the ant. An exception will be
+	 *        thrown if this argument is <code>null</code>.
+	 */
+	public IfFoodAhead(AntContext context) {
+		this(context, null, null);
+	}
+
 	/**
 	 * Evaluates this function. The ant is checked for whether food is in the
 	 * position ahead. If food is in the position directly in front of the ant
@@ -113,7 +149,7 @@ public class IfFoodAhead extends Node {
 		Node child2;
 
 		if (getArity() == 2) {
-			evalAnt = ant;
+			evalAnt = (context == null) ? ant : context.getAnt();
 			child1 = getChild(0);
 			child2 = getChild(1);
 		} else {
@@ -21,7 +21,7 @@
  */
 package org.epochx.fitness;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.epochx.AbstractFitnessFunction;
@@ -31,15 +31,26 @@ import org.epochx.Individual;
 /**
  * A fitness function which caches fitness scores and delegates fitness calculations to a
  * delegate fitness function. For the caching to work correctly the fitness cases must not 
- * be changed, or the cache must be cleared when they are changed. Caching is based on 
- * hash code so it is important that Individuals have a suitable hashCode implementation.
+ * be changed, or the cache must be cleared when they are changed. Individuals are looked 
+ * up with their <code>hashCode</code> and <code>equals</code> methods, so it is important 
+ * that they are consistent and inexpensive; the program trees of the Epox language cache 
+ * their structural hash codes for this purpose.
+ * 
+ * The cache holds a copy of each individual it has a fitness score for, so its size is 
+ * bounded: once it is full, the score of the individual that was least recently looked 
+ * up is discarded for each new score.
  * 
  * @since 2.0
  */
 public class CachedFitnessFunction extends AbstractFitnessFunction {
 
-	// The cache of fitness scores
-	private Map<Object, Fitness> cache;
+	/**
+	 * The default maximum number of fitness scores in the cache
+	 */
+	public static final int DEFAULT_CAPACITY = 10000;
+
+	// The cache of fitness scores, in order of last access
+	private Map<Individual, Fitness> cache;
 	
 	// The fitness function to delegate to when not in cache
 	private AbstractFitnessFunction delegate;
@@ -52,8 +63,30 @@ public class CachedFitnessFunction extends AbstractFitnessFunction {
 	 * @param delegate the fitness function the fitness calculations should be delegated to
 	 */
 	public CachedFitnessFunction(AbstractFitnessFunction delegate) {
+		this(delegate, DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Constructs a <code>CachedFitnessFunction</code> fitness function with a cache of the
+	 * given capacity. Fitness calculations are performed by the given delegate, unless the 
+	 * individual's fitness has been cached.
+	 * 
+	 * @param delegate the fitness function the fitness calculations should be delegated to
+	 * @param capacity the maximum number of fitness scores in the cache
+	 */
+	public CachedFitnessFunction(AbstractFitnessFunction delegate, final int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be at least 1");
+		}
+		
 		this.delegate = delegate;
-		cache = new HashMap<Object, Fitness>();
+		cache = new LinkedHashMap<Individual, Fitness>(16, 0.75f, true) {
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Individual, Fitness> eldest) {
+				return size() > capacity;
+			}
+		};
 	}
 	
 	/**
@@ -62,22 +95,21 @@ public class CachedFitnessFunction extends AbstractFitnessFunction {
 	 * Otherwise the fitness is calculated using the delegate fitness function and then 
 	 * cached for future evaluations.
 	 * 
-	 * The caching of individuals is based on hash codes. If two individuals return the 
-	 * same hash code then its assumed they have equal fitness scores.
+	 * Individuals that are equal according to their <code>equals</code> methods are 
+	 * assumed to have equal fitness scores. A copy of the individual is stored in the 
+	 * cache, so that later changes to the individual do not affect the cache.
 	 *  
 	 * @param individual the program to evaluate
 	 * @return the fitness of the given individual
 	 */
 	@Override
 	public Fitness evaluate(Individual individual) {
-		Object key = individual.hashCode();
-		
 		//TODO Use source generator if one is set
 		
-		Fitness fitness = cache.get(key);
+		Fitness fitness = cache.get(individual);
 		if (fitness == null) {
 			fitness = delegate.evaluate(individual);
-			cache.put(key, fitness);
+			cache.put(individual.clone(), fitness);
 		}
 		
 		return fitness;
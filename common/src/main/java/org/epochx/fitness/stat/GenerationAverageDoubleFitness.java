@@ -45,7 +45,7 @@ public class GenerationAverageDoubleFitness extends AbstractStat<EndGeneration>
 	 * Constructs a <code>GenerationAverageDoubleFitness</code>.
 	 */
 	public GenerationAverageDoubleFitness() {
-		super(GenerationFitnesses.class);
+		super(true, GenerationFitnesses.class);
 	}
 
 	/**
@@ -44,7 +44,7 @@ public class GenerationAverageDoubleFitnessError extends AbstractStat<EndGenerat
 	 * Constructs a <code>GenerationAverageDoubleFitnessError</code>.
 	 */
 	public GenerationAverageDoubleFitnessError() {
-		super(GenerationStandardDeviationDoubleFitness.class);
+		super(true, GenerationStandardDeviationDoubleFitness.class);
 	}
 
 	/**
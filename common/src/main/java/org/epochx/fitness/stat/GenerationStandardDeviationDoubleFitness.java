@@ -46,7 +46,7 @@ public class GenerationStandardDeviationDoubleFitness extends AbstractStat<EndGe
 	 */
 	@SuppressWarnings("unchecked")
 	public GenerationStandardDeviationDoubleFitness() {
-		super(GenerationFitnesses.class, GenerationAverageDoubleFitness.class);
+		super(true, GenerationFitnesses.class, GenerationAverageDoubleFitness.class);
 	}
 
 	/**
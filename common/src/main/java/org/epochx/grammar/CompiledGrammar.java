@@ -0,0 +1,492 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.grammar;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A <code>Grammar</code> compiled into flat integer tables, for operations that
+ * navigate the grammar repeatedly, such as mapping and the grammar-based
+ * initialisation methods. Compiled grammars are obtained with
+ * {@link Grammar#compile()}.
+ * 
+ * <p>
+ * Each rule is identified by an integer id, from <code>0</code> to
+ * <code>getNoRules()-1</code>, with the start rule at <code>0</code>. The
+ * productions of all rules are numbered consecutively, so that production
+ * <code>i</code> of a rule is {@link #getProduction(int, int)}. The symbols of a
+ * production are rule ids, or negative values for literals (see
+ * {@link #isLiteral(int)}). For each rule and each depth, the productions
+ * whose minimum depth is within the depth are stored as a bitmask, so the valid
+ * productions are counted and selected without creating any objects.
+ * 
+ * <p>
+ * The valid productions are always selected in the order of the productions of
+ * the rule, so choosing the <code>n</code>th valid production gives the same
+ * production as choosing the <code>n</code>th element of a list of the valid
+ * production indexes. Instances of this class are immutable and thread-safe.
+ * 
+ * @since 2.0
+ */
+public class CompiledGrammar {
+
+	private final Grammar grammar;
+
+	private final GrammarRule[] rules;
+
+	private final GrammarLiteral[] literals;
+
+	private final Map<GrammarRule, Integer> ids;
+
+	private final int[] ruleMinDepths;
+
+	// the productions of rule r are productionOffsets[r] to productionOffsets[r+1]-1
+	private final int[] productionOffsets;
+
+	private final int[] productionMinDepths;
+
+	private final boolean[] recursive;
+
+	// the symbols of production p are symbols[symbolOffsets[p]] to symbols[symbolOffsets[p+1]-1]
+	private final int[] symbolOffsets;
+
+	private final int[] symbols;
+
+	// the number of longs in the bitmasks of each rule
+	private final int[] words;
+
+	// the number of depths with a distinct bitmask for each rule
+	private final int[] depths;
+
+	// for each rule, the bitmasks of depths 0 to depths[r]-1, then the bitmask
+	// of the recursive productions
+	private final int[] maskOffsets;
+
+	private final long[] masks;
+
+	/**
+	 * Constructs a <code>CompiledGrammar</code> of the given grammar. The
+	 * grammar must not be modified afterwards.
+	 * 
+	 * @param grammar the grammar to compile
+	 */
+	CompiledGrammar(Grammar grammar) {
+		this.grammar = grammar;
+
+		ids = new IdentityHashMap<GrammarRule, Integer>();
+		Map<GrammarLiteral, Integer> literalIds = new IdentityHashMap<GrammarLiteral, Integer>();
+		List<GrammarRule> ruleList = new ArrayList<GrammarRule>();
+		List<GrammarLiteral> literalList = new ArrayList<GrammarLiteral>();
+
+		// The start rule first, then the rules in the order they are reached
+		addRule(grammar.getStartRule(), ruleList);
+		for (GrammarRule rule: grammar.getGrammarRules()) {
+			addRule(rule, ruleList);
+		}
+
+		List<Integer> symbolList = new ArrayList<Integer>();
+		int noProductions = 0;
+
+		for (int r = 0; r < ruleList.size(); r++) {
+			for (GrammarProduction production: ruleList.get(r).getProductions()) {
+				noProductions++;
+
+				for (GrammarNode node: production.getGrammarNodes()) {
+					if (node instanceof GrammarRule) {
+						symbolList.add(addRule((GrammarRule) node, ruleList));
+					} else {
+						GrammarLiteral literal = (GrammarLiteral) node;
+						Integer id = literalIds.get(literal);
+						if (id == null) {
+							id = literalList.size();
+							literalIds.put(literal, id);
+							literalList.add(literal);
+						}
+
+						symbolList.add(~id);
+					}
+				}
+			}
+		}
+
+		int noRules = ruleList.size();
+		rules = ruleList.toArray(new GrammarRule[noRules]);
+		literals = literalList.toArray(new GrammarLiteral[literalList.size()]);
+
+		ruleMinDepths = new int[noRules];
+		productionOffsets = new int[noRules + 1];
+		productionMinDepths = new int[noProductions];
+		recursive = new boolean[noProductions];
+		symbolOffsets = new int[noProductions + 1];
+		symbols = new int[symbolList.size()];
+		words = new int[noRules];
+		depths = new int[noRules];
+		maskOffsets = new int[noRules];
+
+		for (int i = 0; i < symbols.length; i++) {
+			symbols[i] = symbolList.get(i);
+		}
+
+		int p = 0;
+		int s = 0;
+		int noMasks = 0;
+
+		for (int r = 0; r < noRules; r++) {
+			ruleMinDepths[r] = rules[r].getMinDepth();
+			productionOffsets[r] = p;
+
+			int maxMinDepth = 0;
+			for (GrammarProduction production: rules[r].getProductions()) {
+				productionMinDepths[p] = production.getMinDepth();
+				recursive[p] = production.isRecursive();
+				symbolOffsets[p] = s;
+
+				maxMinDepth = Math.max(maxMinDepth, productionMinDepths[p]);
+				s += production.getNoGrammarNodes();
+				p++;
+			}
+
+			words[r] = (rules[r].getNoProductions() + 63) / 64;
+			depths[r] = maxMinDepth + 1;
+			maskOffsets[r] = noMasks;
+			noMasks += (depths[r] + 1) * words[r];
+		}
+		productionOffsets[noRules] = p;
+		symbolOffsets[noProductions] = s;
+
+		masks = new long[noMasks];
+
+		for (int r = 0; r < noRules; r++) {
+			int recursiveMask = recursiveMask(r);
+
+			for (int i = 0; i < getNoProductions(r); i++) {
+				int production = productionOffsets[r] + i;
+				long bit = 1L << (i % 64);
+
+				for (int d = productionMinDepths[production]; d < depths[r]; d++) {
+					masks[maskOffsets[r] + d * words[r] + i / 64] |= bit;
+				}
+				if (recursive[production]) {
+					masks[recursiveMask + i / 64] |= bit;
+				}
+			}
+		}
+	}
+
+	/*
+	 * Returns the id of the rule, assigning the next id if it has none.
+	 */
+	private int addRule(GrammarRule rule, List<GrammarRule> ruleList) {
+		Integer id = ids.get(rule);
+		if (id == null) {
+			id = ruleList.size();
+			ids.put(rule, id);
+			ruleList.add(rule);
+		}
+
+		return id;
+	}
+
+	/**
+	 * Returns the grammar that was compiled
+	 * 
+	 * @return the grammar that was compiled
+	 */
+	public Grammar getGrammar() {
+		return grammar;
+	}
+
+	/**
+	 * Returns the number of rules in the grammar
+	 * 
+	 * @return the number of rules
+	 */
+	public int getNoRules() {
+		return rules.length;
+	}
+
+	/**
+	 * Returns the id of the start rule, which is always <code>0</code>
+	 * 
+	 * @return the id of the start rule
+	 */
+	public int getStartRule() {
+		return 0;
+	}
+
+	/**
+	 * Returns the rule with the given id
+	 * 
+	 * @param rule the id of the rule
+	 * @return the rule with the given id
+	 */
+	public GrammarRule getRule(int rule) {
+		return rules[rule];
+	}
+
+	/**
+	 * Returns the id of the given rule, or -1 if the rule is not part of the
+	 * grammar
+	 * 
+	 * @param rule a rule of the grammar
+	 * @return the id of the rule, or -1
+	 */
+	public int getRuleId(GrammarRule rule) {
+		Integer id = ids.get(rule);
+
+		return (id == null) ? -1 : id;
+	}
+
+	/**
+	 * Returns the minimum depth required to resolve the rule to literals
+	 * 
+	 * @param rule the id of the rule
+	 * @return the minimum depth of the rule
+	 */
+	public int getMinDepth(int rule) {
+		return ruleMinDepths[rule];
+	}
+
+	/**
+	 * Returns the number of productions of the rule
+	 * 
+	 * @param rule the id of the rule
+	 * @return the number of productions of the rule
+	 */
+	public int getNoProductions(int rule) {
+		return productionOffsets[rule + 1] - productionOffsets[rule];
+	}
+
+	/**
+	 * Returns the number that identifies the production at the given index of
+	 * the rule
+	 * 
+	 * @param rule the id of the rule
+	 * @param index the index of the production within the rule
+	 * @return the production number
+	 */
+	public int getProduction(int rule, int index) {
+		return productionOffsets[rule] + index;
+	}
+
+	/**
+	 * Returns the minimum depth required to resolve the production to literals
+	 * 
+	 * @param production the production number
+	 * @return the minimum depth of the production
+	 */
+	public int getProductionMinDepth(int production) {
+		return productionMinDepths[production];
+	}
+
+	/**
+	 * Returns whether the production contains a recursive rule
+	 * 
+	 * @param production the production number
+	 * @return <code>true</code> if the production is recursive and
+	 *         <code>false</code> otherwise
+	 */
+	public boolean isRecursive(int production) {
+		return recursive[production];
+	}
+
+	/**
+	 * Returns the number of symbols of the production
+	 * 
+	 * @param production the production number
+	 * @return the number of symbols of the production
+	 */
+	public int getNoSymbols(int production) {
+		return symbolOffsets[production + 1] - symbolOffsets[production];
+	}
+
+	/**
+	 * Returns the symbol at the given index of the production. The symbol is
+	 * either the id of a rule or, if {@link #isLiteral(int)} returns
+	 * <code>true</code>, a literal that is obtained with
+	 * {@link #getLiteral(int)}.
+	 * 
+	 * @param production the production number
+	 * @param index the index of the symbol within the production
+	 * @return the symbol
+	 */
+	public int getSymbol(int production, int index) {
+		return symbols[symbolOffsets[production] + index];
+	}
+
+	/**
+	 * Returns whether the symbol is a literal rather than a rule id
+	 * 
+	 * @param symbol a symbol of a production
+	 * @return <code>true</code> if the symbol is a literal and
+	 *         <code>false</code> otherwise
+	 */
+	public static boolean isLiteral(int symbol) {
+		return symbol < 0;
+	}
+
+	/**
+	 * Returns the literal of the symbol
+	 * 
+	 * @param symbol a symbol of a production that is a literal
+	 * @return the literal of the symbol
+	 */
+	public GrammarLiteral getLiteral(int symbol) {
+		return literals[~symbol];
+	}
+
+	/**
+	 * Returns the number of productions of the rule whose minimum depth is no
+	 * more than the given depth
+	 * 
+	 * @param rule the id of the rule
+	 * @param maxDepth the maximum depth of the productions
+	 * @return the number of valid productions
+	 */
+	public int getNoValidProductions(int rule, int maxDepth) {
+		if (maxDepth < 0) {
+			return 0;
+		}
+
+		int mask = mask(rule, maxDepth);
+		int count = 0;
+
+		for (int i = 0; i < words[rule]; i++) {
+			count += Long.bitCount(masks[mask + i]);
+		}
+
+		return count;
+	}
+
+	/**
+	 * Returns the index within the rule of the <code>n</code>th production
+	 * whose minimum depth is no more than the given depth
+	 * 
+	 * @param rule the id of the rule
+	 * @param maxDepth the maximum depth of the productions
+	 * @param n the index of the production among the valid productions, from
+	 *        <code>0</code> to <code>getNoValidProductions(rule, maxDepth)-1</code>
+	 * @return the index of the production within the rule
+	 */
+	public int getValidProduction(int rule, int maxDepth, int n) {
+		int mask = mask(rule, maxDepth);
+
+		for (int i = 0; i < words[rule]; i++) {
+			long word = masks[mask + i];
+			int count = Long.bitCount(word);
+
+			if (n < count) {
+				return i * 64 + select(word, n);
+			}
+			n -= count;
+		}
+
+		throw new IndexOutOfBoundsException("no valid production at index " + n);
+	}
+
+	/**
+	 * Returns the number of recursive productions of the rule whose minimum
+	 * depth is no more than the given depth
+	 * 
+	 * @param rule the id of the rule
+	 * @param maxDepth the maximum depth of the productions
+	 * @return the number of valid recursive productions
+	 */
+	public int getNoValidRecursiveProductions(int rule, int maxDepth) {
+		if (maxDepth < 0) {
+			return 0;
+		}
+
+		int mask = mask(rule, maxDepth);
+		int recursiveMask = recursiveMask(rule);
+		int count = 0;
+
+		for (int i = 0; i < words[rule]; i++) {
+			count += Long.bitCount(masks[mask + i] & masks[recursiveMask + i]);
+		}
+
+		return count;
+	}
+
+	/**
+	 * Returns the index within the rule of the <code>n</code>th recursive
+	 * production whose minimum depth is no more than the given depth
+	 * 
+	 * @param rule the id of the rule
+	 * @param maxDepth the maximum depth of the productions
+	 * @param n the index of the production among the valid recursive
+	 *        productions, from <code>0</code> to
+	 *        <code>getNoValidRecursiveProductions(rule, maxDepth)-1</code>
+	 * @return the index of the production within the rule
+	 */
+	public int getValidRecursiveProduction(int rule, int maxDepth, int n) {
+		int mask = mask(rule, maxDepth);
+		int recursiveMask = recursiveMask(rule);
+
+		for (int i = 0; i < words[rule]; i++) {
+			long word = masks[mask + i] & masks[recursiveMask + i];
+			int count = Long.bitCount(word);
+
+			if (n < count) {
+				return i * 64 + select(word, n);
+			}
+			n -= count;
+		}
+
+		throw new IndexOutOfBoundsException("no valid recursive production at index " + n);
+	}
+
+	/*
+	 * Returns the offset of the bitmask of the rule for the given depth. Depths
+	 * beyond the last bitmask share the last bitmask, in which all productions
+	 * are valid.
+	 */
+	private int mask(int rule, int maxDepth) {
+		if (maxDepth < 0) {
+			throw new IndexOutOfBoundsException("no valid productions at depth " + maxDepth);
+		}
+
+		return maskOffsets[rule] + Math.min(maxDepth, depths[rule] - 1) * words[rule];
+	}
+
+	/*
+	 * Returns the offset of the bitmask of the recursive productions of the rule.
+	 */
+	private int recursiveMask(int rule) {
+		return maskOffsets[rule] + depths[rule] * words[rule];
+	}
+
+	/*
+	 * Returns the position of the nth set bit of the word.
+	 */
+	private static int select(long word, int n) {
+		for (int i = 0; i < n; i++) {
+			word &= word - 1;
+		}
+
+		return Long.numberOfTrailingZeros(word);
+	}
+}
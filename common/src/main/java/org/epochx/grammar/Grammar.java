@@ -84,6 +84,9 @@ public class Grammar {
 
 	// The starting symbol - the root of the parse tree.
 	private GrammarRule start;
+	
+	// The compiled tables, created on demand
+	private volatile CompiledGrammar compiled;
 
 	/**
 	 * Constructs a <code>Grammar</code> with the given string as the BNF
@@ -131,6 +134,23 @@ public class Grammar {
 		return start;
 	}
 
+	/**
+	 * Returns this grammar compiled into flat tables of rules and productions. The
+	 * tables are created on the first call and the same instance is returned 
+	 * afterwards, so the grammar must not be modified once it has been compiled.
+	 * 
+	 * @return the compiled form of this grammar
+	 */
+	public CompiledGrammar compile() {
+		CompiledGrammar result = compiled;
+		if (result == null) {
+			result = new CompiledGrammar(this);
+			compiled = result;
+		}
+		
+		return result;
+	}
+
 	/*
 	 * Reads the contents of the given File and returns it as a String.
 	 */
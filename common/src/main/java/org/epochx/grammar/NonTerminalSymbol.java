@@ -692,7 +692,8 @@ public class NonTerminalSymbol implements Symbol {
 		if ((obj != null) && (obj instanceof NonTerminalSymbol)) {
 			NonTerminalSymbol otherSymbol = (NonTerminalSymbol) obj;
 
-			if (getGrammarRule() == otherSymbol.getGrammarRule()) {
+			if ((getGrammarRule() == otherSymbol.getGrammarRule())
+					&& (children.size() == otherSymbol.children.size())) {
 				for (int i = 0; i < children.size(); i++) {
 					Symbol thatChild = otherSymbol.getChild(i);
 					Symbol thisChild = getChild(i);
@@ -711,4 +712,23 @@ public class NonTerminalSymbol implements Symbol {
 
 		return equal;
 	}
+
+	/**
+	 * Returns a hash code for this non-terminal symbol, consistent with the
+	 * <code>equals</code> method. It is calculated from the identity of the
+	 * grammar rule and the hash codes of the child symbols, so it takes time
+	 * proportional to the size of the parse tree.
+	 * 
+	 * @return a hash code for this non-terminal symbol.
+	 */
+	@Override
+	public int hashCode() {
+		int hash = System.identityHashCode(getGrammarRule());
+
+		for (Symbol child: children) {
+			hash = 31 * hash + ObjectUtils.hashCode(child);
+		}
+
+		return hash;
+	}
 }
@@ -99,4 +99,15 @@ public class TerminalSymbol implements Symbol {
 			return false;
 		}
 	}
+
+	/**
+	 * Returns a hash code for this terminal symbol, which is the hash code of
+	 * its literal value, consistent with the <code>equals</code> method.
+	 * 
+	 * @return a hash code for this terminal symbol.
+	 */
+	@Override
+	public int hashCode() {
+		return toString().hashCode();
+	}
 }
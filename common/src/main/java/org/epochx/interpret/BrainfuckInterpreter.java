@@ -45,12 +45,12 @@ import org.epochx.source.SourceGenerator;
  * <th>Effect</th>
  * </tr>
  * <tr>
- * <td>&lt;</td>
+ * <td>&gt;</td>
  * <td>Increments the pointer. The pointer wraps around to 0 if it is to become
  * larger than the memory capacity.</td>
  * </tr>
  * <tr>
- * <td>&gt;</td>
+ * <td>&lt;</td>
  * <td>Decrements the pointer. The pointer wraps around to point to the last
  * memory address if it would otherwise become negative.</td>
  * </tr>
@@ -83,10 +83,30 @@ import org.epochx.source.SourceGenerator;
  * </tr>
  * </table>
  * 
+ * <p>
+ * Before execution, a program is compiled once into an array of instructions
+ * which is then executed for every set of arguments. Runs of consecutive
+ * <code>+</code>/<code>-</code> and <code>&lt;</code>/<code>&gt;</code> commands
+ * are folded into a single instruction, the position of the matching bracket
+ * of each loop is resolved in advance and loops that only increment or
+ * decrement the current cell by an odd amount, such as <code>[-]</code>, are
+ * replaced by an instruction that sets the cell to 0. An unmatched
+ * <code>]</code> is ignored and an unmatched <code>[</code> is closed at the end
+ * of the program. Since Brainfuck programs may not terminate, the number of
+ * instructions executed for each set of arguments can be limited with
+ * {@link #setStepLimit(long)}.
+ * 
  * @since 2.0
  */
 public class BrainfuckInterpreter<T extends Individual> implements Interpreter<T> {
 
+	// The instruction codes of compiled programs.
+	private static final int ADD = 0;
+	private static final int MOVE = 1;
+	private static final int OPEN = 2;
+	private static final int CLOSE = 3;
+	private static final int CLEAR = 4;
+
 	// The indexable memory available to programs.
 	private final byte[] memory;
 
@@ -95,6 +115,12 @@ public class BrainfuckInterpreter<T extends Individual> implements Interpreter<T
 	
 	private SourceGenerator<T> generator;
 
+	// The maximum number of instructions executed for each set of arguments.
+	private long stepLimit = Long.MAX_VALUE;
+
+	// Whether the last execution was stopped by the step limit.
+	private boolean stepLimitReached;
+
 	/**
 	 * Constructs a BrainfuckInterpreter with a 30,000 element byte array for
 	 * memory.
@@ -115,6 +141,8 @@ public class BrainfuckInterpreter<T extends Individual> implements Interpreter<T
 	 * @param memorySize the size of the byte array to provide programs with for memory
 	 */
 	public BrainfuckInterpreter(SourceGenerator<T> generator, int memorySize) {
+		this.generator = generator;
+		
 		memory = new byte[memorySize];
 		pointer = 0;
 	}
@@ -142,7 +170,9 @@ public class BrainfuckInterpreter<T extends Individual> implements Interpreter<T
 	 * given <code>argValues</code> will be used to populate the first elements
 	 * of the memory array in sequence. All other elements of the memory array
 	 * will be set to 0 byte and the pointer will also be reset to address 0
-	 * before execution. The <code>argNames</code> argument is not used.
+	 * before execution. The <code>argNames</code> argument is not used. The
+	 * program is compiled once and the compiled instructions are executed for
+	 * each set of arguments.
 	 * 
 	 * @param program a valid Brainfuck program that is to be executed
 	 * @param argNames not used in this implementation
@@ -155,6 +185,12 @@ public class BrainfuckInterpreter<T extends Individual> implements Interpreter<T
 	public void exec(T program, String[] argNames, Object[][] argValues) {
 		int noParamSets = argValues.length;
 		
+		// Get and compile the program source code.
+		String source = generator.getSource(program);
+		int[][] compiled = (source == null) ? null : compile(source);
+		
+		stepLimitReached = false;
+		
 		for (int i=0; i<noParamSets; i++) {
 			Object[] paramSet = argValues[i];
 			
@@ -163,88 +199,164 @@ public class BrainfuckInterpreter<T extends Individual> implements Interpreter<T
 	
 			// Set inputs as first x memory cells.
 			for (int j = 0; j < paramSet.length; j++) {
-				memory[i] = (Byte) paramSet[j];
+				memory[j] = (Byte) paramSet[j];
 			}
 	
-			// Get the program source code.
-			String source = generator.getSource(program);
-			
-			// Execute the source.
-			execute(source);
+			// Execute the instructions.
+			if (compiled != null) {
+				execute(compiled[0], compiled[1]);
+			}
+		}
+	}
+
+	/*
+	 * Compiles the source into an array of instruction codes and an array of
+	 * their operands. The operand of ADD is the amount added to the cell, of
+	 * MOVE the (non-negative) distance the pointer is moved and of OPEN and
+	 * CLOSE the index of the matching bracket.
+	 */
+	private int[][] compile(String source) {
+		int length = source.length();
+		int[] codes = new int[length];
+		int[] operands = new int[length];
+		int[] open = new int[length];
+		int size = 0;
+		int depth = 0;
+
+		for (int i = 0; i < length; i++) {
+			char c = source.charAt(i);
+
+			if (c == '+' || c == '-' || c == '<' || c == '>') {
+				boolean add = (c == '+' || c == '-');
+				int net = 0;
+
+				// fold the run of commands of the same kind, skipping comments
+				for (; i < length; i++) {
+					c = source.charAt(i);
+
+					if (add && c == '+' || !add && c == '>') {
+						net++;
+					} else if (add && c == '-' || !add && c == '<') {
+						net--;
+					} else if (c == '[' || c == ']' || c == '+' || c == '-' || c == '<' || c == '>') {
+						break;
+					}
+				}
+				i--;
+
+				if (add && (net & 0xFF) != 0) {
+					codes[size] = ADD;
+					operands[size++] = (byte) net;
+				} else if (!add && net % memory.length != 0) {
+					codes[size] = MOVE;
+					operands[size++] = (net % memory.length + memory.length) % memory.length;
+				}
+			} else if (c == '[') {
+				open[depth++] = size;
+				codes[size++] = OPEN;
+			} else if (c == ']' && depth > 0) {
+				size = close(codes, operands, size, open[--depth]);
+			}
+		}
+
+		// an unmatched opening bracket is closed at the end of the program
+		while (depth > 0) {
+			size = close(codes, operands, size, open[--depth]);
 		}
+
+		return new int[][]{Arrays.copyOf(codes, size), Arrays.copyOf(operands, size)};
 	}
 
 	/*
-	 * Parses and executes the given source string as a Brainfuck program.
+	 * Closes the loop opened at the specified instruction and returns the new
+	 * number of instructions. A loop that only adds an odd amount to the
+	 * current cell is replaced by a CLEAR instruction.
 	 */
-	private void execute(final String source) {
-		if (source == null) {
-			return;
+	private int close(int[] codes, int[] operands, int size, int opening) {
+		if (size == opening + 2 && codes[opening + 1] == ADD && (operands[opening + 1] & 1) != 0) {
+			codes[opening] = CLEAR;
+
+			return opening + 1;
 		}
 
-		for (int i = 0; i < source.length(); i++) {
-			final char c = source.charAt(i);
+		codes[size] = CLOSE;
+		operands[size] = opening;
+		operands[opening] = size;
+
+		return size + 1;
+	}
+
+	/*
+	 * Executes the compiled instructions, stopping if the step limit is reached.
+	 */
+	private void execute(int[] codes, int[] operands) {
+		long steps = 0;
 
-			switch (c) {
-				case '>':
-					pointer = ++pointer % memory.length;
+		for (int pc = 0; pc < codes.length; pc++) {
+			if (++steps > stepLimit) {
+				stepLimitReached = true;
+				return;
+			}
+
+			switch (codes[pc]) {
+				case ADD:
+					memory[pointer] += operands[pc];
 					break;
-				case '<':
-					pointer--;
-					if (pointer < 0) {
-						pointer = memory.length - 1;
+				case MOVE:
+					pointer += operands[pc];
+					if (pointer >= memory.length) {
+						pointer -= memory.length;
 					}
 					break;
-				case '+':
-					memory[pointer]++;
-					break;
-				case '-':
-					memory[pointer]--;
-					break;
-				case ',':
-					// Not supported.
-					break;
-				case '.':
-					// Not supported.
-					// System.out.print((char) memory[pointer]);
-					break;
-				case '[':
-					final int bracketIndex = findClosingBracket(source.substring(i + 1)) + (i + 1);
-					final String loopSource = source.substring((i + 1), bracketIndex);
-					while (memory[pointer] != 0) {
-						execute(loopSource);
+				case OPEN:
+					if (memory[pointer] == 0) {
+						pc = operands[pc];
 					}
-					i = bracketIndex;
 					break;
-				case ']':
-					// Implemented as part of '['.
+				case CLOSE:
+					if (memory[pointer] != 0) {
+						pc = operands[pc];
+					}
 					break;
-				default:
-					// Ignore all other characters.
+				case CLEAR:
+					memory[pointer] = 0;
 					break;
 			}
 		}
 	}
 
-	/*
-	 * Locate the matching bracket in the given source.
+	/**
+	 * Returns the maximum number of compiled instructions executed for each
+	 * set of arguments.
+	 * 
+	 * @return the step limit
 	 */
-	private int findClosingBracket(final String source) {
-		int open = 1;
-		for (int i = 0; i < source.length(); i++) {
-			final char c = source.charAt(i);
-
-			if (c == '[') {
-				open++;
-			} else if (c == ']') {
-				open--;
-				if (open == 0) {
-					return i;
-				}
-			}
-		}
-		// There is no closing bracket.
-		return -1;
+	public long getStepLimit() {
+		return stepLimit;
+	}
+
+	/**
+	 * Sets the maximum number of compiled instructions executed for each set
+	 * of arguments, after which the execution is stopped and the memory is
+	 * left in its current state. Each folded run of commands counts as one
+	 * instruction. By default the number of instructions is not limited.
+	 * 
+	 * @param stepLimit the step limit
+	 */
+	public void setStepLimit(long stepLimit) {
+		this.stepLimit = stepLimit;
+	}
+
+	/**
+	 * Returns whether the execution of the program for any set of arguments of
+	 * the last call to <code>exec</code> was stopped because the step limit was
+	 * reached.
+	 * 
+	 * @return <code>true</code> if the step limit was reached, and
+	 *         <code>false</code> otherwise
+	 */
+	public boolean isStepLimitReached() {
+		return stepLimitReached;
 	}
 
 	/**
@@ -0,0 +1,589 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.interpret;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.security.CodeSource;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.tools.*;
+import javax.tools.JavaFileObject.Kind;
+
+import org.epochx.Individual;
+import org.epochx.source.SourceGenerator;
+
+/**
+ * A <code>CompilingJavaInterpreter</code> evaluates individuals that represent
+ * Java expressions by compiling them to bytecode, rather than interpreting the
+ * source with BeanShell for every set of arguments. Each distinct expression
+ * is wrapped in a generated class with a static method that declares one
+ * parameter for each argument name, typed with the runtime class of the
+ * argument values (wrapper classes are unboxed to their primitive types). The
+ * classes are compiled in memory with the system <code>JavaCompiler</code> and
+ * defined by a class loader that is only referenced by the classes it loaded.
+ * 
+ * <p>
+ * Compiled programs are cached by source and parameter types; the least
+ * recently used programs are evicted when the cache is full (see
+ * {@link #setCacheSize(int)}), so their classes and class loader can be
+ * unloaded and the memory used by class metadata stays bounded. Starting the
+ * compiler is expensive compared to compiling a single expression, so the
+ * programs of a whole population should be compiled together with
+ * {@link #compile(Collection, String[], Object[][])} before they are
+ * evaluated; this compiles all programs that are not in the cache as a single
+ * compilation unit.
+ * 
+ * <p>
+ * Only expressions are supported: the source of each individual must be a
+ * valid Java expression with a non-void value. If no Java compiler is
+ * available, for example when running on a JRE, all programs are evaluated
+ * with BeanShell as by the superclass.
+ * 
+ * @see JavaInterpreter
+ * 
+ * @since 2.0
+ */
+public class CompilingJavaInterpreter<T extends Individual> extends JavaInterpreter<T> {
+
+	/**
+	 * The default maximum number of compiled programs in the cache.
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 1024;
+
+	/**
+	 * A compiled program. Implemented by the generated classes.
+	 */
+	public interface CompiledProgram {
+
+		/**
+		 * Evaluates the program with the specified argument values.
+		 * 
+		 * @param args the argument values, in the order of the argument names
+		 * @return the value of the expression
+		 */
+		Object eval(Object[] args);
+	}
+
+	// Used to give each compilation unit a unique class name.
+	private static final AtomicInteger UNITS = new AtomicInteger();
+
+	private static final String UNIT_PREFIX = "EpochXPrograms";
+
+	// The wrapper class name of each primitive type
+	private static final Map<String, String> PRIMITIVES = new HashMap<String, String>();
+
+	// The primitive type name of each wrapper class
+	private static final Map<Class<?>, String> UNBOXED = new HashMap<Class<?>, String>();
+
+	static {
+		Class<?>[] wrappers = {Boolean.class, Byte.class, Character.class, Short.class, Integer.class, Long.class,
+				Float.class, Double.class};
+		Class<?>[] primitives = {boolean.class, byte.class, char.class, short.class, int.class, long.class,
+				float.class, double.class};
+
+		for (int i = 0; i < wrappers.length; i++) {
+			UNBOXED.put(wrappers[i], primitives[i].getName());
+			PRIMITIVES.put(primitives[i].getName(), wrappers[i].getName());
+		}
+	}
+
+	private final JavaCompiler compiler;
+
+	// The programs of the most recently used sources, guarded by itself
+	private final LinkedHashMap<String, CompiledProgram> cache = new LinkedHashMap<String, CompiledProgram>(16, 0.75f, true);
+
+	private int cacheSize = DEFAULT_CACHE_SIZE;
+
+	/**
+	 * Constructs a <code>CompilingJavaInterpreter</code> that uses the system
+	 * Java compiler.
+	 * 
+	 * @param generator the SourceGenerator to use to convert individuals to Java source code
+	 */
+	public CompilingJavaInterpreter(SourceGenerator<T> generator) {
+		this(generator, ToolProvider.getSystemJavaCompiler());
+	}
+
+	/**
+	 * Constructs a <code>CompilingJavaInterpreter</code> that uses the given
+	 * Java compiler. If the compiler is <code>null</code> the programs are
+	 * evaluated with BeanShell.
+	 * 
+	 * @param generator the SourceGenerator to use to convert individuals to Java source code
+	 * @param compiler the Java compiler to use
+	 */
+	public CompilingJavaInterpreter(SourceGenerator<T> generator, JavaCompiler compiler) {
+		super(generator);
+
+		this.compiler = compiler;
+	}
+
+	/**
+	 * Evaluates the Java expression represented by the individual for each set
+	 * of arguments. The expression is compiled on the first evaluation, unless
+	 * it has already been compiled with the same argument types and is still in
+	 * the cache.
+	 * 
+	 * @param individual an individual representing a valid Java expression that is
+	 * to be evaluated.
+	 * @param argNames {@inheritDoc}
+	 * @param argValues {@inheritDoc}
+	 * @return the return value from evaluating the expression.
+	 * @throws MalformedProgramException if the given expression does not
+	 *         compile, or if evaluating it throws an exception.
+	 */
+	@Override
+	public Object[] eval(T individual, String[] argNames, Object[][] argValues) throws MalformedProgramException {
+		if (individual == null || compiler == null) {
+			return super.eval(individual, argNames, argValues);
+		}
+
+		String expression = getSourceGenerator().getSource(individual);
+
+		if (expression == null) {
+			throw new MalformedProgramException("Source generator returned a null program source");
+		}
+
+		String[] types = parameterTypes(argNames.length, argValues);
+		String key = key(argNames, types, expression);
+
+		CompiledProgram program;
+		synchronized (cache) {
+			program = cache.get(key);
+		}
+
+		if (program == null) {
+			Map<String, String> errors = new HashMap<String, String>();
+			program = compile(Collections.singletonList(expression), argNames, types, errors).get(expression);
+
+			if (program == null) {
+				throw new MalformedProgramException(errors.get(expression));
+			}
+			store(key, program);
+		}
+
+		Object[] results = new Object[argValues.length];
+
+		try {
+			for (int i = 0; i < argValues.length; i++) {
+				results[i] = program.eval(argValues[i]);
+			}
+		} catch (RuntimeException e) {
+			throw new MalformedProgramException(e.toString());
+		}
+
+		return results;
+	}
+
+	/**
+	 * Compiles the programs of the given individuals that are not in the cache,
+	 * as a single compilation unit, and adds them to the cache. Programs that do
+	 * not compile are not cached, so they are reported as malformed when they
+	 * are evaluated. The argument values are only used to determine the types
+	 * of the parameters, which must be the same as in the later evaluations.
+	 * 
+	 * @param individuals the individuals to be compiled
+	 * @param argNames the names of the arguments of the programs
+	 * @param argValues sets of argument values of the later evaluations
+	 */
+	public void compile(Collection<? extends T> individuals, String[] argNames, Object[][] argValues) {
+		if (compiler == null) {
+			return;
+		}
+
+		String[] types = parameterTypes(argNames.length, argValues);
+		Set<String> pending = new LinkedHashSet<String>();
+
+		synchronized (cache) {
+			for (T individual: individuals) {
+				String expression = getSourceGenerator().getSource(individual);
+
+				if (expression != null && !cache.containsKey(key(argNames, types, expression))) {
+					pending.add(expression);
+				}
+			}
+		}
+
+		if (!pending.isEmpty()) {
+			Map<String, CompiledProgram> programs = compile(new ArrayList<String>(pending), argNames, types,
+					new HashMap<String, String>());
+
+			for (Map.Entry<String, CompiledProgram> entry: programs.entrySet()) {
+				store(key(argNames, types, entry.getKey()), entry.getValue());
+			}
+		}
+	}
+
+	/*
+	 * Compiles the expressions in a single compilation unit. Expressions that
+	 * cause compile errors are removed and the others compiled again; their
+	 * first error message is added to the errors map.
+	 */
+	private Map<String, CompiledProgram> compile(List<String> expressions, String[] argNames, String[] types,
+			Map<String, String> errors) {
+		Map<String, CompiledProgram> programs = new HashMap<String, CompiledProgram>();
+		List<String> pending = new ArrayList<String>(expressions);
+
+		while (!pending.isEmpty()) {
+			String unit = UNIT_PREFIX + UNITS.incrementAndGet();
+			int[] lastLines = new int[pending.size()];
+			String source = generate(unit, pending, argNames, types, lastLines);
+
+			DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+			MemoryFileManager fileManager = new MemoryFileManager(compiler.getStandardFileManager(diagnostics, null,
+					null));
+
+			boolean success = compiler.getTask(null, fileManager, diagnostics, options(), null,
+					Collections.singletonList(new SourceFile(unit, source))).call();
+
+			if (success) {
+				ClassLoader loader = new MemoryClassLoader(CompilingJavaInterpreter.class.getClassLoader(),
+						fileManager.classes);
+
+				for (int k = 0; k < pending.size(); k++) {
+					programs.put(pending.get(k), instantiate(loader, unit + "$P" + k));
+				}
+				break;
+			}
+
+			// remove the expressions that caused errors
+			Set<Integer> failed = new HashSet<Integer>();
+			String unmapped = null;
+
+			for (Diagnostic<? extends JavaFileObject> diagnostic: diagnostics.getDiagnostics()) {
+				if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+					int index = Arrays.binarySearch(lastLines, (int) diagnostic.getLineNumber());
+					index = (index < 0) ? -index - 1 : index;
+
+					if (diagnostic.getLineNumber() > 0 && index < pending.size()) {
+						if (failed.add(index)) {
+							errors.put(pending.get(index), diagnostic.getMessage(null));
+						}
+					} else if (unmapped == null) {
+						unmapped = diagnostic.getMessage(null);
+					}
+				}
+			}
+
+			if (failed.isEmpty()) {
+				// the errors are not caused by a particular expression
+				for (String expression: pending) {
+					errors.put(expression, unmapped);
+				}
+				break;
+			}
+
+			List<String> remaining = new ArrayList<String>();
+			for (int k = 0; k < pending.size(); k++) {
+				if (!failed.contains(k)) {
+					remaining.add(pending.get(k));
+				}
+			}
+			pending = remaining;
+		}
+
+		return programs;
+	}
+
+	/*
+	 * Generates a compilation unit with a nested class for each expression and
+	 * stores the last line of each nested class in lastLines.
+	 */
+	private String generate(String unit, List<String> expressions, String[] argNames, String[] types, int[] lastLines) {
+		StringBuilder parameters = new StringBuilder();
+		StringBuilder arguments = new StringBuilder();
+
+		for (int j = 0; j < argNames.length; j++) {
+			String type = types[j];
+
+			if (j > 0) {
+				parameters.append(", ");
+				arguments.append(", ");
+			}
+			parameters.append(type).append(' ').append(argNames[j]);
+
+			if (type.equals("java.lang.Object")) {
+				arguments.append("a[").append(j).append(']');
+			} else {
+				// primitive parameters are unboxed from the wrapper class
+				String cast = PRIMITIVES.containsKey(type) ? PRIMITIVES.get(type) : type;
+				arguments.append('(').append(cast).append(") a[").append(j).append(']');
+			}
+		}
+
+		StringBuilder source = new StringBuilder();
+		int line = 1;
+
+		source.append("public final class ").append(unit).append(" {\n");
+
+		for (int k = 0; k < expressions.size(); k++) {
+			String expression = expressions.get(k);
+
+			source.append("public static final class P").append(k).append(" implements ")
+					.append(CompiledProgram.class.getCanonicalName()).append(" {\n");
+			source.append("public static Object evaluate(").append(parameters).append(") {\n");
+			source.append("return (").append(expression).append("\n);\n");
+			source.append("}\n");
+			source.append("public Object eval(Object[] a) {\n");
+			source.append("return evaluate(").append(arguments).append(");\n");
+			source.append("}\n");
+			source.append("}\n");
+
+			line += 9;
+			for (int i = 0; i < expression.length(); i++) {
+				if (expression.charAt(i) == '\n') {
+					line++;
+				}
+			}
+			lastLines[k] = line;
+		}
+
+		source.append("}\n");
+
+		return source.toString();
+	}
+
+	/*
+	 * Returns the name of the parameter type of each argument: the class of
+	 * its values if they are all non-null instances of the same public class,
+	 * unboxed if it is a wrapper class, and Object otherwise.
+	 */
+	private static String[] parameterTypes(int noParams, Object[][] argValues) {
+		String[] types = new String[noParams];
+
+		for (int j = 0; j < noParams; j++) {
+			Class<?> type = null;
+
+			for (Object[] paramSet: argValues) {
+				Class<?> valueType = (paramSet[j] == null) ? Object.class : paramSet[j].getClass();
+
+				if (type == null) {
+					type = valueType;
+				} else if (type != valueType) {
+					type = Object.class;
+				}
+			}
+
+			if (type == null || !java.lang.reflect.Modifier.isPublic(type.getModifiers())
+					|| type.getCanonicalName() == null) {
+				types[j] = "java.lang.Object";
+			} else if (UNBOXED.containsKey(type)) {
+				types[j] = UNBOXED.get(type);
+			} else {
+				types[j] = type.getCanonicalName();
+			}
+		}
+
+		return types;
+	}
+
+	/*
+	 * Returns the cache key of an expression compiled with the given
+	 * parameters.
+	 */
+	private static String key(String[] argNames, String[] types, String expression) {
+		StringBuilder key = new StringBuilder();
+
+		for (int j = 0; j < argNames.length; j++) {
+			key.append(types[j]).append(' ').append(argNames[j]).append(',');
+		}
+
+		return key.append('\n').append(expression).toString();
+	}
+
+	/*
+	 * Returns the options of the compiler: the class path of the application,
+	 * including the location of this class, and no debug information.
+	 */
+	private static List<String> options() {
+		String classpath = System.getProperty("java.class.path");
+		CodeSource codeSource = CompilingJavaInterpreter.class.getProtectionDomain().getCodeSource();
+
+		if (codeSource != null && codeSource.getLocation() != null) {
+			try {
+				classpath += File.pathSeparator + new File(codeSource.getLocation().toURI()).getPath();
+			} catch (Exception e) {
+				// use the application class path only
+			}
+		}
+
+		return Arrays.asList("-classpath", classpath, "-g:none", "-nowarn", "-proc:none");
+	}
+
+	/*
+	 * Creates an instance of the named generated class.
+	 */
+	private static CompiledProgram instantiate(ClassLoader loader, String name) {
+		try {
+			return (CompiledProgram) loader.loadClass(name).newInstance();
+		} catch (Exception e) {
+			throw new IllegalStateException("unable to load compiled program " + name, e);
+		}
+	}
+
+	/*
+	 * Adds a program to the cache and evicts the least recently used ones.
+	 */
+	private void store(String key, CompiledProgram program) {
+		synchronized (cache) {
+			if (cacheSize > 0) {
+				cache.put(key, program);
+				trim();
+			}
+		}
+	}
+
+	/*
+	 * Removes the least recently used programs that exceed the cache size.
+	 */
+	private void trim() {
+		Iterator<String> eldest = cache.keySet().iterator();
+		while (cache.size() > cacheSize) {
+			eldest.next();
+			eldest.remove();
+		}
+	}
+
+	/**
+	 * Returns the Java compiler used to compile the programs, or
+	 * <code>null</code> if the programs are evaluated with BeanShell.
+	 * 
+	 * @return the Java compiler
+	 */
+	public JavaCompiler getCompiler() {
+		return compiler;
+	}
+
+	/**
+	 * Returns the maximum number of compiled programs kept in the cache.
+	 * 
+	 * @return the maximum number of cached programs
+	 */
+	public int getCacheSize() {
+		synchronized (cache) {
+			return cacheSize;
+		}
+	}
+
+	/**
+	 * Sets the maximum number of compiled programs kept in the cache. A value
+	 * of <code>0</code> disables the cache, so every evaluation compiles the
+	 * program. The default size is {@link #DEFAULT_CACHE_SIZE}.
+	 * 
+	 * @param cacheSize the maximum number of cached programs
+	 */
+	public void setCacheSize(int cacheSize) {
+		synchronized (cache) {
+			this.cacheSize = cacheSize;
+			trim();
+		}
+	}
+
+	/*
+	 * The source of a generated compilation unit.
+	 */
+	private static final class SourceFile extends SimpleJavaFileObject {
+
+		private final String source;
+
+		private SourceFile(String name, String source) {
+			super(URI.create("string:///" + name + Kind.SOURCE.extension), Kind.SOURCE);
+			this.source = source;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return source;
+		}
+	}
+
+	/*
+	 * A class file written to memory.
+	 */
+	private static final class ClassFile extends SimpleJavaFileObject {
+
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		private ClassFile(String name) {
+			super(URI.create("bytes:///" + name.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			return bytes;
+		}
+	}
+
+	/*
+	 * A file manager that keeps the compiled classes in memory.
+	 */
+	private static final class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+		private final Map<String, ClassFile> classes = new HashMap<String, ClassFile>();
+
+		private MemoryFileManager(StandardJavaFileManager fileManager) {
+			super(fileManager);
+		}
+
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location, String className, Kind kind,
+				FileObject sibling) throws IOException {
+			ClassFile file = new ClassFile(className);
+			classes.put(className, file);
+
+			return file;
+		}
+	}
+
+	/*
+	 * Defines the classes of one compilation unit. It is only referenced by
+	 * these classes, so it is unloaded with them.
+	 */
+	private static final class MemoryClassLoader extends ClassLoader {
+
+		private final Map<String, ClassFile> classes;
+
+		private MemoryClassLoader(ClassLoader parent, Map<String, ClassFile> classes) {
+			super(parent);
+			this.classes = classes;
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			ClassFile file = classes.get(name);
+
+			if (file == null) {
+				throw new ClassNotFoundException(name);
+			}
+
+			byte[] bytes = file.bytes.toByteArray();
+
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+}
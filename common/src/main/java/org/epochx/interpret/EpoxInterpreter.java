@@ -111,13 +111,12 @@ public class EpoxInterpreter<T extends Individual> implements Interpreter<T> {
 			throw new IllegalArgumentException("Empty argument values input");
 		}
 		
-		// Declare and initialise the variables
+		// Create and initialise the variables, which are only declared for this program
 		for (int j=0; j<noParams; j++) {
 			declaredVariables[j] = new VariableNode(new Variable(argNames[j], argValues[0][j]));
-			parser.declare(declaredVariables[j]);
 		}
 		
-		Node parseTree = parser.parse(expression);
+		Node parseTree = parser.parse(expression, declaredVariables);
 		
 		for (int i=0; i<noParamSets; i++) {			
 			Object[] paramSet = argValues[i];
@@ -130,11 +129,6 @@ public class EpoxInterpreter<T extends Individual> implements Interpreter<T> {
 			results[i] = parseTree.evaluate();
 		}
 		
-		// Undeclare all the variables
-		for (int j=0; j<noParams; j++) {
-			parser.undeclare(declaredVariables[j]);
-		}
-		
 		return results;
 	}
 
@@ -21,8 +21,16 @@
  */
 package org.epochx.interpret;
 
-import javax.script.*;
+import groovy.lang.*;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import javax.script.ScriptContext;
+
+import org.codehaus.groovy.control.CompilationFailedException;
 import org.epochx.Individual;
 import org.epochx.source.SourceGenerator;
 
@@ -34,12 +42,27 @@ import org.epochx.source.SourceGenerator;
  * <p>
  * <code>GroovyInterpreter</code> extends from the <code>ScriptingInterpreter
  * </code>, adding Groovy specific enhancements, including optimized
- * performance.
+ * performance. Rather than defining a global function in the script engine
+ * for every evaluation, each distinct program is compiled once into its own
+ * script class with a method that takes the arguments as parameters. The
+ * methods of the most recently used programs are cached (see
+ * {@link #setCacheSize(int)}); each program is compiled by its own class
+ * loader, so the classes of evicted programs can be unloaded. Each evaluation
+ * runs on a new instance of the script, bound to the engine's
+ * <code>ENGINE_SCOPE</code> bindings, so variables defined in the engine are
+ * visible to the programs, but the programs do not share any other state and
+ * one interpreter can be used by several threads at the same time.
  * 
  * @since 2.0
  */
 public class GroovyInterpreter<T extends Individual> extends ScriptingInterpreter<T> {
 
+	// The name of the method generated for each program.
+	private static final String METHOD_NAME = "expr";
+
+	// The methods of the most recently used programs, guarded by itself
+	private final LinkedHashMap<String, Method> methods = new LinkedHashMap<String, Method>(16, 0.75f, true);
+
 	/**
 	 * Constructs a <code>GroovyInterpreter</code> with a source generator
 	 * 
@@ -68,30 +91,14 @@ public class GroovyInterpreter<T extends Individual> extends ScriptingInterprete
 	 *         type of the returned Objects may vary from program to program. If
 	 *         the program does not return a value then this method will return an
 	 *         array of nulls.
+	 * @throws MalformedProgramException if the expression cannot be compiled or
+	 *         its evaluation throws an exception.
 	 */
 	@Override
-	public Object[] eval(T expression, String[] argNames, Object[][] argValues) {
-		int noParamSets = argValues.length;
-		
-		Object[] results = new Object[noParamSets];
+	public Object[] eval(T expression, String[] argNames, Object[][] argValues) throws MalformedProgramException {
 		String expressionSource = getSourceGenerator().getSource(expression);
-		String code = getEvalCode(expressionSource, argNames);
-
-		Invocable invocableEngine = (Invocable) getEngine();
-		try {
-			getEngine().eval(code);
-
-			// Evaluate each argument set.
-			for (int i = 0; i < noParamSets; i++) {
-				results[i] = invocableEngine.invokeFunction("expr", argValues[i]);
-			}
-		} catch (final ScriptException ex) {
-			ex.printStackTrace();
-		} catch (final NoSuchMethodException ex) {
-			ex.printStackTrace();
-		}
-
-		return results;
+		
+		return invoke(getEvalCode(expressionSource, argNames), argValues);
 	}
 
 	/**
@@ -104,63 +111,159 @@ public class GroovyInterpreter<T extends Individual> extends ScriptingInterprete
 	 * @param program an individual representing a valid Groovy program.
 	 * @param argNames {@inheritDoc}
 	 * @param argValues {@inheritDoc}
+	 * @throws MalformedProgramException if the program cannot be compiled or
+	 *         its execution throws an exception.
 	 */
 	@Override
-	public void exec(T program, String[] argNames, Object[][] argValues) {
-		int noParamSets = argValues.length;
+	public void exec(T program, String[] argNames, Object[][] argValues) throws MalformedProgramException {
 		String source = getSourceGenerator().getSource(program);
-		String code = getExecCode(source, argNames);
+		
+		invoke(getExecCode(source, argNames), argValues);
+	}
+
+	/*
+	 * Invokes the method compiled from the code once for each set of arguments,
+	 * on a new script bound to the engine scope.
+	 */
+	private Object[] invoke(String code, Object[][] argValues) throws MalformedProgramException {
+		int noParamSets = argValues.length;
+		
+		Object[] results = new Object[noParamSets];
+		Method method = define(code);
 
-		Invocable invocableEngine = (Invocable) getEngine();
 		try {
-			getEngine().eval(code);
+			Script script = (Script) method.getDeclaringClass().newInstance();
+			script.setBinding(new Binding(getEngine().getBindings(ScriptContext.ENGINE_SCOPE)));
 
 			// Evaluate each argument set.
 			for (int i = 0; i < noParamSets; i++) {
-				invocableEngine.invokeFunction("expr", argValues[i]);
+				results[i] = method.invoke(script, argValues[i]);
 			}
-		} catch (ScriptException ex) {
-			ex.printStackTrace();
-		} catch (NoSuchMethodException ex) {
-			ex.printStackTrace();
+		} catch (InvocationTargetException ex) {
+			throw new MalformedProgramException(ex.getCause().toString());
+		} catch (InstantiationException ex) {
+			throw new MalformedProgramException(ex.getMessage());
+		} catch (IllegalAccessException ex) {
+			throw new MalformedProgramException(ex.getMessage());
+		} catch (IllegalArgumentException ex) {
+			throw new MalformedProgramException(ex.getMessage());
+		}
+
+		return results;
+	}
+
+	/*
+	 * Returns the method defined by the code, compiling the code if it
+	 * is not in the cache.
+	 */
+	private Method define(String code) throws MalformedProgramException {
+		Method method;
+		synchronized (methods) {
+			method = methods.get(code);
+		}
+
+		if (method == null) {
+			// a new class loader for each program, which is unloaded with it
+			GroovyClassLoader loader = new GroovyClassLoader(GroovyInterpreter.class.getClassLoader());
+
+			try {
+				Class<?> program = loader.parseClass(code);
+				
+				for (Method declared: program.getMethods()) {
+					if (declared.getName().equals(METHOD_NAME)) {
+						method = declared;
+					}
+				}
+			} catch (CompilationFailedException ex) {
+				throw new MalformedProgramException(ex.getMessage());
+			}
+
+			if (method == null) {
+				throw new MalformedProgramException("no " + METHOD_NAME + " method defined");
+			}
+
+			synchronized (methods) {
+				if (getCacheSize() > 0) {
+					methods.put(code, method);
+					trim();
+				}
+			}
+		}
+
+		return method;
+	}
+
+	/*
+	 * Removes the least recently used methods that exceed the cache size.
+	 */
+	private void trim() {
+		Iterator<String> eldest = methods.keySet().iterator();
+		while (methods.size() > getCacheSize()) {
+			eldest.next();
+			eldest.remove();
+		}
+	}
+
+	/**
+	 * Sets the maximum number of compiled programs kept in the cache. A value
+	 * of <code>0</code> disables the cache. The default size is 
+	 * {@link #DEFAULT_CACHE_SIZE}.
+	 * 
+	 * @param cacheSize the maximum number of cached programs
+	 */
+	@Override
+	public void setCacheSize(int cacheSize) {
+		super.setCacheSize(cacheSize);
+		
+		synchronized (methods) {
+			trim();
 		}
 	}
 
 	/*
 	 * Helper method to eval. Constructs a string representing source code of a Groovy 
-	 * method containing a return statement that returns the result of evaluating
-	 * the given expression.
+	 * script with a method containing a return statement that returns the result of 
+	 * evaluating the given expression.
 	 */
 	private String getEvalCode(String expression, String[] argNames) {
 		StringBuilder code = new StringBuilder();
 
-		code.append("public Object expr(");
-		for (int i = 0; i < argNames.length; i++) {
-			if (i > 0) {
-				code.append(',');
-			}
-			code.append("Object ");
-			code.append(argNames[i]);
-		}
-		code.append(") {");
+		appendDeclaration(code, argNames);
 
 		code.append("return ");
 		code.append(expression);
-		code.append(';');
+		code.append('\n');
 
-		code.append("}");
+		code.append('}');
 
 		return code.toString();
 	}
 
 	/*
 	 * Helper method to exec. Constructs a string representing source code of a Groovy 
-	 * method containing the given program.
+	 * script with a method containing the given program.
 	 */
 	private String getExecCode(String program, String[] argNames) {
-		final StringBuffer code = new StringBuffer();
+		StringBuilder code = new StringBuilder();
 
-		code.append("public Object expr(");
+		appendDeclaration(code, argNames);
+
+		code.append(program);
+		code.append('\n');
+
+		code.append('}');
+
+		return code.toString();
+	}
+
+	/*
+	 * Appends the declaration of the method, up to the opening brace of the
+	 * method body.
+	 */
+	private void appendDeclaration(StringBuilder code, String[] argNames) {
+		code.append("public Object ");
+		code.append(METHOD_NAME);
+		code.append('(');
 		for (int i = 0; i < argNames.length; i++) {
 			if (i > 0) {
 				code.append(',');
@@ -168,12 +271,6 @@ public class GroovyInterpreter<T extends Individual> extends ScriptingInterprete
 			code.append("Object ");
 			code.append(argNames[i]);
 		}
-		code.append(") {");
-
-		code.append(program);
-
-		code.append("}");
-
-		return code.toString();
+		code.append(") {\n");
 	}
 }
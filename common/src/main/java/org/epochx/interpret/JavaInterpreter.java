@@ -34,6 +34,7 @@ import bsh.EvalError;
  * produced from the individual.
  * 
  * @see SourceGenerator
+ * @see CompilingJavaInterpreter
  * 
  * @since 2.0
  */
@@ -70,7 +70,7 @@ public class RubyInterpreter<T extends Individual> extends ScriptingInterpreter<
 	@Override
 	public Object[] eval(T program, String[] argNames, Object[][] argValues)
 			throws MalformedProgramException {
-		int noParamSets = argNames.length;
+		int noParamSets = argValues.length;
 		
 		String expression = getSourceGenerator().getSource(program);
 		String code = getEvalCode(expression, argNames);
@@ -79,7 +79,7 @@ public class RubyInterpreter<T extends Individual> extends ScriptingInterpreter<
 
 		final Invocable invocableEngine = (Invocable) getEngine();
 		try {
-			getEngine().eval(code);
+			define(code);
 			
 			for (int i=0; i<noParamSets; i++) {
 				result[i] = invocableEngine.invokeFunction("expr", argValues[i]);
@@ -114,7 +114,7 @@ public class RubyInterpreter<T extends Individual> extends ScriptingInterpreter<
 		
 		Invocable invocableEngine = (Invocable) getEngine();
 		try {
-			getEngine().eval(code);
+			define(code);
 			
 			for (int i=0; i<noParamSets; i++) {
 				invocableEngine.invokeFunction("expr", argValues[i]);
@@ -126,6 +126,20 @@ public class RubyInterpreter<T extends Individual> extends ScriptingInterpreter<
 		}
 	}
 
+	/*
+	 * Defines the method in the engine, using the cached compiled script of the
+	 * code if the engine supports compilation.
+	 */
+	private void define(String code) throws ScriptException {
+		CompiledScript script = compile(code);
+		
+		if (script != null) {
+			script.eval();
+		} else {
+			getEngine().eval(code);
+		}
+	}
+
 	/*
 	 * Helper method to eval. Constructs a string representing source code of a Ruby 
 	 * method containing a return statement that returns the result of evaluating
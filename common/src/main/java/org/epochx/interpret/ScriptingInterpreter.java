@@ -21,6 +21,9 @@
  */
 package org.epochx.interpret;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
 import javax.script.*;
 
 import org.epochx.Individual;
@@ -42,6 +45,18 @@ import org.epochx.source.SourceGenerator;
  * should be used in preference to this general class.
  * 
  * <p>
+ * If the script engine implements <code>Compilable</code>, each distinct
+ * program source is compiled once and the compiled scripts of the most
+ * recently used programs are cached (see {@link #setCacheSize(int)}). The
+ * compiled script is then evaluated for each set of arguments with a single
+ * <code>Bindings</code> object whose values are replaced between evaluations,
+ * so the program is not parsed again for every fitness case. The arguments are
+ * layered over the engine scope of the engine, so the functions and values
+ * defined in the engine remain visible to the programs, as they are when the
+ * source is evaluated by the engine itself. Engines that are not compilable
+ * evaluate the source string for each set of arguments.
+ * 
+ * <p>
  * The javax.scripting API was added to Java in version 1.6 and as such this
  * class and any subclasses require a 1.6 compatible JRE.
  * 
@@ -52,11 +67,21 @@ import org.epochx.source.SourceGenerator;
  */
 public class ScriptingInterpreter<T extends Individual> implements Interpreter<T> {
 
+	/**
+	 * The default maximum number of compiled scripts in the cache.
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 256;
+
 	// The language specific scripting engine.
 	private ScriptEngine engine;
 	
 	private SourceGenerator<T> generator;	
 
+	// The compiled scripts of the most recently used sources, guarded by itself
+	private final LinkedHashMap<String, CompiledScript> cache = new LinkedHashMap<String, CompiledScript>(16, 0.75f, true);
+
+	private int cacheSize = DEFAULT_CACHE_SIZE;
+
 	/**
 	 * Constructs a <code>ScriptingInterpreter</code> for a named scripting engine. A list
 	 * of installed ScriptEngine names can be obtained with the following code:
@@ -107,23 +132,92 @@ public class ScriptingInterpreter<T extends Individual> implements Interpreter<T
 
 		String expression = generator.getSource(program);
 		
-		// Evaluate each argument set.
-		for (int i = 0; i < noParamSets; i++) {
-			
-			Object[] paramSet = argValues[i];
+		if (expression == null) {
+			throw new MalformedProgramException("Source generator returned a null program source");
+		}
+		
+		try {
+			CompiledScript script = compile(expression);
 			
-			try {
-				for (int j = 0; j < noParams; i++) {
-					engine.put(argNames[j], paramSet[j]);
+			if (script != null) {
+				// The same bindings are used for all argument sets, in front
+				// of the engine's own bindings
+				Bindings bindings = engine.createBindings();
+				ScriptContext context = new SimpleScriptContext();
+				context.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
+				context.setBindings(engine.getBindings(ScriptContext.ENGINE_SCOPE), ScriptContext.GLOBAL_SCOPE);
+				
+				for (int i = 0; i < noParamSets; i++) {
+					Object[] paramSet = argValues[i];
+					
+					for (int j = 0; j < noParams; j++) {
+						bindings.put(argNames[j], paramSet[j]);
+					}
+					results[i] = script.eval(context);
+				}
+			} else {
+				// Evaluate each argument set.
+				for (int i = 0; i < noParamSets; i++) {
+					Object[] paramSet = argValues[i];
+					
+					for (int j = 0; j < noParams; j++) {
+						engine.put(argNames[j], paramSet[j]);
+					}
+					results[i] = engine.eval(expression);
 				}
-				results[i] = engine.eval(expression);
-			} catch (final ScriptException e) {
-				throw new MalformedProgramException();
 			}
+		} catch (final ScriptException e) {
+			throw new MalformedProgramException(e.getMessage());
 		}
 
 		return results;
 	}
+
+	/**
+	 * Returns the compiled script of the given source code, or <code>null</code> 
+	 * if the script engine does not implement <code>Compilable</code>. Compiled 
+	 * scripts are cached by source, so each distinct source is only compiled once 
+	 * while it remains in the cache.
+	 * 
+	 * @param source the source code to compile
+	 * @return the compiled script, or <code>null</code> if the engine cannot 
+	 * compile scripts
+	 * @throws ScriptException if the source code cannot be compiled
+	 */
+	protected CompiledScript compile(String source) throws ScriptException {
+		if (!(engine instanceof Compilable)) {
+			return null;
+		}
+		
+		CompiledScript script;
+		synchronized (cache) {
+			script = cache.get(source);
+		}
+		
+		if (script == null) {
+			script = ((Compilable) engine).compile(source);
+			
+			synchronized (cache) {
+				if (cacheSize > 0) {
+					cache.put(source, script);
+					trim();
+				}
+			}
+		}
+		
+		return script;
+	}
+	
+	/*
+	 * Removes the least recently used scripts that exceed the cache size.
+	 */
+	private void trim() {
+		Iterator<String> eldest = cache.keySet().iterator();
+		while (cache.size() > cacheSize) {
+			eldest.next();
+			eldest.remove();
+		}
+	}
 	
 	/**
 	 * {@inheritDoc}
@@ -143,6 +237,31 @@ public class ScriptingInterpreter<T extends Individual> implements Interpreter<T
 		return engine;
 	}
 	
+	/**
+	 * Returns the maximum number of compiled scripts kept in the cache.
+	 * 
+	 * @return the maximum number of cached scripts
+	 */
+	public int getCacheSize() {
+		synchronized (cache) {
+			return cacheSize;
+		}
+	}
+	
+	/**
+	 * Sets the maximum number of compiled scripts kept in the cache. A value of 
+	 * <code>0</code> disables the cache. The default size is 
+	 * {@link #DEFAULT_CACHE_SIZE}.
+	 * 
+	 * @param cacheSize the maximum number of cached scripts
+	 */
+	public void setCacheSize(int cacheSize) {
+		synchronized (cache) {
+			this.cacheSize = cacheSize;
+			trim();
+		}
+	}
+	
 	/**
 	 * Returns the source generator being used to convert individuals to source code.
 	 * 
@@ -24,10 +24,13 @@ package org.epochx.tools.ant;
 import static org.epochx.tools.ant.Orientation.*;
 
 import java.awt.Point;
+import java.util.Arrays;
 
 /**
  * An Ant represents an artificial ant which exists within and can move about
- * and perform other actions on an <code>AntLandscape</code>.
+ * and perform other actions on an <code>AntLandscape</code>. The location of
+ * the ant wraps around the edges of its landscape, whatever its dimensions.
+ * Moving, turning and testing for food do not allocate any objects.
  */
 public class Ant {
 
@@ -50,6 +53,12 @@ public class Ant {
 	// How many food pellets this ant has eaten.
 	private int foodEaten;
 
+	// The period in which each state, indexed by location and orientation,
+	// was last recorded; a new period starts on reset and when food is eaten.
+	private int[] visited;
+
+	private int period = 1;
+
 	/**
 	 * Constructs an Ant object on the given landscape.
 	 * 
@@ -113,6 +122,8 @@ public class Ant {
 		xLocation = 0;
 		yLocation = 0;
 		foodEaten = 0;
+
+		newPeriod();
 	}
 
 	/**
@@ -183,36 +194,12 @@ public class Ant {
 		}
 
 		// Update the ant's location according to its orientation.
-		if (orientation == EAST) {
-			if (xLocation < 31) {
-				xLocation++;
-			} else {
-				xLocation = 0;
-			}
-		} else if (orientation == NORTH) {
-			if (yLocation > 0) {
-				yLocation--;
-			} else {
-				yLocation = 31;
-			}
-		} else if (orientation == WEST) {
-			if (xLocation > 0) {
-				xLocation--;
-			} else {
-				xLocation = 31;
-			}
-		} else if (orientation == SOUTH) {
-			if (yLocation < 31) {
-				yLocation++;
-			} else {
-				yLocation = 0;
-			}
-		}
+		xLocation = landscape.getNextX(xLocation, orientation);
+		yLocation = landscape.getNextY(yLocation, orientation);
 
 		// If the new location has food then eat it.
-		if (landscape.isFoodLocation(getLocation())) {
+		if (landscape.removeFoodLocation(xLocation, yLocation)) {
 			eatFood();
-			landscape.removeFoodLocation(getLocation());
 		}
 
 		timesteps++;
@@ -223,6 +210,52 @@ public class Ant {
 	 */
 	public void eatFood() {
 		foodEaten++;
+
+		// the landscape has changed, so earlier states cannot repeat
+		newPeriod();
+	}
+
+	/**
+	 * Records the current location and orientation of the ant and returns
+	 * whether the ant was in the same state when this method was last called
+	 * since the ant was reset or last ate food. This is intended to be called
+	 * each time the evaluation of a deterministic program that controls the
+	 * ant starts: if the ant is in a recorded state, no food has been eaten
+	 * since that state, so the landscape is unchanged and the ant will repeat
+	 * the same cycle of moves forever without eating any more food.
+	 * 
+	 * @return true if the current state has already been recorded, false
+	 *         otherwise.
+	 */
+	public boolean recordState() {
+		int states = landscape.getWidth() * landscape.getHeight() * 4;
+
+		if (visited == null || visited.length != states) {
+			visited = new int[states];
+			period = 1;
+		}
+
+		int state = ((yLocation * landscape.getWidth() + xLocation) << 2) + orientation.ordinal();
+
+		if (visited[state] == period) {
+			return true;
+		}
+		visited[state] = period;
+
+		return false;
+	}
+
+	/*
+	 * Starts a new period, in which no states have been recorded.
+	 */
+	private void newPeriod() {
+		if (period == Integer.MAX_VALUE) {
+			if (visited != null) {
+				Arrays.fill(visited, 0);
+			}
+			period = 0;
+		}
+		period++;
 	}
 
 	/**
@@ -235,6 +268,24 @@ public class Ant {
 		return new Point(xLocation, yLocation);
 	}
 
+	/**
+	 * Returns the x co-ordinate of the current location of the ant.
+	 * 
+	 * @return the x axis location of the ant.
+	 */
+	public int getX() {
+		return xLocation;
+	}
+
+	/**
+	 * Returns the y co-ordinate of the current location of the ant.
+	 * 
+	 * @return the y axis location of the ant.
+	 */
+	public int getY() {
+		return yLocation;
+	}
+
 	/**
 	 * Sets the location of the ant on its landscape using an x/y co-ordinate
 	 * system.
@@ -294,9 +345,8 @@ public class Ant {
 	 *         and false otherwise.
 	 */
 	public boolean isFoodAhead() {
-		final Point ahead = landscape.getNextLocation(getLocation(), getOrientation());
-
-		return landscape.isFoodLocation(ahead);
+		return landscape.isFoodLocation(landscape.getNextX(xLocation, orientation),
+				landscape.getNextY(yLocation, orientation));
 	}
 
 	/**
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.tools.ant;
+
+/**
+ * An <code>AntContext</code> provides the ant that programs operate on during
+ * an evaluation. Nodes that are constructed with a context, such as
+ * <code>AntMove</code> and <code>IfFoodAhead</code>, do not hold an ant but
+ * obtain the ant from the context each time they are evaluated. The ant is
+ * bound separately for each thread, so the same program nodes can control
+ * different ants in different threads, and a thread can switch between ants,
+ * for example to simulate several programs in lockstep, by binding another
+ * ant before each evaluation.
+ * 
+ * @see AntSimulation
+ * 
+ * @since 2.0
+ */
+public class AntContext {
+
+	private final ThreadLocal<Ant> ants = new ThreadLocal<Ant>();
+
+	/**
+	 * Returns the ant bound to the current thread.
+	 * 
+	 * @return the ant bound to the current thread
+	 * @throws IllegalStateException if no ant is bound to the current thread
+	 */
+	public Ant getAnt() {
+		Ant ant = ants.get();
+
+		if (ant == null) {
+			throw new IllegalStateException("no ant bound to the current thread");
+		}
+
+		return ant;
+	}
+
+	/**
+	 * Binds an ant to the current thread, replacing any ant previously bound
+	 * to it.
+	 * 
+	 * @param ant the ant to be operated on by the programs evaluated in the
+	 *        current thread, or <code>null</code> to remove the binding
+	 */
+	public void setAnt(Ant ant) {
+		if (ant == null) {
+			ants.remove();
+		} else {
+			ants.set(ant);
+		}
+	}
+}
@@ -31,14 +31,54 @@ import java.util.List;
  * over which the positions wrap back around. The landscape also incorporates a
  * set of food locations which define the location of food pellets within
  * that co-ordinate system.
+ * 
+ * <p>
+ * The food locations are stored as a grid with one cell for each position, so
+ * testing for and removing food takes constant time, and each position holds
+ * at most one food pellet. Food that is removed is recorded by stamping the
+ * cell with the number of the current episode, so {@link #reset()} restores
+ * all the food of the landscape in constant time, without copying the food
+ * locations. The methods that take primitive co-ordinates do not allocate any
+ * objects.
+ * 
+ * <p>
+ * A copy of a landscape, created with {@link #AntLandscape(AntLandscape)},
+ * shares the food grid of the original and only allocates the record of the
+ * food removed, so the same trail can be simulated by several ants at once,
+ * each on its own copy, and in different threads. A copy can be brought up to
+ * date with the food of its original in constant time with
+ * {@link #setFoodLocations(AntLandscape)}. A shared grid is copied the first
+ * time food is added to either landscape, so changing the food locations of a
+ * landscape does not affect its copies.
  */
 public class AntLandscape {
 
 	// The width/height dimensions of the landscape.
 	private final Dimension size;
 
-	// The locations of food pellets.
-	private List<Point> foodLocations;
+	private final int width;
+	private final int height;
+
+	// Whether each cell, indexed by y * width + x, contains food at the start
+	// of an episode. The array is never modified once assigned, so it can be
+	// shared by the copies of the landscape.
+	private boolean[] food;
+
+	// Whether the food grid may be shared with another landscape, in which
+	// case it is copied before food is added.
+	private boolean shared;
+
+	// The episode in which the food of each cell was removed.
+	private final int[] removed;
+
+	// The current episode; cells removed in earlier episodes contain food.
+	private int episode = 1;
+
+	// The number of cells that contain food at the start of an episode.
+	private int foodCount;
+
+	// The number of food pellets remaining in the current episode.
+	private int foodRemaining;
 
 	// An optional ant which may be present on this landscape.
 	private Ant ant;
@@ -46,14 +86,41 @@ public class AntLandscape {
 	/**
 	 * Constructs an AntLandscape with the given dimensions and food locations.
 	 * To be reachable, FOOD_LOCATIONS should refer to points inside the size
-	 * dimensions where co-ordinate points are indexed from 0.
+	 * dimensions where co-ordinate points are indexed from 0. Locations
+	 * outside the landscape are ignored.
 	 * 
 	 * @param size the width/height dimensions of the landscape.
-	 * @param foodLocations the location of food pellets upon the landscape.
+	 * @param foodLocations the location of food pellets upon the landscape, or
+	 *        <code>null</code> for no food.
 	 */
 	public AntLandscape(final Dimension size, final List<Point> foodLocations) {
 		this.size = size;
-		this.foodLocations = foodLocations;
+
+		width = size.width;
+		height = size.height;
+		removed = new int[width * height];
+
+		setFoodLocations(foodLocations);
+	}
+
+	/**
+	 * Constructs an AntLandscape with the same dimensions and food locations
+	 * as the given landscape, with all the food present. The food locations
+	 * are shared with the given landscape and not copied.
+	 * 
+	 * @param landscape the landscape to be copied.
+	 */
+	public AntLandscape(final AntLandscape landscape) {
+		size = landscape.size;
+		width = landscape.width;
+		height = landscape.height;
+		food = landscape.food;
+		foodCount = landscape.foodCount;
+		foodRemaining = foodCount;
+		removed = new int[width * height];
+
+		shared = true;
+		landscape.shared = true;
 	}
 
 	/**
@@ -63,30 +130,75 @@ public class AntLandscape {
 	 * @param size the width/height dimensions of the landscape.
 	 */
 	public AntLandscape(final Dimension size) {
-		this(size, new ArrayList<Point>());
+		this(size, null);
 	}
 
 	/**
-	 * Adds a new food location to the landscape. The new point may <b>not</b>
-	 * be tested to check it is a valid location within the landscape
-	 * dimensions so care should be taken to provide valid locations.
+	 * Adds a new food location to the landscape. The food is present in the
+	 * current episode and restored by every later reset. Locations outside the
+	 * landscape dimensions are ignored.
 	 * 
 	 * @param location the x/y co-ordinates of the new item of food.
 	 */
 	public void addFoodLocation(final Point location) {
-		foodLocations.add(location);
+		if (shared) {
+			food = food.clone();
+			shared = false;
+		}
+
+		addFood(location);
+	}
+
+	/*
+	 * Adds food at the location to the food grid, which must not be shared.
+	 */
+	private void addFood(final Point location) {
+		if (isValidLocation(location)) {
+			int cell = location.y * width + location.x;
+
+			if (!food[cell]) {
+				food[cell] = true;
+				foodCount++;
+				foodRemaining++;
+			} else if (removed[cell] == episode) {
+				foodRemaining++;
+			}
+			removed[cell] = 0;
+		}
 	}
 
 	/**
-	 * Removes a food location from the ant landscape. If there are multiple
-	 * food pellets at the same <code>Point</code> location then only one will
-	 * be removed. If no food pellet exists at the given location then this
-	 * method will do nothing.
+	 * Removes a food location from the ant landscape until the next reset. If
+	 * no food pellet exists at the given location then this method will do
+	 * nothing.
 	 * 
 	 * @param location the location of a current food item to be removed.
 	 */
 	public void removeFoodLocation(final Point location) {
-		foodLocations.remove(location);
+		if (isValidLocation(location)) {
+			removeFoodLocation(location.x, location.y);
+		}
+	}
+
+	/**
+	 * Removes the food at the given location, which must be inside the
+	 * landscape, until the next reset.
+	 * 
+	 * @param x the x co-ordinate of the location.
+	 * @param y the y co-ordinate of the location.
+	 * @return true if there was food at the location, false otherwise.
+	 */
+	public boolean removeFoodLocation(final int x, final int y) {
+		int cell = y * width + x;
+
+		if (food[cell] && removed[cell] != episode) {
+			removed[cell] = episode;
+			foodRemaining--;
+
+			return true;
+		}
+
+		return false;
 	}
 
 	/**
@@ -96,26 +208,112 @@ public class AntLandscape {
 	 * @return true if food is present at the given location, false otherwise.
 	 */
 	public boolean isFoodLocation(final Point location) {
-		return foodLocations.contains(location);
+		return isValidLocation(location) && isFoodLocation(location.x, location.y);
+	}
+
+	/**
+	 * Tests whether a location, which must be inside the landscape, contains
+	 * an item of food.
+	 * 
+	 * @param x the x co-ordinate of the location.
+	 * @param y the y co-ordinate of the location.
+	 * @return true if food is present at the given location, false otherwise.
+	 */
+	public boolean isFoodLocation(final int x, final int y) {
+		int cell = y * width + x;
+
+		return food[cell] && removed[cell] != episode;
 	}
 
 	/**
 	 * Replaces the current set of food locations with a new set. To be
 	 * reachable, foodLocations should refer to points inside the size
 	 * dimensions of the landscape where co-ordinate points are indexed
-	 * from 0.
+	 * from 0. The list is not modified or retained by the landscape.
 	 * 
-	 * @param foodLocations the location of food pellets upon the landscape.
+	 * @param foodLocations the location of food pellets upon the landscape, or
+	 *        <code>null</code> for no food.
 	 */
 	public void setFoodLocations(final List<Point> foodLocations) {
-		this.foodLocations = foodLocations;
+		clearFoodLocations();
+
+		if (foodLocations != null) {
+			for (Point location: foodLocations) {
+				addFood(location);
+			}
+		}
+	}
+
+	/**
+	 * Replaces the current set of food locations with those of the given
+	 * landscape, which must have the same dimensions, and restores all the
+	 * food. The food locations are shared with the given landscape and not
+	 * copied, so this takes constant time.
+	 * 
+	 * @param landscape the landscape with the new food locations.
+	 * @throws IllegalArgumentException if the dimensions of the landscapes
+	 *         differ.
+	 */
+	public void setFoodLocations(final AntLandscape landscape) {
+		if ((landscape.width != width) || (landscape.height != height)) {
+			throw new IllegalArgumentException("landscape dimensions differ");
+		}
+
+		if (food != landscape.food) {
+			food = landscape.food;
+			foodCount = landscape.foodCount;
+
+			shared = true;
+			landscape.shared = true;
+		}
+
+		reset();
 	}
 
 	/**
 	 * Clears all food locations on the landscape.
 	 */
 	public void clearFoodLocations() {
-		foodLocations.clear();
+		food = new boolean[width * height];
+		shared = false;
+		Arrays.fill(removed, 0);
+		episode = 1;
+		foodCount = 0;
+		foodRemaining = 0;
+	}
+
+	/**
+	 * Restores all the food removed since the food locations were set or the
+	 * landscape was last reset. This takes constant time.
+	 */
+	public void reset() {
+		if (episode == Integer.MAX_VALUE) {
+			Arrays.fill(removed, 0);
+			episode = 0;
+		}
+
+		episode++;
+		foodRemaining = foodCount;
+	}
+
+	/**
+	 * Returns the number of food pellets on the landscape at the start of an
+	 * episode.
+	 * 
+	 * @return the number of food locations.
+	 */
+	public int getFoodCount() {
+		return foodCount;
+	}
+
+	/**
+	 * Returns the number of food pellets that have not been removed since the
+	 * last reset.
+	 * 
+	 * @return the number of remaining food pellets.
+	 */
+	public int getFoodRemaining() {
+		return foodRemaining;
 	}
 
 	/**
@@ -133,7 +331,7 @@ public class AntLandscape {
 	 * @return the width of the ant landscape.
 	 */
 	public int getWidth() {
-		return size.width;
+		return width;
 	}
 
 	/**
@@ -142,7 +340,7 @@ public class AntLandscape {
 	 * @return the height of the ant landscape.
 	 */
 	public int getHeight() {
-		return size.height;
+		return height;
 	}
 
 	/**
@@ -153,7 +351,7 @@ public class AntLandscape {
 	 * @return true if the location is a valid position on the landscape.
 	 */
 	public boolean isValidLocation(final Point location) {
-		return (location.x >= 0) && (location.x < size.width) && (location.y >= 0) && (location.y < size.height);
+		return (location.x >= 0) && (location.x < width) && (location.y >= 0) && (location.y < height);
 	}
 
 	/**
@@ -167,30 +365,47 @@ public class AntLandscape {
 	 *         direction of the provided orientation.
 	 */
 	public Point getNextLocation(final Point location, final Orientation orientation) {
-		final Point newLocation = new Point(location);
+		return new Point(getNextX(location.x, orientation), getNextY(location.y, orientation));
+	}
 
+	/**
+	 * Returns the x co-ordinate of one move on from a location with the given
+	 * x co-ordinate in the direction of the provided orientation, wrapping
+	 * around the edges of the landscape.
+	 * 
+	 * @param x the x co-ordinate of the current location.
+	 * @param orientation the direction of the move.
+	 * @return the x co-ordinate of the next location.
+	 */
+	public int getNextX(final int x, final Orientation orientation) {
 		switch (orientation) {
-			case NORTH:
-				newLocation.y = (location.y > 0) ? (location.y - 1) : (size.height - 1);
-				break;
-
 			case EAST:
-				newLocation.x = (location.x < size.width - 1) ? (location.x + 1) : 0;
-				break;
-
-			case SOUTH:
-				newLocation.y = (location.y < size.height - 1) ? (location.y + 1) : 0;
-				break;
-
+				return (x < width - 1) ? (x + 1) : 0;
 			case WEST:
-				newLocation.x = (location.x > 0) ? (location.x - 1) : (size.width - 1);
-				break;
-
+				return (x > 0) ? (x - 1) : (width - 1);
 			default:
-				break;
+				return x;
 		}
+	}
 
-		return newLocation;
+	/**
+	 * Returns the y co-ordinate of one move on from a location with the given
+	 * y co-ordinate in the direction of the provided orientation, wrapping
+	 * around the edges of the landscape.
+	 * 
+	 * @param y the y co-ordinate of the current location.
+	 * @param orientation the direction of the move.
+	 * @return the y co-ordinate of the next location.
+	 */
+	public int getNextY(final int y, final Orientation orientation) {
+		switch (orientation) {
+			case NORTH:
+				return (y > 0) ? (y - 1) : (height - 1);
+			case SOUTH:
+				return (y < height - 1) ? (y + 1) : 0;
+			default:
+				return y;
+		}
 	}
 
 	/**
@@ -215,12 +430,12 @@ public class AntLandscape {
 		int antX = -1;
 		int antY = -1;
 		if (ant != null) {
-			antX = ant.getLocation().x;
-			antY = ant.getLocation().y;
+			antX = ant.getX();
+			antY = ant.getY();
 		}
 
-		for (int y = 0; y < size.height; y++) {
-			for (int x = 0; x < size.width; x++) {
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
 				if ((antX == x) && (antY == y)) {
 					switch (ant.getOrientation()) {
 						case NORTH:
@@ -236,7 +451,7 @@ public class AntLandscape {
 							buffer.append('<');
 							break;
 					}
-				} else if (isFoodLocation(new Point(x, y))) {
+				} else if (isFoodLocation(x, y)) {
 					buffer.append('X');
 				} else {
 					buffer.append('.');
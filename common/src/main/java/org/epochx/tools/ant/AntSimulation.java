@@ -0,0 +1,361 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.tools.ant;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+
+import org.epochx.interpret.MalformedProgramException;
+
+/**
+ * An <code>AntSimulation</code> runs the programs that control artificial ants
+ * on a trail, and reports the number of food pellets each ant eats. A program
+ * is represented by a {@link Controller}, which is executed repeatedly until
+ * its ant has used the maximum number of timesteps. The execution also stops
+ * early when the ant enters a cycle in which it eats no food (see
+ * {@link Ant#recordState()}), or when it can no longer beat the cutoff
+ * fitness (see {@link #setCutoffFitness(Double)}).
+ * 
+ * <p>
+ * The trail is not modified by the simulation of several programs: each ant
+ * moves on its own copy of the trail, which shares the food locations of the
+ * trail. The programs of a list are simulated in lockstep batches of at most
+ * {@link #setBatchSize(int) batch size} programs, executing each program of a
+ * batch once in turn, and the list can be divided between several threads,
+ * each simulating its part batch by batch. The ants and their copies of the
+ * trail are kept by the simulation and reused by later batches and later
+ * calls, so a simulation should be reused rather than recreated for each
+ * population. Programs that are simulated
+ * concurrently must not share an ant; programs of Epox nodes should obtain
+ * their ant from an {@link AntContext}, which the controller binds to the
+ * ant it is given before evaluating the program.
+ * 
+ * @since 2.0
+ */
+public class AntSimulation {
+
+	/**
+	 * The result of a program that is malformed.
+	 */
+	public static final int MALFORMED = -1;
+
+	/**
+	 * The default maximum number of programs that are simulated in lockstep.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 32;
+
+	/**
+	 * A program that controls an ant.
+	 */
+	public interface Controller {
+
+		/**
+		 * Executes the program once, controlling the given ant.
+		 * 
+		 * @param ant the ant controlled by the program
+		 * @throws MalformedProgramException if the program is malformed
+		 */
+		void execute(Ant ant) throws MalformedProgramException;
+	}
+
+	private final AntLandscape trail;
+
+	private final int maxTimesteps;
+
+	private Double cutoff;
+
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	// The ants of the batches not in use, for reuse by later batches.
+	private final Queue<Batch> idle = new ConcurrentLinkedQueue<Batch>();
+
+	/**
+	 * Constructs an <code>AntSimulation</code> of the given trail.
+	 * 
+	 * @param trail the landscape with the food locations of the trail
+	 * @param maxTimesteps the maximum number of timesteps of each ant
+	 */
+	public AntSimulation(AntLandscape trail, int maxTimesteps) {
+		this.trail = trail;
+		this.maxTimesteps = maxTimesteps;
+	}
+
+	/**
+	 * Simulates one program with the given ant on the trail itself, which is
+	 * reset before the simulation.
+	 * 
+	 * @param ant the ant controlled by the program
+	 * @param controller the program
+	 * @return the number of food pellets eaten by the ant, or
+	 *         {@link #MALFORMED} if the program is malformed
+	 */
+	public int run(Ant ant, Controller controller) {
+		trail.reset();
+		ant.reset(maxTimesteps, trail);
+
+		try {
+			while (!isFinished(ant)) {
+				controller.execute(ant);
+			}
+		} catch (MalformedProgramException e) {
+			return MALFORMED;
+		}
+
+		return ant.getFoodEaten();
+	}
+
+	/**
+	 * Simulates the programs in lockstep batches in the current thread. Each
+	 * program controls its own ant, on its own copy of the trail.
+	 * 
+	 * @param controllers the programs to be simulated
+	 * @return the number of food pellets eaten by the ant of each program, or
+	 *         {@link #MALFORMED} for the programs that are malformed
+	 */
+	public int[] run(List<? extends Controller> controllers) {
+		int size = controllers.size();
+		int[] results = new int[size];
+
+		Batch batch = idle.poll();
+
+		if (batch == null || batch.ants.length != batchSize) {
+			batch = new Batch(batchSize);
+		}
+
+		for (int from = 0; from < size; from += batchSize) {
+			run(controllers.subList(from, Math.min(from + batchSize, size)), batch, results, from);
+		}
+
+		idle.add(batch);
+
+		return results;
+	}
+
+	/*
+	 * Simulates the programs, of which there are no more than the batch size,
+	 * in lockstep with the ants of the batch, storing the results from the
+	 * given offset.
+	 */
+	private void run(List<? extends Controller> controllers, Batch batch, int[] results, int offset) {
+		int size = controllers.size();
+		Ant[] ants = batch.ants;
+
+		for (int i = 0; i < size; i++) {
+			if (ants[i] == null) {
+				batch.landscapes[i] = new AntLandscape(trail);
+				ants[i] = new Ant(maxTimesteps, batch.landscapes[i]);
+			} else {
+				batch.landscapes[i].setFoodLocations(trail);
+				ants[i].reset(maxTimesteps, batch.landscapes[i]);
+			}
+		}
+
+		int active = size;
+		boolean[] finished = new boolean[size];
+
+		while (active > 0) {
+			for (int i = 0; i < size; i++) {
+				if (finished[i]) {
+					continue;
+				}
+
+				if (isFinished(ants[i])) {
+					results[offset + i] = ants[i].getFoodEaten();
+					finished[i] = true;
+					active--;
+				} else {
+					try {
+						controllers.get(i).execute(ants[i]);
+					} catch (MalformedProgramException e) {
+						results[offset + i] = MALFORMED;
+						finished[i] = true;
+						active--;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Simulates the programs with the given number of threads. The list is
+	 * divided into one contiguous part for each thread, and the programs of
+	 * each part are simulated in lockstep batches.
+	 * 
+	 * @param controllers the programs to be simulated
+	 * @param threads the number of threads
+	 * @return the number of food pellets eaten by the ant of each program, or
+	 *         {@link #MALFORMED} for the programs that are malformed
+	 */
+	public int[] run(List<? extends Controller> controllers, int threads) {
+		int size = controllers.size();
+		threads = Math.min(threads, size);
+
+		if (threads <= 1) {
+			return run(controllers);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<int[]>> parts = new ArrayList<Future<int[]>>(threads);
+
+		try {
+			for (int t = 0; t < threads; t++) {
+				final List<? extends Controller> part = controllers.subList(t * size / threads, (t + 1) * size
+						/ threads);
+
+				parts.add(executor.submit(new Callable<int[]>() {
+
+					@Override
+					public int[] call() {
+						return run(part);
+					}
+				}));
+			}
+
+			int[] results = new int[size];
+			int index = 0;
+
+			for (Future<int[]> part: parts) {
+				int[] partResults = part.get();
+
+				System.arraycopy(partResults, 0, results, index, partResults.length);
+				index += partResults.length;
+			}
+
+			return results;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+
+			throw new IllegalStateException("ant simulation interrupted", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			} else if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/*
+	 * Returns whether the simulation of the ant is complete: it has used all
+	 * its timesteps, it is in a cycle in which it eats no food, or it cannot
+	 * eat enough food in the remaining timesteps to beat the cutoff.
+	 */
+	private boolean isFinished(Ant ant) {
+		if (ant.getTimesteps() >= ant.getMaxMoves() || ant.recordState()) {
+			return true;
+		}
+
+		if (cutoff != null) {
+			int remainingTimesteps = ant.getMaxMoves() - ant.getTimesteps();
+
+			return (trail.getFoodCount() - ant.getFoodEaten() - remainingTimesteps) >= cutoff;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns the trail that is simulated.
+	 * 
+	 * @return the landscape with the food locations of the trail
+	 */
+	public AntLandscape getTrail() {
+		return trail;
+	}
+
+	/**
+	 * Returns the maximum number of timesteps of each ant.
+	 * 
+	 * @return the maximum number of timesteps
+	 */
+	public int getMaximumTimesteps() {
+		return maxTimesteps;
+	}
+
+	/**
+	 * Returns the maximum number of programs that are simulated in lockstep.
+	 * 
+	 * @return the batch size
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Sets the maximum number of programs that are simulated in lockstep by
+	 * each thread. Each program of a batch has its own ant and copy of the
+	 * trail, which are reused by the later batches.
+	 * 
+	 * @param batchSize the batch size
+	 * @throws IllegalArgumentException if the batch size is less than 1
+	 */
+	public void setBatchSize(int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("batch size must be at least 1");
+		}
+
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Returns the cutoff fitness, or <code>null</code> if there is no cutoff.
+	 * 
+	 * @return the cutoff fitness
+	 */
+	public Double getCutoffFitness() {
+		return cutoff;
+	}
+
+	/**
+	 * Sets the cutoff fitness, as a number of food pellets not eaten. The
+	 * simulation of an ant stops as soon as the number of food pellets it has
+	 * not eaten can no longer become lower than the cutoff. A value of
+	 * <code>null</code> disables the cutoff.
+	 * 
+	 * @param cutoff the cutoff fitness
+	 */
+	public void setCutoffFitness(Double cutoff) {
+		this.cutoff = cutoff;
+	}
+
+	/*
+	 * The ants of a batch, each on its own copy of the trail.
+	 */
+	private static class Batch {
+
+		private final Ant[] ants;
+
+		private final AntLandscape[] landscapes;
+
+		private Batch(int size) {
+			ants = new Ant[size];
+			landscapes = new AntLandscape[size];
+		}
+	}
+}
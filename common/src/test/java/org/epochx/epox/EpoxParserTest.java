@@ -24,12 +24,74 @@ package org.epochx.epox;
 
 import junit.framework.TestCase;
 
+import org.epochx.interpret.MalformedProgramException;
+
 /**
  * Unit tests for {@link org.epochx.epox.EpoxParser}
  */
 public class EpoxParserTest extends TestCase {
 
+	private EpoxParser parser;
+
+	private Variable x;
+
+	@Override
+	protected void setUp() throws Exception {
+		parser = new EpoxParser(true);
+		x = new Variable("X", 2.0);
+		parser.declare(new VariableNode(x));
+	}
+
 	public void testEmpty() {
 
 	}
+
+	/**
+	 * Tests that nested programs are parsed with either separator.
+	 */
+	public void testParse() throws MalformedProgramException {
+		Node root = parser.parse("ADD(X, MUL( X  X ))");
+
+		assertEquals("incorrect program", "ADD(X MUL(X X))", root.toString());
+		assertEquals("incorrect result", 6.0, root.evaluate());
+		assertEquals("incorrect program", root, parser.parse("ADD(X,MUL(X,X))"));
+		assertNull("null source not handled", parser.parse(null));
+	}
+
+	/**
+	 * Tests that a cached program creates a new tree on each call and resolves
+	 * its nodes again.
+	 */
+	public void testCache() throws MalformedProgramException {
+		Node root1 = parser.parse("ADD(X X)");
+		Node root2 = parser.parse("ADD(X X)");
+
+		assertNotSame("tree reused", root1, root2);
+		assertEquals("different trees", root1, root2);
+
+		Variable local = new Variable("X", 5.0);
+		Node root3 = parser.parse("ADD(X X)", new VariableNode(local));
+
+		assertEquals("local declaration ignored", 10.0, root3.evaluate());
+		assertEquals("local declaration kept", 4.0, parser.parse("ADD(X X)").evaluate());
+
+		parser.setCacheSize(0);
+		assertEquals("incorrect result without cache", 4.0, parser.parse("ADD(X X)").evaluate());
+	}
+
+	/**
+	 * Tests that malformed programs are rejected.
+	 */
+	public void testMalformed() {
+		String[] sources = {"ADD(X X", "ADD(X X))", "ADD(X)", "ADD(X,,X)", "FOO(X X)", "", "AND(X X)"};
+
+		for (String source: sources) {
+			try {
+				parser.parse(source);
+				fail("malformed program accepted: " + source);
+			} catch (MalformedProgramException e) {
+				// expected
+			}
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.epox;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import junit.framework.TestCase;
+
+import org.epochx.grammar.*;
+import org.epochx.interpret.MalformedProgramException;
+
+/**
+ * Unit tests for {@link org.epochx.epox.EpoxTranslator}
+ */
+public class EpoxTranslatorTest extends TestCase {
+
+	private EpoxTranslator translator;
+
+	@Override
+	protected void setUp() throws Exception {
+		translator = new EpoxTranslator();
+	}
+
+	/*
+	 * Derives a parse tree from the rule, choosing the productions in the
+	 * given order.
+	 */
+	private NonTerminalSymbol derive(GrammarRule rule, Iterator<Integer> choices) {
+		NonTerminalSymbol symbol = new NonTerminalSymbol(rule);
+		GrammarProduction production = rule.getProduction(choices.next());
+
+		for (GrammarNode node: production.getGrammarNodes()) {
+			if (node instanceof GrammarRule) {
+				symbol.addChild(derive((GrammarRule) node, choices));
+			} else {
+				symbol.addChild(new TerminalSymbol((GrammarLiteral) node));
+			}
+		}
+
+		return symbol;
+	}
+
+	private NonTerminalSymbol derive(Grammar grammar, Integer ... choices) {
+		return derive(grammar.getStartRule(), Arrays.asList(choices).iterator());
+	}
+
+	/**
+	 * Tests that a parse tree is translated into the same tree as its source
+	 * string is parsed into.
+	 */
+	public void testTranslate() throws MalformedProgramException {
+		Grammar grammar = new Grammar("<prog> ::= <node>\n" 
+				+ "<node> ::= <function> | <terminal>\n"
+				+ "<function> ::= ADD( <node> , <node> ) | MUL( <node> , <node> )\n" 
+				+ "<terminal> ::= X\n");
+
+		// ADD(X, MUL(X, X))
+		NonTerminalSymbol parseTree = derive(grammar, 0, 0, 0, 1, 0, 0, 1, 1, 0, 1, 0);
+		Variable x = new Variable("X", 3.0);
+		Node root = translator.translate(parseTree, new VariableNode(x));
+
+		assertEquals("incorrect program", "ADD(X MUL(X X))", root.toString());
+		assertEquals("incorrect result", 12.0, root.evaluate());
+		assertEquals("different from parsed program", translator.getParser().parse(parseTree.toString(),
+				new VariableNode(x)), root);
+
+		Object[] results = translator.eval(parseTree, new String[]{"X"}, new Object[][]{{1.0}, {2.0}});
+		assertEquals("incorrect result", 2.0, results[0]);
+		assertEquals("incorrect result", 6.0, results[1]);
+	}
+
+	/**
+	 * Tests that productions in which a grammar rule is not a whole argument
+	 * are translated through the source string.
+	 */
+	public void testFallback() throws MalformedProgramException {
+		Grammar grammar = new Grammar("<prog> ::= <op>( <var> , <var> )\n" 
+				+ "<op> ::= ADD | MUL\n"
+				+ "<var> ::= X1 | X2\n");
+
+		// MUL(X1, X2)
+		NonTerminalSymbol parseTree = derive(grammar, 0, 1, 0, 1);
+		Node root = translator.translate(parseTree, new VariableNode(new Variable("X1", 2.0)), new VariableNode(
+				new Variable("X2", 5.0)));
+
+		assertEquals("incorrect program", "MUL(X1 X2)", root.toString());
+		assertEquals("incorrect result", 10.0, root.evaluate());
+	}
+}
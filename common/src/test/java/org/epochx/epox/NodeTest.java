@@ -0,0 +1,106 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.epox;
+
+import junit.framework.TestCase;
+
+import org.epochx.epox.math.*;
+
+/**
+ * Unit tests for {@link org.epochx.epox.Node}
+ */
+public class NodeTest extends TestCase {
+
+	/**
+	 * Tests that the cached properties of a node tree are updated when a node
+	 * deep in the tree is replaced.
+	 */
+	public void testInvalidation() {
+		Node leaf = new Add(new Literal(1.0), new Literal(2.0));
+		Node root = new Add(new Literal(3.0), new Subtract(leaf, new Literal(4.0)));
+
+		assertEquals("incorrect length", 7, root.length());
+		assertEquals("incorrect depth", 3, root.depth());
+		assertEquals("incorrect terminals", 4, root.countTerminals());
+		assertEquals("incorrect data-type", Double.class, root.dataType());
+		int hash = root.hashCode();
+
+		leaf.setChild(0, new Add(new Literal(5.0), new Literal(6.0)));
+
+		assertEquals("length not updated", 9, root.length());
+		assertEquals("depth not updated", 4, root.depth());
+		assertEquals("terminals not updated", 5, root.countTerminals());
+		assertEquals("non-terminals not updated", 4, root.countNonTerminals());
+		assertFalse("hash code not updated", hash == root.hashCode());
+		assertEquals("incorrect hash code", root.clone().hashCode(), root.hashCode());
+
+		leaf.setChild(1, new Literal(Boolean.TRUE));
+
+		assertNull("data-type not updated", root.dataType());
+	}
+
+	/**
+	 * Tests that modifying a clone does not affect the cached properties of
+	 * the original tree.
+	 */
+	public void testClone() {
+		Node root = new Add(new Literal(1.0), new Subtract(new Literal(2.0), new Literal(3.0)));
+		Node clone = root.clone();
+
+		assertEquals("incorrect length", 5, clone.length());
+
+		clone.getChild(1).setChild(0, new Add(new Literal(4.0), new Literal(5.0)));
+
+		assertEquals("clone not updated", 7, clone.length());
+		assertEquals("original modified", 5, root.length());
+		assertEquals("incorrect terminal index", 5, clone.nthTerminalIndex(2));
+	}
+
+	/**
+	 * Tests that equality and hash codes are structural, and that changing a
+	 * literal value is reflected in both.
+	 */
+	public void testEquals() {
+		Variable x = new Variable("X", Double.class);
+		Node tree1 = new Add(new VariableNode(x), new Multiply(new Literal(2.0), new VariableNode(x)));
+		Node tree2 = new Add(new VariableNode(x), new Multiply(new Literal(2.0), new VariableNode(x)));
+
+		assertEquals("equal trees not equal", tree1, tree2);
+		assertEquals("equal trees with different hashes", tree1.hashCode(), tree2.hashCode());
+		assertFalse("different variables equal",
+				tree1.equals(new Add(new VariableNode(new Variable("X", Double.class)), tree2.getChild(1).clone())));
+		assertFalse("different arguments equal", tree1.equals(new Add(tree2.getChild(1).clone(), new VariableNode(x))));
+		assertFalse("different literals equal", new Literal(2.0).equals(new Literal(2)));
+
+		Literal literal = (Literal) tree2.getNode(3);
+		literal.setValue(3.0);
+
+		assertFalse("literal change not reflected", tree1.equals(tree2));
+		assertFalse("hash code not updated", tree1.hashCode() == tree2.hashCode());
+
+		literal.setValue(2.0);
+
+		assertEquals("equal trees not equal", tree1, tree2);
+		assertEquals("distinct non-terminals", 2, tree1.countDistinctNonTerminals());
+	}
+}
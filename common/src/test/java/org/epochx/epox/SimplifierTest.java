@@ -0,0 +1,98 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.epox;
+
+import junit.framework.TestCase;
+
+import org.epochx.epox.bool.*;
+import org.epochx.epox.lang.If;
+import org.epochx.epox.math.*;
+
+/**
+ * Unit tests for {@link org.epochx.epox.Simplifier}
+ */
+public class SimplifierTest extends TestCase {
+
+	private Simplifier simplifier;
+
+	private Variable x;
+
+	private Variable y;
+
+	@Override
+	protected void setUp() throws Exception {
+		simplifier = new Simplifier();
+		x = new Variable("X", Double.class);
+		y = new Variable("Y", Double.class);
+	}
+
+	/**
+	 * Tests the removal of identity and annihilator subtrees.
+	 */
+	public void testIdentities() {
+		Node root = new Add(new VariableNode(x), new Subtract(new VariableNode(y), new VariableNode(y)));
+		assertEquals("incorrect simplification", "X", simplifier.simplify(root).toString());
+
+		root = new Multiply(new Literal(1.0), new Add(new VariableNode(x), new VariableNode(y)));
+		assertEquals("incorrect simplification", "ADD(X Y)", simplifier.simplify(root).toString());
+
+		root = new Multiply(new VariableNode(x), new Literal(0.0));
+		assertEquals("incorrect simplification", "0.0", simplifier.simplify(root).toString());
+	}
+
+	/**
+	 * Tests that constant subtrees are folded and the original tree is not
+	 * modified.
+	 */
+	public void testConstantFolding() {
+		Node root = new Add(new VariableNode(x), new Multiply(new Literal(2.0), new Literal(3.0)));
+		String original = root.toString();
+
+		assertEquals("incorrect simplification", "ADD(X 6.0)", simplifier.simplify(root).toString());
+		assertEquals("original tree modified", original, root.toString());
+	}
+
+	/**
+	 * Tests dead-branch elimination and boolean rules.
+	 */
+	public void testBoolean() {
+		Variable a = new Variable("A", Boolean.class);
+		Variable b = new Variable("B", Boolean.class);
+
+		Node root = new If(new Or(new VariableNode(a), new Literal(true)), new VariableNode(x), new VariableNode(y));
+		assertEquals("incorrect simplification", "X", simplifier.simplify(root).toString());
+
+		root = new And(new Not(new Not(new VariableNode(a))), new Xor(new VariableNode(b), new Literal(false)));
+		assertEquals("incorrect simplification", "AND(A B)", simplifier.simplify(root).toString());
+	}
+
+	/**
+	 * Tests that a node is not replaced by a node of a different data-type.
+	 */
+	public void testDataType() {
+		Variable i = new Variable("I", Integer.class);
+		Node root = new Add(new VariableNode(i), new Literal(0.0));
+
+		assertEquals("data-type changed", Double.class, simplifier.simplify(root).dataType());
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.fitness;
+
+import junit.framework.TestCase;
+
+import org.epochx.AbstractFitnessFunction;
+import org.epochx.Fitness;
+import org.epochx.Individual;
+
+/**
+ * Unit tests for {@link org.epochx.fitness.CachedFitnessFunction}
+ */
+public class CachedFitnessFunctionTest extends TestCase {
+
+	private int evaluations;
+
+	private CachedFitnessFunction function;
+
+	@Override
+	protected void setUp() {
+		evaluations = 0;
+		function = new CachedFitnessFunction(new AbstractFitnessFunction() {
+
+			@Override
+			public Fitness evaluate(Individual individual) {
+				evaluations++;
+
+				return new DoubleFitness.Minimise(((ValueIndividual) individual).value);
+			}
+		}, 2);
+	}
+
+	/**
+	 * Tests that equal individuals are only evaluated once.
+	 */
+	public void testEvaluate() {
+		assertEquals("incorrect fitness", new DoubleFitness.Minimise(1), function.evaluate(new ValueIndividual(1)));
+		assertEquals("incorrect fitness", new DoubleFitness.Minimise(1), function.evaluate(new ValueIndividual(1)));
+		assertEquals("cached fitness not used", 1, evaluations);
+
+		function.clear();
+		function.evaluate(new ValueIndividual(1));
+		assertEquals("cache not cleared", 2, evaluations);
+	}
+
+	/**
+	 * Tests that the least recently used fitness is discarded when the cache
+	 * is full.
+	 */
+	public void testCapacity() {
+		function.evaluate(new ValueIndividual(1));
+		function.evaluate(new ValueIndividual(2));
+		function.evaluate(new ValueIndividual(1));
+		function.evaluate(new ValueIndividual(3));
+		assertEquals("incorrect number of evaluations", 3, evaluations);
+
+		function.evaluate(new ValueIndividual(1));
+		assertEquals("recently used fitness discarded", 3, evaluations);
+
+		function.evaluate(new ValueIndividual(2));
+		assertEquals("least recently used fitness not discarded", 4, evaluations);
+	}
+
+	/*
+	 * An individual that is equal to the individuals with the same value.
+	 */
+	private static class ValueIndividual implements Individual {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int value;
+
+		private ValueIndividual(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public ValueIndividual clone() {
+			return new ValueIndividual(value);
+		}
+
+		@Override
+		public Fitness getFitness() {
+			return null;
+		}
+
+		@Override
+		public int compareTo(Individual other) {
+			return 0;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return (obj instanceof ValueIndividual) && (((ValueIndividual) obj).value == value);
+		}
+
+		@Override
+		public int hashCode() {
+			return value;
+		}
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.grammar;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link org.epochx.grammar.CompiledGrammar}
+ */
+public class CompiledGrammarTest extends TestCase {
+
+	private Grammar grammar;
+
+	private CompiledGrammar tables;
+
+	@Override
+	protected void setUp() throws Exception {
+		StringBuilder many = new StringBuilder("<many> ::= <expr>");
+		for (int i = 0; i < 70; i++) {
+			many.append(i % 3 == 0 ? " | ( <many> )" : " | v" + i);
+		}
+
+		grammar = new Grammar("<prog> ::= <expr> | <many>\n"
+				+ "<expr> ::= ( <expr> <op> <expr> ) | <var> | <op> <term>\n" + "<term> ::= <var>\n"
+				+ "<op> ::= + | -\n" + "<var> ::= x | y\n" + many + "\n");
+		tables = grammar.compile();
+	}
+
+	/**
+	 * Tests that the tables describe the rules, productions and symbols of the
+	 * grammar.
+	 */
+	public void testStructure() {
+		assertSame("grammar not compiled once", tables, grammar.compile());
+		assertEquals("incorrect number of rules", grammar.getGrammarRules().size(), tables.getNoRules());
+		assertSame("incorrect start rule", grammar.getStartRule(), tables.getRule(tables.getStartRule()));
+
+		for (int r = 0; r < tables.getNoRules(); r++) {
+			GrammarRule rule = tables.getRule(r);
+
+			assertEquals("incorrect rule id", r, tables.getRuleId(rule));
+			assertEquals("incorrect minimum depth", rule.getMinDepth(), tables.getMinDepth(r));
+			assertEquals("incorrect number of productions", rule.getNoProductions(), tables.getNoProductions(r));
+
+			for (int i = 0; i < rule.getNoProductions(); i++) {
+				GrammarProduction production = rule.getProduction(i);
+				int p = tables.getProduction(r, i);
+
+				assertEquals("incorrect production depth", production.getMinDepth(), tables.getProductionMinDepth(p));
+				assertEquals("incorrect recursiveness", production.isRecursive(), tables.isRecursive(p));
+				assertEquals("incorrect number of symbols", production.getNoGrammarNodes(), tables.getNoSymbols(p));
+
+				for (int j = 0; j < production.getNoGrammarNodes(); j++) {
+					GrammarNode node = production.getGrammarNode(j);
+					int symbol = tables.getSymbol(p, j);
+
+					if (node instanceof GrammarRule) {
+						assertFalse("rule compiled as literal", CompiledGrammar.isLiteral(symbol));
+						assertSame("incorrect rule", node, tables.getRule(symbol));
+					} else {
+						assertTrue("literal compiled as rule", CompiledGrammar.isLiteral(symbol));
+						assertSame("incorrect literal", node, tables.getLiteral(symbol));
+					}
+				}
+			}
+		}
+
+		assertEquals("unknown rule has an id", -1, tables.getRuleId(new GrammarRule("unknown")));
+	}
+
+	/**
+	 * Tests that the valid productions are selected in the same order as a list
+	 * of the valid production indexes, including rules with more productions
+	 * than the bits of a bitmask word.
+	 */
+	public void testValidProductions() {
+		for (int r = 0; r < tables.getNoRules(); r++) {
+			GrammarRule rule = tables.getRule(r);
+
+			for (int depth = 0; depth < 8; depth++) {
+				List<Integer> valid = new ArrayList<Integer>();
+				List<Integer> recursive = new ArrayList<Integer>();
+
+				for (int i = 0; i < rule.getNoProductions(); i++) {
+					if (rule.getProduction(i).getMinDepth() <= depth) {
+						valid.add(i);
+
+						if (rule.getProduction(i).isRecursive()) {
+							recursive.add(i);
+						}
+					}
+				}
+
+				assertEquals("incorrect number of valid productions", valid.size(), tables.getNoValidProductions(r,
+						depth));
+				for (int n = 0; n < valid.size(); n++) {
+					assertEquals("incorrect valid production", (int) valid.get(n), tables.getValidProduction(r, depth, n));
+				}
+
+				assertEquals("incorrect number of recursive productions", recursive.size(), tables
+						.getNoValidRecursiveProductions(r, depth));
+				for (int n = 0; n < recursive.size(); n++) {
+					assertEquals("incorrect recursive production", (int) recursive.get(n), tables
+							.getValidRecursiveProduction(r, depth, n));
+				}
+			}
+
+			assertEquals("productions valid at negative depth", 0, tables.getNoValidProductions(r, -1));
+		}
+
+		int many = tables.getRuleId(grammar.getGrammarRule("many"));
+		assertEquals("incorrect number of productions", 71, tables.getNoProductions(many));
+	}
+}
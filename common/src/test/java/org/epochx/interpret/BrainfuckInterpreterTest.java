@@ -0,0 +1,101 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.interpret;
+
+import junit.framework.TestCase;
+
+import org.epochx.Individual;
+import org.epochx.source.SourceGenerator;
+
+/**
+ * Unit tests for {@link org.epochx.interpret.BrainfuckInterpreter}
+ */
+public class BrainfuckInterpreterTest extends TestCase {
+
+	private String source;
+
+	private BrainfuckInterpreter<Individual> interpreter;
+
+	@Override
+	protected void setUp() {
+		interpreter = new BrainfuckInterpreter<Individual>(new SourceGenerator<Individual>() {
+
+			@Override
+			public String getSource(Individual individual) {
+				return source;
+			}
+		}, 10);
+	}
+
+	/**
+	 * Tests that folded commands and loops give the same memory as executing
+	 * the commands one at a time.
+	 */
+	public void testExec() {
+		// adds the first cell to the second and multiplies the result by 3
+		source = "[->+<]>[-<+++>]<+-+ comment -";
+		interpreter.exec(null, null, new Object[][]{{(byte) 2, (byte) 5}});
+
+		byte[] memory = interpreter.getMemory();
+		assertEquals("incorrect memory value", 21, memory[0]);
+		assertEquals("incorrect memory value", 0, memory[1]);
+
+		// the pointer wraps around in both directions
+		source = "<+<++>>>>>>>>>>>+++";
+		interpreter.exec(null, null, new Object[][]{{}});
+
+		assertEquals("incorrect memory value", 4, memory[9]);
+		assertEquals("incorrect memory value", 2, memory[8]);
+	}
+
+	/**
+	 * Tests that clear loops, unmatched brackets and the inputs of each set of
+	 * arguments are handled.
+	 */
+	public void testLoops() {
+		source = "+++[-]>[+++]>-[+]]>++[->+<";
+		interpreter.exec(null, null, new Object[][]{{(byte) 7}, {(byte) 9}});
+
+		byte[] memory = interpreter.getMemory();
+		assertEquals("cell not cleared", 0, memory[0]);
+		assertEquals("cell not cleared", 0, memory[2]);
+		assertEquals("unmatched bracket not closed at end", 0, memory[3]);
+		assertEquals("unmatched bracket not closed at end", 2, memory[4]);
+	}
+
+	/**
+	 * Tests that a non-terminating program is stopped by the step limit.
+	 */
+	public void testStepLimit() {
+		source = "+[++]";
+		interpreter.setStepLimit(1000);
+		interpreter.exec(null, null, new Object[][]{{}});
+
+		assertTrue("step limit not reached", interpreter.isStepLimitReached());
+
+		source = "+[-]";
+		interpreter.exec(null, null, new Object[][]{{}});
+
+		assertFalse("step limit reached", interpreter.isStepLimitReached());
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.interpret;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.epochx.Fitness;
+import org.epochx.Individual;
+import org.epochx.source.SourceGenerator;
+
+/**
+ * Unit tests for {@link org.epochx.interpret.CompilingJavaInterpreter}
+ */
+public class CompilingJavaInterpreterTest extends TestCase {
+
+	private CompilingJavaInterpreter<SourceIndividual> interpreter;
+
+	@Override
+	protected void setUp() {
+		interpreter = new CompilingJavaInterpreter<SourceIndividual>(new SourceGenerator<SourceIndividual>() {
+
+			@Override
+			public String getSource(SourceIndividual individual) {
+				return individual.source;
+			}
+		});
+	}
+
+	/**
+	 * Tests that expressions are evaluated for each set of arguments, with and
+	 * without the cache of compiled programs.
+	 */
+	public void testEval() throws MalformedProgramException {
+		String[] names = {"X", "Y"};
+		Object[][] values = {{1.0, 2}, {3.0, 4}, {5.0, 6}};
+
+		for (int size: new int[]{CompilingJavaInterpreter.DEFAULT_CACHE_SIZE, 0}) {
+			interpreter.setCacheSize(size);
+
+			Object[] results = interpreter.eval(new SourceIndividual("X * 2 + Y"), names, values);
+
+			assertEquals("incorrect number of results", 3, results.length);
+			assertEquals("incorrect result", 4.0, results[0]);
+			assertEquals("incorrect result", 16.0, results[2]);
+
+			results = interpreter.eval(new SourceIndividual("Y % 4 == 0 ? Math.sqrt(X) : -X"), names, values);
+
+			assertEquals("program of another source used", -1.0, results[0]);
+			assertEquals("incorrect result", Math.sqrt(3.0), results[1]);
+		}
+	}
+
+	/**
+	 * Tests that the programs compiled in one compilation unit are evaluated
+	 * correctly and that a malformed program does not prevent the others from
+	 * being compiled.
+	 */
+	public void testCompile() throws MalformedProgramException {
+		String[] names = {"X"};
+		Object[][] values = {{2}, {3}};
+		List<SourceIndividual> population = new ArrayList<SourceIndividual>();
+
+		for (int i = 0; i < 10; i++) {
+			population.add(new SourceIndividual("X * " + i));
+		}
+		population.add(new SourceIndividual("X * ("));
+		population.add(new SourceIndividual("X.length()"));
+
+		interpreter.compile(population, names, values);
+
+		for (int i = 0; i < 10; i++) {
+			Object[] results = interpreter.eval(population.get(i), names, values);
+
+			assertEquals("incorrect result", 3 * i, results[1]);
+		}
+
+		for (SourceIndividual malformed: population.subList(10, 12)) {
+			try {
+				interpreter.eval(malformed, names, values);
+				fail("malformed program accepted");
+			} catch (MalformedProgramException e) {
+				// expected
+			}
+		}
+	}
+
+	/**
+	 * Tests that an exception thrown by a program is reported as malformed.
+	 */
+	public void testException() {
+		try {
+			interpreter.eval(new SourceIndividual("1 / X"), new String[]{"X"}, new Object[][]{{0}});
+			fail("exception not reported");
+		} catch (MalformedProgramException e) {
+			// expected
+		}
+	}
+
+	/*
+	 * An individual that holds its source code.
+	 */
+	private static class SourceIndividual implements Individual {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String source;
+
+		private SourceIndividual(String source) {
+			this.source = source;
+		}
+
+		@Override
+		public SourceIndividual clone() {
+			return this;
+		}
+
+		@Override
+		public Fitness getFitness() {
+			return null;
+		}
+
+		@Override
+		public int compareTo(Individual other) {
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.interpret;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import junit.framework.TestCase;
+
+import org.epochx.Individual;
+import org.epochx.source.SourceGenerator;
+
+/**
+ * Unit tests for {@link org.epochx.interpret.GroovyInterpreter}
+ */
+public class GroovyInterpreterTest extends TestCase {
+
+	private GroovyInterpreter<Individual> interpreter;
+
+	private final ThreadLocal<String> source = new ThreadLocal<String>();
+
+	@Override
+	protected void setUp() {
+		interpreter = new GroovyInterpreter<Individual>(new SourceGenerator<Individual>() {
+
+			@Override
+			public String getSource(Individual individual) {
+				return source.get();
+			}
+		});
+	}
+
+	/**
+	 * Tests that each set of arguments is passed to the program, with and
+	 * without the cache of compiled programs.
+	 */
+	public void testEval() throws MalformedProgramException {
+		String[] names = {"X", "Y"};
+		Object[][] values = {{1, 2}, {3, 4}, {5, 6}};
+
+		for (int size: new int[]{ScriptingInterpreter.DEFAULT_CACHE_SIZE, 0}) {
+			interpreter.setCacheSize(size);
+
+			source.set("X * 2 + Y");
+			Object[] results = interpreter.eval(null, names, values);
+
+			assertEquals("incorrect number of results", 3, results.length);
+			assertEquals("incorrect result", 4, results[0]);
+			assertEquals("incorrect result", 16, results[2]);
+
+			source.set("X - Y");
+			results = interpreter.eval(null, names, values);
+
+			assertEquals("program of another source used", -1, results[1]);
+		}
+	}
+
+	/**
+	 * Tests that variables defined in the engine scope are visible to the
+	 * programs.
+	 */
+	public void testEngineScope() throws MalformedProgramException {
+		interpreter.getEngine().put("Z", 5);
+
+		source.set("X + Z");
+		Object[] results = interpreter.eval(null, new String[]{"X"}, new Object[][]{{10}, {20}});
+
+		assertEquals("engine scope not visible", 15, results[0]);
+		assertEquals("engine scope not visible", 25, results[1]);
+	}
+
+	/**
+	 * Tests that a program that cannot be compiled is reported as malformed.
+	 */
+	public void testMalformed() {
+		source.set("X * (");
+		try {
+			interpreter.eval(null, new String[]{"X"}, new Object[][]{{1}});
+			fail("malformed program accepted");
+		} catch (MalformedProgramException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Tests that one interpreter can evaluate programs in several threads.
+	 */
+	public void testConcurrentEval() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<Object[]>> results = new ArrayList<Future<Object[]>>();
+
+		try {
+			for (int i = 0; i < 16; i++) {
+				final int n = i % 4;
+
+				results.add(executor.submit(new Callable<Object[]>() {
+
+					@Override
+					public Object[] call() throws MalformedProgramException {
+						source.set("X + " + n);
+
+						return interpreter.eval(null, new String[]{"X"}, new Object[][]{{10}, {20}});
+					}
+				}));
+			}
+
+			for (int i = 0; i < 16; i++) {
+				assertEquals("incorrect result", 20 + i % 4, results.get(i).get()[1]);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
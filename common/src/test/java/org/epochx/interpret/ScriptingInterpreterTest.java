@@ -0,0 +1,125 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.interpret;
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+
+import junit.framework.TestCase;
+
+import org.epochx.Individual;
+import org.epochx.source.SourceGenerator;
+
+/**
+ * Unit tests for {@link org.epochx.interpret.ScriptingInterpreter}
+ */
+public class ScriptingInterpreterTest extends TestCase {
+
+	private String source;
+
+	private ScriptingInterpreter<Individual> interpreter;
+
+	@Override
+	protected void setUp() throws Exception {
+		ScriptEngine engine = new ScriptEngineManager().getEngineByName("javascript");
+
+		if (engine != null) {
+			interpreter = new ScriptingInterpreter<Individual>(new SourceGenerator<Individual>() {
+
+				@Override
+				public String getSource(Individual individual) {
+					return source;
+				}
+			}, engine);
+		}
+	}
+
+	/**
+	 * Tests that each set of arguments is bound before evaluation, with and
+	 * without the cache of compiled scripts.
+	 */
+	public void testEval() throws MalformedProgramException {
+		if (interpreter == null) {
+			// no javascript engine installed
+			return;
+		}
+
+		String[] names = {"X", "Y"};
+		Object[][] values = {{1.0, 2.0}, {3.0, 4.0}, {5.0, 6.0}};
+
+		for (int size: new int[]{ScriptingInterpreter.DEFAULT_CACHE_SIZE, 0}) {
+			interpreter.setCacheSize(size);
+
+			source = "X * 2 + Y";
+			Object[] results = interpreter.eval(null, names, values);
+
+			assertEquals("incorrect number of results", 3, results.length);
+			assertEquals("incorrect result", 4.0, ((Number) results[0]).doubleValue());
+			assertEquals("incorrect result", 16.0, ((Number) results[2]).doubleValue());
+
+			source = "X - Y";
+			results = interpreter.eval(null, names, values);
+
+			assertEquals("cached script of another source used", -1.0, ((Number) results[1]).doubleValue());
+		}
+	}
+
+	/**
+	 * Tests that the functions and values defined in the engine are visible to
+	 * the programs, with and without the cache of compiled scripts.
+	 */
+	public void testEngineScope() throws Exception {
+		if (interpreter == null) {
+			return;
+		}
+
+		interpreter.getEngine().eval("function square(v) { return v * v; }");
+		interpreter.getEngine().put("K", 10.0);
+
+		for (int size: new int[]{ScriptingInterpreter.DEFAULT_CACHE_SIZE, 0}) {
+			interpreter.setCacheSize(size);
+
+			source = "square(X) + K";
+			Object[] results = interpreter.eval(null, new String[]{"X"}, new Object[][]{{3.0}});
+
+			assertEquals("engine scope not visible", 19.0, ((Number) results[0]).doubleValue());
+		}
+	}
+
+	/**
+	 * Tests that a script that cannot be compiled is reported as malformed.
+	 */
+	public void testMalformed() {
+		if (interpreter == null) {
+			return;
+		}
+
+		source = "X * (";
+		try {
+			interpreter.eval(null, new String[]{"X"}, new Object[][]{{1.0}});
+			fail("malformed program accepted");
+		} catch (MalformedProgramException e) {
+			// expected
+		}
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.tools.ant;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.epochx.epox.Node;
+import org.epochx.epox.ant.AntMove;
+import org.epochx.epox.ant.AntTurnLeft;
+import org.epochx.epox.ant.AntTurnRight;
+import org.epochx.epox.ant.IfFoodAhead;
+import org.epochx.interpret.MalformedProgramException;
+
+/**
+ * Unit tests for {@link org.epochx.tools.ant.AntSimulation} and
+ * {@link org.epochx.tools.ant.AntContext}
+ */
+public class AntSimulationTest extends TestCase {
+
+	private AntContext context;
+
+	private AntLandscape trail;
+
+	@Override
+	protected void setUp() throws Exception {
+		context = new AntContext();
+		trail = new AntLandscape(new Dimension(10, 10), Arrays.asList(new Point(1, 0), new Point(2, 0), new Point(
+				3, 0), new Point(5, 0), new Point(5, 5)));
+	}
+
+	/*
+	 * Returns a controller that binds the ant to the context and evaluates the
+	 * program.
+	 */
+	private AntSimulation.Controller controller(final Node program) {
+		return new AntSimulation.Controller() {
+
+			@Override
+			public void execute(Ant ant) {
+				context.setAnt(ant);
+				program.evaluate();
+			}
+		};
+	}
+
+	/*
+	 * Returns controllers for a mix of programs.
+	 */
+	private List<AntSimulation.Controller> controllers(int size) {
+		List<AntSimulation.Controller> controllers = new ArrayList<AntSimulation.Controller>();
+
+		for (int i = 0; i < size; i++) {
+			switch (i % 3) {
+				case 0:
+					controllers.add(controller(new AntMove(context)));
+					break;
+				case 1:
+					controllers.add(controller(new IfFoodAhead(context, new AntMove(context), new AntTurnRight(
+							context))));
+					break;
+				default:
+					controllers.add(controller(new AntTurnLeft(context)));
+			}
+		}
+
+		return controllers;
+	}
+
+	/**
+	 * Tests that a single program is simulated on the trail itself.
+	 */
+	public void testRunSingle() {
+		AntSimulation simulation = new AntSimulation(trail, 100);
+		Ant ant = new Ant(100, trail);
+
+		assertEquals("incorrect food eaten", 4, simulation.run(ant, controller(new AntMove(context))));
+		assertEquals("incorrect food eaten after rerun", 4, simulation.run(ant, controller(new AntMove(context))));
+		assertTrue("cycle not detected", ant.getTimesteps() < 100);
+	}
+
+	/**
+	 * Tests that the lockstep simulation gives the same results as simulating
+	 * each program on its own, and does not modify the trail.
+	 */
+	public void testRunLockstep() {
+		AntSimulation simulation = new AntSimulation(trail, 100);
+		List<AntSimulation.Controller> controllers = controllers(6);
+
+		int[] results = simulation.run(controllers);
+
+		for (int i = 0; i < controllers.size(); i++) {
+			Ant ant = new Ant(100, trail);
+			assertEquals("incorrect lockstep result", simulation.run(ant, controllers.get(i)), results[i]);
+		}
+
+		assertEquals("incorrect food eaten", 4, results[0]);
+		assertEquals("incorrect food eaten", 0, results[2]);
+
+		trail.reset();
+		assertEquals("trail modified", 5, trail.getFoodRemaining());
+	}
+
+	/**
+	 * Tests that the results are the same with several threads.
+	 */
+	public void testRunThreads() {
+		AntSimulation simulation = new AntSimulation(trail, 200);
+		List<AntSimulation.Controller> controllers = controllers(50);
+
+		int[] expected = simulation.run(controllers);
+
+		assertTrue("incorrect results with threads", Arrays.equals(expected, simulation.run(controllers, 4)));
+		assertTrue("incorrect results with threads", Arrays.equals(expected, simulation.run(controllers, 100)));
+	}
+
+	/**
+	 * Tests that the results are the same with small batches, and when the
+	 * ants are reused after the food locations of the trail change.
+	 */
+	public void testRunBatches() {
+		AntSimulation simulation = new AntSimulation(trail, 100);
+		List<AntSimulation.Controller> controllers = controllers(7);
+
+		int[] expected = simulation.run(controllers);
+
+		simulation.setBatchSize(2);
+		assertTrue("incorrect results with batches", Arrays.equals(expected, simulation.run(controllers)));
+		assertTrue("incorrect results with batches", Arrays.equals(expected, simulation.run(controllers, 2)));
+
+		trail.setFoodLocations(Arrays.asList(new Point(1, 0)));
+		assertEquals("food locations not updated", 1, simulation.run(controllers)[0]);
+	}
+
+	/**
+	 * Tests that a malformed program is reported without stopping the others.
+	 */
+	public void testRunMalformed() {
+		AntSimulation simulation = new AntSimulation(trail, 100);
+		List<AntSimulation.Controller> controllers = controllers(2);
+
+		controllers.add(1, new AntSimulation.Controller() {
+
+			@Override
+			public void execute(Ant ant) throws MalformedProgramException {
+				throw new MalformedProgramException();
+			}
+		});
+
+		int[] results = simulation.run(controllers);
+
+		assertEquals("malformed program not reported", AntSimulation.MALFORMED, results[1]);
+		assertEquals("incorrect food eaten", 4, results[0]);
+	}
+
+	/**
+	 * Tests that the simulation stops once the cutoff cannot be beaten.
+	 */
+	public void testCutoff() {
+		AntSimulation simulation = new AntSimulation(trail, 3);
+		simulation.setCutoffFitness(1.0);
+		Ant ant = new Ant(3, trail);
+
+		simulation.run(ant, controller(new AntTurnRight(context)));
+		assertEquals("cutoff not applied", 0, ant.getTimesteps());
+	}
+
+	/**
+	 * Tests that an ant must be bound before the nodes are evaluated.
+	 */
+	public void testUnbound() {
+		context.setAnt(null);
+
+		try {
+			new AntMove(context).evaluate();
+			fail("unbound context accepted");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+}
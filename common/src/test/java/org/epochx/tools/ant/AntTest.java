@@ -0,0 +1,141 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.tools.ant;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link org.epochx.tools.ant.Ant} and
+ * {@link org.epochx.tools.ant.AntLandscape}
+ */
+public class AntTest extends TestCase {
+
+	/**
+	 * Tests that the ant wraps around the edges of a landscape that is not
+	 * 32x32.
+	 */
+	public void testMoveWrap() {
+		AntLandscape landscape = new AntLandscape(new Dimension(100, 50));
+		Ant ant = new Ant(1000, landscape);
+
+		ant.setLocation(99, 0);
+		ant.move();
+		assertEquals("incorrect x after wrap", 0, ant.getX());
+
+		ant.turnLeft();
+		ant.move();
+		assertEquals("incorrect y after wrap", 49, ant.getY());
+
+		ant.turnLeft();
+		ant.move();
+		assertEquals("incorrect x after wrap", 99, ant.getX());
+		assertEquals("incorrect location", new Point(99, 49), ant.getLocation());
+	}
+
+	/**
+	 * Tests that eaten food is restored by resetting the landscape.
+	 */
+	public void testEatAndReset() {
+		AntLandscape landscape = new AntLandscape(new Dimension(40, 40), Arrays.asList(new Point(1, 0),
+				new Point(2, 0), new Point(39, 39)));
+		Ant ant = new Ant(10, landscape);
+
+		assertEquals("incorrect food count", 3, landscape.getFoodCount());
+		assertTrue("food ahead not found", ant.isFoodAhead());
+
+		ant.move();
+		ant.move();
+		assertEquals("incorrect food eaten", 2, ant.getFoodEaten());
+		assertEquals("incorrect food remaining", 1, landscape.getFoodRemaining());
+		assertFalse("eaten food still present", landscape.isFoodLocation(new Point(1, 0)));
+
+		landscape.reset();
+		ant.reset();
+		assertEquals("food not restored", 3, landscape.getFoodRemaining());
+		assertTrue("food not restored", landscape.isFoodLocation(1, 0));
+		assertTrue("food ahead not found", ant.isFoodAhead());
+
+		landscape.removeFoodLocation(new Point(39, 39));
+		landscape.addFoodLocation(new Point(39, 39));
+		assertTrue("added food not present", landscape.isFoodLocation(39, 39));
+		assertEquals("incorrect food remaining", 3, landscape.getFoodRemaining());
+	}
+
+	/**
+	 * Tests that a repeated state is only detected while no food is eaten.
+	 */
+	public void testRecordState() {
+		AntLandscape landscape = new AntLandscape(new Dimension(4, 4), Arrays.asList(new Point(2, 0)));
+		Ant ant = new Ant(100, landscape);
+
+		assertFalse("state not new", ant.recordState());
+		ant.move();
+		assertFalse("state not new", ant.recordState());
+		ant.move();
+		assertEquals("food not eaten", 1, ant.getFoodEaten());
+		assertFalse("state not new", ant.recordState());
+
+		// circles the landscape without finding more food
+		for (int i = 0; i < 4; i++) {
+			ant.move();
+		}
+		assertTrue("cycle not detected", ant.recordState());
+
+		ant.turnLeft();
+		assertFalse("orientation ignored", ant.recordState());
+
+		ant.reset();
+		assertFalse("state recorded before reset", ant.recordState());
+	}
+
+	/**
+	 * Tests that adding food to a landscape or to its copy does not affect
+	 * the other, and that a copy can be brought up to date with its original.
+	 */
+	public void testCopy() {
+		AntLandscape landscape = new AntLandscape(new Dimension(4, 4), Arrays.asList(new Point(2, 0)));
+		AntLandscape copy = new AntLandscape(landscape);
+
+		copy.addFoodLocation(new Point(3, 3));
+		landscape.addFoodLocation(new Point(1, 1));
+		landscape.addFoodLocation(new Point(1, 2));
+
+		assertFalse("food added to original", landscape.isFoodLocation(3, 3));
+		assertFalse("food added to copy", copy.isFoodLocation(1, 1));
+		assertEquals("incorrect food count", 2, copy.getFoodCount());
+
+		copy.removeFoodLocation(2, 0);
+		copy.setFoodLocations(landscape);
+		assertEquals("incorrect food count", 3, copy.getFoodCount());
+		assertEquals("food not restored", 3, copy.getFoodRemaining());
+		assertTrue("food not shared", copy.isFoodLocation(1, 2));
+		assertFalse("food not replaced", copy.isFoodLocation(3, 3));
+
+		landscape.addFoodLocation(new Point(0, 3));
+		assertFalse("food added to copy", copy.isFoodLocation(0, 3));
+	}
+}
@@ -37,6 +37,17 @@ import org.epochx.event.Listener;
  * gathers data and statistics about events. It also works as a central
  * repository for registering, removing and retrieving stat objects.
  * 
+ * <p>
+ * By default a stat is refreshed as soon as its event is fired. When the lazy
+ * mode is enabled (see {@link #setLazy(boolean)}), stats that are
+ * {@link #isDeferrable() deferrable} only record the event and are refreshed
+ * the first time their value is requested through {@link #get(Class)} or
+ * {@link #update()}; the result is kept until the next event, so stats that
+ * nobody reads are never computed and stats shared by several dependents are
+ * computed once. Since dependencies are retrieved through {@link #get(Class)},
+ * a stale dependency is brought up to date before the stat that depends on it.
+ * </p>
+ * 
  * @see Event
  */
 public abstract class AbstractStat<T extends Event> {
@@ -52,6 +63,11 @@ public abstract class AbstractStat<T extends Event> {
 	 */
 	private static final HashMap<Class<?>, Object> REPOSITORY = new HashMap<Class<?>, Object>();
 
+	/**
+	 * Indicates whether deferrable stats are refreshed on demand.
+	 */
+	private static boolean lazy = false;
+
 	/**
 	 * This is the stat listener. When the stat is registered, its listener is added to
 	 * the {@link EventManager}.
@@ -60,10 +76,21 @@ public abstract class AbstractStat<T extends Event> {
 
 		@Override
 		public void onEvent(T event) {
-			AbstractStat.this.refresh(event);
+			if (lazy && isDeferrable()) {
+				pending = event;
+			} else {
+				pending = null;
+				AbstractStat.this.refresh(event);
+			}
 		}
 	};
 
+	/**
+	 * The event received in lazy mode that has not been used to refresh the
+	 * stat yet; <code>null</code> if the stat is up to date.
+	 */
+	private T pending;
+
 	/**
 	 * The event that trigger the stat to clear its values.
 	 */
@@ -75,6 +102,11 @@ public abstract class AbstractStat<T extends Event> {
 	 */
 	private Listener<Event> clearOnListener;
 
+	/**
+	 * Indicates whether the refresh of this stat can be postponed.
+	 */
+	private final boolean deferrable;
+
 	/**
 	 * Constructs an <code>AbstractStat</code>.
 	 */
@@ -109,9 +141,47 @@ public abstract class AbstractStat<T extends Event> {
 	 * @param dependencies the list of dependencies of this stat.
 	 */
 	public AbstractStat(List<Class<? extends AbstractStat<?>>> dependencies) {
+		this(false, dependencies);
+	}
+
+	/**
+	 * Constructs an <code>AbstractStat</code> that is deferrable or not, as
+	 * described in {@link #isDeferrable()}.
+	 * 
+	 * @param deferrable whether the refresh of this stat can be postponed.
+	 * @param dependency the dependency of this stat.
+	 */
+	@SuppressWarnings("unchecked")
+	protected AbstractStat(boolean deferrable, Class<? extends AbstractStat<?>> dependency) {
+		this(deferrable, Arrays.<Class<? extends AbstractStat<?>>> asList(dependency));
+	}
+
+	/**
+	 * Constructs an <code>AbstractStat</code> that is deferrable or not, as
+	 * described in {@link #isDeferrable()}. The array of dependencies can be
+	 * empty, in case this stat has no dependencies.
+	 * 
+	 * @param deferrable whether the refresh of this stat can be postponed.
+	 * @param dependencies the array of dependencies of this stat.
+	 */
+	protected AbstractStat(boolean deferrable, Class<? extends AbstractStat<?>> ... dependencies) {
+		this(deferrable, Arrays.asList(dependencies));
+	}
+
+	/**
+	 * Constructs an <code>AbstractStat</code> that is deferrable or not, as
+	 * described in {@link #isDeferrable()}. The list of dependencies can be
+	 * empty, in case this stat has no dependencies.
+	 * 
+	 * @param deferrable whether the refresh of this stat can be postponed.
+	 * @param dependencies the list of dependencies of this stat.
+	 */
+	protected AbstractStat(boolean deferrable, List<Class<? extends AbstractStat<?>>> dependencies) {
 		for (Class<? extends AbstractStat<?>> dependency: dependencies) {
 			AbstractStat.register(dependency);
 		}
+
+		this.deferrable = deferrable;
 	}
 
 	/**
@@ -153,6 +223,7 @@ public abstract class AbstractStat<T extends Event> {
 
 			@Override
 			public void onEvent(E event) {
+				pending = null;
 				AbstractStat.this.clear();
 			};
 		};
@@ -161,6 +232,7 @@ public abstract class AbstractStat<T extends Event> {
 
 		clearOnEvent = (Class<Event>) clearOn;
 		clearOnListener = (Listener<Event>) trigger;
+		deferrable = false;
 	}
 
 	/**
@@ -184,6 +256,51 @@ public abstract class AbstractStat<T extends Event> {
 	public void clear() {
 	}
 
+	/**
+	 * Indicates whether the refresh of this stat can be postponed until its
+	 * value is requested. This is the case when the value depends only on the
+	 * most recent event (and on the stat dependencies), but not on the time the
+	 * event was fired nor on previous events, such as the stats that only depend
+	 * on the population of the last generation. The default implementation
+	 * returns the value given to the constructor, or <code>false</code> if none
+	 * was given.
+	 * 
+	 * @return <code>true</code> if the refresh of this stat can be postponed;
+	 *         <code>false</code> otherwise.
+	 */
+	protected boolean isDeferrable() {
+		return deferrable;
+	}
+
+	/**
+	 * Refreshes this stat if an event has been received since its last refresh.
+	 * This method only needs to be called by objects that keep a reference to
+	 * the stat instead of retrieving it with {@link #get(Class)}, before reading
+	 * its value.
+	 */
+	public final void update() {
+		if (pending != null) {
+			T event = pending;
+			// cleared before the refresh so that a cyclic request does not recurse
+			pending = null;
+			refresh(event);
+		}
+	}
+
+	/**
+	 * Returns an object that captures the current value of this stat and whose
+	 * <code>toString</code> representation may be computed later, possibly by
+	 * another thread, after this stat has been refreshed again. The default
+	 * implementation returns the string representation of this stat; stats
+	 * whose string representation is expensive to compute should override this
+	 * method to return an immutable value instead.
+	 * 
+	 * @return the current value of this stat.
+	 */
+	public Object snapshot() {
+		return toString();
+	}
+
 	/**
 	 * Registers the specified <code>AbstractStat</code> in the repository, if
 	 * it is not already registered.
@@ -222,14 +339,45 @@ public abstract class AbstractStat<T extends Event> {
 	/**
 	 * Returns the <code>AbstractStat</code> object of the specified class. If
 	 * the <code>AbstractStat</code> has been registered, it returns
-	 * <code>null</code>.
+	 * <code>null</code>. A stat that is stale in lazy mode is refreshed before
+	 * being returned.
 	 * 
 	 * @return the <code>AbstractStat</code> object of the specified class;
 	 *         <code>null</code> if the <code>AbstractStat</code> has not been
 	 *         registered.
 	 */
 	public static <V extends AbstractStat<?>> V get(Class<V> type) {
-		return type.cast(REPOSITORY.get(type));
+		V stat = type.cast(REPOSITORY.get(type));
+
+		if (stat != null) {
+			stat.update();
+		}
+
+		return stat;
+	}
+
+	/**
+	 * Enables or disables the lazy mode. When enabled, deferrable stats are only
+	 * refreshed when their value is requested. Disabling the lazy mode does not
+	 * refresh stats that are currently stale; they will be refreshed when
+	 * requested.
+	 * 
+	 * @param lazy <code>true</code> to enable the lazy mode; <code>false</code>
+	 *        to disable it.
+	 * @see #isDeferrable()
+	 */
+	public static void setLazy(boolean lazy) {
+		AbstractStat.lazy = lazy;
+	}
+
+	/**
+	 * Returns <code>true</code> if the lazy mode is enabled.
+	 * 
+	 * @return <code>true</code> if the lazy mode is enabled; <code>false</code>
+	 *         otherwise.
+	 */
+	public static boolean isLazy() {
+		return lazy;
 	}
 
 	/**
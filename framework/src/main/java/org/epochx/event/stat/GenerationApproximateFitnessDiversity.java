@@ -0,0 +1,92 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat;
+
+import org.epochx.Fitness;
+import org.epochx.event.GenerationEvent.EndGeneration;
+import org.epochx.event.stat.sketch.Hashing;
+import org.epochx.event.stat.sketch.HyperLogLog;
+
+/**
+ * Stat that provides an estimate of the number of different fitness values in
+ * a generation. Unlike {@link GenerationFitnessDiversity}, the fitness values
+ * are not kept in a set: they are counted with a {@link HyperLogLog} sketch,
+ * which uses a fixed amount of memory regardless of the population size.
+ */
+public class GenerationApproximateFitnessDiversity extends AbstractStat<EndGeneration> {
+
+	/**
+	 * The sketch used to count the different fitness values.
+	 */
+	private final HyperLogLog sketch = new HyperLogLog();
+
+	/**
+	 * The estimated number of different fitness values.
+	 */
+	private long diversity = 0;
+
+	/**
+	 * Constructs a <code>GenerationApproximateFitnessDiversity</code>.
+	 */
+	public GenerationApproximateFitnessDiversity() {
+		super(true, GenerationFitnesses.class);
+	}
+
+	/**
+	 * Estimates the number of different fitness values.
+	 * 
+	 * @param event the <code>EndGeneration</code> event object.
+	 */
+	@Override
+	public void refresh(EndGeneration event) {
+		Fitness[] fitnesses = AbstractStat.get(GenerationFitnesses.class).getFitnesses();
+		sketch.clear();
+
+		for (Fitness fitness: fitnesses) {
+			sketch.add(Hashing.hash(fitness.toString()));
+		}
+
+		diversity = sketch.cardinality();
+	}
+
+	/**
+	 * Returns the estimated number of different fitness values.
+	 * 
+	 * @return the estimated number of different fitness values.
+	 */
+	public long getDiversity() {
+		return diversity;
+	}
+
+	/**
+	 * Returns a string representation of the estimated number of different
+	 * fitness values.
+	 * 
+	 * @return a string representation of the estimated number of different
+	 *         fitness values.
+	 */
+	@Override
+	public String toString() {
+		return Long.toString(diversity);
+	}
+}
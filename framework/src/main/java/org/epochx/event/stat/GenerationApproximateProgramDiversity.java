@@ -0,0 +1,93 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat;
+
+import org.epochx.Individual;
+import org.epochx.event.GenerationEvent.EndGeneration;
+import org.epochx.event.stat.sketch.Hashing;
+import org.epochx.event.stat.sketch.HyperLogLog;
+
+/**
+ * Stat that provides an estimate of the number of different programs in a
+ * generation. Two individuals are considered the same program if they have the
+ * same string representation; the programs are counted with a
+ * {@link HyperLogLog} sketch, which uses a fixed amount of memory regardless of
+ * the population size. Representation-specific stats (e.g. the STGP
+ * structural diversity) avoid building the string representation.
+ */
+public class GenerationApproximateProgramDiversity extends AbstractStat<EndGeneration> {
+
+	/**
+	 * The sketch used to count the different programs.
+	 */
+	private final HyperLogLog sketch = new HyperLogLog();
+
+	/**
+	 * The estimated number of different programs.
+	 */
+	private long diversity = 0;
+
+	/**
+	 * Constructs a <code>GenerationApproximateProgramDiversity</code>.
+	 */
+	public GenerationApproximateProgramDiversity() {
+		super(true, NO_DEPENDENCIES);
+	}
+
+	/**
+	 * Estimates the number of different programs.
+	 * 
+	 * @param event the <code>EndGeneration</code> event object.
+	 */
+	@Override
+	public void refresh(EndGeneration event) {
+		sketch.clear();
+
+		for (Individual individual: event.getPopulation()) {
+			sketch.add(Hashing.hash(individual.toString()));
+		}
+
+		diversity = sketch.cardinality();
+	}
+
+	/**
+	 * Returns the estimated number of different programs.
+	 * 
+	 * @return the estimated number of different programs.
+	 */
+	public long getDiversity() {
+		return diversity;
+	}
+
+	/**
+	 * Returns a string representation of the estimated number of different
+	 * programs.
+	 * 
+	 * @return a string representation of the estimated number of different
+	 *         programs.
+	 */
+	@Override
+	public String toString() {
+		return Long.toString(diversity);
+	}
+}
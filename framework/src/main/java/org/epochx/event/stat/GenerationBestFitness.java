@@ -39,7 +39,7 @@ public class GenerationBestFitness extends AbstractStat<EndGeneration> {
 	 * Constructs a <code>GenerationBestFitness</code>.
 	 */
 	public GenerationBestFitness() {
-		super(GenerationFitnesses.class);
+		super(true, GenerationFitnesses.class);
 	}
 
 	/**
@@ -43,7 +43,7 @@ public class GenerationBestIndividuals extends AbstractStat<EndGeneration> {
 	 * Constructs a <code>GenerationBestIndividuals</code>.
 	 */
 	public GenerationBestIndividuals() {
-		super(NO_DEPENDENCIES);
+		super(true, NO_DEPENDENCIES);
 	}
 
 	/**
@@ -105,4 +105,17 @@ public class GenerationBestIndividuals extends AbstractStat<EndGeneration> {
 		return (individual == null) ? "" : individual.toString();
 	}
 
+	/**
+	 * Returns an arbitrary best individual, so that rendering the program can
+	 * be deferred. Individuals are not modified once they are part of a
+	 * population.
+	 * 
+	 * @return an arbitrary best individual, or an empty string if there is none.
+	 */
+	@Override
+	public Object snapshot() {
+		Individual individual = getBest();
+		return (individual == null) ? "" : individual;
+	}
+
 }
\ No newline at end of file
@@ -41,7 +41,7 @@ public class GenerationFitnessDiversity extends AbstractStat<EndGeneration> {
 	 * Constructs a <code>GenerationFitnessDiversity</code>.
 	 */
 	public GenerationFitnessDiversity() {
-		super(GenerationFitnesses.class);
+		super(true, GenerationFitnesses.class);
 	}
 
 	/**
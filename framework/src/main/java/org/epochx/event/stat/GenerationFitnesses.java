@@ -43,7 +43,7 @@ public class GenerationFitnesses extends AbstractStat<EndGeneration> {
 	 * Constructs a <code>GenerationFitnesses</code>.
 	 */
 	public GenerationFitnesses() {
-		super(NO_DEPENDENCIES);
+		super(true, NO_DEPENDENCIES);
 	}
 
 	/**
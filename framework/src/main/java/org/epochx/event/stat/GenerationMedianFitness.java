@@ -40,7 +40,7 @@ public class GenerationMedianFitness extends AbstractStat<EndGeneration> {
 	 * Constructs a <code>GenerationMedianFitness</code>.
 	 */
 	public GenerationMedianFitness() {
-		super(GenerationFitnesses.Sorted.class);
+		super(true, GenerationFitnesses.Sorted.class);
 	}
 
 	/**
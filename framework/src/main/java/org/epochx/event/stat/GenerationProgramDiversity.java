@@ -0,0 +1,84 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat;
+
+import java.util.HashSet;
+
+import org.epochx.Individual;
+import org.epochx.event.GenerationEvent.EndGeneration;
+
+/**
+ * Stat that provides the number of different programs in a generation. Two
+ * individuals are considered the same program if they have the same string
+ * representation. For large populations, consider the
+ * {@link GenerationApproximateProgramDiversity} stat.
+ */
+public class GenerationProgramDiversity extends AbstractStat<EndGeneration> {
+
+	/**
+	 * The number of different programs.
+	 */
+	private int diversity = 0;
+
+	/**
+	 * Constructs a <code>GenerationProgramDiversity</code>.
+	 */
+	public GenerationProgramDiversity() {
+		super(true, NO_DEPENDENCIES);
+	}
+
+	/**
+	 * Computes the number of different programs.
+	 * 
+	 * @param event the <code>EndGeneration</code> event object.
+	 */
+	@Override
+	public void refresh(EndGeneration event) {
+		HashSet<String> unique = new HashSet<String>();
+
+		for (Individual individual: event.getPopulation()) {
+			unique.add(individual.toString());
+		}
+
+		diversity = unique.size();
+	}
+
+	/**
+	 * Returns the number of different programs.
+	 * 
+	 * @return the number of different programs.
+	 */
+	public int getDiversity() {
+		return diversity;
+	}
+
+	/**
+	 * Returns a string representation of the number of different programs.
+	 * 
+	 * @return a string representation of the number of different programs.
+	 */
+	@Override
+	public String toString() {
+		return Integer.toString(diversity);
+	}
+}
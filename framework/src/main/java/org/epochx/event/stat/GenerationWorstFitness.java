@@ -39,7 +39,7 @@ public class GenerationWorstFitness extends AbstractStat<EndGeneration> {
 	 * Constructs a <code>GenerationWorstFitness</code>.
 	 */
 	public GenerationWorstFitness() {
-		super(GenerationFitnesses.class);
+		super(true, GenerationFitnesses.class);
 	}
 
 	/**
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat;
+
+import java.util.Arrays;
+
+/**
+ * Accumulates the count, mean, variance, minimum and maximum of several
+ * metrics in a single pass over the data, without storing the individual
+ * values. The mean and variance are updated with Welford's online algorithm,
+ * which is numerically stable for long sequences. The state of every metric is
+ * kept in primitive arrays indexed by the metric number, so adding a value
+ * does not allocate.
+ * 
+ * <p>
+ * This class is intended to be used by stats that compute several measures
+ * from the same population traversal, such as the tree metrics collectors of
+ * the STGP, GE and CFG modules.
+ * </p>
+ * 
+ * @since 2.0
+ */
+public class OnlineStatistics {
+
+	/**
+	 * The number of values added for each metric.
+	 */
+	private final long[] count;
+
+	/**
+	 * The running mean of each metric.
+	 */
+	private final double[] mean;
+
+	/**
+	 * The running sum of squared differences from the mean of each metric.
+	 */
+	private final double[] m2;
+
+	/**
+	 * The minimum value of each metric.
+	 */
+	private final double[] min;
+
+	/**
+	 * The maximum value of each metric.
+	 */
+	private final double[] max;
+
+	/**
+	 * Constructs an <code>OnlineStatistics</code> for the specified number of
+	 * metrics. Metrics are identified by an index between <code>0</code> and
+	 * <code>metrics - 1</code>.
+	 * 
+	 * @param metrics the number of metrics.
+	 */
+	public OnlineStatistics(int metrics) {
+		count = new long[metrics];
+		mean = new double[metrics];
+		m2 = new double[metrics];
+		min = new double[metrics];
+		max = new double[metrics];
+
+		reset();
+	}
+
+	/**
+	 * Discards the values added to all metrics.
+	 */
+	public void reset() {
+		Arrays.fill(count, 0);
+		Arrays.fill(mean, 0);
+		Arrays.fill(m2, 0);
+		Arrays.fill(min, Double.POSITIVE_INFINITY);
+		Arrays.fill(max, Double.NEGATIVE_INFINITY);
+	}
+
+	/**
+	 * Adds a value to the specified metric.
+	 * 
+	 * @param metric the metric index.
+	 * @param value the value to be added.
+	 */
+	public void add(int metric, double value) {
+		long n = ++count[metric];
+		double delta = value - mean[metric];
+
+		mean[metric] += delta / n;
+		m2[metric] += delta * (value - mean[metric]);
+
+		if (value < min[metric]) {
+			min[metric] = value;
+		}
+		if (value > max[metric]) {
+			max[metric] = value;
+		}
+	}
+
+	/**
+	 * Returns the number of values added to the specified metric.
+	 * 
+	 * @param metric the metric index.
+	 * @return the number of values added to the metric.
+	 */
+	public long getCount(int metric) {
+		return count[metric];
+	}
+
+	/**
+	 * Returns the mean of the specified metric, or <code>NaN</code> if no value
+	 * has been added.
+	 * 
+	 * @param metric the metric index.
+	 * @return the mean of the metric.
+	 */
+	public double getMean(int metric) {
+		return (count[metric] == 0) ? Double.NaN : mean[metric];
+	}
+
+	/**
+	 * Returns the (population) variance of the specified metric, or
+	 * <code>NaN</code> if no value has been added.
+	 * 
+	 * @param metric the metric index.
+	 * @return the variance of the metric.
+	 */
+	public double getVariance(int metric) {
+		return (count[metric] == 0) ? Double.NaN : m2[metric] / count[metric];
+	}
+
+	/**
+	 * Returns the (population) standard deviation of the specified metric, or
+	 * <code>NaN</code> if no value has been added.
+	 * 
+	 * @param metric the metric index.
+	 * @return the standard deviation of the metric.
+	 */
+	public double getStandardDeviation(int metric) {
+		return Math.sqrt(getVariance(metric));
+	}
+
+	/**
+	 * Returns the standard error of the mean of the specified metric, or
+	 * <code>NaN</code> if no value has been added.
+	 * 
+	 * @param metric the metric index.
+	 * @return the standard error of the mean of the metric.
+	 */
+	public double getStandardError(int metric) {
+		return getStandardDeviation(metric) / Math.sqrt(count[metric]);
+	}
+
+	/**
+	 * Returns the minimum value of the specified metric, or positive infinity if
+	 * no value has been added.
+	 * 
+	 * @param metric the metric index.
+	 * @return the minimum value of the metric.
+	 */
+	public double getMinimum(int metric) {
+		return min[metric];
+	}
+
+	/**
+	 * Returns the maximum value of the specified metric, or negative infinity if
+	 * no value has been added.
+	 * 
+	 * @param metric the metric index.
+	 * @return the maximum value of the metric.
+	 */
+	public double getMaximum(int metric) {
+		return max[metric];
+	}
+}
@@ -90,4 +90,16 @@ public class RunBestIndividuals extends AbstractStat<EndGeneration> {
 	public String toString() {
 		return getBest().toString();
 	}
+
+	/**
+	 * Returns an arbitrary best individual, so that rendering the program can
+	 * be deferred. Individuals are not modified once they are part of a
+	 * population.
+	 * 
+	 * @return an arbitrary best individual.
+	 */
+	@Override
+	public Object snapshot() {
+		return getBest();
+	}
 }
\ No newline at end of file
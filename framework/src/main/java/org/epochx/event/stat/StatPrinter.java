@@ -55,6 +55,11 @@ import org.epochx.event.Listener;
  * 5    9.0
  * </pre>
  * </p>
+ * <p>
+ * The output is written synchronously by the thread that fires the event. For
+ * long runs or frequent events, consider the asynchronous
+ * {@link org.epochx.event.stat.sink.StatSink} instead.
+ * </p>
  */
 public class StatPrinter {
 
@@ -145,6 +150,7 @@ public class StatPrinter {
 			StringBuffer buffer = new StringBuffer();
 
 			for (AbstractStat<?> stat: fields) {
+				stat.update();
 				buffer.append(separator);
 				buffer.append(stat);
 			}
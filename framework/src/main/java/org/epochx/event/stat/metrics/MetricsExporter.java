@@ -0,0 +1,400 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.epochx.event.Event;
+import org.epochx.event.EventManager;
+import org.epochx.event.GenerationEvent.EndGeneration;
+import org.epochx.event.Listener;
+import org.epochx.event.stat.AbstractStat;
+
+/**
+ * Utility class to publish the values of stat objects while a run is in
+ * progress. The usage mirrors the {@link org.epochx.event.stat.StatPrinter}:
+ * create a new <code>MetricsExporter</code>, register the stats and inform
+ * which event will trigger an update of the published values.
+ * 
+ * <p>
+ * On each update the current value of every registered stat is copied into an
+ * immutable snapshot. This is the only work performed on the thread that fires
+ * the event; the snapshot is then read by the JMX agent and by the optional
+ * HTTP endpoint from their own threads, so a slow or stalled client never holds
+ * up the evolution.
+ * </p>
+ * <p>
+ * An example that publishes the generation number and the best generation
+ * fitness as MBean attributes and at <code>http://localhost:9400/metrics</code>
+ * is:
+ * <pre>
+ * MetricsExporter exporter = new MetricsExporter();
+ * exporter.add(GenerationNumber.class);
+ * exporter.add(GenerationBestFitness.class);
+ * exporter.updateOnEvent(EndGeneration.class);
+ * exporter.registerMBean();
+ * exporter.startEndpoint(9400);
+ * </pre>
+ * </p>
+ * 
+ * @see StatsMBean
+ * @see PrometheusEndpoint
+ */
+public class MetricsExporter {
+
+	/**
+	 * The default JMX object name used by {@link #registerMBean()}.
+	 */
+	public static final String DEFAULT_OBJECT_NAME = "org.epochx:type=Stats";
+
+	/**
+	 * The prefix added to the metric names in the Prometheus text format.
+	 */
+	public static final String PREFIX = "epochx_";
+
+	/**
+	 * The mapping of metric name to the <code>AbstractStat</code> to be published.
+	 */
+	private final LinkedHashMap<String, AbstractStat<?>> fields = new LinkedHashMap<String, AbstractStat<?>>();
+
+	/**
+	 * The mapping of listeners registered by this <code>MetricsExporter</code>.
+	 */
+	private final Map<Class<?>, Listener<?>> listeners = new HashMap<Class<?>, Listener<?>>();
+
+	/**
+	 * The most recent snapshot of the stat values. It is replaced (never
+	 * modified) on each update.
+	 */
+	private volatile Map<String, Object> snapshot = Collections.emptyMap();
+
+	/**
+	 * The number of updates performed so far.
+	 */
+	private volatile long updates;
+
+	/**
+	 * The name under which the MBean is registered, if any.
+	 */
+	private ObjectName objectName;
+
+	/**
+	 * The HTTP endpoint, if it has been started.
+	 */
+	private PrometheusEndpoint endpoint;
+
+	/**
+	 * Adds a new stat field to the exporter. The field is published under the
+	 * metric name of the stat class, unless that name is already used by a
+	 * different stat class (e.g. a stat with the same name from another
+	 * module), in which case the qualified metric name is used.
+	 * 
+	 * @param type the stat class to be added.
+	 */
+	public <E extends Event> void add(Class<? extends AbstractStat<E>> type) {
+		AbstractStat.register(type);
+
+		String name = metricName(type);
+		AbstractStat<?> field = fields.get(name);
+
+		if (field != null && field.getClass() != type) {
+			name = metricName(type, true);
+		}
+
+		fields.put(name, AbstractStat.get(type));
+	}
+
+	/**
+	 * Removes all fields from the exporter. The last snapshot remains published
+	 * until the next update.
+	 */
+	public void clear() {
+		fields.clear();
+	}
+
+	/**
+	 * Takes a snapshot of the current value of each registered stat and makes
+	 * it available to the JMX and HTTP clients. A stat that is not a number is
+	 * published as a string; a stat that cannot provide a value (e.g. it has not
+	 * been refreshed yet) is omitted from the snapshot.
+	 */
+	public void update() {
+		Map<String, Object> values = new LinkedHashMap<String, Object>(fields.size() * 2);
+
+		for (Map.Entry<String, AbstractStat<?>> field: fields.entrySet()) {
+			Object value = value(field.getValue());
+
+			if (value != null) {
+				values.put(field.getKey(), value);
+			}
+		}
+
+		snapshot = Collections.unmodifiableMap(values);
+		updates++;
+	}
+
+	/**
+	 * Sets the event that triggers an update of the published values. The
+	 * typical choice is the {@link EndGeneration} event.
+	 * 
+	 * @param type the event class.
+	 */
+	public <E extends Event> void updateOnEvent(Class<E> type) {
+		// only creates a new listener if we do not have one already
+		if (!listeners.containsKey(type)) {
+			Listener<E> listener = new Listener<E>() {
+
+				@Override
+				public void onEvent(E event) {
+					MetricsExporter.this.update();
+				}
+			};
+
+			EventManager.getInstance().add(type, listener);
+			listeners.put(type, listener);
+		}
+	}
+
+	/**
+	 * Returns the most recent snapshot of the stat values, keyed by metric name
+	 * in the order the stats were added. The returned map is immutable.
+	 * 
+	 * @return the most recent snapshot of the stat values.
+	 */
+	public Map<String, Object> getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Returns the number of updates performed so far.
+	 * 
+	 * @return the number of updates performed so far.
+	 */
+	public long getUpdates() {
+		return updates;
+	}
+
+	/**
+	 * Registers the stats MBean in the platform MBean server using the
+	 * {@link #DEFAULT_OBJECT_NAME}.
+	 * 
+	 * @throws JMException if the MBean could not be registered.
+	 */
+	public void registerMBean() throws JMException {
+		registerMBean(new ObjectName(DEFAULT_OBJECT_NAME));
+	}
+
+	/**
+	 * Registers the stats MBean in the platform MBean server using the
+	 * specified name. Each published stat is exposed as a read-only attribute.
+	 * 
+	 * @param name the object name of the MBean.
+	 * @throws JMException if the MBean could not be registered.
+	 */
+	public void registerMBean(ObjectName name) throws JMException {
+		unregisterMBean();
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		server.registerMBean(new StatsMBean(this), name);
+		objectName = name;
+	}
+
+	/**
+	 * Removes the stats MBean from the platform MBean server, if it has been
+	 * registered.
+	 * 
+	 * @throws JMException if the MBean could not be unregistered.
+	 */
+	public void unregisterMBean() throws JMException {
+		if (objectName != null) {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+			if (server.isRegistered(objectName)) {
+				server.unregisterMBean(objectName);
+			}
+
+			objectName = null;
+		}
+	}
+
+	/**
+	 * Starts an HTTP endpoint bound to the loopback interface that serves the
+	 * published values in the Prometheus text format at <code>/metrics</code>.
+	 * 
+	 * @param port the port number; <code>0</code> selects any free port.
+	 * @throws IOException if the server could not be started.
+	 * @see #getEndpoint()
+	 */
+	public void startEndpoint(int port) throws IOException {
+		startEndpoint("127.0.0.1", port);
+	}
+
+	/**
+	 * Starts an HTTP endpoint that serves the published values in the
+	 * Prometheus text format at <code>/metrics</code>.
+	 * 
+	 * @param host the host name or address to bind to.
+	 * @param port the port number; <code>0</code> selects any free port.
+	 * @throws IOException if the server could not be started.
+	 */
+	public void startEndpoint(String host, int port) throws IOException {
+		stopEndpoint();
+
+		endpoint = new PrometheusEndpoint(this, host, port);
+		endpoint.start();
+	}
+
+	/**
+	 * Stops the HTTP endpoint, if it has been started.
+	 */
+	public void stopEndpoint() {
+		if (endpoint != null) {
+			endpoint.stop();
+			endpoint = null;
+		}
+	}
+
+	/**
+	 * Returns the HTTP endpoint, or <code>null</code> if it has not been started.
+	 * 
+	 * @return the HTTP endpoint.
+	 */
+	public PrometheusEndpoint getEndpoint() {
+		return endpoint;
+	}
+
+	/**
+	 * Renders the most recent snapshot in the Prometheus text exposition format.
+	 * Only numeric values are included, each reported as a gauge.
+	 * 
+	 * @return the Prometheus text representation of the snapshot.
+	 */
+	public String toPrometheus() {
+		StringBuilder buffer = new StringBuilder();
+
+		for (Map.Entry<String, Object> entry: snapshot.entrySet()) {
+			if (entry.getValue() instanceof Double) {
+				String name = PREFIX + entry.getKey();
+				double value = (Double) entry.getValue();
+
+				buffer.append("# TYPE ").append(name).append(" gauge\n");
+				buffer.append(name).append(' ');
+
+				if (Double.isNaN(value)) {
+					buffer.append("NaN");
+				} else if (Double.isInfinite(value)) {
+					buffer.append(value > 0 ? "+Inf" : "-Inf");
+				} else {
+					buffer.append(value);
+				}
+
+				buffer.append('\n');
+			}
+		}
+
+		return buffer.toString();
+	}
+
+	/**
+	 * Returns the metric name of a stat class. The name is derived from the
+	 * class name (including any enclosing class) converted to lower case words
+	 * separated by underscores, e.g. <code>GenerationBestFitness</code> becomes
+	 * <code>generation_best_fitness</code>.
+	 * 
+	 * @param type the stat class.
+	 * @return the metric name of the stat class.
+	 */
+	public static String metricName(Class<?> type) {
+		return metricName(type, false);
+	}
+
+	/**
+	 * Returns the metric name of a stat class, optionally qualified with the
+	 * package name, e.g. <code>org_epochx_event_stat_generation_best_fitness</code>.
+	 * 
+	 * @param type the stat class.
+	 * @param qualified whether the package name is included.
+	 * @return the metric name of the stat class.
+	 */
+	public static String metricName(Class<?> type, boolean qualified) {
+		String name = type.getName();
+
+		if (!qualified) {
+			name = name.substring(name.lastIndexOf('.') + 1);
+		}
+
+		StringBuilder buffer = new StringBuilder(name.length() + 8);
+
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+
+			if (Character.isUpperCase(c)) {
+				if (i > 0 && buffer.charAt(buffer.length() - 1) != '_') {
+					buffer.append('_');
+				}
+				buffer.append(Character.toLowerCase(c));
+			} else if (Character.isLetterOrDigit(c)) {
+				buffer.append(c);
+			} else if (buffer.length() > 0 && buffer.charAt(buffer.length() - 1) != '_') {
+				buffer.append('_');
+			}
+		}
+
+		return buffer.toString();
+	}
+
+	/*
+	 * Returns the current value of the stat as a Double if its string
+	 * representation is numeric, or as a String otherwise.
+	 */
+	private Object value(AbstractStat<?> stat) {
+		String text;
+
+		try {
+			stat.update();
+			text = stat.toString();
+		} catch (RuntimeException e) {
+			// the stat has no value yet (e.g. before its first refresh)
+			return null;
+		}
+
+		if (text == null) {
+			return null;
+		}
+
+		try {
+			return Double.valueOf(text);
+		} catch (NumberFormatException e) {
+			return text;
+		}
+	}
+}
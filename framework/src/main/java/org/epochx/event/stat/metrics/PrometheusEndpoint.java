@@ -0,0 +1,159 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * An embedded HTTP server that serves the stat values published by a
+ * {@link MetricsExporter} in the Prometheus text exposition format. Requests
+ * are handled by a single daemon thread and only read the exporter's latest
+ * snapshot, so scraping never interferes with the evolution thread.
+ * 
+ * <p>
+ * <b>Note:</b> the endpoint must be stopped with {@link #stop()} (or
+ * {@link MetricsExporter#stopEndpoint()}) at the end of the run.
+ * </p>
+ * 
+ * @see MetricsExporter
+ */
+public class PrometheusEndpoint {
+
+	/**
+	 * The path the metrics are served at.
+	 */
+	public static final String PATH = "/metrics";
+
+	/**
+	 * The content type of the Prometheus text format.
+	 */
+	public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	/**
+	 * The exporter that provides the snapshots.
+	 */
+	private final MetricsExporter exporter;
+
+	/**
+	 * The underlying HTTP server.
+	 */
+	private final HttpServer server;
+
+	/**
+	 * The executor handling the requests.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * Constructs a <code>PrometheusEndpoint</code>. The server is bound to the
+	 * address but not started.
+	 * 
+	 * @param exporter the exporter that provides the snapshots.
+	 * @param host the host name or address to bind to.
+	 * @param port the port number; <code>0</code> selects any free port.
+	 * @throws IOException if the server could not be bound.
+	 */
+	public PrometheusEndpoint(MetricsExporter exporter, String host, int port) throws IOException {
+		this.exporter = exporter;
+
+		executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "epochx-metrics");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+		server = HttpServer.create(new InetSocketAddress(host, port), 0);
+		server.setExecutor(executor);
+		server.createContext(PATH, new HttpHandler() {
+
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				PrometheusEndpoint.this.handle(exchange);
+			}
+		});
+	}
+
+	/**
+	 * Starts serving requests.
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Stops the server and releases its thread.
+	 */
+	public void stop() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Returns the port number the server is bound to. This is useful when the
+	 * endpoint was created with port <code>0</code>.
+	 * 
+	 * @return the port number.
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/*
+	 * Writes the latest snapshot in the Prometheus text format.
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+				exchange.sendResponseHeaders(405, -1);
+				return;
+			}
+
+			byte[] body = exporter.toPrometheus().getBytes("UTF-8");
+			exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+
+			if ("HEAD".equals(exchange.getRequestMethod())) {
+				exchange.sendResponseHeaders(200, -1);
+			} else {
+				exchange.sendResponseHeaders(200, body.length);
+				OutputStream out = exchange.getResponseBody();
+				out.write(body);
+				out.close();
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+
+/**
+ * A read-only <code>DynamicMBean</code> that exposes the stat values published
+ * by a {@link MetricsExporter}. Each stat is an attribute named after its
+ * metric name; numeric stats are of type <code>java.lang.Double</code> and all
+ * others of type <code>java.lang.String</code>. The attribute
+ * <code>Updates</code> reports how many snapshots have been taken.
+ * 
+ * <p>
+ * Attribute values are always read from the exporter's latest snapshot, so
+ * JMX clients never access the stat objects directly.
+ * </p>
+ * 
+ * @see MetricsExporter
+ */
+public class StatsMBean implements DynamicMBean {
+
+	/**
+	 * The name of the attribute that holds the number of updates.
+	 */
+	public static final String UPDATES = "Updates";
+
+	/**
+	 * The exporter that provides the snapshots.
+	 */
+	private final MetricsExporter exporter;
+
+	/**
+	 * Constructs a <code>StatsMBean</code>.
+	 * 
+	 * @param exporter the exporter that provides the snapshots.
+	 */
+	public StatsMBean(MetricsExporter exporter) {
+		this.exporter = exporter;
+	}
+
+	/**
+	 * Returns the value of the specified attribute from the latest snapshot.
+	 * 
+	 * @param attribute the name of the attribute.
+	 * @return the value of the attribute.
+	 * @throws AttributeNotFoundException if the snapshot does not contain the
+	 *         attribute.
+	 */
+	@Override
+	public Object getAttribute(String attribute) throws AttributeNotFoundException {
+		if (UPDATES.equals(attribute)) {
+			return exporter.getUpdates();
+		}
+
+		Map<String, Object> snapshot = exporter.getSnapshot();
+
+		if (!snapshot.containsKey(attribute)) {
+			throw new AttributeNotFoundException("No stat named " + attribute);
+		}
+
+		return snapshot.get(attribute);
+	}
+
+	/**
+	 * Returns the values of the specified attributes. Attributes that are not
+	 * available are omitted from the result.
+	 * 
+	 * @param attributes the names of the attributes.
+	 * @return the list of attribute values.
+	 */
+	@Override
+	public AttributeList getAttributes(String[] attributes) {
+		AttributeList list = new AttributeList();
+
+		for (String attribute: attributes) {
+			try {
+				list.add(new Attribute(attribute, getAttribute(attribute)));
+			} catch (AttributeNotFoundException e) {
+				// skip missing attributes, as allowed by the DynamicMBean contract
+			}
+		}
+
+		return list;
+	}
+
+	/**
+	 * Not supported, all attributes are read-only.
+	 * 
+	 * @throws UnsupportedOperationException always.
+	 */
+	@Override
+	public void setAttribute(Attribute attribute) {
+		throw new UnsupportedOperationException("Stat attributes are read-only");
+	}
+
+	/**
+	 * Not supported, all attributes are read-only. Returns an empty list.
+	 * 
+	 * @return an empty list.
+	 */
+	@Override
+	public AttributeList setAttributes(AttributeList attributes) {
+		return new AttributeList();
+	}
+
+	/**
+	 * Not supported, this MBean has no operations.
+	 * 
+	 * @throws UnsupportedOperationException always.
+	 */
+	@Override
+	public Object invoke(String action, Object[] params, String[] signature) {
+		throw new UnsupportedOperationException("No operation named " + action);
+	}
+
+	/**
+	 * Returns the description of the attributes available in the latest
+	 * snapshot.
+	 * 
+	 * @return the description of this MBean.
+	 */
+	@Override
+	public MBeanInfo getMBeanInfo() {
+		List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+		attributes.add(new MBeanAttributeInfo(UPDATES, Long.class.getName(), "Number of updates", true, false, false));
+
+		for (Map.Entry<String, Object> entry: exporter.getSnapshot().entrySet()) {
+			String type = entry.getValue().getClass().getName();
+			attributes.add(new MBeanAttributeInfo(entry.getKey(), type, "EpochX stat", true, false, false));
+		}
+
+		return new MBeanInfo(getClass().getName(), "EpochX stats",
+				attributes.toArray(new MBeanAttributeInfo[attributes.size()]), null, new MBeanOperationInfo[0], null);
+	}
+}
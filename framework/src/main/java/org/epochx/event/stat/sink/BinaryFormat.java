@@ -0,0 +1,118 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat.sink;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A compact binary <code>StatFormat</code> based on
+ * <code>java.io.DataOutput</code> encoding. The stream starts with the
+ * {@link #MAGIC} number, the format {@link #VERSION}, the number of fields and
+ * the field names (modified UTF-8). Each record is the byte {@link #RECORD}
+ * followed by one tagged value per field:
+ * <ul>
+ * <li>{@link #LONG} followed by an 8 byte integer;
+ * <li>{@link #DOUBLE} followed by an 8 byte IEEE 754 value;
+ * <li>{@link #STRING} followed by a 4 byte length and the UTF-8 bytes;
+ * <li>{@link #NULL} for a missing value.
+ * </ul>
+ * The stream can be read back with <code>java.io.DataInputStream</code>.
+ */
+public class BinaryFormat implements StatFormat {
+
+	/**
+	 * The magic number at the start of the stream ("EPXS").
+	 */
+	public static final int MAGIC = 0x45505853;
+
+	/**
+	 * The format version.
+	 */
+	public static final byte VERSION = 1;
+
+	/**
+	 * The marker at the start of each record.
+	 */
+	public static final byte RECORD = 'R';
+
+	/**
+	 * The tag of an integer value.
+	 */
+	public static final byte LONG = 'L';
+
+	/**
+	 * The tag of a floating point value.
+	 */
+	public static final byte DOUBLE = 'D';
+
+	/**
+	 * The tag of a string value.
+	 */
+	public static final byte STRING = 'S';
+
+	/**
+	 * The tag of a missing value.
+	 */
+	public static final byte NULL = 'N';
+
+	@Override
+	public void writeHeader(String[] names, OutputStream out) throws IOException {
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeByte(VERSION);
+		data.writeInt(names.length);
+
+		for (String name: names) {
+			data.writeUTF(name);
+		}
+	}
+
+	@Override
+	public void writeRecord(String[] names, Object[] values, OutputStream out) throws IOException {
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeByte(RECORD);
+
+		for (Object value: values) {
+			Number number = Values.asNumber(value);
+
+			if (value == null) {
+				data.writeByte(NULL);
+			} else if (number instanceof Long || number instanceof Integer || number instanceof Short
+					|| number instanceof Byte) {
+				data.writeByte(LONG);
+				data.writeLong(number.longValue());
+			} else if (number != null) {
+				data.writeByte(DOUBLE);
+				data.writeDouble(number.doubleValue());
+			} else {
+				// writeUTF is limited to 64KB, which a rendered program may exceed
+				byte[] bytes = value.toString().getBytes("UTF-8");
+				data.writeByte(STRING);
+				data.writeInt(bytes.length);
+				data.write(bytes);
+			}
+		}
+	}
+}
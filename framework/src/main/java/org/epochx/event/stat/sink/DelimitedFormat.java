@@ -0,0 +1,116 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat.sink;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A <code>StatFormat</code> that writes one line per record with the values
+ * separated by a delimiter character. Values containing the delimiter, a
+ * quote or a line break are quoted as in RFC 4180. The header line with the
+ * field names is optional.
+ * 
+ * @see #TSV
+ * @see #CSV
+ */
+public class DelimitedFormat implements StatFormat {
+
+	/**
+	 * Tab separated values with a header line.
+	 */
+	public static final DelimitedFormat TSV = new DelimitedFormat('\t', true);
+
+	/**
+	 * Comma separated values with a header line.
+	 */
+	public static final DelimitedFormat CSV = new DelimitedFormat(',', true);
+
+	/**
+	 * The delimiter character.
+	 */
+	private final char delimiter;
+
+	/**
+	 * Whether the header line is written.
+	 */
+	private final boolean header;
+
+	/**
+	 * Constructs a <code>DelimitedFormat</code>.
+	 * 
+	 * @param delimiter the delimiter character.
+	 * @param header <code>true</code> if a header line with the field names
+	 *        should be written.
+	 */
+	public DelimitedFormat(char delimiter, boolean header) {
+		this.delimiter = delimiter;
+		this.header = header;
+	}
+
+	@Override
+	public void writeHeader(String[] names, OutputStream out) throws IOException {
+		if (header) {
+			writeLine(names, out);
+		}
+	}
+
+	@Override
+	public void writeRecord(String[] names, Object[] values, OutputStream out) throws IOException {
+		writeLine(values, out);
+	}
+
+	/*
+	 * Writes the values separated by the delimiter and terminated by a new line.
+	 */
+	private void writeLine(Object[] values, OutputStream out) throws IOException {
+		StringBuilder buffer = new StringBuilder(16 * values.length);
+
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				buffer.append(delimiter);
+			}
+
+			appendEscaped(buffer, Values.asString(values[i]));
+		}
+
+		buffer.append('\n');
+		out.write(buffer.toString().getBytes("UTF-8"));
+	}
+
+	/*
+	 * Appends the value, quoting it if it contains special characters.
+	 */
+	private void appendEscaped(StringBuilder buffer, String value) {
+		boolean quote = value.indexOf(delimiter) >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+				|| value.indexOf('\r') >= 0;
+
+		if (quote) {
+			buffer.append('"');
+			buffer.append(value.replace("\"", "\"\""));
+			buffer.append('"');
+		} else {
+			buffer.append(value);
+		}
+	}
+}
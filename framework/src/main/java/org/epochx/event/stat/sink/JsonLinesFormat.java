@@ -0,0 +1,113 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat.sink;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A <code>StatFormat</code> that writes each record as a JSON object on its
+ * own line (JSON Lines). Field names are the object keys; numeric values are
+ * written as JSON numbers and all other values as JSON strings. No header is
+ * written.
+ */
+public class JsonLinesFormat implements StatFormat {
+
+	@Override
+	public void writeHeader(String[] names, OutputStream out) {
+		// each record is self-describing
+	}
+
+	@Override
+	public void writeRecord(String[] names, Object[] values, OutputStream out) throws IOException {
+		StringBuilder buffer = new StringBuilder(32 * values.length);
+		buffer.append('{');
+
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				buffer.append(',');
+			}
+
+			appendString(buffer, names[i]);
+			buffer.append(':');
+
+			Number number = Values.asNumber(values[i]);
+
+			if (values[i] == null) {
+				buffer.append("null");
+			} else if (number != null && !isNonFinite(number)) {
+				buffer.append(number);
+			} else {
+				appendString(buffer, values[i].toString());
+			}
+		}
+
+		buffer.append("}\n");
+		out.write(buffer.toString().getBytes("UTF-8"));
+	}
+
+	/*
+	 * Returns true for NaN and infinite values, which have no JSON encoding.
+	 */
+	private boolean isNonFinite(Number number) {
+		double d = number.doubleValue();
+		return Double.isNaN(d) || Double.isInfinite(d);
+	}
+
+	/*
+	 * Appends the value as a quoted and escaped JSON string.
+	 */
+	private void appendString(StringBuilder buffer, String value) {
+		buffer.append('"');
+
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+
+			switch (c) {
+				case '"':
+					buffer.append("\\\"");
+					break;
+				case '\\':
+					buffer.append("\\\\");
+					break;
+				case '\n':
+					buffer.append("\\n");
+					break;
+				case '\r':
+					buffer.append("\\r");
+					break;
+				case '\t':
+					buffer.append("\\t");
+					break;
+				default:
+					if (c < 0x20) {
+						buffer.append(String.format("\\u%04x", (int) c));
+					} else {
+						buffer.append(c);
+					}
+			}
+		}
+
+		buffer.append('"');
+	}
+}
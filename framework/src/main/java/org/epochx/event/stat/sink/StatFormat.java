@@ -0,0 +1,63 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat.sink;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A <code>StatFormat</code> encodes the records of a {@link StatSink} on an
+ * output stream. Implementations are only ever called from the sink's writer
+ * thread, so they do not need to be thread-safe, but they must not keep
+ * references to the arrays they are given.
+ * 
+ * @see DelimitedFormat
+ * @see JsonLinesFormat
+ * @see BinaryFormat
+ */
+public interface StatFormat {
+
+	/**
+	 * Writes the header of the output. This method is called once, before the
+	 * first record is written.
+	 * 
+	 * @param names the names of the stat fields.
+	 * @param out the output stream.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeHeader(String[] names, OutputStream out) throws IOException;
+
+	/**
+	 * Writes one record. The value at each index corresponds to the field name
+	 * at the same index; values are the objects returned by
+	 * {@link org.epochx.event.stat.AbstractStat#snapshot()} and may be
+	 * <code>null</code>.
+	 * 
+	 * @param names the names of the stat fields.
+	 * @param values the values of the stat fields.
+	 * @param out the output stream.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void writeRecord(String[] names, Object[] values, OutputStream out) throws IOException;
+
+}
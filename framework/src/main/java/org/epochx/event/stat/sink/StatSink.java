@@ -0,0 +1,498 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat.sink;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.epochx.event.Event;
+import org.epochx.event.EventManager;
+import org.epochx.event.Listener;
+import org.epochx.event.stat.AbstractStat;
+
+/**
+ * An asynchronous alternative to the {@link org.epochx.event.stat.StatPrinter}.
+ * The values of the registered stats are captured on the thread that fires
+ * the triggering event and stored in a bounded buffer; a background writer
+ * thread drains the buffer in batches, encodes the records with a
+ * {@link StatFormat} and writes them to the output stream.
+ * 
+ * <p>
+ * Stat values are captured with {@link AbstractStat#snapshot()}, so expensive
+ * string representations (such as the best program of a generation) are
+ * rendered by the writer thread rather than the evolution thread.
+ * </p>
+ * <p>
+ * When the buffer is full, the {@link Overflow} policy decides whether new
+ * records are dropped (and counted, see {@link #getDropped()}) or whether the
+ * evolution thread blocks until the writer catches up. The output is flushed
+ * after every batch, or at most once per flush interval when an interval is
+ * set; {@link #flush()} forces a flush and {@link #close()} must be called at
+ * the end of the run to write any buffered records and release the thread.
+ * </p>
+ * <p>
+ * An example that writes the generation number and the best generation
+ * fitness as CSV is:
+ * <pre>
+ * StatSink sink = new StatSink(new FileOutputStream("stats.csv"), DelimitedFormat.CSV);
+ * sink.add(GenerationNumber.class);
+ * sink.add(GenerationBestFitness.class);
+ * sink.recordOnEvent(EndGeneration.class);
+ * ...
+ * sink.close();
+ * </pre>
+ * </p>
+ */
+public class StatSink {
+
+	/**
+	 * The policies for a record that does not fit in the buffer.
+	 */
+	public enum Overflow {
+		/**
+		 * The record is discarded and counted.
+		 */
+		DROP,
+
+		/**
+		 * The recording thread waits until there is space in the buffer.
+		 */
+		BLOCK
+	}
+
+	/**
+	 * The default number of records the buffer can hold.
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	/**
+	 * The default maximum number of records written per batch.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 64;
+
+	/**
+	 * The list of <code>AbstractStat</code> to be recorded.
+	 */
+	private final ArrayList<AbstractStat<?>> fields = new ArrayList<AbstractStat<?>>();
+
+	/**
+	 * The names of the fields, in the same order.
+	 */
+	private final ArrayList<String> names = new ArrayList<String>();
+
+	/**
+	 * The mapping of listeners registered by this <code>StatSink</code>.
+	 */
+	private final Map<Class<?>, Listener<?>> listeners = new HashMap<Class<?>, Listener<?>>();
+
+	/**
+	 * The buffer of pending records and control markers.
+	 */
+	private final ArrayBlockingQueue<Object> buffer;
+
+	/**
+	 * The output stream.
+	 */
+	private final OutputStream out;
+
+	/**
+	 * The output format.
+	 */
+	private final StatFormat format;
+
+	/**
+	 * The overflow policy.
+	 */
+	private final Overflow overflow;
+
+	/**
+	 * The maximum number of records written per batch.
+	 */
+	private final int batchSize;
+
+	/**
+	 * The minimum interval between flushes in milliseconds; <code>0</code>
+	 * flushes after every batch.
+	 */
+	private final long flushInterval;
+
+	/**
+	 * The number of records dropped because the buffer was full.
+	 */
+	private final AtomicLong dropped = new AtomicLong();
+
+	/**
+	 * The field names, fixed when the first record is taken.
+	 */
+	private String[] header;
+
+	/**
+	 * The writer thread, started when the first record is taken.
+	 */
+	private Thread writer;
+
+	/**
+	 * The first I/O error raised by the writer thread.
+	 */
+	private volatile IOException failure;
+
+	/**
+	 * Whether the sink has been closed.
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * Constructs a <code>StatSink</code> with the default capacity and batch
+	 * size, which blocks when the buffer is full and flushes after every batch.
+	 * 
+	 * @param out the output stream.
+	 * @param format the output format.
+	 */
+	public StatSink(OutputStream out, StatFormat format) {
+		this(out, format, DEFAULT_CAPACITY, Overflow.BLOCK, DEFAULT_BATCH_SIZE, 0);
+	}
+
+	/**
+	 * Constructs a <code>StatSink</code>.
+	 * 
+	 * @param out the output stream.
+	 * @param format the output format.
+	 * @param capacity the number of records the buffer can hold.
+	 * @param overflow the policy when the buffer is full.
+	 * @param batchSize the maximum number of records written per batch.
+	 * @param flushInterval the minimum interval between flushes in
+	 *        milliseconds; <code>0</code> flushes after every batch.
+	 */
+	public StatSink(OutputStream out, StatFormat format, int capacity, Overflow overflow, int batchSize,
+			long flushInterval) {
+		if (capacity < 1 || batchSize < 1 || flushInterval < 0) {
+			throw new IllegalArgumentException("capacity and batch size must be positive and interval non-negative");
+		}
+
+		this.out = new BufferedOutputStream(out);
+		this.format = format;
+		this.overflow = overflow;
+		this.batchSize = batchSize;
+		this.flushInterval = flushInterval;
+
+		buffer = new ArrayBlockingQueue<Object>(capacity);
+	}
+
+	/**
+	 * Adds a new stat field to the sink. Fields must be added before the first
+	 * record is taken.
+	 * 
+	 * @param type the stat class to be added.
+	 * @throws IllegalStateException if records have already been taken.
+	 */
+	public <E extends Event> void add(Class<? extends AbstractStat<E>> type) {
+		if (header != null) {
+			throw new IllegalStateException("Fields cannot be added after the first record");
+		}
+
+		AbstractStat.register(type);
+		fields.add(AbstractStat.get(type));
+		names.add(type.getSimpleName());
+	}
+
+	/**
+	 * Sets the event that triggers a new record of the sink's fields.
+	 * 
+	 * @param type the event class.
+	 */
+	public <E extends Event> void recordOnEvent(Class<E> type) {
+		// only creates a new listener if we do not have one already
+		if (!listeners.containsKey(type)) {
+			Listener<E> listener = new Listener<E>() {
+
+				@Override
+				public void onEvent(E event) {
+					StatSink.this.record();
+				}
+			};
+
+			EventManager.getInstance().add(type, listener);
+			listeners.put(type, listener);
+		}
+	}
+
+	/**
+	 * Captures the current value of the fields and queues them for writing.
+	 * Depending on the overflow policy, this method either drops the record or
+	 * waits when the buffer is full.
+	 * 
+	 * @throws IllegalStateException if the sink has been closed.
+	 */
+	public void record() {
+		if (closed) {
+			throw new IllegalStateException("The sink has been closed");
+		}
+
+		if (fields.isEmpty()) {
+			return;
+		}
+
+		start();
+
+		Object[] values = new Object[fields.size()];
+
+		for (int i = 0; i < values.length; i++) {
+			try {
+				fields.get(i).update();
+				values[i] = fields.get(i).snapshot();
+			} catch (RuntimeException e) {
+				// the stat has no value yet (e.g. before its first refresh)
+				values[i] = null;
+			}
+		}
+
+		if (overflow == Overflow.DROP) {
+			if (!buffer.offer(values)) {
+				dropped.incrementAndGet();
+			}
+		} else {
+			put(values);
+		}
+	}
+
+	/**
+	 * Waits until all records taken so far have been written and flushes the
+	 * output stream.
+	 * 
+	 * @throws IOException if the writer thread failed to write.
+	 */
+	public void flush() throws IOException {
+		if (writer != null && !closed) {
+			Marker marker = new Marker(false);
+			put(marker);
+			marker.await();
+		}
+
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Writes all pending records, stops the writer thread, removes the event
+	 * listeners and closes the output stream.
+	 * 
+	 * @throws IOException if the writer thread failed to write or the stream
+	 *         could not be closed.
+	 */
+	@SuppressWarnings("unchecked")
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+
+		for (Map.Entry<Class<?>, Listener<?>> entry: listeners.entrySet()) {
+			EventManager.getInstance().remove((Class<Event>) entry.getKey(), (Listener<Event>) entry.getValue());
+		}
+		listeners.clear();
+
+		if (writer != null) {
+			Marker marker = new Marker(true);
+			put(marker);
+			marker.await();
+		}
+
+		closed = true;
+		out.close();
+
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Returns the number of records dropped because the buffer was full.
+	 * 
+	 * @return the number of dropped records.
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	/**
+	 * Returns the number of records waiting to be written.
+	 * 
+	 * @return the number of pending records.
+	 */
+	public int getPending() {
+		return buffer.size();
+	}
+
+	/*
+	 * Fixes the header and starts the writer thread on the first record.
+	 */
+	private void start() {
+		if (writer == null) {
+			header = names.toArray(new String[names.size()]);
+
+			writer = new Thread(new Writer(), "epochx-stat-sink");
+			writer.setDaemon(true);
+			writer.start();
+		}
+	}
+
+	/*
+	 * Puts an element in the buffer, waiting for space if necessary.
+	 */
+	private void put(Object element) {
+		try {
+			buffer.put(element);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/*
+	 * A control element that asks the writer to flush (and optionally stop)
+	 * and signals when it has done so.
+	 */
+	private static class Marker {
+
+		private final boolean stop;
+
+		private final CountDownLatch done = new CountDownLatch(1);
+
+		private Marker(boolean stop) {
+			this.stop = stop;
+		}
+
+		private void await() {
+			try {
+				done.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/*
+	 * The background task that drains the buffer.
+	 */
+	private class Writer implements Runnable {
+
+		private final List<Object> batch = new ArrayList<Object>(batchSize);
+
+		private boolean dirty;
+
+		private long lastFlush;
+
+		@Override
+		public void run() {
+			write(true, null);
+
+			while (true) {
+				Object first;
+
+				try {
+					if (dirty && flushInterval > 0) {
+						long wait = flushInterval - (System.currentTimeMillis() - lastFlush);
+						first = buffer.poll(Math.max(wait, 0), TimeUnit.MILLISECONDS);
+					} else {
+						first = buffer.take();
+					}
+				} catch (InterruptedException e) {
+					return;
+				}
+
+				if (first == null) {
+					// the flush interval has elapsed without new records
+					flushOutput();
+					continue;
+				}
+
+				batch.add(first);
+				buffer.drainTo(batch, batchSize - 1);
+
+				boolean stop = false;
+
+				for (Object element: batch) {
+					if (element instanceof Marker) {
+						Marker marker = (Marker) element;
+						flushOutput();
+						marker.done.countDown();
+						stop |= marker.stop;
+					} else {
+						write(false, (Object[]) element);
+					}
+				}
+
+				batch.clear();
+
+				if (stop) {
+					return;
+				}
+
+				if (dirty && (flushInterval == 0 || System.currentTimeMillis() - lastFlush >= flushInterval)) {
+					flushOutput();
+				}
+			}
+		}
+
+		/*
+		 * Writes the header or a record, remembering the first failure. After a
+		 * failure the records are discarded so the evolution is never blocked.
+		 */
+		private void write(boolean isHeader, Object[] values) {
+			if (failure == null) {
+				try {
+					if (isHeader) {
+						format.writeHeader(header, out);
+					} else {
+						format.writeRecord(header, values, out);
+					}
+
+					dirty = true;
+				} catch (IOException e) {
+					failure = e;
+				}
+			}
+		}
+
+		private void flushOutput() {
+			if (failure == null) {
+				try {
+					out.flush();
+				} catch (IOException e) {
+					failure = e;
+				}
+			}
+
+			dirty = false;
+			lastFlush = System.currentTimeMillis();
+		}
+	}
+}
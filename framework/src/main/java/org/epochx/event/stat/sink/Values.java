@@ -0,0 +1,93 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat.sink;
+
+/**
+ * Helper methods shared by the <code>StatFormat</code> implementations.
+ */
+final class Values {
+
+	/**
+	 * No instances are allowed.
+	 */
+	private Values() {
+	}
+
+	/**
+	 * Returns the numeric value of a stat value, or <code>null</code> if it
+	 * is not a number. Strings holding a finite decimal number are converted.
+	 * 
+	 * @param value the stat value.
+	 * @return the numeric value of the stat value, or <code>null</code>.
+	 */
+	static Number asNumber(Object value) {
+		if (value instanceof Number) {
+			return (Number) value;
+		} else if (value instanceof String) {
+			String text = (String) value;
+
+			if (text.length() == 0 || !isNumeric(text)) {
+				return null;
+			}
+
+			try {
+				if (text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0) {
+					return Long.valueOf(text);
+				}
+
+				return Double.valueOf(text);
+			} catch (NumberFormatException e) {
+				return null;
+			}
+		}
+
+		return null;
+	}
+
+	/*
+	 * Quick check that excludes strings like NaN, Infinity or hexadecimal
+	 * literals that Double.valueOf would otherwise accept.
+	 */
+	private static boolean isNumeric(String text) {
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+
+			if (!((c >= '0' && c <= '9') || c == '.' || c == '-' || c == '+' || c == 'e' || c == 'E')) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the string representation of a stat value, or an empty string
+	 * if it is <code>null</code>.
+	 * 
+	 * @param value the stat value.
+	 * @return the string representation of the value.
+	 */
+	static String asString(Object value) {
+		return (value == null) ? "" : value.toString();
+	}
+}
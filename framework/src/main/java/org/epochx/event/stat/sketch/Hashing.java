@@ -0,0 +1,91 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat.sketch;
+
+/**
+ * Provides 64-bit hash functions for the sketches of this package. The
+ * functions are deterministic (they do not depend on identity hash codes), so
+ * the same program or fitness value always has the same hash across runs.
+ * 
+ * @since 2.0
+ */
+public final class Hashing {
+
+	/**
+	 * The multiplier used to combine hash values.
+	 */
+	private static final long PRIME = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * This class should not be instantiated.
+	 */
+	private Hashing() {
+	}
+
+	/**
+	 * Returns a well distributed 64-bit value from the specified value. This is
+	 * the finalisation step of the MurmurHash3 algorithm.
+	 * 
+	 * @param value the value to be mixed.
+	 * @return the mixed value.
+	 */
+	public static long mix(long value) {
+		value ^= value >>> 33;
+		value *= 0xFF51AFD7ED558CCDL;
+		value ^= value >>> 33;
+		value *= 0xC4CEB9FE1A85EC53L;
+		value ^= value >>> 33;
+
+		return value;
+	}
+
+	/**
+	 * Returns the 64-bit hash of the specified character sequence.
+	 * 
+	 * @param text the character sequence to be hashed.
+	 * @return the hash of the character sequence.
+	 */
+	public static long hash(CharSequence text) {
+		// FNV-1a followed by a final mix
+		long hash = 0xCBF29CE484222325L;
+
+		for (int i = 0; i < text.length(); i++) {
+			hash ^= text.charAt(i);
+			hash *= 0x100000001B3L;
+		}
+
+		return mix(hash);
+	}
+
+	/**
+	 * Returns the hash that results from combining a hash value with another
+	 * one. The combination is order dependent.
+	 * 
+	 * @param hash the current hash value.
+	 * @param value the value to be combined.
+	 * @return the combined hash value.
+	 */
+	public static long combine(long hash, long value) {
+		return mix(hash * PRIME + value);
+	}
+}
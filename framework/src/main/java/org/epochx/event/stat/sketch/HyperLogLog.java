@@ -0,0 +1,169 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat.sketch;
+
+import java.util.Arrays;
+
+/**
+ * A HyperLogLog sketch that estimates the number of distinct elements added to
+ * it using a fixed amount of memory: <code>2^precision</code> bytes. The
+ * relative standard error of the estimate is approximately
+ * <code>1.04 / sqrt(2^precision)</code>, e.g. 0.8% for the default precision
+ * of 14 (16KB). Elements are added as 64-bit hash values, which must be well
+ * distributed (see {@link Hashing}).
+ * 
+ * @since 2.0
+ */
+public class HyperLogLog {
+
+	/**
+	 * The default precision.
+	 */
+	public static final int DEFAULT_PRECISION = 14;
+
+	/**
+	 * The number of bits used to select the register.
+	 */
+	private final int precision;
+
+	/**
+	 * The registers holding the maximum rank observed in each bucket.
+	 */
+	private final byte[] registers;
+
+	/**
+	 * Constructs a <code>HyperLogLog</code> with the default precision.
+	 */
+	public HyperLogLog() {
+		this(DEFAULT_PRECISION);
+	}
+
+	/**
+	 * Constructs a <code>HyperLogLog</code> with the specified precision.
+	 * 
+	 * @param precision the number of bits used to select a register, between
+	 *        <code>4</code> and <code>18</code>.
+	 */
+	public HyperLogLog(int precision) {
+		if (precision < 4 || precision > 18) {
+			throw new IllegalArgumentException("Precision must be between 4 and 18: " + precision);
+		}
+
+		this.precision = precision;
+		registers = new byte[1 << precision];
+	}
+
+	/**
+	 * Adds the element with the specified hash value.
+	 * 
+	 * @param hash the 64-bit hash value of the element.
+	 */
+	public void add(long hash) {
+		int index = (int) (hash >>> (64 - precision));
+		// the sentinel bit bounds the rank when the remaining bits are zero
+		long remaining = (hash << precision) | (1L << (precision - 1));
+		byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+
+		if (rank > registers[index]) {
+			registers[index] = rank;
+		}
+	}
+
+	/**
+	 * Returns the estimated number of distinct elements added.
+	 * 
+	 * @return the estimated number of distinct elements added.
+	 */
+	public long cardinality() {
+		int m = registers.length;
+		double sum = 0;
+		int zeros = 0;
+
+		for (byte register: registers) {
+			sum += 1.0 / (1L << register);
+
+			if (register == 0) {
+				zeros++;
+			}
+		}
+
+		double estimate = alpha(m) * m * m / sum;
+
+		// small range correction (linear counting)
+		if (estimate <= 2.5 * m && zeros > 0) {
+			estimate = m * Math.log(m / (double) zeros);
+		}
+
+		return Math.round(estimate);
+	}
+
+	/**
+	 * Merges the specified sketch into this one, so that this sketch estimates
+	 * the number of distinct elements of the union of both.
+	 * 
+	 * @param other the sketch to be merged; it must have the same precision.
+	 */
+	public void merge(HyperLogLog other) {
+		if (other.precision != precision) {
+			throw new IllegalArgumentException("Precisions do not match: " + other.precision + " != " + precision);
+		}
+
+		for (int i = 0; i < registers.length; i++) {
+			if (other.registers[i] > registers[i]) {
+				registers[i] = other.registers[i];
+			}
+		}
+	}
+
+	/**
+	 * Removes all elements from this sketch.
+	 */
+	public void clear() {
+		Arrays.fill(registers, (byte) 0);
+	}
+
+	/**
+	 * Returns the precision of this sketch.
+	 * 
+	 * @return the precision of this sketch.
+	 */
+	public int getPrecision() {
+		return precision;
+	}
+
+	/*
+	 * Returns the bias correction constant for the number of registers.
+	 */
+	private static double alpha(int m) {
+		switch (m) {
+			case 16:
+				return 0.673;
+			case 32:
+				return 0.697;
+			case 64:
+				return 0.709;
+			default:
+				return 0.7213 / (1 + 1.079 / m);
+		}
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat.sketch;
+
+import java.util.Arrays;
+
+/**
+ * A MinHash signature of a set that allows the Jaccard similarity between two
+ * sets to be estimated from their signatures only. This implementation uses
+ * one-permutation hashing: each element is assigned to one of the
+ * <code>k</code> bins by its hash value and only the minimum hash of each bin
+ * is retained, so adding an element takes constant time regardless of the
+ * signature size. Elements are added as 64-bit hash values, which must be well
+ * distributed (see {@link Hashing}).
+ * 
+ * @since 2.0
+ */
+public class MinHash {
+
+	/**
+	 * The default number of bins.
+	 */
+	public static final int DEFAULT_BINS = 128;
+
+	/**
+	 * The value of a bin that has not received any element.
+	 */
+	private static final long EMPTY = Long.MAX_VALUE;
+
+	/**
+	 * The minimum value of each bin.
+	 */
+	private final long[] signature;
+
+	/**
+	 * Constructs a <code>MinHash</code> with the default number of bins.
+	 */
+	public MinHash() {
+		this(DEFAULT_BINS);
+	}
+
+	/**
+	 * Constructs a <code>MinHash</code> with the specified number of bins. The
+	 * standard error of the similarity estimate is approximately
+	 * <code>1 / sqrt(bins)</code>.
+	 * 
+	 * @param bins the number of bins.
+	 */
+	public MinHash(int bins) {
+		if (bins < 1) {
+			throw new IllegalArgumentException("The number of bins must be positive: " + bins);
+		}
+
+		signature = new long[bins];
+		clear();
+	}
+
+	/**
+	 * Adds the element with the specified hash value.
+	 * 
+	 * @param hash the 64-bit hash value of the element.
+	 */
+	public void add(long hash) {
+		// the bin is selected by the high bits, the value by the remaining ones
+		int bin = (int) (((hash >>> 32) * signature.length) >>> 32);
+		long value = hash & 0xFFFFFFFFL;
+
+		if (value < signature[bin]) {
+			signature[bin] = value;
+		}
+	}
+
+	/**
+	 * Returns the estimated Jaccard similarity between the set represented by
+	 * this signature and the set represented by the specified signature.
+	 * 
+	 * @param other the signature to compare to; it must have the same number of
+	 *        bins.
+	 * @return the estimated Jaccard similarity, between <code>0</code> and
+	 *         <code>1</code>; <code>1</code> if both sets are empty.
+	 */
+	public double similarity(MinHash other) {
+		if (other.signature.length != signature.length) {
+			throw new IllegalArgumentException("Number of bins does not match: " + other.signature.length + " != "
+					+ signature.length);
+		}
+
+		int matches = 0;
+		int used = 0;
+
+		for (int i = 0; i < signature.length; i++) {
+			long a = signature[i];
+			long b = other.signature[i];
+
+			if (a != EMPTY || b != EMPTY) {
+				used++;
+
+				if (a == b) {
+					matches++;
+				}
+			}
+		}
+
+		return (used == 0) ? 1.0 : matches / (double) used;
+	}
+
+	/**
+	 * Removes all elements from this signature.
+	 */
+	public void clear() {
+		Arrays.fill(signature, EMPTY);
+	}
+
+	/**
+	 * Returns the number of bins of this signature.
+	 * 
+	 * @return the number of bins of this signature.
+	 */
+	public int getBins() {
+		return signature.length;
+	}
+}
@@ -24,6 +24,9 @@ package org.epochx.event.stat;
 
 import junit.framework.TestCase;
 
+import org.epochx.event.Event;
+import org.epochx.event.EventManager;
+
 /**
  * The <code>AbstractStatTest</code> class provides unit tests for methods of the
  * {@link AbstractStat} class.
@@ -43,4 +46,82 @@ public class AbstractStatTest extends TestCase {
 		AbstractStat.reset();
 		assertNull(AbstractStat.get(RunBestFitness.class));
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Test for the lazy mode (see {@link AbstractStat#setLazy(boolean)}).
+	 */
+	public void testLazy() {
+		AbstractStat.setLazy(true);
+
+		try {
+			AbstractStat.register(Dependent.class);
+
+			EventManager.getInstance().fire(new Tick());
+			EventManager.getInstance().fire(new Tick());
+			assertEquals(0, Dependent.refreshes);
+			assertEquals(0, Counter.refreshes);
+
+			// the dependency is refreshed once, before the dependent stat
+			assertEquals(1, AbstractStat.get(Dependent.class).value);
+			assertEquals(1, AbstractStat.get(Dependent.class).value);
+			assertEquals(1, Dependent.refreshes);
+			assertEquals(1, Counter.refreshes);
+
+			EventManager.getInstance().fire(new Tick());
+			assertEquals(2, AbstractStat.get(Counter.class).value);
+			assertEquals(2, AbstractStat.get(Dependent.class).value);
+			assertEquals(2, Counter.refreshes);
+		} finally {
+			AbstractStat.setLazy(false);
+			AbstractStat.reset();
+			EventManager.getInstance().reset();
+			Counter.refreshes = 0;
+			Dependent.refreshes = 0;
+		}
+	}
+
+	/**
+	 * Event used to test the lazy mode.
+	 */
+	public static class Tick implements Event {
+	}
+
+	/**
+	 * Deferrable stat that counts its refreshes.
+	 */
+	public static class Counter extends AbstractStat<Tick> {
+
+		static int refreshes;
+
+		int value;
+
+		public Counter() {
+			super(true, NO_DEPENDENCIES);
+		}
+
+		@Override
+		public void refresh(Tick event) {
+			value = ++refreshes;
+		}
+	}
+
+	/**
+	 * Deferrable stat that depends on the <code>Counter</code> stat.
+	 */
+	public static class Dependent extends AbstractStat<Tick> {
+
+		static int refreshes;
+
+		int value;
+
+		public Dependent() {
+			super(true, Counter.class);
+		}
+
+		@Override
+		public void refresh(Tick event) {
+			refreshes++;
+			value = AbstractStat.get(Counter.class).value;
+		}
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat;
+
+import junit.framework.TestCase;
+
+/**
+ * The <code>OnlineStatisticsTest</code> class provides unit tests for methods of
+ * the {@link OnlineStatistics} class.
+ * 
+ * @see OnlineStatistics
+ */
+public class OnlineStatisticsTest extends TestCase {
+
+	/**
+	 * Test for the {@link OnlineStatistics#add(int, double)} method.
+	 */
+	public void testAdd() {
+		OnlineStatistics statistics = new OnlineStatistics(2);
+		double[] values = {2, 4, 4, 4, 5, 5, 7, 9};
+
+		for (double value: values) {
+			statistics.add(0, value);
+		}
+
+		assertEquals(8, statistics.getCount(0));
+		assertEquals(5.0, statistics.getMean(0), 1e-12);
+		assertEquals(2.0, statistics.getStandardDeviation(0), 1e-12);
+		assertEquals(2.0 / Math.sqrt(8), statistics.getStandardError(0), 1e-12);
+		assertEquals(2.0, statistics.getMinimum(0));
+		assertEquals(9.0, statistics.getMaximum(0));
+
+		assertEquals(0, statistics.getCount(1));
+		assertTrue(Double.isNaN(statistics.getMean(1)));
+
+		statistics.reset();
+		assertEquals(0, statistics.getCount(0));
+	}
+}
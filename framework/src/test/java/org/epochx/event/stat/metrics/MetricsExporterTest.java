@@ -0,0 +1,114 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat.metrics;
+
+import junit.framework.TestCase;
+
+import org.epochx.event.EventManager;
+import org.epochx.event.GenerationEvent.StartGeneration;
+import org.epochx.event.stat.AbstractStat;
+import org.epochx.event.stat.GenerationBestFitness;
+import org.epochx.event.stat.GenerationNumber;
+
+/**
+ * The <code>MetricsExporterTest</code> class provides unit tests for methods of
+ * the {@link MetricsExporter} class.
+ * 
+ * @see MetricsExporter
+ */
+public class MetricsExporterTest extends TestCase {
+
+	@Override
+	protected void tearDown() throws Exception {
+		AbstractStat.reset();
+		EventManager.getInstance().reset();
+	}
+
+	/**
+	 * Test for the {@link MetricsExporter#metricName(Class)} method.
+	 */
+	public void testMetricName() {
+		assertEquals("generation_best_fitness", MetricsExporter.metricName(GenerationBestFitness.class));
+		assertEquals("generation_number", MetricsExporter.metricName(GenerationNumber.class));
+		assertEquals("org_epochx_event_stat_generation_number", MetricsExporter.metricName(GenerationNumber.class, true));
+	}
+
+	/**
+	 * Test for the {@link MetricsExporter#update()} and
+	 * {@link MetricsExporter#toPrometheus()} methods.
+	 */
+	public void testUpdate() {
+		MetricsExporter exporter = new MetricsExporter();
+		exporter.add(GenerationNumber.class);
+		exporter.updateOnEvent(StartGeneration.class);
+
+		assertTrue(exporter.getSnapshot().isEmpty());
+
+		EventManager.getInstance().fire(new StartGeneration(3, null));
+
+		assertEquals(1, exporter.getUpdates());
+		assertEquals(3.0, exporter.getSnapshot().get("generation_number"));
+		assertEquals("# TYPE epochx_generation_number gauge\nepochx_generation_number 3.0\n", exporter.toPrometheus());
+	}
+
+	/**
+	 * Tests that stats with the same metric name are not merged in one field.
+	 */
+	public void testCollision() {
+		MetricsExporter exporter = new MetricsExporter();
+		exporter.add(BestFitness.class);
+		exporter.add(Best.Fitness.class);
+		exporter.update();
+
+		assertEquals(2, exporter.getSnapshot().size());
+		assertEquals(1.0, exporter.getSnapshot().get(MetricsExporter.metricName(BestFitness.class)));
+		assertEquals(2.0, exporter.getSnapshot().get(MetricsExporter.metricName(Best.Fitness.class, true)));
+	}
+
+	public static class BestFitness extends AbstractStat<StartGeneration> {
+
+		@Override
+		public void refresh(StartGeneration event) {
+		}
+
+		@Override
+		public String toString() {
+			return "1";
+		}
+	}
+
+	public static class Best {
+
+		public static class Fitness extends AbstractStat<StartGeneration> {
+
+			@Override
+			public void refresh(StartGeneration event) {
+			}
+
+			@Override
+			public String toString() {
+				return "2";
+			}
+		}
+	}
+}
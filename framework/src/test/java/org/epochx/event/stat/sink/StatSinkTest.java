@@ -0,0 +1,174 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat.sink;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.epochx.event.EventManager;
+import org.epochx.event.GenerationEvent.StartGeneration;
+import org.epochx.event.stat.AbstractStat;
+import org.epochx.event.stat.GenerationNumber;
+
+/**
+ * The <code>StatSinkTest</code> class provides unit tests for methods of the
+ * {@link StatSink} class.
+ * 
+ * @see StatSink
+ */
+public class StatSinkTest extends TestCase {
+
+	@Override
+	protected void tearDown() throws Exception {
+		AbstractStat.reset();
+		EventManager.getInstance().reset();
+	}
+
+	/**
+	 * Test for the {@link StatSink#record()} and {@link StatSink#close()}
+	 * methods with CSV output.
+	 */
+	public void testRecordDelimited() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		StatSink sink = new StatSink(out, DelimitedFormat.CSV);
+		sink.add(GenerationNumber.class);
+		sink.recordOnEvent(StartGeneration.class);
+
+		for (int i = 1; i <= 3; i++) {
+			EventManager.getInstance().fire(new StartGeneration(i, null));
+		}
+
+		sink.close();
+
+		assertEquals("GenerationNumber\n1\n2\n3\n", out.toString("UTF-8"));
+	}
+
+	/**
+	 * Test for the {@link StatSink#flush()} method with JSON lines output.
+	 */
+	public void testFlushJsonLines() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		StatSink sink = new StatSink(out, new JsonLinesFormat(), 4, StatSink.Overflow.DROP, 2, 1000);
+		sink.add(GenerationNumber.class);
+
+		EventManager.getInstance().fire(new StartGeneration(7, null));
+		sink.record();
+		sink.flush();
+
+		assertEquals("{\"GenerationNumber\":7}\n", out.toString("UTF-8"));
+		sink.close();
+	}
+
+	/**
+	 * Test that the records written with the {@link BinaryFormat} can be read
+	 * back with a <code>DataInputStream</code>.
+	 */
+	public void testRecordBinary() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		StatSink sink = new StatSink(out, new BinaryFormat());
+		sink.add(GenerationNumber.class);
+		sink.recordOnEvent(StartGeneration.class);
+
+		for (int i = 1; i <= 2; i++) {
+			EventManager.getInstance().fire(new StartGeneration(i, null));
+		}
+
+		sink.close();
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+
+		assertEquals(BinaryFormat.MAGIC, in.readInt());
+		assertEquals(BinaryFormat.VERSION, in.readByte());
+		assertEquals(1, in.readInt());
+		assertEquals("GenerationNumber", in.readUTF());
+
+		for (int i = 1; i <= 2; i++) {
+			assertEquals(BinaryFormat.RECORD, in.readByte());
+			assertEquals(BinaryFormat.LONG, in.readByte());
+			assertEquals(i, in.readLong());
+		}
+
+		assertEquals(-1, in.read());
+	}
+
+	/**
+	 * Test that the {@link StatSink.Overflow#DROP} policy drops records rather
+	 * than blocking when the buffer is full.
+	 */
+	public void testOverflowDrop() throws Exception {
+		final CountDownLatch entered = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		// holds the writer thread until the buffer has been filled
+		OutputStream blocking = new OutputStream() {
+
+			@Override
+			public void write(int b) throws IOException {
+				write(new byte[]{(byte) b}, 0, 1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				entered.countDown();
+
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					throw new InterruptedIOException();
+				}
+
+				out.write(b, off, len);
+			}
+		};
+
+		StatSink sink = new StatSink(blocking, DelimitedFormat.CSV, 1, StatSink.Overflow.DROP, 1, 0);
+		sink.add(GenerationNumber.class);
+
+		EventManager.getInstance().fire(new StartGeneration(1, null));
+		sink.record();
+		assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+		// the first record fills the buffer, the second one is dropped
+		for (int i = 2; i <= 3; i++) {
+			EventManager.getInstance().fire(new StartGeneration(i, null));
+			sink.record();
+		}
+
+		assertEquals(1, sink.getDropped());
+		assertEquals(1, sink.getPending());
+
+		release.countDown();
+		sink.close();
+
+		assertEquals("GenerationNumber\n1\n2\n", out.toString("UTF-8"));
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat.sketch;
+
+import junit.framework.TestCase;
+
+/**
+ * The <code>HyperLogLogTest</code> class provides unit tests for methods of the
+ * {@link HyperLogLog} class.
+ * 
+ * @see HyperLogLog
+ */
+public class HyperLogLogTest extends TestCase {
+
+	/**
+	 * Test for the {@link HyperLogLog#cardinality()} method.
+	 */
+	public void testCardinality() {
+		HyperLogLog sketch = new HyperLogLog();
+		assertEquals(0, sketch.cardinality());
+
+		for (int i = 0; i < 100000; i++) {
+			// each element is added twice
+			sketch.add(Hashing.hash("element" + i));
+			sketch.add(Hashing.hash("element" + i));
+		}
+
+		assertEquals(100000, sketch.cardinality(), 100000 * 0.05);
+
+		HyperLogLog other = new HyperLogLog();
+
+		for (int i = 50000; i < 150000; i++) {
+			other.add(Hashing.hash("element" + i));
+		}
+
+		sketch.merge(other);
+		assertEquals(150000, sketch.cardinality(), 150000 * 0.05);
+
+		sketch.clear();
+		assertEquals(0, sketch.cardinality());
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.event.stat.sketch;
+
+import junit.framework.TestCase;
+
+/**
+ * The <code>MinHashTest</code> class provides unit tests for methods of the
+ * {@link MinHash} class.
+ * 
+ * @see MinHash
+ */
+public class MinHashTest extends TestCase {
+
+	/**
+	 * Test for the {@link MinHash#similarity(MinHash)} method.
+	 */
+	public void testSimilarity() {
+		MinHash a = new MinHash(256);
+		MinHash b = new MinHash(256);
+
+		assertEquals(1.0, a.similarity(b));
+
+		// the sets share 1000 of 3000 elements
+		for (int i = 0; i < 2000; i++) {
+			a.add(Hashing.hash("element" + i));
+			b.add(Hashing.hash("element" + (i + 1000)));
+		}
+
+		assertEquals(1.0 / 3.0, a.similarity(b), 0.1);
+		assertEquals(1.0, a.similarity(a));
+	}
+}
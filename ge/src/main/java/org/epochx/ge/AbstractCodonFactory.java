@@ -0,0 +1,71 @@
+/* 
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http:/www.epochx.org
+ */
+
+package org.epochx.ge;
+
+/**
+ * This class provides an abstract implementation of a <code>CodonFactory</code> that can
+ * also create the chromosomes which hold its codons. Sub-classes may override 
+ * {@link #chromosome()} to return a chromosome that stores the codons more compactly than 
+ * as a list of <code>Codon</code> objects.
+ * 
+ * @since 2.0
+ */
+public abstract class AbstractCodonFactory implements CodonFactory {
+
+	/**
+	 * Returns a new chromosome with no codons, suitable for holding the codons generated 
+	 * by this factory. The default implementation returns a <code>Chromosome</code> that
+	 * generates its codons with this factory.
+	 * 
+	 * @return a new empty chromosome
+	 */
+	public Chromosome chromosome() {
+		Chromosome chromosome = new Chromosome();
+		chromosome.setCodonFactory(this);
+		
+		return chromosome;
+	}
+
+	/**
+	 * Returns a new chromosome with no codons, suitable for holding the codons generated 
+	 * by the given factory. If the factory is an <code>AbstractCodonFactory</code> the 
+	 * chromosome is created by the factory, otherwise it is a <code>Chromosome</code> that 
+	 * generates its codons with the factory, or with the configured codon factory if the 
+	 * given factory is <code>null</code>.
+	 * 
+	 * @param factory the codon factory, or <code>null</code>
+	 * @return a new empty chromosome
+	 */
+	public static Chromosome chromosome(CodonFactory factory) {
+		if (factory instanceof AbstractCodonFactory) {
+			return ((AbstractCodonFactory) factory).chromosome();
+		}
+		
+		Chromosome chromosome = new Chromosome();
+		if (factory != null) {
+			chromosome.setCodonFactory(factory);
+		}
+		
+		return chromosome;
+	}
+}
@@ -0,0 +1,437 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.ge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A chromosome of binary codons which stores the bits of all its codons packed
+ * into an array of <code>long</code>s, rather than as a list of codon objects
+ * that each hold an array of <code>boolean</code>s. Each codon occupies the
+ * same number of bits, from 1 to 64, and its value is the unsigned integer
+ * formed by its bits, where the first bit is the least significant. The codons
+ * returned by the methods of <code>Chromosome</code> are <code>BinaryCodon</code>s
+ * created on demand; {@link #getCodonValue(int)} reads the value directly from
+ * the packed bits, and cloning copies the array.
+ * 
+ * @see BinaryCodonFactory
+ * 
+ * @since 2.0
+ */
+public class BinaryChromosome extends Chromosome {
+
+	private final int noBits;
+
+	private final long mask;
+
+	private long[] words;
+
+	private int length;
+
+	/**
+	 * Constructs a <code>BinaryChromosome</code> with no codons and control
+	 * parameters automatically loaded from the config
+	 * 
+	 * @param noBits the number of bits of each codon, from 1 to 64
+	 */
+	public BinaryChromosome(int noBits) {
+		this(noBits, true);
+	}
+
+	/**
+	 * Constructs a <code>BinaryChromosome</code> with no codons and control
+	 * parameters initially loaded from the config. If the <code>autoConfig</code>
+	 * argument is set to <code>true</code> then the configuration will be
+	 * automatically updated when the config is modified.
+	 * 
+	 * @param noBits the number of bits of each codon, from 1 to 64
+	 * @param autoConfig whether this operator should automatically update its
+	 *        configuration settings from the config
+	 */
+	public BinaryChromosome(int noBits, boolean autoConfig) {
+		super(autoConfig);
+
+		if (noBits < 1 || noBits > 64) {
+			throw new IllegalArgumentException("the number of bits must be from 1 to 64");
+		}
+
+		this.noBits = noBits;
+		this.mask = (noBits == 64) ? -1L : (1L << noBits) - 1;
+		this.words = new long[2];
+	}
+
+	/**
+	 * Returns the number of bits of each codon
+	 * 
+	 * @return the number of bits of each codon
+	 */
+	public int getNoBits() {
+		return noBits;
+	}
+
+	/*
+	 * Returns the packed value of the codon at the given position.
+	 */
+	private long get(int position) {
+		long bit = (long) position * noBits;
+		int word = (int) (bit >>> 6);
+		int offset = (int) (bit & 63);
+
+		long value = words[word] >>> offset;
+		if (offset + noBits > 64) {
+			value |= words[word + 1] << (64 - offset);
+		}
+
+		return value & mask;
+	}
+
+	/*
+	 * Sets the packed value of the codon at the given position, keeping only the
+	 * lowest bits of the value.
+	 */
+	private void set(int position, long value) {
+		long bit = (long) position * noBits;
+		int word = (int) (bit >>> 6);
+		int offset = (int) (bit & 63);
+
+		value &= mask;
+		words[word] = (words[word] & ~(mask << offset)) | (value << offset);
+		if (offset + noBits > 64) {
+			int shift = 64 - offset;
+			words[word + 1] = (words[word + 1] & ~(mask >>> shift)) | (value >>> shift);
+		}
+	}
+
+	/*
+	 * Ensures that the array can hold the given number of codons.
+	 */
+	private void ensureCapacity(int capacity) {
+		int required = (int) (((long) capacity * noBits + 63) >>> 6);
+
+		if (required > words.length) {
+			words = Arrays.copyOf(words, Math.max(required, words.length * 2));
+		}
+	}
+
+	/*
+	 * Returns a binary codon with the given value.
+	 */
+	private BinaryCodon codon(long value) {
+		boolean[] bits = new boolean[noBits];
+		for (int i = 0; i < noBits; i++) {
+			bits[i] = ((value >>> i) & 1) != 0;
+		}
+
+		return new BinaryCodon(bits);
+	}
+
+	/*
+	 * Returns the value of a codon, using its bits if it is a binary codon.
+	 */
+	private static long value(Codon codon) {
+		if (codon instanceof BinaryCodon) {
+			boolean[] bits = ((BinaryCodon) codon).getBits();
+			long value = 0;
+			for (int i = 0; i < bits.length && i < 64; i++) {
+				if (bits[i]) {
+					value |= 1L << i;
+				}
+			}
+
+			return value;
+		}
+
+		return codon.value();
+	}
+
+	/**
+	 * Returns a list of <code>BinaryCodon</code>s with the bits of this chromosome's
+	 * codons. Modifying the returned list will not effect the chromosome.
+	 * 
+	 * @return a list of this chromosome's codons
+	 */
+	@Override
+	protected List<Codon> getCodons() {
+		return getCodons(0, length);
+	}
+
+	/**
+	 * Returns a list of <code>BinaryCodon</code>s with the bits of the codons from the
+	 * given position (inclusive) up to the other given position (exclusive).
+	 * 
+	 * @param from the starting position (inclusive)
+	 * @param to the upper position (exclusive)
+	 * @return a list of the codons in the range
+	 */
+	@Override
+	public List<Codon> getCodons(int from, int to) {
+		checkRange(from, to);
+
+		List<Codon> codons = new ArrayList<Codon>(to - from);
+		for (int i = from; i < to; i++) {
+			codons.add(codon(get(i)));
+		}
+
+		return codons;
+	}
+
+	/**
+	 * Returns a <code>BinaryCodon</code> with the bits of the codon at the given index,
+	 * extending and wrapping the chromosome as described for {@link #resolve(long)}.
+	 * 
+	 * @param index the codon to return
+	 * @return the codon at the specified index, or <code>null</code> if the index is not
+	 *         reachable
+	 */
+	@Override
+	public Codon getCodon(long index) {
+		int position = resolve(index);
+
+		return (position == -1) ? null : codon(get(position));
+	}
+
+	/**
+	 * Returns the value of the codon at the given position, without creating a codon object.
+	 * 
+	 * @param position the position of the codon
+	 * @return the value of the codon at the specified position
+	 */
+	@Override
+	public long getCodonValue(int position) {
+		checkPosition(position);
+
+		return get(position);
+	}
+
+	/**
+	 * Replaces the bits of the codon at the specified index with the bits of the given
+	 * codon. Wrapping and extending are not used.
+	 * 
+	 * @param index the index of the codon to replace
+	 * @param codon the codon whose bits to set
+	 */
+	@Override
+	public void setCodon(int index, Codon codon) {
+		checkPosition(index);
+
+		set(index, value(codon));
+	}
+
+	/**
+	 * Returns the number of codons in the chromosome
+	 * 
+	 * @return the size of the chromosome
+	 */
+	@Override
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Removes the codon at the specified index and returns it as a <code>BinaryCodon</code>.
+	 * 
+	 * @param index the index of the codon to remove
+	 * @return the codon that was removed
+	 */
+	@Override
+	public Codon removeCodon(int index) {
+		checkPosition(index);
+
+		return removeCodons(index, index + 1).get(0);
+	}
+
+	/**
+	 * Removes a range of codons between the given indices and returns a list of the
+	 * codons that are removed.
+	 * 
+	 * @param from the starting index (inclusive)
+	 * @param to the upper index (exclusive)
+	 * @return a list of the codons that were removed
+	 */
+	@Override
+	public List<Codon> removeCodons(int from, int to) {
+		List<Codon> removed = getCodons(from, to);
+
+		int count = to - from;
+		for (int i = to; i < length; i++) {
+			set(i - count, get(i));
+		}
+		length -= count;
+
+		return removed;
+	}
+
+	/**
+	 * Replaces the codons from the given position to the end of this chromosome with the
+	 * codons from another position to the end of the donor chromosome. The values are
+	 * copied without creating codon objects.
+	 * 
+	 * @param from the position in this chromosome of the first codon to replace
+	 * @param donor the chromosome to copy codons from
+	 * @param donorFrom the position in the donor of the first codon to copy
+	 */
+	@Override
+	public void splice(int from, Chromosome donor, int donorFrom) {
+		checkRange(from, length);
+
+		int donorLength = donor.length();
+		if (donorFrom < 0 || donorFrom > donorLength) {
+			throw new IndexOutOfBoundsException("Position " + donorFrom + " outside bounds of chromosome of length " + donorLength);
+		}
+
+		int count = donorLength - donorFrom;
+		ensureCapacity(from + count);
+
+		for (int i = 0; i < count; i++) {
+			set(from + i, donor.getCodonValue(donorFrom + i));
+		}
+
+		length = from + count;
+	}
+
+	/**
+	 * Appends a codon with the bits of the given codon to the end of the chromosome
+	 * 
+	 * @param codon the codon to append
+	 */
+	@Override
+	public void appendCodon(Codon codon) {
+		appendCodonValue(value(codon));
+	}
+
+	/**
+	 * Appends codons with the bits of the given codons to the end of the chromosome
+	 * 
+	 * @param newCodons a list of codons to append
+	 */
+	@Override
+	public void appendCodons(List<Codon> newCodons) {
+		ensureCapacity(length + newCodons.size());
+
+		for (Codon codon: newCodons) {
+			set(length++, value(codon));
+		}
+	}
+
+	/**
+	 * Appends a codon with the lowest bits of the given value to the end of the chromosome
+	 * 
+	 * @param value the value of the codon to append
+	 */
+	@Override
+	public void appendCodonValue(long value) {
+		ensureCapacity(length + 1);
+
+		set(length++, value);
+	}
+
+	/*
+	 * Checks that the position is within the chromosome.
+	 */
+	private void checkPosition(int position) {
+		if (position < 0 || position >= length) {
+			throw new IndexOutOfBoundsException("Position " + position + " outside bounds of chromosome of length " + length);
+		}
+	}
+
+	/*
+	 * Checks that the range of positions is within the chromosome.
+	 */
+	private void checkRange(int from, int to) {
+		if (from < 0 || to > length || from > to) {
+			throw new IndexOutOfBoundsException("Range " + from + " to " + to + " outside bounds of chromosome of length " + length);
+		}
+	}
+
+	/**
+	 * Creates and returns a clone of this chromosome. The array of packed bits is
+	 * copied.
+	 * 
+	 * @return a copy of this chromosome
+	 */
+	@Override
+	public BinaryChromosome clone() {
+		BinaryChromosome clone = (BinaryChromosome) super.clone();
+		clone.words = words.clone();
+
+		return clone;
+	}
+
+	/**
+	 * Returns a string representation of this chromosome's list of codons
+	 * 
+	 * @return a string representation of the list of codons
+	 */
+	@Override
+	public String toString() {
+		return getCodons().toString();
+	}
+
+	/**
+	 * Compares the given object to this instance for equality. Equivalence is
+	 * defined as them both being instances of <code>BinaryChromosome</code> and
+	 * having codons with equal bits. The two chromosomes must also have the same
+	 * settings for allowing extending, maximum wraps and maximum length.
+	 * 
+	 * @return true if the object is an equivalent chromosome, false otherwise
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof BinaryChromosome)) {
+			return false;
+		}
+
+		BinaryChromosome c = (BinaryChromosome) obj;
+
+		if ((c.noBits != noBits) || (c.isAutoExtending() != isAutoExtending()) || (c.getMaxWraps() != getMaxWraps())
+				|| !c.getMaxLength().equals(getMaxLength()) || (c.length != length)) {
+			return false;
+		}
+
+		for (int i = 0; i < length; i++) {
+			if (c.get(i) != get(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns a hash code value for the codon values of this chromosome
+	 * 
+	 * @return a hash code value for this chromosome
+	 */
+	@Override
+	public int hashCode() {
+		int hash = noBits;
+		for (int i = 0; i < length; i++) {
+			long value = get(i);
+			hash = 31 * hash + (int) (value ^ (value >>> 32));
+		}
+
+		return hash;
+	}
+}
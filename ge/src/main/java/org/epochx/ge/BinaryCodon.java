@@ -68,7 +68,7 @@ public class BinaryCodon implements Codon {
 	private long toLong(boolean[] a) {
 	    long result = 0;
 	    for (int i = 0; i < a.length; i++) {
-	    	long value = (a[i] ? 1 : 0) << i;
+	    	long value = (a[i] ? 1L : 0L) << i;
 	    	result = result | value;
 	    }
 
@@ -41,7 +41,7 @@ import org.epochx.event.Listener;
  * 
  * @since 2.0
  */
-public class BinaryCodonFactory implements CodonFactory, Listener<ConfigEvent> {
+public class BinaryCodonFactory extends AbstractCodonFactory implements Listener<ConfigEvent> {
 	
 	// Configuration settings
 	private RandomSequence random;
@@ -134,12 +134,23 @@ public class BinaryCodonFactory implements CodonFactory, Listener<ConfigEvent> {
 		boolean[] bits = new boolean[noBits];
 		
 	    for (int i = (bits.length-1); i >= 0; i--) {
-	        bits[i] = (value & (1 << i)) != 0;
+	        bits[i] = (value & (1L << i)) != 0;
 	    }
 	    
 	    return new BinaryCodon(bits);
 	}
 	
+	/**
+	 * Constructs a new <code>BinaryChromosome</code> for codons of the current number 
+	 * of bits, which stores the bits of the codons packed in a primitive array
+	 * 
+	 * @return a new empty <code>BinaryChromosome</code>
+	 */
+	@Override
+	public Chromosome chromosome() {
+		return new BinaryChromosome(noBits);
+	}
+	
 	/**
 	 * Converts the given chromosome to a boolean array of bits, where each codon in the 
 	 * chromosome is represented by <code>NO_BITS</code>. This method only works on 
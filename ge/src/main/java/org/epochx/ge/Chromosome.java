@@ -40,6 +40,14 @@ import org.epochx.grammar.Grammar;
  * Grammatical Evolution algorithm, an individual's chromosome is used by a {@link Mapper} to 
  * generate a parse tree with reference to a problem specific {@link Grammar}.
  * 
+ * <p>
+ * This implementation stores a list of codon objects. Subclasses such as
+ * {@link IntegerChromosome} and {@link BinaryChromosome} store the codon values in
+ * primitive arrays instead, and are created by {@link AbstractCodonFactory#chromosome()}. The
+ * methods {@link #resolve(long)} and {@link #getCodonValue(int)} read the value of a 
+ * codon without a codon object, and {@link #splice(int, Chromosome, int)} exchanges the
+ * codons of two chromosomes in bulk.
+ * 
  * @since 2.0
  */
 public class Chromosome implements Iterable<Codon>, Cloneable, Listener<ConfigEvent> {
@@ -114,7 +122,21 @@ public class Chromosome implements Iterable<Codon>, Cloneable, Listener<ConfigEv
 		
 		setup();
 
-		EventManager.getInstance().add(ConfigEvent.class, this);
+		if (autoConfig) {
+			EventManager.getInstance().add(ConfigEvent.class, this);
+		}
+	}
+	
+	/**
+	 * Constructs a <code>Chromosome</code> for a subclass that stores the codons itself, 
+	 * with control parameters initially loaded from the config. The subclass must override 
+	 * all methods that access the codons.
+	 * 
+	 * @param autoConfig whether this operator should automatically update its
+	 *        configuration settings from the config
+	 */
+	protected Chromosome(boolean autoConfig) {
+		this(null, autoConfig);
 	}
 	
 	/**
@@ -164,7 +186,7 @@ public class Chromosome implements Iterable<Codon>, Cloneable, Listener<ConfigEv
 	public void extend() {
 		long value = minCodon + random.nextLong(codonRange);
 		
-		appendCodon(codonFactory.codon(value));
+		appendCodonValue(value);
 	}
 	
 	/**
@@ -189,31 +211,66 @@ public class Chromosome implements Iterable<Codon>, Cloneable, Listener<ConfigEv
 	 * @return the codon at the specified index
 	 */
 	public Codon getCodon(long index) {
-		// If within chromosome size just return the codon
-		if (index < codons.size()) {
-			return codons.get((int) index);
+		int position = resolve(index);
+		
+		return (position == -1) ? null : codons.get(position);
+	}
+	
+	/**
+	 * Returns the position within the chromosome of the codon at the given index. If the 
+	 * index is beyond the length of the chromosome then the chromosome is extended and the 
+	 * codons are wrapped as described for {@link #getCodon(long)}. If the index is not 
+	 * reachable even with wrapping and extending then -1 is returned.
+	 * 
+	 * @param index the index of the codon
+	 * @return the position of the codon at the specified index, from <code>0</code> to
+	 *         <code>length()-1</code>, or -1 if there is no codon at the index
+	 */
+	public int resolve(long index) {
+		// If within chromosome size the index is the position
+		if (index < length()) {
+			return (int) index;
 		}
 		
 		// Otherwise need to do some combination of wrapping and extending
 		if (extending) {
-			while (codons.size() <= index && codons.size() < maxLength) {
+			while (length() <= index && length() < maxLength) {
 				extend();
 			}
-		} else if (codons.size() == 0) {
-			throw new IndexOutOfBoundsException("Index " + index + " outside bounds of chromosome of length " + codons.size());
+		} else if (length() == 0) {
+			throw new IndexOutOfBoundsException("Index " + index + " outside bounds of chromosome of length " + length());
 		}
 		
-		int wraps = (int) Math.floor(index / codons.size());
+		long wraps = index / length();
 		if (wraps > maxWraps) {
-			return null;
+			return -1;
 		}
 		
-		index = index % codons.size();
-		if (index >= codons.size()) {
-			return null;
-		}
-
-		return codons.get((int) index);
+		return (int) (index % length());
+	}
+	
+	/**
+	 * Returns the value of the codon at the given position. Wrapping and extending are not 
+	 * used, so the maximum position is the number of codons minus one. Subclasses that store 
+	 * the codon values directly return the value without creating a codon object.
+	 * 
+	 * @param position the position of the codon
+	 * @return the value of the codon at the specified position
+	 */
+	public long getCodonValue(int position) {
+		return codons.get(position).value();
+	}
+	
+	/**
+	 * Returns a list of the codons from the given position (inclusive) up to the other given 
+	 * position (exclusive). Modifying the returned list will not effect the chromosome.
+	 * 
+	 * @param from the starting position (inclusive)
+	 * @param to the upper position (exclusive)
+	 * @return a list of the codons in the range
+	 */
+	public List<Codon> getCodons(int from, int to) {
+		return new ArrayList<Codon>(codons.subList(from, to));
 	}
 
 	/**
@@ -257,14 +314,27 @@ public class Chromosome implements Iterable<Codon>, Cloneable, Listener<ConfigEv
 	 * @return a list of the codons that were removed
 	 */
 	public List<Codon> removeCodons(int from, int to) {
-		List<Codon> removed = new ArrayList<Codon>();
-		for (int i = from; i < to; i++) {
-			// As we remove them the list will shrink so we use from not i.
-			removed.add(codons.remove(from));
-		}
+		List<Codon> range = codons.subList(from, to);
+		List<Codon> removed = new ArrayList<Codon>(range);
+		range.clear();
 
 		return removed;
 	}
+	
+	/**
+	 * Replaces the codons from the given position to the end of this chromosome with the 
+	 * codons from another position to the end of the donor chromosome, which is not 
+	 * modified. This is the exchange performed by one point crossovers. The positions will
+	 * not be wrapped and codon length will not be extended.
+	 * 
+	 * @param from the position in this chromosome of the first codon to replace
+	 * @param donor the chromosome to copy codons from
+	 * @param donorFrom the position in the donor of the first codon to copy
+	 */
+	public void splice(int from, Chromosome donor, int donorFrom) {
+		codons.subList(from, codons.size()).clear();
+		codons.addAll(donor.getCodons(donorFrom, donor.length()));
+	}
 
 	/**
 	 * Appends the given codon to the end of the chromosome
@@ -283,6 +353,17 @@ public class Chromosome implements Iterable<Codon>, Cloneable, Listener<ConfigEv
 	public void appendCodons(List<Codon> newCodons) {
 		codons.addAll(newCodons);
 	}
+	
+	/**
+	 * Appends a codon with the given value to the end of the chromosome. The codon is 
+	 * generated using the currently set codon factory, unless the chromosome stores the 
+	 * codon values directly.
+	 * 
+	 * @param value the value of the codon to append
+	 */
+	public void appendCodonValue(long value) {
+		appendCodon(codonFactory.codon(value));
+	}
 
 	/**
 	 * Returns the maximum number of wraps allowed
@@ -410,7 +491,9 @@ public class Chromosome implements Iterable<Codon>, Cloneable, Listener<ConfigEv
 		try {
 			clone = (Chromosome) super.clone();
 			// This assumes codons are immutable
-			clone.codons = new ArrayList<Codon>(codons);
+			if (codons != null) {
+				clone.codons = new ArrayList<Codon>(codons);
+			}
 		} catch (CloneNotSupportedException e) {
 			e.printStackTrace();
 		}
@@ -486,7 +569,7 @@ public class Chromosome implements Iterable<Codon>, Cloneable, Listener<ConfigEv
 		 */
 		@Override
 		public boolean hasNext() {			
-			long lastPosition = codons.size()-1;
+			long lastPosition = length()-1;
 			
 			if (extending) {
 				lastPosition = maxLength-1;
@@ -510,7 +593,7 @@ public class Chromosome implements Iterable<Codon>, Cloneable, Listener<ConfigEv
 		@Override
 		public Codon next() {
 			if (hasNext()) {
-				Codon previous = getCodon(nextPosition++);
+				previous = getCodon(nextPosition++);
 				return previous;
 			} else {
 				throw new NoSuchElementException("There is no next codon");
@@ -527,7 +610,8 @@ public class Chromosome implements Iterable<Codon>, Cloneable, Listener<ConfigEv
 		@Override
 		public void remove() {
 			if (previous != null) {
-				codons.remove(nextPosition-1);
+				// The following codon moves into the removed position
+				removeCodon(resolve(--nextPosition));
 				previous = null;
 			} else {
 				throw new NoSuchElementException("No current codon to remove");
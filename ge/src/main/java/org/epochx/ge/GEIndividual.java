@@ -24,6 +24,7 @@ package org.epochx.ge;
 import org.apache.commons.lang.ObjectUtils;
 import org.epochx.*;
 import org.epochx.Config.ConfigKey;
+import org.epochx.ge.map.Derivation;
 import org.epochx.grammar.*;
 
 /**
@@ -50,6 +51,9 @@ public class GEIndividual extends AbstractIndividual {
 	
 	// The individual's phenotype
 	private NonTerminalSymbol parseTree;
+	
+	// How the parse tree, or the parse tree of the parent, was mapped
+	private transient Derivation derivation;
 
 	/**
 	 * Constructs a GE individual with an initial chromosome of <code>null</code>
@@ -98,10 +102,34 @@ public class GEIndividual extends AbstractIndividual {
 	public void setParseTree(NonTerminalSymbol parseTree) {
 		this.parseTree = parseTree;
 	}
+	
+	/**
+	 * Returns the record of how the parse tree of this individual was mapped 
+	 * from its chromosome. If this individual has not been mapped yet, it may 
+	 * be the record of one of its parents, which a mapper can use to avoid 
+	 * mapping the codons that were not changed. Returns <code>null</code> if 
+	 * no record is available.
+	 * 
+	 * @return the derivation of the parse tree, or <code>null</code>
+	 */
+	public Derivation getDerivation() {
+		return derivation;
+	}
+	
+	/**
+	 * Sets the record of how the parse tree of this individual, or of one of 
+	 * its parents, was mapped from its chromosome. Derivations are immutable, 
+	 * so the same instance may be shared by several individuals.
+	 * 
+	 * @param derivation the derivation of the parse tree
+	 */
+	public void setDerivation(Derivation derivation) {
+		this.derivation = derivation;
+	}
 
 	/**
 	 * Creates and returns a clone of this individual. The chromosome is copied as 
-	 * is the parse tree and fitness.
+	 * is the parse tree and fitness. The derivation is shared, since it is immutable.
 	 * 
 	 * @return a copy of this GEIndividual instance.
 	 */
@@ -141,8 +169,9 @@ public class GEIndividual extends AbstractIndividual {
 	 * Compares the given object to this instance for equality. Equivalence is
 	 * defined as them both being instances of <code>GEIndividual</code> and
 	 * having equal parse trees, according to <code>getParseTree().equals(obj)</code>.
-	 * If either individual's parse tree is <code>null</code>, then the chromosomes
-	 * must be equal for the individuals to be considered equal.
+	 * If both individuals' parse trees are <code>null</code>, then the chromosomes
+	 * must be equal for the individuals to be considered equal. An individual 
+	 * with a parse tree is not equal to one without.
 	 * 
 	 * @return true if the object is an equivalent individual, false otherwise
 	 */
@@ -153,7 +182,7 @@ public class GEIndividual extends AbstractIndividual {
 		Symbol thisParseTree = parseTree;
 		Symbol progParseTree = prog.parseTree;
 
-		if ((thisParseTree == null) || (progParseTree == null)) {
+		if ((thisParseTree == null) && (progParseTree == null)) {
 			// Compare genotypes
 			return chromosome.equals(prog.chromosome);
 		} else {
@@ -162,6 +191,22 @@ public class GEIndividual extends AbstractIndividual {
 		}
 	}
 	
+	/**
+	 * Returns a hash code for this individual, consistent with the 
+	 * <code>equals</code> method. It is the hash code of the parse tree if it has
+	 * been set, otherwise the hash code of the chromosome.
+	 * 
+	 * @return a hash code for this individual
+	 */
+	@Override
+	public int hashCode() {
+		if (parseTree == null) {
+			return ObjectUtils.hashCode(chromosome);
+		}
+		
+		return parseTree.hashCode();
+	}
+	
 	/**
 	 * Compares this individual to another based on their fitness. It returns a
 	 * negative integer, zero, or a positive integer as this instance represents
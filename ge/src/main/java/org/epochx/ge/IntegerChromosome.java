@@ -0,0 +1,363 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.ge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A chromosome which stores the values of its codons in an array of
+ * <code>long</code>s, rather than as a list of codon objects. The codons returned
+ * by the methods of <code>Chromosome</code> are <code>IntegerCodon</code>s created
+ * on demand; {@link #getCodonValue(int)}, {@link #appendCodonValue(long)} and
+ * {@link #splice(int, Chromosome, int)} operate on the array directly, and
+ * cloning copies the array.
+ * 
+ * @see IntegerCodonFactory
+ * 
+ * @since 2.0
+ */
+public class IntegerChromosome extends Chromosome {
+
+	private long[] values;
+
+	private int length;
+
+	/**
+	 * Constructs an <code>IntegerChromosome</code> with no codons and control
+	 * parameters automatically loaded from the config
+	 */
+	public IntegerChromosome() {
+		this(new long[0]);
+	}
+
+	/**
+	 * Constructs an <code>IntegerChromosome</code> with codons of the given values
+	 * and control parameters automatically loaded from the config
+	 * 
+	 * @param values the values of the codons, which are copied
+	 */
+	public IntegerChromosome(long[] values) {
+		this(values, true);
+	}
+
+	/**
+	 * Constructs an <code>IntegerChromosome</code> with codons of the given values
+	 * and control parameters initially loaded from the config. If the
+	 * <code>autoConfig</code> argument is set to <code>true</code> then the
+	 * configuration will be automatically updated when the config is modified.
+	 * 
+	 * @param values the values of the codons, which are copied
+	 * @param autoConfig whether this operator should automatically update its
+	 *        configuration settings from the config
+	 */
+	public IntegerChromosome(long[] values, boolean autoConfig) {
+		super(autoConfig);
+
+		this.values = Arrays.copyOf(values, Math.max(values.length, 8));
+		this.length = values.length;
+	}
+
+	/*
+	 * Ensures that the array can hold the given number of codons.
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity > values.length) {
+			values = Arrays.copyOf(values, Math.max(capacity, values.length * 2));
+		}
+	}
+
+	/**
+	 * Returns a list of <code>IntegerCodon</code>s with the values of this chromosome's 
+	 * codons. Modifying the returned list will not effect the chromosome.
+	 * 
+	 * @return a list of this chromosome's codons
+	 */
+	@Override
+	protected List<Codon> getCodons() {
+		return getCodons(0, length);
+	}
+
+	/**
+	 * Returns a list of <code>IntegerCodon</code>s with the values of the codons from the 
+	 * given position (inclusive) up to the other given position (exclusive).
+	 * 
+	 * @param from the starting position (inclusive)
+	 * @param to the upper position (exclusive)
+	 * @return a list of the codons in the range
+	 */
+	@Override
+	public List<Codon> getCodons(int from, int to) {
+		checkRange(from, to);
+
+		List<Codon> codons = new ArrayList<Codon>(to - from);
+		for (int i = from; i < to; i++) {
+			codons.add(new IntegerCodon(values[i]));
+		}
+
+		return codons;
+	}
+
+	/**
+	 * Returns an <code>IntegerCodon</code> with the value of the codon at the given index, 
+	 * extending and wrapping the chromosome as described for {@link #resolve(long)}. 
+	 * 
+	 * @param index the codon to return
+	 * @return the codon at the specified index, or <code>null</code> if the index is not 
+	 *         reachable
+	 */
+	@Override
+	public Codon getCodon(long index) {
+		int position = resolve(index);
+
+		return (position == -1) ? null : new IntegerCodon(values[position]);
+	}
+
+	/**
+	 * Returns the value of the codon at the given position, without creating a codon object.
+	 * 
+	 * @param position the position of the codon
+	 * @return the value of the codon at the specified position
+	 */
+	@Override
+	public long getCodonValue(int position) {
+		checkPosition(position);
+
+		return values[position];
+	}
+
+	/**
+	 * Replaces the value of the codon at the specified index with the value of the given 
+	 * codon. Wrapping and extending are not used.
+	 * 
+	 * @param index the index of the codon to replace
+	 * @param codon the codon whose value to set
+	 */
+	@Override
+	public void setCodon(int index, Codon codon) {
+		checkPosition(index);
+
+		values[index] = codon.value();
+	}
+
+	/**
+	 * Returns the number of codons in the chromosome
+	 * 
+	 * @return the size of the chromosome
+	 */
+	@Override
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Removes the codon at the specified index and returns it as an <code>IntegerCodon</code>.
+	 * 
+	 * @param index the index of the codon to remove
+	 * @return the codon that was removed
+	 */
+	@Override
+	public Codon removeCodon(int index) {
+		checkPosition(index);
+
+		Codon removed = new IntegerCodon(values[index]);
+		System.arraycopy(values, index + 1, values, index, length - index - 1);
+		length--;
+
+		return removed;
+	}
+
+	/**
+	 * Removes a range of codons between the given indices and returns a list of the
+	 * codons that are removed. 
+	 * 
+	 * @param from the starting index (inclusive)
+	 * @param to the upper index (exclusive)
+	 * @return a list of the codons that were removed
+	 */
+	@Override
+	public List<Codon> removeCodons(int from, int to) {
+		List<Codon> removed = getCodons(from, to);
+
+		System.arraycopy(values, to, values, from, length - to);
+		length -= to - from;
+
+		return removed;
+	}
+
+	/**
+	 * Replaces the codons from the given position to the end of this chromosome with the 
+	 * codons from another position to the end of the donor chromosome. The values are 
+	 * copied in bulk if the donor is also an <code>IntegerChromosome</code>.
+	 * 
+	 * @param from the position in this chromosome of the first codon to replace
+	 * @param donor the chromosome to copy codons from
+	 * @param donorFrom the position in the donor of the first codon to copy
+	 */
+	@Override
+	public void splice(int from, Chromosome donor, int donorFrom) {
+		checkRange(from, length);
+
+		int donorLength = donor.length();
+		if (donorFrom < 0 || donorFrom > donorLength) {
+			throw new IndexOutOfBoundsException("Position " + donorFrom + " outside bounds of chromosome of length " + donorLength);
+		}
+
+		int count = donorLength - donorFrom;
+		ensureCapacity(from + count);
+
+		if (donor instanceof IntegerChromosome) {
+			System.arraycopy(((IntegerChromosome) donor).values, donorFrom, values, from, count);
+		} else {
+			for (int i = 0; i < count; i++) {
+				values[from + i] = donor.getCodonValue(donorFrom + i);
+			}
+		}
+
+		length = from + count;
+	}
+
+	/**
+	 * Appends a codon with the value of the given codon to the end of the chromosome
+	 * 
+	 * @param codon the codon to append
+	 */
+	@Override
+	public void appendCodon(Codon codon) {
+		appendCodonValue(codon.value());
+	}
+
+	/**
+	 * Appends codons with the values of the given codons to the end of the chromosome
+	 * 
+	 * @param newCodons a list of codons to append
+	 */
+	@Override
+	public void appendCodons(List<Codon> newCodons) {
+		ensureCapacity(length + newCodons.size());
+
+		for (Codon codon: newCodons) {
+			values[length++] = codon.value();
+		}
+	}
+
+	/**
+	 * Appends a codon with the given value to the end of the chromosome
+	 * 
+	 * @param value the value of the codon to append
+	 */
+	@Override
+	public void appendCodonValue(long value) {
+		ensureCapacity(length + 1);
+
+		values[length++] = value;
+	}
+
+	/*
+	 * Checks that the position is within the chromosome.
+	 */
+	private void checkPosition(int position) {
+		if (position < 0 || position >= length) {
+			throw new IndexOutOfBoundsException("Position " + position + " outside bounds of chromosome of length " + length);
+		}
+	}
+
+	/*
+	 * Checks that the range of positions is within the chromosome.
+	 */
+	private void checkRange(int from, int to) {
+		if (from < 0 || to > length || from > to) {
+			throw new IndexOutOfBoundsException("Range " + from + " to " + to + " outside bounds of chromosome of length " + length);
+		}
+	}
+
+	/**
+	 * Creates and returns a clone of this chromosome. The array of codon values is
+	 * copied.
+	 * 
+	 * @return a copy of this chromosome
+	 */
+	@Override
+	public IntegerChromosome clone() {
+		IntegerChromosome clone = (IntegerChromosome) super.clone();
+		clone.values = Arrays.copyOf(values, Math.max(length, 8));
+
+		return clone;
+	}
+
+	/**
+	 * Returns a string representation of this chromosome's codon values
+	 * 
+	 * @return a string representation of the codon values
+	 */
+	@Override
+	public String toString() {
+		return Arrays.toString(Arrays.copyOf(values, length));
+	}
+
+	/**
+	 * Compares the given object to this instance for equality. Equivalence is
+	 * defined as them both being instances of <code>IntegerChromosome</code> and
+	 * having codons of equal values. The two chromosomes must also have the same
+	 * settings for allowing extending, maximum wraps and maximum length.
+	 * 
+	 * @return true if the object is an equivalent chromosome, false otherwise
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof IntegerChromosome)) {
+			return false;
+		}
+
+		IntegerChromosome c = (IntegerChromosome) obj;
+
+		if ((c.isAutoExtending() != isAutoExtending()) || (c.getMaxWraps() != getMaxWraps())
+				|| !c.getMaxLength().equals(getMaxLength()) || (c.length != length)) {
+			return false;
+		}
+
+		for (int i = 0; i < length; i++) {
+			if (c.values[i] != values[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns a hash code value for the codon values of this chromosome
+	 * 
+	 * @return a hash code value for this chromosome
+	 */
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int i = 0; i < length; i++) {
+			hash = 31 * hash + (int) (values[i] ^ (values[i] >>> 32));
+		}
+
+		return hash;
+	}
+}
@@ -37,7 +37,7 @@ import org.epochx.event.Listener;
  * 
  * @since 2.0
  */
-public class IntegerCodonFactory implements CodonFactory, Listener<ConfigEvent> {
+public class IntegerCodonFactory extends AbstractCodonFactory implements Listener<ConfigEvent> {
 	
 	// Configuration settings
 	private RandomSequence random;
@@ -138,6 +138,17 @@ public class IntegerCodonFactory implements CodonFactory, Listener<ConfigEvent>
 	    return new IntegerCodon(value);
 	}
 	
+	/**
+	 * Constructs a new <code>IntegerChromosome</code>, which stores the codon values in
+	 * a primitive array
+	 * 
+	 * @return a new empty <code>IntegerChromosome</code>
+	 */
+	@Override
+	public Chromosome chromosome() {
+		return new IntegerChromosome();
+	}
+	
 	/**
 	 * Returns the random number sequence in use
 	 * 
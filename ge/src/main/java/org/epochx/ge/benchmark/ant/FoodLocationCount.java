@@ -30,6 +30,7 @@ import java.util.List;
 import org.epochx.Config;
 import org.epochx.Config.ConfigKey;
 import org.epochx.Individual;
+import org.epochx.Population;
 import org.epochx.event.ConfigEvent;
 import org.epochx.event.EventManager;
 import org.epochx.event.Listener;
@@ -40,6 +41,7 @@ import org.epochx.interpret.Interpreter;
 import org.epochx.interpret.MalformedProgramException;
 import org.epochx.tools.ant.Ant;
 import org.epochx.tools.ant.AntLandscape;
+import org.epochx.tools.ant.AntSimulation;
 
 
 /**
@@ -52,6 +54,16 @@ import org.epochx.tools.ant.AntLandscape;
  * {@link #MAXIMUM_TIMESTEPS} config options must be set, or the same values set using the 
  * mutator methods provided.
  * 
+ * The evaluation stops before the maximum number of timesteps if the ant enters a cycle 
+ * in which it eats no food, which is detected by recording the state of the ant each time 
+ * the program is executed, and optionally when the ant can no longer beat the 
+ * {@link #CUTOFF_FITNESS}.
+ * 
+ * The ant is passed to the program as the <code>ANT</code> argument. If {@link #THREADS} 
+ * is set, the programs of a population are simulated in lockstep, each with its own ant 
+ * on a copy of the landscape, and are divided between that number of threads; the 
+ * interpreter must then be thread-safe.
+ * 
  * @since 2.0
  */
 public class FoodLocationCount extends GEFitnessFunction implements Listener<ConfigEvent> {
@@ -66,14 +78,40 @@ public class FoodLocationCount extends GEFitnessFunction implements Listener<Con
 	 */
 	public static final ConfigKey<Integer> MAXIMUM_TIMESTEPS = new ConfigKey<Integer>();
 	
+	/**
+	 * The key for setting the cutoff fitness. The evaluation of an ant stops as soon as 
+	 * it can no longer obtain a fitness score lower than the cutoff
+	 */
+	public static final ConfigKey<Double> CUTOFF_FITNESS = new ConfigKey<Double>();
+	
+	/**
+	 * The key for setting the number of threads that a population is evaluated with
+	 */
+	public static final ConfigKey<Integer> THREADS = new ConfigKey<Integer>();
+	
+	/**
+	 * The key for setting the maximum number of programs that each thread simulates in 
+	 * lockstep when a population is evaluated
+	 */
+	public static final ConfigKey<Integer> BATCH_SIZE = new ConfigKey<Integer>();
+	
 	// The ant environment
 	private AntLandscape landscape;
 	private Ant ant;
+
+	// A copy of the food locations currently set in the landscape
+	private List<Point> loadedFoodLocations;
+	
+	// The simulation of the landscape, which keeps its ants between populations
+	private AntSimulation simulation;
 	
 	// Configuration settings
 	private Interpreter<GEIndividual> interpreter;
 	private List<Point> foodLocations;
 	private Integer timesteps;
+	private Double cutoff;
+	private Integer threads;
+	private Integer batchSize;
 	private Double malformedPenalty;
 	
 	/**
@@ -119,6 +157,9 @@ public class FoodLocationCount extends GEFitnessFunction implements Listener<Con
 	 * <ul>
 	 * <li>{@link #FOOD_LOCATIONS}
 	 * <li>{@link #MAXIMUM_TIMESTEPS}
+	 * <li>{@link #CUTOFF_FITNESS}
+	 * <li>{@link #THREADS}
+	 * <li>{@link #BATCH_SIZE}
 	 * <li>{@link GEFitnessFunction#INTERPRETER}
 	 * <li>{@link GEFitnessFunction#MALFORMED_PENALTY}
 	 * </ul>
@@ -126,6 +167,9 @@ public class FoodLocationCount extends GEFitnessFunction implements Listener<Con
 	protected void setup() {
 		foodLocations = Config.getInstance().get(FOOD_LOCATIONS);
 		timesteps = Config.getInstance().get(MAXIMUM_TIMESTEPS);
+		cutoff = Config.getInstance().get(CUTOFF_FITNESS);
+		threads = Config.getInstance().get(THREADS);
+		batchSize = Config.getInstance().get(BATCH_SIZE);
 		interpreter = Config.getInstance().get(INTERPRETER);
 		malformedPenalty = Config.getInstance().get(MALFORMED_PENALTY, malformedPenalty);
 	}
@@ -139,7 +183,7 @@ public class FoodLocationCount extends GEFitnessFunction implements Listener<Con
 	 */
 	@Override
 	public void onEvent(ConfigEvent event) {
-		if (event.isKindOf(TEMPLATE, FOOD_LOCATIONS, MAXIMUM_TIMESTEPS, INTERPRETER, MALFORMED_PENALTY)) {
+		if (event.isKindOf(TEMPLATE, FOOD_LOCATIONS, MAXIMUM_TIMESTEPS, CUTOFF_FITNESS, THREADS, BATCH_SIZE, INTERPRETER, MALFORMED_PENALTY)) {
 			setup();
 		}
 	}
@@ -161,20 +205,91 @@ public class FoodLocationCount extends GEFitnessFunction implements Listener<Con
 			throw new IllegalArgumentException("Unsupported representation");
 		}
 		
-		GEIndividual program = (GEIndividual) individual;
+		return getFitness(getSimulation().run(ant, new Controller((GEIndividual) individual)));
+	}
+	
+	/**
+	 * Calculates and assigns the fitness of all individuals in the given population. If 
+	 * {@link #THREADS} is set the programs are simulated in lockstep, divided between 
+	 * that number of threads; otherwise they are evaluated one at a time.
+	 * 
+	 * @param population the population to evaluate
+	 * @throws IllegalArgumentException if an individual is not a GEIndividual
+	 */
+	@Override
+	public void evaluate(Population population) {
+		if (threads == null) {
+			super.evaluate(population);
+			return;
+		}
 		
-		landscape.setFoodLocations(new ArrayList<Point>(foodLocations));
-		ant.reset(timesteps, landscape);
-
-		try {
-			while (ant.getTimesteps() < ant.getMaxMoves()) {
-				interpreter.exec(program, new String[]{"ANT"}, new Object[][]{{ant}});
+		List<Controller> controllers = new ArrayList<Controller>(population.size());
+		
+		for (Individual individual: population) {
+			if (!(individual instanceof GEIndividual)) {
+				throw new IllegalArgumentException("Unsupported representation");
 			}
-		} catch (MalformedProgramException e) {
+			controllers.add(new Controller((GEIndividual) individual));
+		}
+		
+		int[] foodEaten = getSimulation().run(controllers, threads);
+		
+		for (int i = 0; i < foodEaten.length; i++) {
+			assignFitness(getFitness(foodEaten[i]), controllers.get(i).program);
+		}
+	}
+	
+	/*
+	 * Returns the fitness for the number of food items eaten by an ant.
+	 */
+	private DoubleFitness.Minimise getFitness(int foodEaten) {
+		if (foodEaten == AntSimulation.MALFORMED) {
 			return new DoubleFitness.Minimise(malformedPenalty);
 		}
-
-		return new DoubleFitness.Minimise(foodLocations.size() - ant.getFoodEaten());
+		
+		return new DoubleFitness.Minimise(landscape.getFoodCount() - foodEaten);
+	}
+	
+	/*
+	 * Returns the simulation of the landscape, loading the food locations into the 
+	 * landscape if they have changed.
+	 */
+	private AntSimulation getSimulation() {
+		// the food is only copied into the landscape when the locations change,
+		// including changes made to the list in place
+		if (foodLocations != null && !foodLocations.equals(loadedFoodLocations)) {
+			landscape.setFoodLocations(foodLocations);
+			
+			loadedFoodLocations = new ArrayList<Point>(foodLocations.size());
+			for (Point location: foodLocations) {
+				loadedFoodLocations.add(new Point(location));
+			}
+		}
+		
+		if (simulation == null || simulation.getMaximumTimesteps() != timesteps) {
+			simulation = new AntSimulation(landscape, timesteps);
+		}
+		simulation.setCutoffFitness(cutoff);
+		simulation.setBatchSize(batchSize == null ? AntSimulation.DEFAULT_BATCH_SIZE : batchSize);
+		
+		return simulation;
+	}
+	
+	/*
+	 * Executes a program with the interpreter, passing the ant as an argument.
+	 */
+	private class Controller implements AntSimulation.Controller {
+		
+		private final GEIndividual program;
+		
+		private Controller(GEIndividual program) {
+			this.program = program;
+		}
+		
+		@Override
+		public void execute(Ant ant) throws MalformedProgramException {
+			interpreter.exec(program, new String[]{"ANT"}, new Object[][]{{ant}});
+		}
 	}
 	
 	/**
@@ -261,4 +376,79 @@ public class FoodLocationCount extends GEFitnessFunction implements Listener<Con
 	public void setInterpreter(Interpreter<GEIndividual> interpreter) {
 		this.interpreter = interpreter;
 	}
+	
+	/**
+	 * Returns the cutoff fitness, or <code>null</code> if every ant is evaluated for the
+	 * maximum number of timesteps
+	 * 
+	 * @return the cutoff fitness
+	 */
+	public Double getCutoffFitness() {
+		return cutoff;
+	}
+	
+	/**
+	 * Sets the cutoff fitness. The evaluation of an ant stops as soon as it can no longer 
+	 * obtain a fitness score lower than the cutoff, in which case the fitness returned is 
+	 * the number of food items not consumed so far, which is not lower than the cutoff. 
+	 * A value of <code>null</code> disables the cutoff.
+	 * 
+	 * If automatic configuration is enabled then any value set here will be 
+	 * overwritten by the {@link #CUTOFF_FITNESS} configuration setting on the 
+	 * next config event.
+	 * 
+	 * @param cutoff the cutoff fitness
+	 */
+	public void setCutoffFitness(Double cutoff) {
+		this.cutoff = cutoff;
+	}
+	
+	/**
+	 * Returns the number of threads that a population is evaluated with, or 
+	 * <code>null</code> if the individuals are evaluated one at a time
+	 * 
+	 * @return the number of threads
+	 */
+	public Integer getThreads() {
+		return threads;
+	}
+	
+	/**
+	 * Sets the number of threads that a population is evaluated with. A value of 
+	 * <code>null</code> evaluates the individuals one at a time.
+	 * 
+	 * If automatic configuration is enabled then any value set here will be 
+	 * overwritten by the {@link #THREADS} configuration setting on the 
+	 * next config event.
+	 * 
+	 * @param threads the number of threads
+	 */
+	public void setThreads(Integer threads) {
+		this.threads = threads;
+	}
+	
+	/**
+	 * Returns the maximum number of programs that each thread simulates in lockstep, or 
+	 * <code>null</code> if the default of the simulation is used
+	 * 
+	 * @return the batch size
+	 */
+	public Integer getBatchSize() {
+		return batchSize;
+	}
+	
+	/**
+	 * Sets the maximum number of programs that each thread simulates in lockstep when a 
+	 * population is evaluated. A value of <code>null</code> uses 
+	 * {@link AntSimulation#DEFAULT_BATCH_SIZE}.
+	 * 
+	 * If automatic configuration is enabled then any value set here will be 
+	 * overwritten by the {@link #BATCH_SIZE} configuration setting on the 
+	 * next config event.
+	 * 
+	 * @param batchSize the batch size
+	 */
+	public void setBatchSize(Integer batchSize) {
+		this.batchSize = batchSize;
+	}
 }
@@ -23,6 +23,7 @@ package org.epochx.ge.fitness;
 
 import org.epochx.AbstractFitnessFunction;
 import org.epochx.Config.ConfigKey;
+import org.epochx.epox.EpoxTranslator;
 import org.epochx.ge.GEIndividual;
 import org.epochx.interpret.Interpreter;
 
@@ -38,6 +39,13 @@ public abstract class GEFitnessFunction extends AbstractFitnessFunction {
 	 */
 	public static final ConfigKey<Interpreter<GEIndividual>> INTERPRETER = new ConfigKey<Interpreter<GEIndividual>>();
 	
+	/**
+	 * The key for setting the translator used to convert the parse trees of
+	 * individuals directly into Epox programs. If it is set, individuals are
+	 * evaluated with the translator instead of the interpreter.
+	 */
+	public static final ConfigKey<EpoxTranslator> TRANSLATOR = new ConfigKey<EpoxTranslator>();
+	
 	/**
 	 * The key for setting the program's argument identifiers
 	 */
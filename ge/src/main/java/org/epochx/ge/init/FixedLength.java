@@ -24,6 +24,7 @@ package org.epochx.ge.init;
 import static org.epochx.Config.Template.TEMPLATE;
 import static org.epochx.Population.SIZE;
 import static org.epochx.ge.Chromosome.MAXIMUM_LENGTH;
+import static org.epochx.ge.CodonFactory.CODON_FACTORY;
 
 import org.epochx.*;
 import org.epochx.event.*;
@@ -49,6 +50,7 @@ public class FixedLength implements GEInitialisation, Listener<ConfigEvent> {
 	private Integer populationSize;
 	private Integer chromosomeLength;
 	private Boolean allowDuplicates;
+	private CodonFactory codonFactory;
 
 	/**
 	 * Constructs a <code>FixedLengthInitialisation</code> with control parameters
@@ -86,12 +88,14 @@ public class FixedLength implements GEInitialisation, Listener<ConfigEvent> {
 	 * <li>{@link Population#SIZE}
 	 * <li>{@link GenericChromosome#MAXIMUM_LENGTH}
 	 * <li>{@link InitialisationMethod#ALLOW_DUPLICATES} (default: <code>true</code>)
+	 * <li>{@link CodonFactory#CODON_FACTORY}
 	 * </ul>
 	 */
 	protected void setup() {
 		populationSize = Config.getInstance().get(SIZE);
 		allowDuplicates = Config.getInstance().get(ALLOW_DUPLICATES, allowDuplicates);
 		chromosomeLength = Config.getInstance().get(MAXIMUM_LENGTH);
+		codonFactory = Config.getInstance().get(CODON_FACTORY);
 	}
 
 	/**
@@ -102,7 +106,7 @@ public class FixedLength implements GEInitialisation, Listener<ConfigEvent> {
 	 */
 	@Override
 	public void onEvent(ConfigEvent event) {
-		if (event.isKindOf(TEMPLATE, SIZE, ALLOW_DUPLICATES, MAXIMUM_LENGTH)) {
+		if (event.isKindOf(TEMPLATE, SIZE, ALLOW_DUPLICATES, MAXIMUM_LENGTH, CODON_FACTORY)) {
 			setup();
 		}
 	}
@@ -152,7 +156,7 @@ public class FixedLength implements GEInitialisation, Listener<ConfigEvent> {
 			throw new IllegalStateException("chromosome length must be 1 or greater");
 		}
 
-		Chromosome chromosome = new Chromosome();
+		Chromosome chromosome = AbstractCodonFactory.chromosome(codonFactory);
 		for (int i = 0; i < chromosomeLength; i++) {
 			chromosome.extend();
 		}
@@ -227,4 +231,26 @@ public class FixedLength implements GEInitialisation, Listener<ConfigEvent> {
 	public void setPopulationSize(int size) {
 		this.populationSize = size;
 	}
+
+	/**
+	 * Returns the <code>CodonFactory</code> currently in use
+	 * 
+	 * @return the codon factory being used to create new chromosomes
+	 */
+	public CodonFactory getCodonFactory() {
+		return codonFactory;
+	}
+
+	/**
+	 * Sets the <code>CodonFactory</code> this initialiser should use to create
+	 * new chromosomes. If automatic configuration is enabled
+	 * then any value set here will be overwritten by the
+	 * {@link CodonFactory#CODON_FACTORY} configuration setting on the next config
+	 * event.
+	 * 
+	 * @param codonFactory the codon factory to use to create new chromosomes
+	 */
+	public void setCodonFactory(CodonFactory codonFactory) {
+		this.codonFactory = codonFactory;
+	}
 }
@@ -30,9 +30,6 @@ import static org.epochx.ge.GEIndividual.MAXIMUM_DEPTH;
 import static org.epochx.grammar.Grammar.GRAMMAR;
 import static org.epochx.ge.CodonFactory.CODON_FACTORY;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.epochx.Config;
 import org.epochx.InitialisationMethod;
 import org.epochx.Population;
@@ -41,14 +38,13 @@ import org.epochx.event.ConfigEvent;
 import org.epochx.event.EventManager;
 import org.epochx.event.InitialisationEvent;
 import org.epochx.event.Listener;
+import org.epochx.ge.AbstractCodonFactory;
 import org.epochx.ge.Chromosome;
 import org.epochx.ge.Codon;
 import org.epochx.ge.CodonFactory;
 import org.epochx.ge.GEIndividual;
+import org.epochx.grammar.CompiledGrammar;
 import org.epochx.grammar.Grammar;
-import org.epochx.grammar.GrammarNode;
-import org.epochx.grammar.GrammarProduction;
-import org.epochx.grammar.GrammarRule;
 
 /**
  * Initialisation method which produces <code>GEIndividual</code>s with chromosomes
@@ -190,18 +186,19 @@ public class Full implements GEInitialisation, Listener<ConfigEvent> {
 			throw new IllegalStateException("no grammar has been set");
 		}
 
-		GrammarRule start = grammar.getStartRule();
+		CompiledGrammar tables = grammar.compile();
+		int start = tables.getStartRule();
 
 		// Determine the minimum depth possible for a valid program
-		int minDepth = start.getMinDepth();
+		int minDepth = tables.getMinDepth(start);
 		if (minDepth > depth) {
 			throw new IllegalStateException("no possible programs within given max depth parameter for this grammar");
 		}
 
-		Chromosome codons = new Chromosome();
+		Chromosome codons = AbstractCodonFactory.chromosome(codonFactory);
 
 		// Fill in the list of codons with reference to the grammar
-		fillCodons(codons, start, 0, depth);
+		fillCodons(codons, tables, start, 0, depth);
 
 		return new GEIndividual(codons);
 	}
@@ -211,58 +208,38 @@ public class Full implements GEInitialisation, Listener<ConfigEvent> {
 	 * and then filling in a randomly selected codon that matches the production
 	 * choice.
 	 */
-	private void fillCodons(Chromosome codons, GrammarNode rule, int currentDepth, int maxDepth) {
-		if (rule instanceof GrammarRule) {
-			GrammarRule nt = (GrammarRule) rule;
-
-			// Check that there is more than one production
-			int productionIndex = 0;
-			int noProductions = nt.getNoProductions();
-			if (noProductions > 1) {
-				List<Integer> validProductions = validProductions(nt.getProductions(), maxDepth - currentDepth - 1);
-
-				// Choose a production randomly
-				int chosenProduction = random.nextInt(validProductions.size());
-				productionIndex = validProductions.get(chosenProduction);
-
-				// Scale the production index up to get our new codon
-				long codonValue = scaleUp(productionIndex, noProductions);
-
-				codons.appendCodon(codonFactory.codon(codonValue));
+	private void fillCodons(Chromosome codons, CompiledGrammar tables, int rule, int currentDepth, int maxDepth) {
+		// Check if there's more than one production
+		int productionIndex = 0;
+		int noProductions = tables.getNoProductions(rule);
+		if (noProductions > 1) {
+			int nextDepth = maxDepth - currentDepth - 1;
+
+			// Choose a production randomly, from the recursive ones if any fit
+			int noValid = tables.getNoValidRecursiveProductions(rule, nextDepth);
+			if (noValid > 0) {
+				productionIndex = tables.getValidRecursiveProduction(rule, nextDepth, random.nextInt(noValid));
+			} else {
+				noValid = tables.getNoValidProductions(rule, nextDepth);
+				productionIndex = tables.getValidProduction(rule, nextDepth, random.nextInt(noValid));
 			}
 
-			// Drop down the tree at this production
-			GrammarProduction p = nt.getProduction(productionIndex);
+			// Scale the production index up to get our new codon
+			long codonValue = scaleUp(productionIndex, noProductions);
 
-			List<GrammarNode> symbols = p.getGrammarNodes();
-			for (GrammarNode s: symbols) {
-				fillCodons(codons, s, currentDepth + 1, maxDepth);
-			}
+			codons.appendCodonValue(codonValue);
 		}
-	}
-
-	/*
-	 * Helper method for fillCodons that determines which of a set of
-	 * productions are valid choices to meet the depth constraints. It returns
-	 * a list of indices for the valid productions.
-	 */
-	private List<Integer> validProductions(List<GrammarProduction> grammarProductions, int maxDepth) {
-		List<Integer> validRecursive = new ArrayList<Integer>();
-		List<Integer> validAll = new ArrayList<Integer>();
-
-		for (int i = 0; i < grammarProductions.size(); i++) {
-			GrammarProduction p = grammarProductions.get(i);
 
-			if (p.getMinDepth() <= maxDepth) {
-				validAll.add(i);
+		// Drop down the tree at this production
+		int production = tables.getProduction(rule, productionIndex);
 
-				if (p.isRecursive()) {
-					validRecursive.add(i);
-				}
+		int noSymbols = tables.getNoSymbols(production);
+		for (int i = 0; i < noSymbols; i++) {
+			int symbol = tables.getSymbol(production, i);
+			if (!CompiledGrammar.isLiteral(symbol)) {
+				fillCodons(codons, tables, symbol, currentDepth + 1, maxDepth);
 			}
 		}
-
-		return validRecursive.isEmpty() ? validAll : validRecursive;
 	}
 
 	/*
@@ -29,8 +29,6 @@ import static org.epochx.ge.CodonFactory.CODON_FACTORY;
 import static org.epochx.ge.GEIndividual.MAXIMUM_DEPTH;
 import static org.epochx.grammar.Grammar.GRAMMAR;
 
-import java.util.*;
-
 import org.epochx.*;
 import org.epochx.event.*;
 import org.epochx.ge.*;
@@ -179,18 +177,19 @@ public class Grow implements GEInitialisation, Listener<ConfigEvent> {
 			throw new IllegalStateException("no grammar has been set");
 		}
 
-		GrammarRule start = grammar.getStartRule();
+		CompiledGrammar tables = grammar.compile();
+		int start = tables.getStartRule();
 
 		// Determine the minimum depth possible for a valid program
-		int minDepth = start.getMinDepth();
+		int minDepth = tables.getMinDepth(start);
 		if (minDepth > maxDepth) {
 			throw new IllegalStateException("no possible programs within given max depth parameter for this grammar.");
 		}
 
-		Chromosome codons = new Chromosome();
+		Chromosome codons = AbstractCodonFactory.chromosome(codonFactory);
 
 		// Fill in the list of codons with reference to the grammar
-		fillCodons(codons, start, 0, maxDepth);
+		fillCodons(codons, tables, start, 0, maxDepth);
 
 		return new GEIndividual(codons);
 	}
@@ -200,52 +199,33 @@ public class Grow implements GEInitialisation, Listener<ConfigEvent> {
 	 * and then filling in a randomly selected codon that matches the production
 	 * choice.
 	 */
-	private void fillCodons(Chromosome codons, GrammarNode rule, int depth, int maxDepth) {
-		if (rule instanceof GrammarRule) {
-			GrammarRule nt = (GrammarRule) rule;
-
-			// Check if theres more than one production
-			int productionIndex = 0;
-			int noProductions = nt.getNoProductions();
-			if (noProductions > 1) {
-				List<Integer> validProductions = validProductions(nt.getProductions(), maxDepth - depth - 1);
-
-				// Choose a production randomly
-				int chosenProduction = random.nextInt(validProductions.size());
-				productionIndex = validProductions.get(chosenProduction);
+	private void fillCodons(Chromosome codons, CompiledGrammar tables, int rule, int depth, int maxDepth) {
+		// Check if there's more than one production
+		int productionIndex = 0;
+		int noProductions = tables.getNoProductions(rule);
+		if (noProductions > 1) {
+			int nextDepth = maxDepth - depth - 1;
 
-				// Scale the production index up to get our new codon
-				long codonValue = scaleUp(productionIndex, noProductions);
+			// Choose a production randomly
+			int chosenProduction = random.nextInt(tables.getNoValidProductions(rule, nextDepth));
+			productionIndex = tables.getValidProduction(rule, nextDepth, chosenProduction);
 
-				codons.appendCodon(codonFactory.codon(codonValue));
-			}
-
-			// Drop down the tree at this production.
-			GrammarProduction p = nt.getProduction(productionIndex);
+			// Scale the production index up to get our new codon
+			long codonValue = scaleUp(productionIndex, noProductions);
 
-			List<GrammarNode> symbols = p.getGrammarNodes();
-			for (GrammarNode s: symbols) {
-				fillCodons(codons, s, depth + 1, maxDepth);
-			}
+			codons.appendCodonValue(codonValue);
 		}
-	}
 
-	/*
-	 * Helper method for fillCodons which determines which of a set of
-	 * productions are valid choices to meet the depth constraints.
-	 */
-	private List<Integer> validProductions(List<GrammarProduction> grammarProductions, int maxDepth) {
-		List<Integer> valid = new ArrayList<Integer>();
+		// Drop down the tree at this production
+		int production = tables.getProduction(rule, productionIndex);
 
-		for (int i = 0; i < grammarProductions.size(); i++) {
-			GrammarProduction p = grammarProductions.get(i);
-
-			if (p.getMinDepth() <= maxDepth) {
-				valid.add(i);
+		int noSymbols = tables.getNoSymbols(production);
+		for (int i = 0; i < noSymbols; i++) {
+			int symbol = tables.getSymbol(production, i);
+			if (!CompiledGrammar.isLiteral(symbol)) {
+				fillCodons(codons, tables, symbol, depth + 1, maxDepth);
 			}
 		}
-
-		return valid;
 	}
 
 	/*
@@ -21,6 +21,17 @@
  */
 package org.epochx.ge.map;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.epochx.Config.ConfigKey;
 import org.epochx.Individual;
 import org.epochx.Population;
 import org.epochx.event.EventManager;
@@ -35,18 +46,50 @@ import org.epochx.grammar.NonTerminalSymbol;
  * one individual into a parse tree. This method will be called for each individual in
  * the population being mapped, with the result set as the individual's parse tree.
  * 
+ * <p>
+ * If the number of threads is greater than one, the individuals are mapped 
+ * concurrently: each thread repeatedly takes the next individual that has not yet 
+ * been mapped, so threads that map small parse trees take more individuals. The 
+ * threads are kept by the mapper and reused for every population, until the number 
+ * of threads is changed. The mapping events are fired in batches by the calling 
+ * thread, in the order of the population, so listeners do not need to be 
+ * thread-safe: the <code>StartMapping</code> events of all the individuals are fired 
+ * before any individual is mapped, and the <code>EndMapping</code> events after all 
+ * the individuals are mapped. Each individual's start event still precedes its end 
+ * event, but the events of different individuals are not interleaved in pairs. 
+ * Sub-classes that map concurrently must not modify shared state in the 
+ * <code>map(GEIndividual)</code> method, and the population must not contain the same 
+ * individual instance twice.
+ * 
  * @since 2.0
  */
 public abstract class AbstractMapper implements Mapper {
 
+	/**
+	 * The key for setting the number of threads that a population is mapped with
+	 */
+	public static final ConfigKey<Integer> THREADS = new ConfigKey<Integer>();
+	
+	private Integer threads;
+
+	// The threads that populations are mapped with, created when first needed
+	private ExecutorService executor;
+
 	/**
 	 * Maps all individuals in the population by calling <code>map(GEIndividual)</code>,
-	 * then assigns the resultant parse tree to the individual
+	 * then assigns the resultant parse tree to the individual. If the number of threads 
+	 * is greater than one, the individuals for which {@link #isConcurrent(GEIndividual)} 
+	 * returns <code>true</code> are mapped concurrently.
 	 * 
 	 * @param population the population of individuals to process 
 	 */
 	@Override
 	public void map(Population population) {
+		if (threads != null && threads > 1 && population.size() > 1) {
+			mapConcurrently(population, Math.min(threads, population.size()));
+			return;
+		}
+
 		for (Individual individual: population) {
 			// Fires the start event
 			StartMapping start = getStartEvent((GEIndividual) individual);
@@ -64,6 +107,157 @@ public abstract class AbstractMapper implements Mapper {
 		}
 	}
 
+	/*
+	 * Maps the individuals with the given number of threads, firing the start events 
+	 * before and the end events after, and assigning the parse trees, in the calling
+	 * thread.
+	 */
+	private void mapConcurrently(Population population, int threads) {
+		final int size = population.size();
+		final GEIndividual[] individuals = new GEIndividual[size];
+		final EndMapping[] events = new EndMapping[size];
+		final NonTerminalSymbol[] parseTrees = new NonTerminalSymbol[size];
+		final boolean[] concurrent = new boolean[size];
+
+		for (int i = 0; i < size; i++) {
+			individuals[i] = (GEIndividual) population.get(i);
+			events[i] = getEndEvent(individuals[i]);
+			concurrent[i] = isConcurrent(individuals[i]);
+
+			EventManager.getInstance().fire(getStartEvent(individuals[i]));
+		}
+
+		final AtomicInteger next = new AtomicInteger();
+		ExecutorService executor = getExecutor();
+		List<Future<Void>> workers = new ArrayList<Future<Void>>(threads);
+
+		try {
+			for (int t = 0; t < threads; t++) {
+				workers.add(executor.submit(new Callable<Void>() {
+
+					@Override
+					public Void call() {
+						int i;
+						while ((i = next.getAndIncrement()) < size) {
+							if (concurrent[i]) {
+								parseTrees[i] = map(events[i], individuals[i]);
+							}
+						}
+
+						return null;
+					}
+				}));
+			}
+
+			for (Future<Void> worker: workers) {
+				worker.get();
+			}
+		} catch (InterruptedException e) {
+			cancel(workers);
+			Thread.currentThread().interrupt();
+
+			throw new IllegalStateException("mapping interrupted", e);
+		} catch (ExecutionException e) {
+			cancel(workers);
+
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			} else if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+
+			throw new IllegalStateException(e.getCause());
+		}
+
+		for (int i = 0; i < size; i++) {
+			if (!concurrent[i]) {
+				parseTrees[i] = map(events[i], individuals[i]);
+			}
+
+			// Fires the end event only if the operator was successful
+			if (parseTrees[i] != null) {
+				individuals[i].setParseTree(parseTrees[i]);
+				EventManager.getInstance().fire(events[i]);
+			}
+		}
+	}
+
+	/*
+	 * Stops the workers that are still mapping after another has failed.
+	 */
+	private void cancel(List<Future<Void>> workers) {
+		for (Future<Void> worker: workers) {
+			worker.cancel(true);
+		}
+	}
+
+	/*
+	 * Returns the executor with the current number of threads, creating it if it
+	 * does not exist yet. The threads are daemon threads, so an idle mapper does 
+	 * not prevent the virtual machine from exiting.
+	 */
+	private synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable task) {
+					Thread thread = new Thread(task, "mapper");
+					thread.setDaemon(true);
+
+					return thread;
+				}
+			});
+		}
+
+		return executor;
+	}
+
+	/**
+	 * Returns whether the given individual may be mapped concurrently with the other 
+	 * individuals of the population. The individuals that may not are mapped by the 
+	 * calling thread, in the order of the population, after the others. The default 
+	 * implementation returns <code>false</code> if the individual's chromosome is 
+	 * automatically extended, since extending it uses the shared random sequence and 
+	 * the codons it receives would depend on the order in which the threads run.
+	 * 
+	 * @param individual an individual to be mapped
+	 * @return <code>true</code> if the individual may be mapped concurrently, 
+	 *         <code>false</code> otherwise
+	 */
+	protected boolean isConcurrent(GEIndividual individual) {
+		return individual.getChromosome() != null && !individual.getChromosome().isAutoExtending();
+	}
+
+	/**
+	 * Returns the number of threads that a population is mapped with, or 
+	 * <code>null</code> if the individuals are mapped one at a time
+	 * 
+	 * @return the number of threads
+	 */
+	public Integer getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets the number of threads that a population is mapped with. A value of 
+	 * <code>null</code> or <code>1</code> maps the individuals one at a time in the 
+	 * calling thread. If the sub-class is configured automatically then any value set 
+	 * here will be overwritten by the {@link #THREADS} configuration setting on the 
+	 * next config event.
+	 * 
+	 * @param threads the number of threads
+	 */
+	public synchronized void setThreads(Integer threads) {
+		if (executor != null && (threads == null || !threads.equals(this.threads))) {
+			// the threads are recreated with the new number when next needed
+			executor.shutdown();
+			executor = null;
+		}
+
+		this.threads = threads;
+	}
+
 	/**
 	 * Maps the given <code>GEIndividual</code> to a parse tree
 	 * 
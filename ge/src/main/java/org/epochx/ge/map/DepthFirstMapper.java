@@ -25,6 +25,8 @@ import static org.epochx.Config.Template.TEMPLATE;
 import static org.epochx.ge.GEIndividual.MAXIMUM_DEPTH;
 import static org.epochx.grammar.Grammar.GRAMMAR;
 
+import java.util.Arrays;
+
 import org.epochx.*;
 import org.epochx.event.*;
 import org.epochx.ge.*;
@@ -80,11 +82,13 @@ public class DepthFirstMapper extends AbstractMapper implements Listener<ConfigE
 	 * <ul>
 	 * <li>{@link Grammar#GRAMMAR}
 	 * <li>{@link GEIndividual#MAXIMUM_DEPTH}
+	 * <li>{@link AbstractMapper#THREADS}
 	 * </ul>
 	 */
 	protected void setup() {
 		grammar = Config.getInstance().get(GRAMMAR);
 		maxDepth = Config.getInstance().get(MAXIMUM_DEPTH); //TODO This shouldn't be compulsory
+		setThreads(Config.getInstance().get(THREADS));
 	}
 	
 	/**
@@ -96,7 +100,7 @@ public class DepthFirstMapper extends AbstractMapper implements Listener<ConfigE
 	 */
 	@Override
 	public void onEvent(ConfigEvent event) {
-		if (event.isKindOf(TEMPLATE, GRAMMAR, MAXIMUM_DEPTH)) {
+		if (event.isKindOf(TEMPLATE, GRAMMAR, MAXIMUM_DEPTH, THREADS)) {
 			setup();
 		}
 	}
@@ -110,6 +114,19 @@ public class DepthFirstMapper extends AbstractMapper implements Listener<ConfigE
 	 * production choices, the result is the index of the production to be
 	 * used.
 	 * 
+	 * <p>
+	 * If the individual has a {@link Derivation} from the same grammar and 
+	 * maximum depth, the subtrees that were mapped from codons that are 
+	 * unchanged in the individual's chromosome are copied from the derived 
+	 * parse tree rather than mapped again. If the chromosome is unchanged, the 
+	 * parse tree is not mapped at all. A new derivation is assigned to the 
+	 * individual when the mapping succeeds.
+	 * 
+	 * <p>
+	 * This method is re-entrant: the settings are read once at the start of each 
+	 * mapping and the only state modified is that of the individual, including its 
+	 * chromosome if it is extended.
+	 * 
 	 * @param individual the <code>GEIndividual</code> to be mapped to its source
 	 * @return a parse tree equivalent to the specified <code>GEIndividual</code>'s
 	 *         chromosome after mapping using the model's grammar. <code>Null</code> 
@@ -117,70 +134,131 @@ public class DepthFirstMapper extends AbstractMapper implements Listener<ConfigE
 	 */
 	@Override
 	public NonTerminalSymbol map(EndMapping event, GEIndividual individual) {
+		Grammar grammar = this.grammar;
+		Integer maxDepth = this.maxDepth;
+		
 		if (grammar == null) {
 			throw new IllegalStateException("grammar not set");
 		}
 
-		GrammarRule grammarRoot = grammar.getStartRule();
+		Chromosome chromosome = individual.getChromosome();
+		Derivation derivation = individual.getDerivation();
+		int unchanged = 0;
+		
+		if (derivation != null && derivation.getGrammar() == grammar && derivation.getMaximumDepth() == maxDepth) {
+			unchanged = derivation.getNoUnchangedCodons(chromosome);
+			
+			if (unchanged >= derivation.getNoActiveCodons()) {
+				// The codons that were used are unchanged, so is the parse tree
+				NonTerminalSymbol root = individual.getParseTree();
+				if (unchanged != Integer.MAX_VALUE || root == null) {
+					root = derivation.getParseTree().clone();
+					individual.setDerivation(derivation.derive(chromosome.clone(), root));
+				}
+
+				event.setNoActiveCodons(derivation.getNoActiveCodons());
+				
+				return root;
+			}
+		} else {
+			derivation = null;
+		}
+		
+		Mapping mapping = new Mapping(grammar, maxDepth, chromosome, derivation, unchanged);
+		CompiledGrammar tables = mapping.tables;
+		int grammarRoot = tables.getStartRule();
 		
 		// The root of the parse tree
-		NonTerminalSymbol root = new NonTerminalSymbol(grammarRoot);
+		NonTerminalSymbol root = new NonTerminalSymbol(tables.getRule(grammarRoot));
+		NonTerminalSymbol template = (derivation == null) ? null : derivation.getParseTree();
 
-		int codonsUsed = map(grammarRoot, root, 0, individual.getChromosome(), 0);
+		int codonsUsed = map(mapping, grammarRoot, root, 0, 0, template, 0);
 
 		if (codonsUsed == -1) {
 			return null;
 		}
 		
+		individual.setDerivation(mapping.toDerivation(root));
 		event.setNoActiveCodons(codonsUsed);
 
 		return root;
 	}
 
 	/*
-	 * Recursive helper method to resolve mapping from codons to parse tree
+	 * Recursive helper method to resolve mapping from codons to parse tree. The 
+	 * template is the symbol of the derived parse tree at the same position, or 
+	 * null if the codons used so far are not all unchanged.
 	 */
-	private int map(GrammarRule grammarRule, NonTerminalSymbol parseNode, int depth,
-			Chromosome chromosome, int currentCodon) {
+	private int map(Mapping mapping, int grammarRule, NonTerminalSymbol parseNode, int depth, 
+			int currentCodon, NonTerminalSymbol template, int templateIndex) {
 		// depth+1 because the current depth does not include terminals
-		if (depth + 1 > maxDepth) {
+		if (depth + 1 > mapping.maxDepth) {
 			return -1;
 		}
 
+		Chromosome chromosome = mapping.chromosome;
+		CompiledGrammar tables = mapping.tables;
+
 		// Assume it must be a non-terminal symbol
-		int noProductions = grammarRule.getNoProductions();
+		int noProductions = tables.getNoProductions(grammarRule);
 
 		// If only one choice, no need to use codon.
-		GrammarProduction production;
+		int production;
+		int codon = -1;
 		if (noProductions == 1) {
-			production = grammarRule.getProduction(0);
+			production = tables.getProduction(grammarRule, 0);
 		} else {
 			// Pick a production using the next codon.
-			Codon codon = chromosome.getCodon(currentCodon++);
-			if (codon == null) {
+			codon = currentCodon++;
+			int position = chromosome.resolve(codon);
+			if (position == -1) {
 				// Must have run out of codons, so mapping fails
 				return -1;
 			}
 			
-			int productionChoice = (int) Math.abs(codon.value() % noProductions);
-			production = grammarRule.getProduction(productionChoice);
+			int productionChoice = (int) Math.abs(chromosome.getCodonValue(position) % noProductions);
+			production = tables.getProduction(grammarRule, productionChoice);
+		}
+		
+		int node = mapping.add(codon);
+
+		// An unchanged codon chooses the same production as in the template
+		if (codon >= mapping.unchanged) {
+			template = null;
 		}
+		int childIndex = templateIndex + 1;
 
 		// Map each symbol of the production
-		for (GrammarNode s: production.getGrammarNodes()) {
-			if (s instanceof GrammarLiteral) {
-				parseNode.addChild(new TerminalSymbol((GrammarLiteral) s));
+		int noSymbols = tables.getNoSymbols(production);
+		for (int i = 0; i < noSymbols; i++) {
+			int s = tables.getSymbol(production, i);
+			if (CompiledGrammar.isLiteral(s)) {
+				parseNode.addChild(new TerminalSymbol(tables.getLiteral(s)));
+			} else if (template != null && mapping.template.getEnd(childIndex) <= mapping.unchanged) {
+				// The whole subtree was mapped from unchanged codons
+				parseNode.addChild(((NonTerminalSymbol) template.getChild(i)).clone());
+				mapping.copy(childIndex);
+				
+				currentCodon = mapping.template.getEnd(childIndex);
+				childIndex += mapping.template.getSize(childIndex);
 			} else {
-				GrammarRule nextGrammarRule = (GrammarRule) s;
-				NonTerminalSymbol nextParseNode = new NonTerminalSymbol(nextGrammarRule);
+				NonTerminalSymbol nextParseNode = new NonTerminalSymbol(tables.getRule(s));
 				parseNode.addChild(nextParseNode);
 
-				currentCodon = map(nextGrammarRule, nextParseNode, depth + 1, chromosome, currentCodon);
+				NonTerminalSymbol nextTemplate = (template == null) ? null : (NonTerminalSymbol) template.getChild(i);
+				currentCodon = map(mapping, s, nextParseNode, depth + 1, currentCodon, nextTemplate, 
+						childIndex);
 				if (currentCodon == -1) {
 					return -1;
 				}
+				
+				if (template != null) {
+					childIndex += mapping.template.getSize(childIndex);
+				}
 			}
 		}
+		
+		mapping.close(node, currentCodon);
 
 		return currentCodon;
 	}
@@ -224,4 +302,76 @@ public class DepthFirstMapper extends AbstractMapper implements Listener<ConfigE
 	public void setMaximumDepth(int maxDepth) {
 		this.maxDepth = maxDepth;
 	}
+
+	/*
+	 * The state of a single mapping operation, which records the derivation of 
+	 * the parse tree in pre-order as it is mapped.
+	 */
+	private static class Mapping {
+		
+		private final Grammar grammar;
+		private final CompiledGrammar tables;
+		private final int maxDepth;
+		private final Chromosome chromosome;
+		private final Derivation template;
+		private final int unchanged;
+		
+		private int[] codons = new int[16];
+		private int[] ends = new int[16];
+		private int[] sizes = new int[16];
+		private int count;
+		
+		private Mapping(Grammar grammar, int maxDepth, Chromosome chromosome, Derivation template, int unchanged) {
+			this.grammar = grammar;
+			this.tables = grammar.compile();
+			this.maxDepth = maxDepth;
+			this.chromosome = chromosome;
+			this.template = template;
+			this.unchanged = unchanged;
+		}
+		
+		/*
+		 * Records a non-terminal symbol and returns its pre-order index.
+		 */
+		private int add(int codon) {
+			ensureCapacity(count + 1);
+			codons[count] = codon;
+			
+			return count++;
+		}
+		
+		/*
+		 * Records the end of the subtree of the non-terminal symbol.
+		 */
+		private void close(int node, int end) {
+			ends[node] = end;
+			sizes[node] = count - node;
+		}
+		
+		/*
+		 * Records a subtree copied from the template.
+		 */
+		private void copy(int node) {
+			int size = template.getSize(node);
+			
+			ensureCapacity(count + size);
+			template.copy(node, codons, ends, sizes, count);
+			count += size;
+		}
+		
+		private void ensureCapacity(int capacity) {
+			if (capacity > codons.length) {
+				int length = Math.max(capacity, codons.length * 2);
+				
+				codons = Arrays.copyOf(codons, length);
+				ends = Arrays.copyOf(ends, length);
+				sizes = Arrays.copyOf(sizes, length);
+			}
+		}
+		
+		private Derivation toDerivation(NonTerminalSymbol root) {
+			return new Derivation(grammar, maxDepth, chromosome.clone(), root, Arrays.copyOf(codons, count), 
+					Arrays.copyOf(ends, count), Arrays.copyOf(sizes, count));
+		}
+	}
 }
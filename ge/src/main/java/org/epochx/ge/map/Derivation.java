@@ -0,0 +1,210 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.ge.map;
+
+import org.epochx.ge.Chromosome;
+import org.epochx.grammar.Grammar;
+import org.epochx.grammar.NonTerminalSymbol;
+
+/**
+ * A record of how a parse tree was mapped from a chromosome by a
+ * {@link DepthFirstMapper}. For each non-terminal symbol of the parse tree, in
+ * pre-order, it records the index of the codon that chose its production (or
+ * -1 if the rule has a single production), the index of the next codon after
+ * its subtree was mapped, and the number of non-terminal symbols in its
+ * subtree.
+ * 
+ * <p>
+ * Since depth-first mapping uses the codons in sequence, a chromosome whose
+ * first codons are equal to those of the recorded chromosome is mapped to the
+ * same symbols until the first different codon is used. The mapper uses the
+ * derivation of a parent to copy the subtrees that only used unchanged codons
+ * into the parse tree of a child, and skips mapping altogether if the
+ * chromosome is unchanged.
+ * 
+ * <p>
+ * Derivations are immutable. The recorded parse tree is the parse tree
+ * assigned to the individual by the mapper, so it must not be modified.
+ * 
+ * @see org.epochx.ge.GEIndividual#getDerivation()
+ * 
+ * @since 2.0
+ */
+public class Derivation {
+
+	private final Grammar grammar;
+
+	private final int maxDepth;
+
+	private final Chromosome chromosome;
+
+	private final NonTerminalSymbol parseTree;
+
+	private final int[] codons;
+
+	private final int[] ends;
+
+	private final int[] sizes;
+
+	/**
+	 * Constructs a <code>Derivation</code>. The arrays are not copied.
+	 */
+	Derivation(Grammar grammar, int maxDepth, Chromosome chromosome, NonTerminalSymbol parseTree, int[] codons,
+			int[] ends, int[] sizes) {
+		this.grammar = grammar;
+		this.maxDepth = maxDepth;
+		this.chromosome = chromosome;
+		this.parseTree = parseTree;
+		this.codons = codons;
+		this.ends = ends;
+		this.sizes = sizes;
+	}
+
+	/**
+	 * Returns the grammar the parse tree was mapped with
+	 * 
+	 * @return the grammar the parse tree was mapped with
+	 */
+	public Grammar getGrammar() {
+		return grammar;
+	}
+
+	/**
+	 * Returns the maximum depth the parse tree was mapped with
+	 * 
+	 * @return the maximum depth the parse tree was mapped with
+	 */
+	public int getMaximumDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * Returns the parse tree that was mapped, which must not be modified
+	 * 
+	 * @return the root of the parse tree
+	 */
+	public NonTerminalSymbol getParseTree() {
+		return parseTree;
+	}
+
+	/**
+	 * Returns the number of codons that were used in the mapping
+	 * 
+	 * @return the number of codons used in the mapping
+	 */
+	public int getNoActiveCodons() {
+		return ends[0];
+	}
+
+	/**
+	 * Returns the number of non-terminal symbols in the parse tree
+	 * 
+	 * @return the number of non-terminal symbols in the parse tree
+	 */
+	public int getNoNonTerminalSymbols() {
+		return codons.length;
+	}
+
+	/**
+	 * Returns the index of the codon that chose the production of the
+	 * non-terminal symbol at the given pre-order index, or -1 if no codon was
+	 * used
+	 * 
+	 * @param node the pre-order index of the non-terminal symbol
+	 * @return the index of the codon used by the non-terminal symbol
+	 */
+	public int getCodon(int node) {
+		return codons[node];
+	}
+
+	/**
+	 * Returns the index of the next codon after the subtree of the non-terminal
+	 * symbol at the given pre-order index was mapped
+	 * 
+	 * @param node the pre-order index of the non-terminal symbol
+	 * @return the index of the codon after the subtree
+	 */
+	public int getEnd(int node) {
+		return ends[node];
+	}
+
+	/**
+	 * Returns the number of non-terminal symbols in the subtree of the
+	 * non-terminal symbol at the given pre-order index, including itself
+	 * 
+	 * @param node the pre-order index of the non-terminal symbol
+	 * @return the number of non-terminal symbols in the subtree
+	 */
+	public int getSize(int node) {
+		return sizes[node];
+	}
+
+	/**
+	 * Returns the number of leading codons of the given chromosome that are
+	 * equal to those of the chromosome that was mapped, or
+	 * <code>Integer.MAX_VALUE</code> if the chromosomes are equal, in which case
+	 * the chromosome maps to the same parse tree.
+	 * 
+	 * @param other the chromosome to compare
+	 * @return the number of unchanged codons
+	 */
+	public int getNoUnchangedCodons(Chromosome other) {
+		int length = Math.min(chromosome.length(), other.length());
+
+		for (int i = 0; i < length; i++) {
+			if (chromosome.getCodonValue(i) != other.getCodonValue(i)) {
+				return i;
+			}
+		}
+
+		// codons beyond the end depend on the wrapping and extending settings
+		if ((chromosome.length() == other.length()) && (chromosome.isAutoExtending() == other.isAutoExtending())
+				&& (chromosome.getMaxWraps() == other.getMaxWraps())
+				&& chromosome.getMaxLength().equals(other.getMaxLength())) {
+			return Integer.MAX_VALUE;
+		}
+
+		return length;
+	}
+
+	/**
+	 * Returns a derivation of the given parse tree, which must be equal to the 
+	 * parse tree of this derivation, from the given chromosome, whose active 
+	 * codons must be unchanged. The records are shared with this derivation.
+	 */
+	Derivation derive(Chromosome chromosome, NonTerminalSymbol parseTree) {
+		return new Derivation(grammar, maxDepth, chromosome, parseTree, codons, ends, sizes);
+	}
+
+	/**
+	 * Copies the records of the subtree of the non-terminal symbol at the given
+	 * pre-order index into the given arrays.
+	 */
+	void copy(int node, int[] codons, int[] ends, int[] sizes, int position) {
+		int size = this.sizes[node];
+
+		System.arraycopy(this.codons, node, codons, position, size);
+		System.arraycopy(this.ends, node, ends, position, size);
+		System.arraycopy(this.sizes, node, sizes, position, size);
+	}
+}
@@ -160,21 +160,22 @@ public class FixedPointCrossover extends AbstractOperator implements Listener<Co
 		
 		((EndEvent) event).setCrossoverPoint(crossoverPoint);
 
-		// Make copies of the parents' chromosomes.
+		// The event copies the exchanged codons from the parents only when they are requested
+
+		// Make copies of the parents' chromosomes and swap over the endings at the crossover points.
 		Chromosome child1Codons = parent1Codons.clone();
 		Chromosome child2Codons = parent2Codons.clone();
-		
-		List<Codon> codonsExchanged1 = child1Codons.removeCodons(crossoverPoint, parent1Length);
-		List<Codon> codonsExchanged2 = child2Codons.removeCodons(crossoverPoint, parent2Length);
-		
-		((EndEvent) event).setExchangedCodons1(codonsExchanged1);
-		((EndEvent) event).setExchangedCodons2(codonsExchanged2);
-		
-		// Swap over the endings at the crossover points.
-		child1Codons.appendCodons(codonsExchanged2);
-		child2Codons.appendCodons(codonsExchanged1);
 
-		return new GEIndividual[]{new GEIndividual(child1Codons), new GEIndividual(child2Codons)};
+		child1Codons.splice(crossoverPoint, parent2Codons, crossoverPoint);
+		child2Codons.splice(crossoverPoint, parent1Codons, crossoverPoint);
+
+		// The children keep the derivations of the parents whose leading codons they share
+		GEIndividual child1 = new GEIndividual(child1Codons);
+		GEIndividual child2 = new GEIndividual(child2Codons);
+		child1.setDerivation(parent1.getDerivation());
+		child2.setDerivation(parent2.getDerivation());
+
+		return new GEIndividual[]{child1, child2};
 	}
 	
 	/**
@@ -289,11 +290,16 @@ public class FixedPointCrossover extends AbstractOperator implements Listener<Co
 		 * Returns a list of the codons from the first parent that were exchanged
 		 * with codons from the second parent (as returned from getExchangedCodons2).
 		 * The codons returned will be from the tail of the individual's chromosome,
-		 * from the crossover point to the end of the chromosome.
+		 * from the crossover point to the end of the chromosome. Unless they have been
+		 * set, the codons are copied from the parent the first time they are requested.
 		 * 
 		 * @return a list of the codons exchanged from parent 1
 		 */
 		public List<Codon> getExchangedCodons1() {
+			if (exchangedCodons1 == null) {
+				exchangedCodons1 = getTail(getParents()[0], point);
+			}
+			
 			return exchangedCodons1;
 		}
 
@@ -311,11 +317,16 @@ public class FixedPointCrossover extends AbstractOperator implements Listener<Co
 		 * Returns a list of the codons from the second parent that were exchanged
 		 * with codons from the first parent (as returned from getExchangedCodons1).
 		 * The codons returned will be from the tail of the individual's chromosome,
-		 * from the crossover point to the end of the chromosome.
+		 * from the crossover point to the end of the chromosome. Unless they have been
+		 * set, the codons are copied from the parent the first time they are requested.
 		 * 
 		 * @return a list of the codons exchanged from parent 2
 		 */
 		public List<Codon> getExchangedCodons2() {
+			if (exchangedCodons2 == null) {
+				exchangedCodons2 = getTail(getParents()[1], point);
+			}
+			
 			return exchangedCodons2;
 		}
 
@@ -328,5 +339,14 @@ public class FixedPointCrossover extends AbstractOperator implements Listener<Co
 		public void setExchangedCodons2(List<Codon> exchangedCodons2) {
 			this.exchangedCodons2 = exchangedCodons2;
 		}
+		
+		/*
+		 * Returns the codons of the parent's chromosome from the point to the end.
+		 */
+		private List<Codon> getTail(Individual parent, int point) {
+			Chromosome chromosome = ((GEIndividual) parent).getChromosome();
+			
+			return chromosome.getCodons(point, chromosome.length());
+		}
 	}
 }
\ No newline at end of file
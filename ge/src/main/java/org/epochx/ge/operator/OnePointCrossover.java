@@ -149,22 +149,22 @@ public class OnePointCrossover extends AbstractOperator implements Listener<Conf
 		((EndEvent) event).setCrossoverPoint1(crossoverPoint1);
 		((EndEvent) event).setCrossoverPoint2(crossoverPoint2);
 
-		// Make copies of the parents' chromosomes.
+		// The event copies the exchanged codons from the parents only when they are requested
+
+		// Make copies of the parents' chromosomes and swap over the endings at the crossover points.
 		Chromosome child1Codons = parent1Codons.clone();
 		Chromosome child2Codons = parent2Codons.clone();
 
-		List<Codon> codonsExchanged1 = child1Codons.removeCodons(crossoverPoint1, parent1Length);
-		List<Codon> codonsExchanged2 = child2Codons.removeCodons(crossoverPoint2, parent2Length);
-
-		// Add codon portions into the event
-		((EndEvent) event).setExchangedCodons1(codonsExchanged1);
-		((EndEvent) event).setExchangedCodons2(codonsExchanged2);
+		child1Codons.splice(crossoverPoint1, parent2Codons, crossoverPoint2);
+		child2Codons.splice(crossoverPoint2, parent1Codons, crossoverPoint1);
 
-		// Swap over the endings at the crossover points.
-		child1Codons.appendCodons(codonsExchanged2);
-		child2Codons.appendCodons(codonsExchanged1);
+		// The children keep the derivations of the parents whose leading codons they share
+		GEIndividual child1 = new GEIndividual(child1Codons);
+		GEIndividual child2 = new GEIndividual(child2Codons);
+		child1.setDerivation(parent1.getDerivation());
+		child2.setDerivation(parent2.getDerivation());
 
-		return new GEIndividual[]{new GEIndividual(child1Codons), new GEIndividual(child2Codons)};
+		return new GEIndividual[]{child1, child2};
 	}
 	
 	/**
@@ -300,11 +300,16 @@ public class OnePointCrossover extends AbstractOperator implements Listener<Conf
 		 * Returns a list of the codons from the first parent that were exchanged
 		 * with codons from the second parent (as returned from getExchangedCodons2).
 		 * The codons returned will be from the tail of the individual's chromosome,
-		 * from the crossover point to the end of the chromosome.
+		 * from the crossover point to the end of the chromosome. Unless they have been
+		 * set, the codons are copied from the parent the first time they are requested.
 		 * 
 		 * @return a list of the codons exchanged from parent 1
 		 */
 		public List<Codon> getExchangedCodons1() {
+			if (exchangedCodons1 == null) {
+				exchangedCodons1 = getTail(getParents()[0], point1);
+			}
+			
 			return exchangedCodons1;
 		}
 
@@ -322,11 +327,16 @@ public class OnePointCrossover extends AbstractOperator implements Listener<Conf
 		 * Returns a list of the codons from the second parent that were exchanged
 		 * with codons from the first parent (as returned from getExchangedCodons1).
 		 * The codons returned will be from the tail of the individual's chromosome,
-		 * from the crossover point to the end of the chromosome.
+		 * from the crossover point to the end of the chromosome. Unless they have been
+		 * set, the codons are copied from the parent the first time they are requested.
 		 * 
 		 * @return a list of the codons exchanged from parent 2
 		 */
 		public List<Codon> getExchangedCodons2() {
+			if (exchangedCodons2 == null) {
+				exchangedCodons2 = getTail(getParents()[1], point2);
+			}
+			
 			return exchangedCodons2;
 		}
 
@@ -339,6 +349,15 @@ public class OnePointCrossover extends AbstractOperator implements Listener<Conf
 		public void setExchangedCodons2(List<Codon> exchangedCodons2) {
 			this.exchangedCodons2 = exchangedCodons2;
 		}
+		
+		/*
+		 * Returns the codons of the parent's chromosome from the point to the end.
+		 */
+		private List<Codon> getTail(Individual parent, int point) {
+			Chromosome chromosome = ((GEIndividual) parent).getChromosome();
+			
+			return chromosome.getCodons(point, chromosome.length());
+		}
 	}
 
 }
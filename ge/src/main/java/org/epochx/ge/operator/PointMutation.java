@@ -163,7 +163,10 @@ public class PointMutation extends AbstractOperator implements Listener<ConfigEv
 		// Add mutation points into the event
 		((EndEvent) event).setMutationPoints(points);
 
-		return new GEIndividual[]{new GEIndividual(codons)};
+		GEIndividual child = new GEIndividual(codons);
+		child.setDerivation(parent1.getDerivation());
+
+		return new GEIndividual[]{child};
 	}
 	
 	/**
@@ -142,7 +142,10 @@ public class SinglePointMutation extends AbstractOperator implements Listener<Co
 
 		((EndEvent) event).setMutationPoint(mutationPoint);
 
-		return new GEIndividual[]{new GEIndividual(codons)};
+		GEIndividual child = new GEIndividual(codons);
+		child.setDerivation(parent1.getDerivation());
+
+		return new GEIndividual[]{child};
 	}
 	
 	/**
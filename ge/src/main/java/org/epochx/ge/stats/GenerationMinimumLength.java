@@ -43,7 +43,7 @@ public class GenerationMinimumLength extends AbstractStat<EndGeneration> {
 	 * dependencies
 	 */
 	public GenerationMinimumLength() {
-		super(GenerationLengths.class);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -56,14 +56,7 @@ public class GenerationMinimumLength extends AbstractStat<EndGeneration> {
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		int[] lengths = AbstractStat.get(GenerationLengths.class).getLengths();
-		min = Integer.MAX_VALUE;
-
-		for (int length: lengths) {
-			if (length < min) {
-				min = length;
-			}
-		}
+		min = AbstractStat.get(GenerationTreeMetrics.class).getMinimum(GenerationTreeMetrics.LENGTH);
 	}
 	
 	/**
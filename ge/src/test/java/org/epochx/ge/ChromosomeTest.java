@@ -0,0 +1,251 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.ge;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link org.epochx.ge.IntegerChromosome} and
+ * {@link org.epochx.ge.BinaryChromosome}
+ */
+public class ChromosomeTest extends TestCase {
+
+	/*
+	 * Returns a list based chromosome with codons of the given values.
+	 */
+	private Chromosome listChromosome(long ... values) {
+		Chromosome chromosome = new Chromosome();
+		for (long value: values) {
+			chromosome.appendCodon(new IntegerCodon(value));
+		}
+
+		return chromosome;
+	}
+
+	/*
+	 * Asserts that the chromosome has codons of the given values.
+	 */
+	private void assertValues(long[] expected, Chromosome chromosome) {
+		assertEquals("incorrect length", expected.length, chromosome.length());
+
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals("incorrect codon value", expected[i], chromosome.getCodonValue(i));
+			assertEquals("incorrect codon", expected[i], chromosome.getCodon(i).value());
+		}
+	}
+
+	/**
+	 * Tests that values are stored and that wrapping resolves to the same
+	 * positions as the list based chromosome.
+	 */
+	public void testIntegerValues() {
+		IntegerChromosome chromosome = new IntegerChromosome(new long[]{5, 7, 11});
+		chromosome.appendCodonValue(Long.MAX_VALUE);
+		chromosome.appendCodon(new IntegerCodon(2));
+
+		assertValues(new long[]{5, 7, 11, Long.MAX_VALUE, 2}, chromosome);
+		assertEquals("incorrect string", "[5, 7, 11, " + Long.MAX_VALUE + ", 2]", chromosome.toString());
+
+		Chromosome list = listChromosome(5, 7, 11, Long.MAX_VALUE, 2);
+		for (long i = 0; i < 12; i++) {
+			assertEquals("incorrect position", list.resolve(i), chromosome.resolve(i));
+		}
+
+		chromosome.setMaxWraps(1);
+		assertEquals("wrapped beyond maximum", -1, chromosome.resolve(10));
+		assertNull("wrapped beyond maximum", chromosome.getCodon(10));
+	}
+
+	/**
+	 * Tests the one point crossover exchange and that clones are independent.
+	 */
+	public void testIntegerSplice() {
+		IntegerChromosome parent1 = new IntegerChromosome(new long[]{1, 2, 3, 4});
+		IntegerChromosome parent2 = new IntegerChromosome(new long[]{10, 20, 30, 40, 50, 60});
+
+		Chromosome child1 = parent1.clone();
+		Chromosome child2 = parent2.clone();
+		child1.splice(1, parent2, 4);
+		child2.splice(4, parent1, 1);
+
+		assertValues(new long[]{1, 50, 60}, child1);
+		assertValues(new long[]{10, 20, 30, 40, 2, 3, 4}, child2);
+		assertValues(new long[]{1, 2, 3, 4}, parent1);
+		assertValues(new long[]{10, 20, 30, 40, 50, 60}, parent2);
+
+		child1.splice(3, listChromosome(8, 9), 0);
+		assertValues(new long[]{1, 50, 60, 8, 9}, child1);
+	}
+
+	/**
+	 * Tests removing codons.
+	 */
+	public void testIntegerRemove() {
+		IntegerChromosome chromosome = new IntegerChromosome(new long[]{1, 2, 3, 4, 5});
+
+		List<Codon> removed = chromosome.removeCodons(1, 3);
+		assertEquals("incorrect removed codons", 2, removed.size());
+		assertEquals("incorrect removed codon", 3, removed.get(1).value());
+		assertEquals("incorrect removed codon", 5, chromosome.removeCodon(2).value());
+		assertValues(new long[]{1, 4}, chromosome);
+
+		try {
+			chromosome.getCodonValue(2);
+			fail("position beyond length accepted");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Tests equality of integer chromosomes.
+	 */
+	public void testIntegerEquals() {
+		IntegerChromosome chromosome1 = new IntegerChromosome(new long[]{1, 2, 3});
+		IntegerChromosome chromosome2 = new IntegerChromosome(new long[]{1, 2});
+
+		assertFalse("different chromosomes equal", chromosome1.equals(chromosome2));
+
+		chromosome2.appendCodonValue(3);
+		assertEquals("equal chromosomes not equal", chromosome1, chromosome2);
+		assertEquals("equal chromosomes with different hash codes", chromosome1.hashCode(), chromosome2.hashCode());
+		assertEquals("clone not equal", chromosome1, chromosome1.clone());
+	}
+
+	/**
+	 * Tests binary codons that span the words of the packed array.
+	 */
+	public void testBinaryValues() {
+		BinaryChromosome chromosome = new BinaryChromosome(7);
+		long[] expected = new long[40];
+
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = (i * 37) % 128;
+			chromosome.appendCodonValue(expected[i]);
+		}
+		assertValues(expected, chromosome);
+
+		chromosome.appendCodonValue(255);
+		assertEquals("value not truncated to the bits", 127, chromosome.getCodonValue(40));
+
+		boolean[] bits = ((BinaryCodon) chromosome.getCodon(1)).getBits();
+		assertTrue("incorrect bits", Arrays.equals(new boolean[]{true, false, true, false, false, true, false}, bits));
+
+		chromosome.setCodon(1, new BinaryCodon(new boolean[]{false, true, true, false, false, false, false}));
+		assertEquals("incorrect value after set", 6, chromosome.getCodonValue(1));
+		assertEquals("neighbour changed by set", expected[2], chromosome.getCodonValue(2));
+	}
+
+	/**
+	 * Tests splicing and removing binary codons.
+	 */
+	public void testBinarySplice() {
+		BinaryChromosome parent1 = new BinaryChromosome(13);
+		BinaryChromosome parent2 = new BinaryChromosome(13);
+		for (int i = 0; i < 10; i++) {
+			parent1.appendCodonValue(i);
+			parent2.appendCodonValue(1000 + i);
+		}
+
+		BinaryChromosome child = parent1.clone();
+		child.splice(3, parent2, 8);
+		assertValues(new long[]{0, 1, 2, 1008, 1009}, child);
+		assertEquals("parent modified", 9, parent1.getCodonValue(9));
+
+		child.removeCodons(1, 3);
+		assertValues(new long[]{0, 1008, 1009}, child);
+
+		BinaryChromosome copy = new BinaryChromosome(13);
+		copy.appendCodons(child.getCodons());
+		assertEquals("copy not equal", child, copy);
+	}
+
+	/**
+	 * Tests that binary codons of more than 32 bits have the same value in the
+	 * codon and in the chromosome.
+	 */
+	public void testWideBinaryCodons() {
+		BinaryChromosome chromosome = new BinaryChromosome(40);
+		long value = (1L << 39) | (1L << 33) | 5;
+		chromosome.appendCodonValue(value);
+
+		assertEquals("incorrect codon value", value, chromosome.getCodonValue(0));
+		assertEquals("incorrect codon", value, chromosome.getCodon(0).value());
+	}
+
+	/**
+	 * Tests removing codons through the iterator.
+	 */
+	public void testIteratorRemove() {
+		Chromosome chromosome = listChromosome(1, 2, 3, 4);
+		chromosome.setMaxWraps(0);
+
+		Iterator<Codon> iterator = chromosome.iterator();
+		try {
+			iterator.remove();
+			fail("codon removed before next");
+		} catch (NoSuchElementException e) {
+			// expected
+		}
+
+		while (iterator.hasNext()) {
+			if (iterator.next().value() % 2 == 0) {
+				iterator.remove();
+			}
+		}
+
+		assertValues(new long[]{1, 3}, chromosome);
+	}
+
+	/**
+	 * Tests that a codon factory that does not create chromosomes gets a list
+	 * based chromosome which generates its codons.
+	 */
+	public void testFactoryChromosome() {
+		CodonFactory factory = new CodonFactory() {
+
+			@Override
+			public Codon codon() {
+				return new IntegerCodon(1);
+			}
+
+			@Override
+			public Codon codon(long value) {
+				return new IntegerCodon(value + 100);
+			}
+		};
+
+		Chromosome chromosome = AbstractCodonFactory.chromosome(factory);
+		chromosome.appendCodonValue(3);
+
+		assertEquals("incorrect chromosome class", Chromosome.class, chromosome.getClass());
+		assertEquals("codon not generated by the factory", 103, chromosome.getCodonValue(0));
+		assertEquals("incorrect chromosome class", IntegerChromosome.class, AbstractCodonFactory.chromosome(
+				new IntegerCodonFactory(false)).getClass());
+	}
+}
@@ -23,6 +23,8 @@ package org.epochx.ge;
 
 import junit.framework.TestCase;
 
+import org.epochx.grammar.*;
+
 /**
  * 
  */
@@ -31,4 +33,44 @@ public class GEIndividualTest extends TestCase {
 	public void testEmpty() {
 
 	}
+
+	/**
+	 * Tests that equal individuals have equal hash codes, whether they are
+	 * compared by their parse trees or by their chromosomes.
+	 */
+	public void testHashCode() {
+		GrammarRule rule = new Grammar("<expr> ::= x | y\n").getStartRule();
+		GEIndividual individual1 = new GEIndividual(new IntegerChromosome(new long[]{0, 2}));
+		GEIndividual individual2 = new GEIndividual(new IntegerChromosome(new long[]{2, 4}));
+
+		assertFalse("individuals with different chromosomes equal", individual1.equals(individual2));
+
+		individual1.setParseTree(parseTree(rule, 0));
+		individual2.setParseTree(parseTree(rule, 0));
+
+		assertEquals("individuals with equal parse trees not equal", individual1, individual2);
+		assertEquals("equal individuals with different hash codes", individual1.hashCode(), individual2.hashCode());
+		assertEquals("clone with different hash code", individual1.hashCode(), individual1.clone().hashCode());
+
+		individual2.setParseTree(parseTree(rule, 1));
+		assertFalse("individuals with different parse trees equal", individual1.equals(individual2));
+
+		GEIndividual individual3 = new GEIndividual(new IntegerChromosome(new long[]{0, 2}));
+		assertFalse("individual with a parse tree equal to one without", individual1.equals(individual3));
+
+		individual1.setParseTree(null);
+		assertEquals("individuals with equal chromosomes not equal", individual1, individual3);
+		assertEquals("equal individuals with different hash codes", individual1.hashCode(), individual3.hashCode());
+	}
+
+	/*
+	 * Returns a parse tree of the rule with the terminal of the given
+	 * production.
+	 */
+	private NonTerminalSymbol parseTree(GrammarRule rule, int production) {
+		NonTerminalSymbol parseTree = new NonTerminalSymbol(rule);
+		parseTree.addChild(new TerminalSymbol((GrammarLiteral) rule.getProduction(production).getGrammarNode(0)));
+
+		return parseTree;
+	}
 }
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.ge.map;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.epochx.Config;
+import org.epochx.Population;
+import org.epochx.event.EventManager;
+import org.epochx.event.Listener;
+import org.epochx.ge.Chromosome;
+import org.epochx.ge.GEIndividual;
+import org.epochx.ge.IntegerChromosome;
+import org.epochx.ge.map.MappingEvent.EndMapping;
+import org.epochx.ge.map.MappingEvent.StartMapping;
+import org.epochx.grammar.Grammar;
+import org.epochx.grammar.NonTerminalSymbol;
+
+/**
+ * Unit tests for {@link org.epochx.ge.map.DepthFirstMapper}
+ */
+public class DepthFirstMapperTest extends TestCase {
+
+	private DepthFirstMapper mapper;
+
+	private Random random;
+
+	@Override
+	protected void setUp() throws Exception {
+		mapper = new DepthFirstMapper(false);
+		mapper.setGrammar(new Grammar("<expr> ::= ( <expr> <op> <expr> ) | <var> | <expr> <op> <var>\n"
+				+ "<op> ::= + | - | *\n" + "<var> ::= x | y | 1\n"));
+		mapper.setMaximumDepth(8);
+
+		random = new Random(17);
+	}
+
+	/*
+	 * Returns a chromosome of random codons.
+	 */
+	private Chromosome chromosome(int length) {
+		long[] values = new long[length];
+		for (int i = 0; i < length; i++) {
+			values[i] = random.nextInt(100);
+		}
+
+		Chromosome chromosome = new IntegerChromosome(values);
+		chromosome.setMaxWraps(2);
+
+		return chromosome;
+	}
+
+	/*
+	 * Maps the individual and assigns the parse tree, as the mapping component
+	 * does.
+	 */
+	private NonTerminalSymbol map(GEIndividual individual) {
+		NonTerminalSymbol parseTree = mapper.map(new EndMapping(mapper, individual), individual);
+		if (parseTree != null) {
+			individual.setParseTree(parseTree);
+		}
+
+		return parseTree;
+	}
+
+	/*
+	 * Asserts that mapping the individual with the derivation of its parent
+	 * gives the same parse tree as mapping it without.
+	 */
+	private void assertIncremental(GEIndividual child) {
+		GEIndividual fresh = new GEIndividual(child.getChromosome().clone());
+		NonTerminalSymbol expected = map(fresh);
+		NonTerminalSymbol actual = map(child);
+
+		if (expected == null) {
+			assertNull("mapped an invalid chromosome", actual);
+		} else {
+			assertEquals("incorrect parse tree", expected.toString(), actual.toString());
+			assertEquals("incorrect active codons", fresh.getDerivation().getNoActiveCodons(), child
+					.getDerivation().getNoActiveCodons());
+			assertSame("derivation not of the parse tree", actual, child.getDerivation().getParseTree());
+		}
+	}
+
+	/**
+	 * Tests that mapping mutated chromosomes with the derivation of the parent
+	 * gives the same parse trees as mapping them from scratch.
+	 */
+	public void testMutation() {
+		for (int i = 0; i < 200; i++) {
+			GEIndividual parent = new GEIndividual(chromosome(20));
+			if (map(parent) == null) {
+				continue;
+			}
+
+			Chromosome codons = parent.getChromosome().clone();
+			int point = random.nextInt(codons.length());
+			codons.splice(point, new IntegerChromosome(new long[]{random.nextInt(100)}), 0);
+			codons.appendCodons(parent.getChromosome().getCodons(point + 1, parent.getChromosome().length()));
+
+			GEIndividual child = new GEIndividual(codons);
+			child.setDerivation(parent.getDerivation());
+
+			assertIncremental(child);
+		}
+	}
+
+	/**
+	 * Tests that mapping the children of one point crossover with the
+	 * derivations of the parents gives the same parse trees as mapping them
+	 * from scratch.
+	 */
+	public void testCrossover() {
+		for (int i = 0; i < 200; i++) {
+			GEIndividual parent1 = new GEIndividual(chromosome(5 + random.nextInt(20)));
+			GEIndividual parent2 = new GEIndividual(chromosome(5 + random.nextInt(20)));
+			if (map(parent1) == null) {
+				continue;
+			}
+
+			Chromosome codons = parent1.getChromosome().clone();
+			codons.splice(random.nextInt(codons.length()), parent2.getChromosome(), random.nextInt(parent2
+					.getChromosome().length()));
+
+			GEIndividual child = new GEIndividual(codons);
+			child.setDerivation(parent1.getDerivation());
+
+			assertIncremental(child);
+		}
+	}
+
+	/**
+	 * Tests that an individual whose chromosome is unchanged is not mapped
+	 * again.
+	 */
+	public void testUnchanged() {
+		GEIndividual individual = null;
+		NonTerminalSymbol parseTree = null;
+
+		while (parseTree == null) {
+			individual = new GEIndividual(chromosome(20));
+			parseTree = map(individual);
+		}
+
+		assertSame("unchanged individual mapped again", parseTree, map(individual));
+
+		GEIndividual clone = individual.clone();
+		clone.setParseTree(null);
+		assertEquals("incorrect parse tree of clone", parseTree, map(clone));
+		assertNotSame("parse tree of clone shared", parseTree, clone.getParseTree());
+
+		mapper.setMaximumDepth(9);
+		assertNotSame("derivation used with a different maximum depth", parseTree, map(individual));
+		assertEquals("incorrect parse tree", parseTree, individual.getParseTree());
+	}
+
+	/**
+	 * Tests that mapping a population concurrently gives the same parse trees
+	 * as mapping it sequentially, that the events are fired in the order of
+	 * the population, and that the start events are fired before any individual
+	 * is mapped.
+	 */
+	public void testConcurrent() {
+		Config.getInstance().set(Population.SIZE, 300);
+
+		Population sequential = new Population();
+		Population concurrent = new Population();
+
+		for (int i = 0; i < 300; i++) {
+			Chromosome chromosome = chromosome(5 + random.nextInt(30));
+			sequential.add(new GEIndividual(chromosome));
+			concurrent.add(new GEIndividual(chromosome.clone()));
+		}
+
+		final List<GEIndividual> mapped = new ArrayList<GEIndividual>();
+		Listener<EndMapping> listener = new Listener<EndMapping>() {
+
+			@Override
+			public void onEvent(EndMapping event) {
+				mapped.add(event.getIndividual());
+			}
+		};
+
+		final List<GEIndividual> started = new ArrayList<GEIndividual>();
+		Listener<StartMapping> startListener = new Listener<StartMapping>() {
+
+			@Override
+			public void onEvent(StartMapping event) {
+				if (mapped.isEmpty()) {
+					started.add(event.getIndividual());
+				}
+			}
+		};
+
+		EventManager.getInstance().add(EndMapping.class, listener);
+		EventManager.getInstance().add(StartMapping.class, startListener);
+		try {
+			mapper.map(sequential);
+			List<GEIndividual> expected = new ArrayList<GEIndividual>(mapped);
+
+			mapped.clear();
+			started.clear();
+			mapper.setThreads(4);
+			mapper.map(concurrent);
+
+			assertEquals("incorrect number of events", expected.size(), mapped.size());
+			assertEquals("start events not fired before mapping", concurrent.size(), started.size());
+			for (int i = 0; i < sequential.size(); i++) {
+				GEIndividual individual1 = (GEIndividual) sequential.get(i);
+				GEIndividual individual2 = (GEIndividual) concurrent.get(i);
+
+				assertEquals("incorrect parse tree", String.valueOf(individual1.getParseTree()), String
+						.valueOf(individual2.getParseTree()));
+				assertEquals("event out of order", expected.indexOf(individual1), mapped.indexOf(individual2));
+			}
+		} finally {
+			EventManager.getInstance().remove(EndMapping.class, listener);
+			EventManager.getInstance().remove(StartMapping.class, startListener);
+			Config.getInstance().reset();
+		}
+	}
+}
@@ -25,6 +25,7 @@ import org.apache.commons.lang.ObjectUtils;
 import org.epochx.*;
 import org.epochx.Config.ConfigKey;
 import org.epochx.epox.*;
+import org.epochx.stgp.fitness.OutputTrace;
 
 /**
  * An <code>STGPIndividual</code> is a candidate solution which uses a strongly
@@ -65,6 +66,9 @@ public class STGPIndividual extends AbstractIndividual {
 	// The root node of the program tree
 	private Node root;
 
+	// The outputs of the nodes of the program tree, see OutputTrace
+	private transient OutputTrace trace;
+
 	/**
 	 * Constructs an individual represented by a strongly typed tree, with
 	 * a <code>null</code> root node
@@ -110,6 +114,7 @@ public class STGPIndividual extends AbstractIndividual {
 	 */
 	public void setRoot(Node root) {
 		this.root = root;
+		this.trace = null;
 	}
 
 	/**
@@ -142,6 +147,7 @@ public class STGPIndividual extends AbstractIndividual {
 	 */
 	public Node setNode(int index, Node node) {
 		if (index > 0) {
+			trace = null;
 			return root.setNode(index, node);
 		} else if (index == 0) {
 			Node old = getRoot();
@@ -154,6 +160,29 @@ public class STGPIndividual extends AbstractIndividual {
 		}
 	}
 
+	/**
+	 * Returns the outputs of the nodes of the program tree recorded by the
+	 * fitness function, or <code>null</code> if they are not known. The trace
+	 * is discarded when the program tree is modified with {@link #setRoot(Node)}
+	 * or {@link #setNode(int, Node)}; operators that replace a subtree may
+	 * record the replacement in the trace afterwards, so that the offspring can
+	 * be evaluated incrementally.
+	 * 
+	 * @return the trace of the program tree, or <code>null</code>
+	 */
+	public OutputTrace getOutputTrace() {
+		return trace;
+	}
+
+	/**
+	 * Sets the outputs of the nodes of the program tree.
+	 * 
+	 * @param trace the trace of the program tree, or <code>null</code>
+	 */
+	public void setOutputTrace(OutputTrace trace) {
+		this.trace = trace;
+	}
+
 	/**
 	 * Returns the maximum depth of the program tree. The depth of a tree is
 	 * defined as the length of the path from the root to the deepest node in
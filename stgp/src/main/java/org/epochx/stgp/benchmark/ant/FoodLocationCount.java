@@ -30,6 +30,7 @@ import java.util.List;
 import org.epochx.Config;
 import org.epochx.Config.ConfigKey;
 import org.epochx.Individual;
+import org.epochx.Population;
 import org.epochx.event.ConfigEvent;
 import org.epochx.event.EventManager;
 import org.epochx.event.Listener;
@@ -37,7 +38,9 @@ import org.epochx.fitness.DoubleFitness;
 import org.epochx.stgp.STGPIndividual;
 import org.epochx.stgp.fitness.STGPFitnessFunction;
 import org.epochx.tools.ant.Ant;
+import org.epochx.tools.ant.AntContext;
 import org.epochx.tools.ant.AntLandscape;
+import org.epochx.tools.ant.AntSimulation;
 
 
 /**
@@ -50,6 +53,16 @@ import org.epochx.tools.ant.AntLandscape;
  * {@link #MAXIMUM_TIMESTEPS} config options must be set, or the same values set using the 
  * mutator methods provided.
  * 
+ * The evaluation stops before the maximum number of timesteps if the ant enters a cycle 
+ * in which it eats no food, which is detected by recording the state of the ant each time 
+ * the program is executed, and optionally when the ant can no longer beat the 
+ * {@link #CUTOFF_FITNESS}.
+ * 
+ * If the fitness function is constructed with an <code>AntContext</code>, the ant nodes 
+ * of the programs must obtain their ant from the same context. The programs of a 
+ * population are then simulated in lockstep, each with its own ant on a copy of the 
+ * landscape, and are divided between the number of threads set by {@link #THREADS}.
+ * 
  * @since 2.0
  */
 public class FoodLocationCount extends STGPFitnessFunction implements Listener<ConfigEvent> {
@@ -64,13 +77,42 @@ public class FoodLocationCount extends STGPFitnessFunction implements Listener<C
 	 */
 	public static final ConfigKey<Integer> MAXIMUM_TIMESTEPS = new ConfigKey<Integer>();
 	
+	/**
+	 * The key for setting the cutoff fitness. The evaluation of an ant stops as soon as 
+	 * it can no longer obtain a fitness score lower than the cutoff
+	 */
+	public static final ConfigKey<Double> CUTOFF_FITNESS = new ConfigKey<Double>();
+	
+	/**
+	 * The key for setting the number of threads that a population is evaluated with. 
+	 * It is only used if the fitness function is constructed with an <code>AntContext</code>
+	 */
+	public static final ConfigKey<Integer> THREADS = new ConfigKey<Integer>();
+	
+	/**
+	 * The key for setting the maximum number of programs that each thread simulates in 
+	 * lockstep when a population is evaluated. It is only used if the fitness function is 
+	 * constructed with an <code>AntContext</code>
+	 */
+	public static final ConfigKey<Integer> BATCH_SIZE = new ConfigKey<Integer>();
+	
 	// The ant environment
 	private AntLandscape landscape;
 	private Ant ant;
+	private AntContext context;
+
+	// A copy of the food locations currently set in the landscape
+	private List<Point> loadedFoodLocations;
+	
+	// The simulation of the landscape, which keeps its ants between populations
+	private AntSimulation simulation;
 	
 	// Configuration settings
 	private List<Point> foodLocations;
 	private Integer timesteps;
+	private Double cutoff;
+	private Integer threads;
+	private Integer batchSize;
 	
 	/**
 	 * Constructs a <code>AntFitnessFunction</code> fitness function with control parameters
@@ -105,6 +147,37 @@ public class FoodLocationCount extends STGPFitnessFunction implements Listener<C
 		}
 	}
 	
+	/**
+	 * Constructs a <code>AntFitnessFunction</code> fitness function for programs that 
+	 * obtain their ant from the given context, with control parameters automatically 
+	 * loaded from the config.
+	 * 
+	 * @param context the context that the ant nodes of the programs obtain their ant from
+	 * @param landscape the ant landscape with the food locations, which is copied for each 
+	 *        ant that is simulated concurrently
+	 */
+	public FoodLocationCount(AntContext context, AntLandscape landscape) {
+		this(context, landscape, true);
+	}
+	
+	/**
+	 * Constructs a <code>AntFitnessFunction</code> fitness function for programs that 
+	 * obtain their ant from the given context, with control parameters initially loaded 
+	 * from the config. If the <code>autoConfig</code> argument is set to <code>true</code> 
+	 * then the configuration will be automatically updated when the config is modified.
+	 * 
+	 * @param context the context that the ant nodes of the programs obtain their ant from
+	 * @param landscape the ant landscape with the food locations, which is copied for each 
+	 *        ant that is simulated concurrently
+	 * @param autoConfig whether this fitness function should automatically update its
+	 *        configuration settings from the config
+	 */
+	public FoodLocationCount(AntContext context, AntLandscape landscape, boolean autoConfig) {
+		this(new Ant(0, landscape), landscape, autoConfig);
+		
+		this.context = context;
+	}
+	
 	/**
 	 * Sets up this operator with the appropriate configuration settings.
 	 * This method is called whenever a <code>ConfigEvent</code> occurs for a
@@ -112,11 +185,17 @@ public class FoodLocationCount extends STGPFitnessFunction implements Listener<C
 	 * <ul>
 	 * <li>{@link #FOOD_LOCATIONS}
 	 * <li>{@link #MAXIMUM_TIMESTEPS}
+	 * <li>{@link #CUTOFF_FITNESS}
+	 * <li>{@link #THREADS}
+	 * <li>{@link #BATCH_SIZE}
 	 * </ul>
 	 */
 	protected void setup() {
 		foodLocations = Config.getInstance().get(FOOD_LOCATIONS);
 		timesteps = Config.getInstance().get(MAXIMUM_TIMESTEPS);
+		cutoff = Config.getInstance().get(CUTOFF_FITNESS);
+		threads = Config.getInstance().get(THREADS);
+		batchSize = Config.getInstance().get(BATCH_SIZE);
 	}
 	
 	/**
@@ -128,7 +207,7 @@ public class FoodLocationCount extends STGPFitnessFunction implements Listener<C
 	 */
 	@Override
 	public void onEvent(ConfigEvent event) {
-		if (event.isKindOf(TEMPLATE, FOOD_LOCATIONS, MAXIMUM_TIMESTEPS)) {
+		if (event.isKindOf(TEMPLATE, FOOD_LOCATIONS, MAXIMUM_TIMESTEPS, CUTOFF_FITNESS, THREADS, BATCH_SIZE)) {
 			setup();
 		}
 	}
@@ -150,16 +229,106 @@ public class FoodLocationCount extends STGPFitnessFunction implements Listener<C
 			throw new IllegalArgumentException("Unsupported representation");
 		}
 		
-		STGPIndividual program = (STGPIndividual) individual;
+		int foodEaten;
 		
-		landscape.setFoodLocations(new ArrayList<Point>(foodLocations));
-		ant.reset(timesteps, landscape);
+		try {
+			foodEaten = getSimulation().run(ant, new Controller((STGPIndividual) individual));
+		} finally {
+			if (context != null) {
+				context.setAnt(null);
+			}
+		}
 
-		while (ant.getTimesteps() < ant.getMaxMoves()) {
+		return new DoubleFitness.Minimise(landscape.getFoodCount() - foodEaten);
+	}
+	
+	/**
+	 * Calculates and assigns the fitness of all individuals in the given population. If 
+	 * this fitness function was constructed with an <code>AntContext</code> the programs 
+	 * are simulated in lockstep, divided between the number of threads set by 
+	 * {@link #THREADS}, or in the current thread if it is not set; otherwise they are evaluated one at a time.
+	 * 
+	 * @param population the population to evaluate
+	 * @throws IllegalArgumentException if an individual is not an STGPIndividual
+	 */
+	@Override
+	public void evaluate(Population population) {
+		if (context == null) {
+			super.evaluate(population);
+			return;
+		}
+		
+		List<Controller> controllers = new ArrayList<Controller>(population.size());
+		
+		for (Individual individual: population) {
+			if (!(individual instanceof STGPIndividual)) {
+				throw new IllegalArgumentException("Unsupported representation");
+			}
+			controllers.add(new Controller((STGPIndividual) individual));
+		}
+		
+		AntSimulation simulation = getSimulation();
+		int[] foodEaten;
+		
+		try {
+			if (threads == null) {
+				foodEaten = simulation.run(controllers);
+			} else {
+				foodEaten = simulation.run(controllers, threads);
+			}
+		} finally {
+			context.setAnt(null);
+		}
+		
+		for (int i = 0; i < foodEaten.length; i++) {
+			assignFitness(new DoubleFitness.Minimise(landscape.getFoodCount() - foodEaten[i]), 
+					controllers.get(i).program);
+		}
+	}
+	
+	/*
+	 * Returns the simulation of the landscape, loading the food locations into the 
+	 * landscape if they have changed.
+	 */
+	private AntSimulation getSimulation() {
+		// the food is only copied into the landscape when the locations change,
+		// including changes made to the list in place
+		if (foodLocations != null && !foodLocations.equals(loadedFoodLocations)) {
+			landscape.setFoodLocations(foodLocations);
+			
+			loadedFoodLocations = new ArrayList<Point>(foodLocations.size());
+			for (Point location: foodLocations) {
+				loadedFoodLocations.add(new Point(location));
+			}
+		}
+		
+		if (simulation == null || simulation.getMaximumTimesteps() != timesteps) {
+			simulation = new AntSimulation(landscape, timesteps);
+		}
+		simulation.setCutoffFitness(cutoff);
+		simulation.setBatchSize(batchSize == null ? AntSimulation.DEFAULT_BATCH_SIZE : batchSize);
+		
+		return simulation;
+	}
+	
+	/*
+	 * Executes a program, binding the ant to the context first if there is one.
+	 */
+	private class Controller implements AntSimulation.Controller {
+		
+		private final STGPIndividual program;
+		
+		private Controller(STGPIndividual program) {
+			this.program = program;
+		}
+		
+		@Override
+		public void execute(Ant ant) {
+			if (context != null) {
+				context.setAnt(ant);
+			}
 			program.evaluate();
 		}
-
-		return new DoubleFitness.Minimise(foodLocations.size() - ant.getFoodEaten());
 	}
 	
 	/**
@@ -205,4 +374,80 @@ public class FoodLocationCount extends STGPFitnessFunction implements Listener<C
 	public void setMaximumTimesteps(int timesteps) {
 		this.timesteps = timesteps;
 	}
+	
+	/**
+	 * Returns the cutoff fitness, or <code>null</code> if every ant is evaluated for the
+	 * maximum number of timesteps
+	 * 
+	 * @return the cutoff fitness
+	 */
+	public Double getCutoffFitness() {
+		return cutoff;
+	}
+	
+	/**
+	 * Sets the cutoff fitness. The evaluation of an ant stops as soon as it can no longer 
+	 * obtain a fitness score lower than the cutoff, in which case the fitness returned is 
+	 * the number of food items not consumed so far, which is not lower than the cutoff. 
+	 * A value of <code>null</code> disables the cutoff.
+	 * 
+	 * If automatic configuration is enabled then any value set here will be 
+	 * overwritten by the {@link #CUTOFF_FITNESS} configuration setting on the 
+	 * next config event.
+	 * 
+	 * @param cutoff the cutoff fitness
+	 */
+	public void setCutoffFitness(Double cutoff) {
+		this.cutoff = cutoff;
+	}
+	
+	/**
+	 * Returns the number of threads that a population is evaluated with, or 
+	 * <code>null</code> if it is evaluated in the current thread
+	 * 
+	 * @return the number of threads
+	 */
+	public Integer getThreads() {
+		return threads;
+	}
+	
+	/**
+	 * Sets the number of threads that a population is evaluated with. It is only used 
+	 * if this fitness function was constructed with an <code>AntContext</code>.
+	 * 
+	 * If automatic configuration is enabled then any value set here will be 
+	 * overwritten by the {@link #THREADS} configuration setting on the 
+	 * next config event.
+	 * 
+	 * @param threads the number of threads, or <code>null</code> to evaluate the 
+	 *        population in the current thread
+	 */
+	public void setThreads(Integer threads) {
+		this.threads = threads;
+	}
+	
+	/**
+	 * Returns the maximum number of programs that each thread simulates in lockstep, or 
+	 * <code>null</code> if the default of the simulation is used
+	 * 
+	 * @return the batch size
+	 */
+	public Integer getBatchSize() {
+		return batchSize;
+	}
+	
+	/**
+	 * Sets the maximum number of programs that each thread simulates in lockstep when a 
+	 * population is evaluated. A value of <code>null</code> uses 
+	 * {@link AntSimulation#DEFAULT_BATCH_SIZE}.
+	 * 
+	 * If automatic configuration is enabled then any value set here will be 
+	 * overwritten by the {@link #BATCH_SIZE} configuration setting on the 
+	 * next config event.
+	 * 
+	 * @param batchSize the batch size
+	 */
+	public void setBatchSize(Integer batchSize) {
+		this.batchSize = batchSize;
+	}
 }
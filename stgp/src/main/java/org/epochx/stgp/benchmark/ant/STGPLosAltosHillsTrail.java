@@ -56,7 +56,7 @@ import org.epochx.stgp.STGPIndividual;
 import org.epochx.stgp.init.Full;
 import org.epochx.stgp.operator.SubtreeCrossover;
 import org.epochx.stgp.operator.SubtreeMutation;
-import org.epochx.tools.ant.Ant;
+import org.epochx.tools.ant.AntContext;
 import org.epochx.tools.ant.AntLandscape;
 
 /**
@@ -158,20 +158,20 @@ public class STGPLosAltosHillsTrail extends GenerationalTemplate {
         
         // Setup syntax
         AntLandscape landscape = new AntLandscape(LANDSCAPE_SIZE, null);
-        Ant ant = new Ant(MAXIMUM_TIMESTEPS, landscape);
+        AntContext context = new AntContext();
 		Node[] syntax = new Node[]{
-			new IfFoodAhead(),
+			new IfFoodAhead(context),
 			new Seq2(),
 			new Seq3(),
-			new AntMove(ant),
-			new AntTurnLeft(ant),
-			new AntTurnRight(ant)
+			new AntMove(context),
+			new AntTurnLeft(context),
+			new AntTurnRight(context)
 		};
         template.put(STGPIndividual.SYNTAX, syntax);
         template.put(STGPIndividual.RETURN_TYPE, Void.class);
         
         // Setup fitness function
-        template.put(FitnessEvaluator.FUNCTION, new FoodLocationCount(ant, landscape));
+        template.put(FitnessEvaluator.FUNCTION, new FoodLocationCount(context, landscape));
         template.put(FoodLocationCount.FOOD_LOCATIONS, FOOD_LOCATIONS);
         template.put(FoodLocationCount.MAXIMUM_TIMESTEPS, MAXIMUM_TIMESTEPS);
 	}
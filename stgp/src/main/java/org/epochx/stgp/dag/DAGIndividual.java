@@ -0,0 +1,239 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.dag;
+
+import org.epochx.epox.Node;
+import org.epochx.stgp.STGPIndividual;
+
+/**
+ * An <code>STGPIndividual</code> whose program is stored as a
+ * {@link SharedNode} instead of a tree of <code>Node</code> objects. Since
+ * shared nodes are immutable and hash-consed, cloning an individual does not
+ * copy the program, identical subtrees of different individuals are stored
+ * once, and two individuals are compared for equality in constant time by
+ * comparing the identities of their roots; this makes
+ * <code>Population.contains</code> and duplicate checks inexpensive.
+ * 
+ * <p>
+ * This class can be used with all components that accept an
+ * <code>STGPIndividual</code>. The tree based methods are supported through
+ * conversion: {@link #getRoot()} and {@link #getNode(int)} return a copy of
+ * the program as a node tree (changes made to it are not reflected in the
+ * individual), and {@link #setRoot(Node)} and {@link #setNode(int, Node)}
+ * intern the new nodes, copying the path to the changed position. Operators
+ * designed for this representation, such as {@link DAGSubtreeCrossover} and
+ * {@link DAGSubtreeMutation}, avoid the conversions altogether.
+ * 
+ * @since 2.0
+ */
+public class DAGIndividual extends STGPIndividual {
+
+	private static final long serialVersionUID = -2871846512304915183L;
+
+	private SharedNode program;
+
+	/**
+	 * Constructs a <code>DAGIndividual</code> with the specified program.
+	 * 
+	 * @param program the root of the program of this individual.
+	 */
+	public DAGIndividual(SharedNode program) {
+		this.program = program;
+	}
+
+	/**
+	 * Constructs a <code>DAGIndividual</code> with the shared representation of
+	 * the specified node tree, interned in the default pool.
+	 * 
+	 * @param root the root of the program tree.
+	 */
+	public DAGIndividual(Node root) {
+		this(NodePool.getInstance().intern(root));
+	}
+
+	/**
+	 * Evaluates the program.
+	 * 
+	 * @return the result of evaluating the program
+	 */
+	@Override
+	public Object evaluate() {
+		return program.evaluate();
+	}
+
+	/**
+	 * Returns the root of the program of this individual.
+	 * 
+	 * @return the root of the program of this individual
+	 */
+	public SharedNode getProgram() {
+		return program;
+	}
+
+	/**
+	 * Sets the root of the program of this individual.
+	 * 
+	 * @param program the root of the new program
+	 */
+	public void setProgram(SharedNode program) {
+		this.program = program;
+
+		setOutputTrace(null);
+	}
+
+	/**
+	 * Returns a node tree equivalent to the program. Changes made to the
+	 * returned tree are not reflected in this individual.
+	 * 
+	 * @return a copy of the program tree
+	 */
+	@Override
+	public Node getRoot() {
+		return program.toNode();
+	}
+
+	/**
+	 * Replaces the program with the shared representation of the specified
+	 * node tree.
+	 * 
+	 * @param root the root of the new program tree
+	 */
+	@Override
+	public void setRoot(Node root) {
+		setProgram(program.getPool().intern(root));
+	}
+
+	/**
+	 * Returns a node tree equivalent to the subtree at the specified index.
+	 * Changes made to the returned tree are not reflected in this individual.
+	 * 
+	 * @param index the index of the subtree
+	 * @return a copy of the subtree at the specified index
+	 */
+	@Override
+	public Node getNode(int index) {
+		return program.getNode(index).toNode();
+	}
+
+	/**
+	 * Replaces the subtree at the specified index with the shared
+	 * representation of the specified node tree.
+	 * 
+	 * @param index the index of the subtree to be replaced
+	 * @param node the root of the new subtree
+	 * @return a node tree equivalent to the replaced subtree
+	 */
+	@Override
+	public Node setNode(int index, Node node) {
+		Node old = getNode(index);
+		setProgram(program.replace(index, program.getPool().intern(node)));
+
+		return old;
+	}
+
+	/**
+	 * Returns the depth of the program tree.
+	 * 
+	 * @return the depth of the program tree
+	 */
+	@Override
+	public int depth() {
+		return program.depth();
+	}
+
+	/**
+	 * Returns the number of nodes in the program tree.
+	 * 
+	 * @return the number of nodes in the program tree
+	 */
+	@Override
+	public int length() {
+		return program.length();
+	}
+
+	/**
+	 * Returns the data-type of the values returned by the program.
+	 * 
+	 * @return the object <code>Class</code> of the values returned
+	 */
+	@Override
+	public Class<?> dataType() {
+		return program.dataType();
+	}
+
+	/**
+	 * Creates a copy of this individual. The program is shared with the copy,
+	 * since it is immutable.
+	 * 
+	 * @return a copy of this individual
+	 */
+	@Override
+	public DAGIndividual clone() {
+		return (DAGIndividual) super.clone();
+	}
+
+	/**
+	 * Returns a string representation of the program tree.
+	 * 
+	 * @return a string representation of the program tree
+	 */
+	@Override
+	public String toString() {
+		return program.toString();
+	}
+
+	/**
+	 * Compares the given object to this instance for equality. Equivalence is
+	 * defined as them both being instances of <code>DAGIndividual</code> and
+	 * having structurally equal programs, which for programs of the same pool
+	 * means the same root instance.
+	 * 
+	 * @param obj an object to be compared for equivalence.
+	 * @return true if this individual is equivalent to the specified object and
+	 *         false otherwise.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof DAGIndividual)) {
+			return false;
+		}
+
+		SharedNode other = ((DAGIndividual) obj).program;
+
+		if (program.getPool() == other.getPool()) {
+			return program == other;
+		}
+
+		return (program.structuralHash() == other.structuralHash()) && program.toNode().equals(other.toNode());
+	}
+
+	/**
+	 * Returns a hash code value for the object.
+	 * 
+	 * @return a hash code value for this object
+	 */
+	@Override
+	public int hashCode() {
+		return program.hashCode();
+	}
+}
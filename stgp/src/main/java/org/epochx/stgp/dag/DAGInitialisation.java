@@ -0,0 +1,109 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.dag;
+
+import org.epochx.stgp.init.*;
+
+/**
+ * Initialisation method which produces {@link DAGIndividual}s. The program
+ * trees are created by another <code>STGPInitialisation</code> method (such as
+ * <code>Grow</code> or <code>RampedHalfAndHalf</code>) and interned in a
+ * {@link NodePool}, so the subtrees they have in common are shared. Duplicate
+ * individuals are detected in constant time per comparison.
+ * 
+ * <p>
+ * See the {@link #setup()} method documentation for a list of configuration
+ * parameters used to control this operator.
+ * 
+ * @since 2.0
+ */
+public class DAGInitialisation extends DelegatingInitialisation {
+
+	// The pool in which the programs are interned
+	private final NodePool pool;
+
+	/**
+	 * Constructs a <code>DAGInitialisation</code> with control parameters
+	 * automatically loaded from the config
+	 * 
+	 * @param delegate the initialisation method used to create the program
+	 *        trees
+	 */
+	public DAGInitialisation(STGPInitialisation delegate) {
+		this(delegate, true);
+	}
+
+	/**
+	 * Constructs a <code>DAGInitialisation</code> with control parameters
+	 * initially loaded from the config. If the <code>autoConfig</code> argument
+	 * is set to <code>true</code> then the configuration will be automatically
+	 * updated when the config is modified.
+	 * 
+	 * @param delegate the initialisation method used to create the program
+	 *        trees
+	 * @param autoConfig whether this operator should automatically update its
+	 *        configuration settings from the config
+	 */
+	public DAGInitialisation(STGPInitialisation delegate, boolean autoConfig) {
+		this(delegate, NodePool.getInstance(), autoConfig);
+	}
+
+	/**
+	 * Constructs a <code>DAGInitialisation</code> that interns the programs in
+	 * the specified pool, with control parameters initially loaded from the
+	 * config. If the <code>autoConfig</code> argument is set to
+	 * <code>true</code> then the configuration will be automatically updated
+	 * when the config is modified.
+	 * 
+	 * @param delegate the initialisation method used to create the program
+	 *        trees
+	 * @param pool the pool in which the programs are interned
+	 * @param autoConfig whether this operator should automatically update its
+	 *        configuration settings from the config
+	 */
+	public DAGInitialisation(STGPInitialisation delegate, NodePool pool, boolean autoConfig) {
+		super(delegate, autoConfig);
+
+		this.pool = pool;
+	}
+
+	/**
+	 * Constructs a new <code>DAGIndividual</code> from a program tree created
+	 * by the underlying initialisation method.
+	 * 
+	 * @return a new individual with a shared program
+	 */
+	@Override
+	public DAGIndividual createIndividual() {
+		return new DAGIndividual(pool.intern(createProgram()));
+	}
+
+	/**
+	 * Returns the pool in which the programs are interned.
+	 * 
+	 * @return the pool of shared nodes
+	 */
+	public NodePool getPool() {
+		return pool;
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.dag;
+
+import org.epochx.Individual;
+import org.epochx.epox.Node;
+import org.epochx.event.OperatorEvent.EndOperator;
+import org.epochx.stgp.STGPIndividual;
+import org.epochx.stgp.operator.SubtreeCrossover;
+
+/**
+ * A subtree crossover operator for {@link DAGIndividual}s. The crossover
+ * points are selected from the shared programs and the offspring are built by
+ * path copying: the exchanged subtrees are not copied, and only the nodes
+ * between each root and its crossover point are replaced. No node trees are
+ * created, except for the subtrees reported in the end event. It uses the same
+ * configuration parameters as {@link SubtreeCrossover}; individuals with a
+ * tree representation are handled by the superclass.
+ * 
+ * @since 2.0
+ */
+public class DAGSubtreeCrossover extends SubtreeCrossover {
+
+	/**
+	 * Constructs a <code>DAGSubtreeCrossover</code> with control parameters
+	 * automatically loaded from the config
+	 */
+	public DAGSubtreeCrossover() {
+		this(true);
+	}
+
+	/**
+	 * Constructs a <code>DAGSubtreeCrossover</code> with control parameters
+	 * initially loaded from the config. If the <code>autoConfig</code> argument
+	 * is set to <code>true</code> then the configuration will be automatically
+	 * updated when the config is modified.
+	 * 
+	 * @param autoConfig whether this operator should automatically update its
+	 *        configuration settings from the config
+	 */
+	public DAGSubtreeCrossover(boolean autoConfig) {
+		super(autoConfig);
+	}
+
+	/**
+	 * Crossover the two individuals provided as arguments using subtree
+	 * crossover. A crossover point is chosen in the first program and a
+	 * crossover point with the same data-type is chosen in the second one; the
+	 * subtrees rooted at these points are exchanged. Offspring that exceed the
+	 * maximum depth are discarded.
+	 * 
+	 * @param event the <code>EndOperator</code> event to be filled with
+	 *        information about this operation
+	 * @param parents an array of two individuals to undergo subtree crossover
+	 * @return an array containing the valid offspring
+	 */
+	@Override
+	public STGPIndividual[] perform(EndOperator event, Individual ... parents) {
+		if (!(parents[0] instanceof DAGIndividual) || !(parents[1] instanceof DAGIndividual)) {
+			return super.perform(event, parents);
+		}
+
+		DAGIndividual individual1 = (DAGIndividual) parents[0];
+		DAGIndividual individual2 = (DAGIndividual) parents[1];
+		SharedNode program1 = individual1.getProgram();
+		SharedNode program2 = individual2.getProgram();
+
+		// Select first swap point
+		int swapPoint1 = selectPosition(arities(program1.nodes()), null, null);
+		SharedNode subtree1 = program1.getNode(swapPoint1);
+
+		// Select second swap point with the same data-type
+		SharedNode[] nodes2 = program2.nodes();
+		int swapPoint2 = selectPosition(arities(nodes2), dataTypes(nodes2), subtree1.dataType());
+
+		STGPIndividual[] children = new STGPIndividual[0];
+		int[] swapPoints = new int[0];
+		Node[] subtrees = new Node[0];
+
+		if (swapPoint2 != -1) {
+			SharedNode subtree2 = program2.getNode(swapPoint2);
+			SharedNode child1 = program1.replace(swapPoint1, subtree2);
+			SharedNode child2 = program2.replace(swapPoint2, subtree1);
+
+			individual1.setProgram(child1);
+			individual2.setProgram(child2);
+
+			boolean valid1 = child1.depth() <= getMaximumDepth();
+			boolean valid2 = child2.depth() <= getMaximumDepth();
+
+			if (valid1 && valid2) {
+				children = new STGPIndividual[]{individual1, individual2};
+			} else if (valid1) {
+				children = new STGPIndividual[]{individual1};
+			} else if (valid2) {
+				children = new STGPIndividual[]{individual2};
+			}
+
+			swapPoints = new int[]{swapPoint1, swapPoint2};
+			subtrees = new Node[]{subtree1.toNode(), subtree2.toNode()};
+		}
+
+		((EndEvent) event).setCrossoverPoints(swapPoints);
+		((EndEvent) event).setSubtrees(subtrees);
+
+		return children;
+	}
+
+	/*
+	 * Returns the arity of each of the nodes.
+	 */
+	private int[] arities(SharedNode[] nodes) {
+		int[] arities = new int[nodes.length];
+		for (int i = 0; i < nodes.length; i++) {
+			arities[i] = nodes[i].getArity();
+		}
+		return arities;
+	}
+
+	/*
+	 * Returns the data-type of each of the nodes.
+	 */
+	private Class<?>[] dataTypes(SharedNode[] nodes) {
+		Class<?>[] types = new Class<?>[nodes.length];
+		for (int i = 0; i < nodes.length; i++) {
+			types[i] = nodes[i].dataType();
+		}
+		return types;
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.dag;
+
+import org.epochx.Individual;
+import org.epochx.epox.Node;
+import org.epochx.event.OperatorEvent.EndOperator;
+import org.epochx.stgp.STGPIndividual;
+import org.epochx.stgp.operator.SubtreeMutation;
+
+/**
+ * A subtree mutation operator for {@link DAGIndividual}s. The mutation point,
+ * its depth and its data-type are found by descending the shared program
+ * using the cached subtree lengths, and the new subtree is inserted by path
+ * copying: only the nodes between the root and the mutation point are
+ * replaced, all other subtrees are shared with the parent. It uses the same
+ * configuration parameters as {@link SubtreeMutation}; individuals with a tree
+ * representation are mutated by the superclass.
+ * 
+ * @since 2.0
+ */
+public class DAGSubtreeMutation extends SubtreeMutation {
+
+	/**
+	 * Constructs a <code>DAGSubtreeMutation</code> with control parameters
+	 * automatically loaded from the config
+	 */
+	public DAGSubtreeMutation() {
+		this(true);
+	}
+
+	/**
+	 * Constructs a <code>DAGSubtreeMutation</code> with control parameters
+	 * initially loaded from the config. If the <code>autoConfig</code> argument
+	 * is set to <code>true</code> then the configuration will be automatically
+	 * updated when the config is modified.
+	 * 
+	 * @param autoConfig whether this operator should automatically update its
+	 *        configuration settings from the config
+	 */
+	public DAGSubtreeMutation(boolean autoConfig) {
+		super(autoConfig);
+	}
+
+	/**
+	 * Performs a subtree mutation on the given individual.
+	 * 
+	 * @param event the <code>EndOperator</code> event to be filled with
+	 *        information about this operation
+	 * @param parents an array of one individual to undergo subtree mutation. It
+	 *        must be an instance of <code>STGPIndividual</code>.
+	 * @return an array containing one individual that is the result of the
+	 *         mutation
+	 */
+	@Override
+	public STGPIndividual[] perform(EndOperator event, Individual ... parents) {
+		if (!(parents[0] instanceof DAGIndividual)) {
+			return super.perform(event, parents);
+		}
+
+		DAGIndividual child = (DAGIndividual) parents[0];
+		SharedNode program = child.getProgram();
+
+		// Randomly choose a mutation point
+		int mutationPoint = getRandomSequence().nextInt(program.length());
+		int maxSubtreeDepth = getMaximumDepth() - program.depthOf(mutationPoint);
+
+		Node subtree = createSubtree(program.getNode(mutationPoint).dataType(), maxSubtreeDepth);
+		SharedNode shared = program.getPool().intern(subtree);
+
+		child.setProgram(program.replace(mutationPoint, shared));
+
+		((SubtreeMutationEndEvent) event).setMutationPoint(mutationPoint);
+		((SubtreeMutationEndEvent) event).setSubtree(subtree);
+
+		return new STGPIndividual[]{child};
+	}
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.dag;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.epochx.epox.Node;
+
+/**
+ * A table of {@link SharedNode}s in which each structurally distinct subtree
+ * is represented by a single instance. Interning a node with the same
+ * node-type and the same children as an existing one returns the existing
+ * instance; looking it up only compares the node-type and the ids of the
+ * children, so it takes constant time regardless of the size of the subtree.
+ * 
+ * <p>
+ * The table only keeps weak references to the nodes, so subtrees that are no
+ * longer part of any program are reclaimed by the garbage collector. The
+ * methods of this class are thread-safe.
+ * 
+ * <p>
+ * Node-types are compared with the <code>equals</code> method of a childless
+ * node of the same class: nodes with the same identifier and arity are the
+ * same node-type, literals are compared by value and variable nodes by
+ * variable.
+ * 
+ * @since 2.0
+ */
+public class NodePool {
+
+	private static final NodePool INSTANCE = new NodePool();
+
+	private final Map<Key, Entry> table = new HashMap<Key, Entry>();
+
+	private final ReferenceQueue<SharedNode> queue = new ReferenceQueue<SharedNode>();
+
+	private long nextId = 1;
+
+	/**
+	 * Returns the pool shared by all components that do not specify one.
+	 * 
+	 * @return the default pool
+	 */
+	public static NodePool getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Returns the shared representation of the specified node tree. The tree is
+	 * not modified.
+	 * 
+	 * @param root the root of the node tree
+	 * @return the shared node equivalent to the node tree
+	 */
+	public SharedNode intern(Node root) {
+		SharedNode[] children = new SharedNode[root.getArity()];
+
+		for (int i = 0; i < children.length; i++) {
+			children[i] = intern(root.getChild(i));
+		}
+
+		return intern(root, children);
+	}
+
+	/**
+	 * Returns the shared node with the node-type of the specified node and the
+	 * specified children. The children of the node itself are ignored.
+	 * 
+	 * @param node a node of the required node-type
+	 * @param children the children of the shared node, created by this pool
+	 * @return the shared node
+	 */
+	public synchronized SharedNode intern(Node node, SharedNode ... children) {
+		expunge();
+
+		long[] ids = new long[children.length];
+
+		for (int i = 0; i < children.length; i++) {
+			if (children[i].getPool() != this) {
+				throw new IllegalArgumentException("child created by another pool");
+			}
+			ids[i] = children[i].getId();
+		}
+
+		Key lookup = new Key(node, ids);
+		Entry entry = table.get(lookup);
+		SharedNode shared = (entry == null) ? null : entry.get();
+
+		if (shared == null) {
+			// the prototype is a childless copy, so later changes to the node
+			// do not affect the pool
+			Node prototype = SharedNode.copyType(node);
+			Key key = new Key(prototype, ids);
+			shared = new SharedNode(this, prototype, children.clone(), nextId++);
+			table.put(key, new Entry(key, shared, queue));
+		}
+
+		return shared;
+	}
+
+	/**
+	 * Returns the number of distinct subtrees currently in the pool.
+	 * 
+	 * @return the number of distinct subtrees in the pool
+	 */
+	public synchronized int size() {
+		expunge();
+
+		return table.size();
+	}
+
+	/*
+	 * Removes the entries of the nodes that have been garbage collected.
+	 */
+	private void expunge() {
+		Entry entry;
+
+		while ((entry = (Entry) queue.poll()) != null) {
+			if (table.get(entry.key) == entry) {
+				table.remove(entry.key);
+			}
+		}
+	}
+
+	/*
+	 * The node-type and the child ids of a shared node.
+	 */
+	private static final class Key {
+
+		private final Node type;
+
+		private final long[] children;
+
+		private final int hash;
+
+		private Key(Node type, long[] children) {
+			this.type = type;
+			this.children = children;
+			this.hash = 31 * (31 * type.getClass().hashCode() + type.getIdentifier().hashCode())
+					+ Arrays.hashCode(children);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+
+			Key other = (Key) obj;
+
+			return (hash == other.hash) && (type.getClass() == other.type.getClass())
+					&& Arrays.equals(children, other.children) && sameType(type, other.type);
+		}
+
+		/*
+		 * Compares two node-types, ignoring their children.
+		 */
+		private static boolean sameType(Node type1, Node type2) {
+			if (type1.getArity() == 0) {
+				return type1.equals(type2);
+			}
+
+			return (type1.getArity() == type2.getArity()) && type1.getIdentifier().equals(type2.getIdentifier());
+		}
+	}
+
+	/*
+	 * A weak reference to a shared node that remembers its key.
+	 */
+	private static final class Entry extends WeakReference<SharedNode> {
+
+		private final Key key;
+
+		private Entry(Key key, SharedNode node, ReferenceQueue<SharedNode> queue) {
+			super(node, queue);
+			this.key = key;
+		}
+	}
+}
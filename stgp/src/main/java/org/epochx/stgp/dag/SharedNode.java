@@ -0,0 +1,417 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.dag;
+
+import org.epochx.epox.Node;
+import org.epochx.event.stat.sketch.Hashing;
+
+/**
+ * An immutable node of a program tree whose structurally equal subtrees are
+ * represented by a single instance. Instances are only created by a
+ * {@link NodePool}, which returns the existing instance when a node with the
+ * same node-type and the same children is requested again (hash-consing). A
+ * program is therefore a directed acyclic graph in which identical subtrees,
+ * within a program and across the population, are shared.
+ * 
+ * <p>
+ * Since equal subtrees are the same object, two shared nodes are structurally
+ * equal if and only if they are identical: <code>equals</code> is not
+ * overridden and compares references, and each instance is given a unique
+ * {@link #getId() id}. The length, depth, data-type and hash of the subtree
+ * are computed once, when the node is created.
+ * 
+ * <p>
+ * Shared nodes are never modified. Operations that change a program, such as
+ * {@link #replace(int, SharedNode)}, copy the path from the root to the
+ * changed position and reuse all other subtrees (path copying).
+ * 
+ * @since 2.0
+ */
+public final class SharedNode {
+
+	private final NodePool pool;
+
+	// the node-type, without children; it must not be modified
+	private final Node prototype;
+
+	private final SharedNode[] children;
+
+	private final long id;
+
+	private final int length;
+
+	private final int depth;
+
+	private final Class<?> type;
+
+	private final long hash;
+
+	// the node evaluated by evaluate(), created on demand
+	private Node executable;
+
+	/**
+	 * Constructs a <code>SharedNode</code>. This constructor is only called by
+	 * the pool, which guarantees that no other node with the same node-type and
+	 * children exists.
+	 */
+	SharedNode(NodePool pool, Node prototype, SharedNode[] children, long id) {
+		this.pool = pool;
+		this.prototype = prototype;
+		this.children = children;
+		this.id = id;
+
+		int length = 1;
+		int depth = 0;
+		long hash = Hashing.hash(prototype.getIdentifier());
+		Class<?>[] types = new Class<?>[children.length];
+
+		for (int i = 0; i < children.length; i++) {
+			length += children[i].length;
+			depth = Math.max(depth, children[i].depth + 1);
+			hash = Hashing.combine(hash, children[i].hash);
+			types[i] = children[i].type;
+		}
+
+		this.length = length;
+		this.depth = depth;
+		this.hash = Hashing.combine(hash, children.length);
+		this.type = (children.length == 0) ? prototype.dataType() : prototype.dataType(types);
+	}
+
+	/**
+	 * Returns the pool that created this node.
+	 * 
+	 * @return the pool that created this node
+	 */
+	public NodePool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Returns the unique id of this node. Two shared nodes of the same pool
+	 * have the same id if and only if they represent structurally equal
+	 * subtrees.
+	 * 
+	 * @return the id of this node
+	 */
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * Returns a node of the node-type of this node, without children. The
+	 * returned node is shared and must not be modified.
+	 * 
+	 * @return the node-type of this node
+	 */
+	public Node getPrototype() {
+		return prototype;
+	}
+
+	/**
+	 * Returns the number of children of this node.
+	 * 
+	 * @return the arity of this node
+	 */
+	public int getArity() {
+		return children.length;
+	}
+
+	/**
+	 * Returns the child at the specified index.
+	 * 
+	 * @param index the index of the child, from <code>0</code> to
+	 *        <code>getArity()-1</code>
+	 * @return the child at the specified index
+	 */
+	public SharedNode getChild(int index) {
+		return children[index];
+	}
+
+	/**
+	 * Returns the number of nodes in the subtree rooted at this node, counting
+	 * shared subtrees once for each occurrence.
+	 * 
+	 * @return the length of the subtree
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Returns the depth of the subtree rooted at this node.
+	 * 
+	 * @return the depth of the subtree
+	 */
+	public int depth() {
+		return depth;
+	}
+
+	/**
+	 * Returns the data-type of the subtree rooted at this node, or
+	 * <code>null</code> if the input data-types of a node are invalid.
+	 * 
+	 * @return the data-type of the subtree
+	 */
+	public Class<?> dataType() {
+		return type;
+	}
+
+	/**
+	 * Returns the 64-bit structural hash of the subtree. The hash only depends
+	 * on the identifiers of the nodes and on the shape of the tree, so it is the
+	 * same in every pool and in every run.
+	 * 
+	 * @return the structural hash of the subtree
+	 */
+	public long structuralHash() {
+		return hash;
+	}
+
+	/**
+	 * Evaluates the subtree rooted at this node. The node-type is evaluated
+	 * with children that evaluate the shared children, so no node tree is
+	 * built for the evaluation.
+	 * 
+	 * @return the result of evaluating the subtree
+	 */
+	public Object evaluate() {
+		Node node = executable;
+
+		if (node == null) {
+			if (children.length == 0) {
+				node = prototype;
+			} else {
+				node = copyType(prototype);
+
+				for (int i = 0; i < children.length; i++) {
+					node.setChild(i, new Reference(children[i]));
+				}
+			}
+
+			executable = node;
+		}
+
+		return node.evaluate();
+	}
+
+	/**
+	 * Returns the node at the specified pre-order index of the subtree, where
+	 * this node is at index <code>0</code>.
+	 * 
+	 * @param index the index of the node
+	 * @return the node at the specified index
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public SharedNode getNode(int index) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("attempt to get node at index " + index);
+		}
+
+		SharedNode current = this;
+
+		while (index > 0) {
+			index--;
+
+			for (SharedNode child: current.children) {
+				if (index < child.length) {
+					current = child;
+					break;
+				}
+				index -= child.length;
+			}
+		}
+
+		return current;
+	}
+
+	/**
+	 * Returns the depth of the node at the specified pre-order index of the
+	 * subtree, where this node is at depth <code>0</code>.
+	 * 
+	 * @param index the index of the node
+	 * @return the depth of the node at the specified index
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public int depthOf(int index) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("attempt to get node at index " + index);
+		}
+
+		SharedNode current = this;
+		int depth = 0;
+
+		while (index > 0) {
+			index--;
+			depth++;
+
+			for (SharedNode child: current.children) {
+				if (index < child.length) {
+					current = child;
+					break;
+				}
+				index -= child.length;
+			}
+		}
+
+		return depth;
+	}
+
+	/**
+	 * Returns the nodes of the subtree in pre-order. A shared subtree appears
+	 * once for each occurrence, so the array has {@link #length()} elements.
+	 * 
+	 * @return the nodes of the subtree in pre-order
+	 */
+	public SharedNode[] nodes() {
+		SharedNode[] nodes = new SharedNode[length];
+		fill(nodes, 0);
+
+		return nodes;
+	}
+
+	/*
+	 * Stores the nodes of this subtree in pre-order, starting at the specified
+	 * position; returns the position after the last node.
+	 */
+	private int fill(SharedNode[] nodes, int position) {
+		nodes[position++] = this;
+
+		for (SharedNode child: children) {
+			position = child.fill(nodes, position);
+		}
+
+		return position;
+	}
+
+	/**
+	 * Returns the subtree that results from replacing the node at the
+	 * specified pre-order index with another subtree. Only the nodes on the
+	 * path from this node to the replaced one are created (or looked up in the
+	 * pool); this subtree is not modified.
+	 * 
+	 * @param index the index of the node to be replaced
+	 * @param subtree the new subtree, created by the same pool
+	 * @return the root of the new subtree
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public SharedNode replace(int index, SharedNode subtree) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("attempt to set node at index " + index);
+		}
+
+		if (index == 0) {
+			return subtree;
+		}
+
+		index--;
+
+		for (int i = 0; i < children.length; i++) {
+			if (index < children[i].length) {
+				SharedNode[] replaced = children.clone();
+				replaced[i] = children[i].replace(index, subtree);
+
+				return pool.intern(prototype, replaced);
+			}
+			index -= children[i].length;
+		}
+
+		// not reached, since index < length
+		throw new IndexOutOfBoundsException("attempt to set node at index " + index);
+	}
+
+	/**
+	 * Returns a node tree equivalent to this subtree. Each call returns a new
+	 * tree that can be freely modified.
+	 * 
+	 * @return a node tree equivalent to this subtree
+	 */
+	public Node toNode() {
+		Node node = copyType(prototype);
+
+		for (int i = 0; i < children.length; i++) {
+			node.setChild(i, children[i].toNode());
+		}
+
+		return node;
+	}
+
+	/*
+	 * Returns a copy of the node without its children. Terminals are cloned
+	 * rather than created with newInstance(), which gives ephemeral random
+	 * constants a new value.
+	 */
+	static Node copyType(Node node) {
+		return (node.getArity() == 0) ? node.clone() : node.newInstance();
+	}
+
+	/**
+	 * Returns the structural hash of this subtree truncated to an
+	 * <code>int</code>.
+	 * 
+	 * @return a hash code value for this node
+	 */
+	@Override
+	public int hashCode() {
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	/**
+	 * Returns a string representation of this subtree, in the same format as
+	 * the equivalent node tree.
+	 * 
+	 * @return a string representation of this subtree
+	 */
+	@Override
+	public String toString() {
+		return toNode().toString();
+	}
+
+	/*
+	 * A terminal that evaluates a shared node, used as the child of the
+	 * executable nodes.
+	 */
+	private static final class Reference extends Node {
+
+		private final SharedNode target;
+
+		private Reference(SharedNode target) {
+			this.target = target;
+		}
+
+		@Override
+		public Object evaluate() {
+			return target.evaluate();
+		}
+
+		@Override
+		public String getIdentifier() {
+			return target.prototype.getIdentifier();
+		}
+
+		@Override
+		public Class<?> dataType(Class<?> ... inputTypes) {
+			return target.type;
+		}
+	}
+}
@@ -26,6 +26,8 @@ import static org.epochx.Config.Template.TEMPLATE;
 import org.epochx.Config;
 import org.epochx.Config.ConfigKey;
 import org.epochx.Individual;
+import org.epochx.epox.Node;
+import org.epochx.epox.Simplifier;
 import org.epochx.epox.Variable;
 import org.epochx.event.ConfigEvent;
 import org.epochx.event.EventManager;
@@ -66,6 +68,9 @@ public class HitsCount extends STGPFitnessFunction implements Listener<ConfigEve
 	private Object[] expectedOutputs;
 	private Variable[] inputVariables;
 	private Object[][] inputValueSets;
+	private SubtreeCache cache;
+	private Boolean deltaEvaluation;
+	private Simplifier simplifier;
 	private Double pointError;
 	
 	/**
@@ -85,6 +90,9 @@ public class HitsCount extends STGPFitnessFunction implements Listener<ConfigEve
 	 *        configuration settings from the config
 	 */
 	public HitsCount(boolean autoConfig) {
+		// Default config values
+		deltaEvaluation = false;
+
 		setup();
 
 		if (autoConfig) {
@@ -100,12 +108,18 @@ public class HitsCount extends STGPFitnessFunction implements Listener<ConfigEve
 	 * <li>{@link #INPUT_VARIABLES}
 	 * <li>{@link #INPUT_VALUE_SETS}
 	 * <li>{@link #EXPECTED_OUTPUTS}
+	 * <li>{@link #SUBTREE_CACHE}
+	 * <li>{@link #DELTA_EVALUATION} (default: <code>false</code>)
+	 * <li>{@link #SIMPLIFIER}
 	 * <li>{@link #POINT_ERROR}
 	 * </ul>
 	 */
 	protected void setup() {
 		inputVariables = Config.getInstance().get(INPUT_VARIABLES);
 		inputValueSets = Config.getInstance().get(INPUT_VALUE_SETS);
+		cache = Config.getInstance().get(SUBTREE_CACHE);
+		deltaEvaluation = Config.getInstance().get(DELTA_EVALUATION, deltaEvaluation);
+		simplifier = Config.getInstance().get(SIMPLIFIER);
 		expectedOutputs = Config.getInstance().get(EXPECTED_OUTPUTS);
 		pointError = Config.getInstance().get(POINT_ERROR, pointError);
 	}
@@ -119,7 +133,7 @@ public class HitsCount extends STGPFitnessFunction implements Listener<ConfigEve
 	 */
 	@Override
 	public void onEvent(ConfigEvent event) {
-		if (event.isKindOf(TEMPLATE, INPUT_VARIABLES, INPUT_VALUE_SETS, EXPECTED_OUTPUTS, POINT_ERROR)) {
+		if (event.isKindOf(TEMPLATE, INPUT_VARIABLES, INPUT_VALUE_SETS, EXPECTED_OUTPUTS, SUBTREE_CACHE, DELTA_EVALUATION, SIMPLIFIER, POINT_ERROR)) {
 			setup();
 		}
 	}
@@ -147,14 +161,35 @@ public class HitsCount extends STGPFitnessFunction implements Listener<ConfigEve
 		
 		double noWrong = 0.0;
 		
+		// The simplified program is only used for evaluation
+		Node root = null;
+		if (simplifier != null && !deltaEvaluation) {
+			root = simplifier.simplify(program.getRoot());
+		}
+		
+		Object[] outputs = null;
+		if (cache != null) {
+			outputs = cache.evaluate((root == null) ? program.getRoot() : root, inputVariables, inputValueSets);
+		} else if (deltaEvaluation) {
+			OutputTrace trace = OutputTrace.evaluate(program.getRoot(), program.getOutputTrace(), inputVariables, inputValueSets);
+			program.setOutputTrace(trace);
+			outputs = trace.getOutputs();
+		}
+		
 		for (int i = 0; i < inputValueSets.length; i++) {
-			// Update the variable values
-			for (int j=0; j < inputVariables.length; j++) {
-				inputVariables[j].setValue(inputValueSets[i][j]);
-			}
+			Object output;
 			
-			// Run the program
-			Object output = program.evaluate();
+			if (outputs != null) {
+				output = outputs[i];
+			} else {
+				// Update the variable values
+				for (int j=0; j < inputVariables.length; j++) {
+					inputVariables[j].setValue(inputValueSets[i][j]);
+				}
+				
+				// Run the program
+				output = (root == null) ? program.evaluate() : root.evaluate();
+			}
 			
 			if (!isHit(output, expectedOutputs[i])) {
 				noWrong++;
@@ -278,4 +313,76 @@ public class HitsCount extends STGPFitnessFunction implements Listener<ConfigEve
 	public void setExpectedOutputs(Object[] expectedOutputs) {
 		this.expectedOutputs = expectedOutputs;
 	}
+
+	/**
+	 * Returns the cache of subtree outputs used to evaluate the programs, or
+	 * <code>null</code> if programs are evaluated without a cache.
+	 * 
+	 * @return the cache of subtree outputs
+	 */
+	public SubtreeCache getSubtreeCache() {
+		return cache;
+	}
+
+	/**
+	 * Sets the cache of subtree outputs used to evaluate the programs. If
+	 * <code>null</code>, programs are evaluated without a cache.
+	 * 
+	 * If automatic configuration is enabled then any value set here will be
+	 * overwritten by the {@link #SUBTREE_CACHE} configuration setting on the
+	 * next config event.
+	 * 
+	 * @param cache the cache of subtree outputs
+	 */
+	public void setSubtreeCache(SubtreeCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Returns whether programs are evaluated incrementally.
+	 * 
+	 * @return <code>true</code> if programs are evaluated incrementally
+	 */
+	public boolean isDeltaEvaluation() {
+		return deltaEvaluation;
+	}
+
+	/**
+	 * Sets whether programs are evaluated incrementally, reusing the outputs of
+	 * the parts of the program trees that were not modified by the operators.
+	 * 
+	 * If automatic configuration is enabled then any value set here will be
+	 * overwritten by the {@link #DELTA_EVALUATION} configuration setting on the
+	 * next config event.
+	 * 
+	 * @param deltaEvaluation <code>true</code> if programs should be evaluated
+	 *        incrementally
+	 */
+	public void setDeltaEvaluation(boolean deltaEvaluation) {
+		this.deltaEvaluation = deltaEvaluation;
+	}
+
+	/**
+	 * Returns the simplifier applied to the programs before they are
+	 * evaluated, or <code>null</code> if programs are not simplified.
+	 * 
+	 * @return the simplifier in use
+	 */
+	public Simplifier getSimplifier() {
+		return simplifier;
+	}
+
+	/**
+	 * Sets the simplifier applied to the programs before they are evaluated.
+	 * If <code>null</code>, programs are evaluated as they are.
+	 * 
+	 * If automatic configuration is enabled then any value set here will be
+	 * overwritten by the {@link #SIMPLIFIER} configuration setting on the next
+	 * config event.
+	 * 
+	 * @param simplifier the simplifier to use
+	 */
+	public void setSimplifier(Simplifier simplifier) {
+		this.simplifier = simplifier;
+	}
 }
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.fitness;
+
+import org.epochx.epox.Literal;
+import org.epochx.epox.Node;
+import org.epochx.epox.Variable;
+import org.epochx.epox.VariableNode;
+
+/**
+ * The outputs of every node of a program tree over a set of fitness cases,
+ * used to evaluate offspring incrementally. When a subtree of an evaluated
+ * program is replaced, the nodes outside the path from the replaced subtree to
+ * the root produce the same outputs as in the parent; the operators record
+ * the replacement with the <code>replace</code> methods and the fitness
+ * function only computes the new subtree and its ancestors. When the new
+ * subtree comes from another evaluated program (as in crossover), its outputs
+ * are reused as well.
+ * 
+ * <p>
+ * A trace is attached to an individual with
+ * {@link org.epochx.stgp.STGPIndividual#setOutputTrace(OutputTrace)} by the
+ * fitness functions when the {@link STGPFitnessFunction#DELTA_EVALUATION}
+ * config key is set, and is discarded whenever the program tree is modified
+ * through the individual without recording the replacement. As for the
+ * {@link SubtreeCache}, incremental evaluation is only correct for programs
+ * without side-effects. Instances of this class are immutable.
+ * 
+ * @since 2.0
+ */
+public final class OutputTrace {
+
+	// the fitness cases the outputs were computed for
+	private final Variable[] variables;
+
+	private final Object[][] cases;
+
+	// the outputs of each input variable
+	private final Outputs[] columns;
+
+	// the outputs of each node in pre-order, null if unknown
+	private final Outputs[] outputs;
+
+	// the length of the subtree rooted at each node
+	private final int[] lengths;
+
+	private OutputTrace(Variable[] variables, Object[][] cases, Outputs[] columns, Outputs[] outputs, int[] lengths) {
+		this.variables = variables;
+		this.cases = cases;
+		this.columns = columns;
+		this.outputs = outputs;
+		this.lengths = lengths;
+	}
+
+	/**
+	 * Evaluates the program tree for each of the fitness cases, reusing the
+	 * known outputs of the previous trace of the program, and returns the
+	 * trace with the outputs of all nodes. The previous trace is ignored if it
+	 * was computed for different fitness cases or does not match the length of
+	 * the program tree.
+	 * 
+	 * @param root the root node of the program tree
+	 * @param previous the previous trace of the program, or <code>null</code>
+	 * @param variables the input variables
+	 * @param inputValueSets the values of the input variables for each fitness
+	 *        case
+	 * @return the trace of the program tree
+	 */
+	public static OutputTrace evaluate(Node root, OutputTrace previous, Variable[] variables, Object[][] inputValueSets) {
+		int length = root.length();
+		Outputs[] columns;
+
+		if (previous != null && previous.variables == variables && previous.cases == inputValueSets) {
+			columns = previous.columns;
+
+			if (previous.length() != length) {
+				previous = null;
+			}
+		} else {
+			previous = null;
+			columns = new Outputs[variables.length];
+
+			for (int j = 0; j < variables.length; j++) {
+				columns[j] = Outputs.column(j, inputValueSets);
+			}
+		}
+
+		OutputTrace trace = new OutputTrace(variables, inputValueSets, columns, new Outputs[length], new int[length]);
+		trace.evaluate(root, 0, previous);
+
+		return trace;
+	}
+
+	/*
+	 * Fills the outputs and lengths of the subtree at the specified position
+	 */
+	private Outputs evaluate(Node node, int index, OutputTrace previous) {
+		int length = node.length();
+
+		if (previous != null && previous.outputs[index] != null) {
+			System.arraycopy(previous.outputs, index, outputs, index, length);
+			System.arraycopy(previous.lengths, index, lengths, index, length);
+
+			return outputs[index];
+		}
+
+		Outputs result = null;
+		int arity = node.getArity();
+
+		if (node instanceof Literal) {
+			result = new Outputs(((Literal) node).getValue());
+		} else if (node instanceof VariableNode) {
+			Variable variable = ((VariableNode) node).getVariable();
+
+			for (int j = 0; j < variables.length; j++) {
+				if (variables[j] == variable) {
+					result = columns[j];
+				}
+			}
+		}
+
+		if (result == null) {
+			Outputs[] arguments = new Outputs[arity];
+			int child = index + 1;
+
+			for (int i = 0; i < arity; i++) {
+				Node subtree = node.getChild(i);
+				arguments[i] = evaluate(subtree, child, previous);
+				child += subtree.length();
+			}
+
+			result = Outputs.compute(node, arguments, variables, cases);
+		}
+
+		outputs[index] = result;
+		lengths[index] = length;
+
+		return result;
+	}
+
+	/**
+	 * Returns the outputs of the program for each fitness case.
+	 * 
+	 * @return an array with the output of the program for each fitness case
+	 * @throws IllegalStateException if the outputs of the program are unknown
+	 */
+	public Object[] getOutputs() {
+		if (outputs[0] == null) {
+			throw new IllegalStateException("the program has not been evaluated");
+		}
+
+		return outputs[0].toArray(cases.length);
+	}
+
+	/**
+	 * Returns the number of nodes of the program tree.
+	 * 
+	 * @return the length of the program tree
+	 */
+	public int length() {
+		return outputs.length;
+	}
+
+	/**
+	 * Returns the trace of the program tree that results from replacing the
+	 * subtree at the specified position with a new subtree. The outputs of the
+	 * new subtree and of its ancestors are unknown.
+	 * 
+	 * @param position the position of the replaced subtree
+	 * @param subtree the new subtree
+	 * @return the trace of the new program tree
+	 */
+	public OutputTrace replace(int position, Node subtree) {
+		int[] subtreeLengths = new int[subtree.length()];
+		lengths(subtree, 0, subtreeLengths);
+
+		return splice(position, new Outputs[subtreeLengths.length], subtreeLengths, 0, subtreeLengths.length);
+	}
+
+	/*
+	 * Fills the lengths of the subtrees of the node in pre-order
+	 */
+	private int lengths(Node node, int index, int[] subtreeLengths) {
+		int child = index + 1;
+
+		for (int i = 0; i < node.getArity(); i++) {
+			child = lengths(node.getChild(i), child, subtreeLengths);
+		}
+
+		subtreeLengths[index] = child - index;
+
+		return child;
+	}
+
+	/**
+	 * Returns the trace of the program tree that results from replacing the
+	 * subtree at the specified position with the subtree at the specified
+	 * position of the program of the donor trace. The outputs of the new
+	 * subtree are taken from the donor if it was computed for the same fitness
+	 * cases; the outputs of its ancestors are unknown.
+	 * 
+	 * @param position the position of the replaced subtree
+	 * @param donor the trace of the program that contains the new subtree
+	 * @param donorPosition the position of the new subtree in the donor
+	 * @return the trace of the new program tree
+	 */
+	public OutputTrace replace(int position, OutputTrace donor, int donorPosition) {
+		Outputs[] donorOutputs = donor.outputs;
+
+		if (donor.variables != variables || donor.cases != cases) {
+			donorOutputs = new Outputs[donorOutputs.length];
+		}
+
+		return splice(position, donorOutputs, donor.lengths, donorPosition, donor.lengths[donorPosition]);
+	}
+
+	/*
+	 * Replaces the subtree at the specified position with a segment of outputs
+	 * and lengths
+	 */
+	private OutputTrace splice(int position, Outputs[] segmentOutputs, int[] segmentLengths, int from, int length) {
+		int oldLength = lengths[position];
+		int delta = length - oldLength;
+		int tail = outputs.length - position - oldLength;
+
+		Outputs[] newOutputs = new Outputs[outputs.length + delta];
+		int[] newLengths = new int[newOutputs.length];
+
+		System.arraycopy(outputs, 0, newOutputs, 0, position);
+		System.arraycopy(lengths, 0, newLengths, 0, position);
+		System.arraycopy(segmentOutputs, from, newOutputs, position, length);
+		System.arraycopy(segmentLengths, from, newLengths, position, length);
+		System.arraycopy(outputs, position + oldLength, newOutputs, position + length, tail);
+		System.arraycopy(lengths, position + oldLength, newLengths, position + length, tail);
+
+		// the ancestors of the new subtree
+		for (int i = 0; i < position; i++) {
+			if (i + lengths[i] > position) {
+				newOutputs[i] = null;
+				newLengths[i] += delta;
+			}
+		}
+
+		return new OutputTrace(variables, cases, columns, newOutputs, newLengths);
+	}
+}
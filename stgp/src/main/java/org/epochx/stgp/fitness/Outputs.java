@@ -0,0 +1,218 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.fitness;
+
+import org.epochx.epox.Node;
+import org.epochx.epox.Variable;
+
+/**
+ * The outputs of a subtree over a set of fitness cases. Outputs of
+ * <code>Double</code> and <code>Boolean</code> subtrees are stored in
+ * primitive arrays. Instances are immutable and may be shared between
+ * programs.
+ * 
+ * @see SubtreeCache
+ * @see OutputTrace
+ * 
+ * @since 2.0
+ */
+final class Outputs {
+
+	private double[] doubles;
+
+	private boolean[] booleans;
+
+	private Object[] objects;
+
+	// the value for all fitness cases, when there are no arrays
+	private Object constant;
+
+	/*
+	 * Constructs outputs with the same value for all fitness cases
+	 */
+	Outputs(Object constant) {
+		this.constant = constant;
+	}
+
+	/*
+	 * Returns the outputs with the specified values, stored in a primitive
+	 * array when possible
+	 */
+	static Outputs of(Object[] values) {
+		Outputs outputs = new Outputs(null);
+		boolean allDoubles = true;
+		boolean allBooleans = true;
+
+		for (Object value: values) {
+			allDoubles &= (value instanceof Double);
+			allBooleans &= (value instanceof Boolean);
+		}
+
+		if (allDoubles) {
+			outputs.doubles = new double[values.length];
+
+			for (int i = 0; i < values.length; i++) {
+				outputs.doubles[i] = (Double) values[i];
+			}
+		} else if (allBooleans) {
+			outputs.booleans = new boolean[values.length];
+
+			for (int i = 0; i < values.length; i++) {
+				outputs.booleans[i] = (Boolean) values[i];
+			}
+		} else {
+			outputs.objects = values;
+		}
+
+		return outputs;
+	}
+
+	/*
+	 * Returns the outputs of the input variable at the specified index
+	 */
+	static Outputs column(int variable, Object[][] cases) {
+		Object[] values = new Object[cases.length];
+
+		for (int i = 0; i < values.length; i++) {
+			values[i] = cases[i][variable];
+		}
+
+		return of(values);
+	}
+
+	/*
+	 * Computes the outputs of the node, given the outputs of its children. A
+	 * terminal is evaluated after setting the input variables of each fitness
+	 * case.
+	 */
+	static Outputs compute(Node node, Outputs[] arguments, Variable[] variables, Object[][] cases) {
+		int arity = node.getArity();
+		Object[] values = new Object[cases.length];
+
+		if (arity == 0) {
+			for (int i = 0; i < cases.length; i++) {
+				for (int j = 0; j < variables.length; j++) {
+					variables[j].setValue(cases[i][j]);
+				}
+
+				values[i] = node.evaluate();
+			}
+		} else {
+			// the arguments of the node return the given outputs
+			Node instance = node.newInstance();
+			Argument[] proxies = new Argument[arity];
+
+			for (int i = 0; i < arity; i++) {
+				proxies[i] = new Argument(arguments[i], node.getChild(i).dataType());
+				instance.setChild(i, proxies[i]);
+			}
+
+			for (int i = 0; i < cases.length; i++) {
+				for (Argument proxy: proxies) {
+					proxy.index = i;
+				}
+
+				values[i] = instance.evaluate();
+			}
+		}
+
+		return of(values);
+	}
+
+	/*
+	 * Returns the output for the fitness case at the specified index
+	 */
+	Object get(int index) {
+		if (doubles != null) {
+			return doubles[index];
+		} else if (booleans != null) {
+			return booleans[index];
+		} else if (objects != null) {
+			return objects[index];
+		} else {
+			return constant;
+		}
+	}
+
+	/*
+	 * Returns the outputs for all fitness cases
+	 */
+	Object[] toArray(int size) {
+		Object[] values = new Object[size];
+
+		for (int i = 0; i < size; i++) {
+			values[i] = get(i);
+		}
+
+		return values;
+	}
+
+	/*
+	 * Returns the approximate number of bytes used by the outputs
+	 */
+	long bytes() {
+		if (doubles != null) {
+			return 8L * doubles.length;
+		} else if (booleans != null) {
+			return booleans.length;
+		} else if (objects != null) {
+			// reference and (possibly shared) boxed value
+			return 24L * objects.length;
+		} else {
+			return 0;
+		}
+	}
+
+	/*
+	 * An argument of a node, which returns the output of a subtree for the
+	 * current fitness case
+	 */
+	private static final class Argument extends Node {
+
+		private final Outputs outputs;
+
+		private final Class<?> type;
+
+		private int index;
+
+		private Argument(Outputs outputs, Class<?> type) {
+			this.outputs = outputs;
+			this.type = type;
+		}
+
+		@Override
+		public Object evaluate() {
+			return outputs.get(index);
+		}
+
+		@Override
+		public String getIdentifier() {
+			return "ARG";
+		}
+
+		@Override
+		public Class<?> dataType(Class<?> ... inputTypes) {
+			return type;
+		}
+	}
+}
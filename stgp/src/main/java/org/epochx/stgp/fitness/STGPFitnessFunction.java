@@ -23,6 +23,7 @@ package org.epochx.stgp.fitness;
 
 import org.epochx.AbstractFitnessFunction;
 import org.epochx.Config.ConfigKey;
+import org.epochx.epox.Simplifier;
 import org.epochx.epox.Variable;
 
 /**
@@ -42,4 +43,26 @@ public abstract class STGPFitnessFunction extends AbstractFitnessFunction {
 	 */
 	public static final ConfigKey<Object[][]> INPUT_VALUE_SETS = new ConfigKey<Object[][]>();
 
+	/**
+	 * The key for setting the cache of subtree outputs used to evaluate the
+	 * programs. Programs are evaluated without a cache if this is not set.
+	 */
+	public static final ConfigKey<SubtreeCache> SUBTREE_CACHE = new ConfigKey<SubtreeCache>();
+
+	/**
+	 * The key for enabling the incremental evaluation of programs. When
+	 * enabled, the outputs of all nodes are recorded in an {@link OutputTrace}
+	 * and only the subtrees replaced by the operators (and their ancestors)
+	 * are evaluated in the offspring. The default is <code>false</code>.
+	 */
+	public static final ConfigKey<Boolean> DELTA_EVALUATION = new ConfigKey<Boolean>();
+
+	/**
+	 * The key for setting the simplifier applied to the programs before they
+	 * are evaluated. The simplified program is only used for evaluation; the
+	 * individual is not modified. Programs are not simplified if this is not
+	 * set, or if incremental evaluation is enabled.
+	 */
+	public static final ConfigKey<Simplifier> SIMPLIFIER = new ConfigKey<Simplifier>();
+
 }
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.fitness;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.epochx.epox.Literal;
+import org.epochx.epox.Node;
+import org.epochx.epox.Variable;
+import org.epochx.epox.VariableNode;
+
+/**
+ * An evaluation cache that stores the outputs of subtrees over all the fitness
+ * cases. Programs are evaluated bottom-up one node at a time, over the whole
+ * set of fitness cases: the outputs of each subtree are looked up by its
+ * structural hash code, which the nodes cache, and only the subtrees that are
+ * not in the cache are computed. In a converging population most programs share large subtrees,
+ * which are therefore evaluated once for the whole population.
+ * 
+ * <p>
+ * Outputs of <code>Double</code> and <code>Boolean</code> subtrees are stored
+ * in primitive arrays. The cache is bounded by an approximate memory budget;
+ * when it is exceeded, the least recently used subtrees are evicted. The
+ * number of hits and misses and the memory used are available through the
+ * {@link org.epochx.stgp.stat.GenerationSubtreeCacheHitRate} and
+ * {@link org.epochx.stgp.stat.GenerationSubtreeCacheMemory} stats.
+ * 
+ * <p>
+ * The cache is only correct for programs without side-effects, whose output
+ * only depends on the values of the input variables, as in symbolic
+ * regression and boolean problems. All the arguments of a node are evaluated
+ * for every fitness case, even if the node would not evaluate them all (as the
+ * <code>If</code> node does). The cache is cleared whenever it is used with a
+ * different set of fitness cases. This class is not thread-safe.
+ * 
+ * @see STGPFitnessFunction#SUBTREE_CACHE
+ * 
+ * @since 2.0
+ */
+public class SubtreeCache {
+
+	/**
+	 * The default maximum memory used by the cache, in bytes (64 MB).
+	 */
+	public static final long DEFAULT_MAXIMUM_MEMORY = 64L * 1024 * 1024;
+
+	// approximate memory overhead of an entry (map entry, key and arrays)
+	private static final long ENTRY_OVERHEAD = 96;
+
+	private final long maximumMemory;
+
+	// access ordered, so that the eldest entry is the least recently used
+	private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<Integer, Entry>(1024, 0.75f, true);
+
+	private long memory;
+
+	private long hits;
+
+	private long misses;
+
+	// the fitness cases the cache is valid for
+	private Variable[] variables;
+
+	private Object[][] cases;
+
+	private Map<Variable, Outputs> columns = new IdentityHashMap<Variable, Outputs>();
+
+	/**
+	 * Constructs a <code>SubtreeCache</code> with the default maximum memory.
+	 */
+	public SubtreeCache() {
+		this(DEFAULT_MAXIMUM_MEMORY);
+	}
+
+	/**
+	 * Constructs a <code>SubtreeCache</code> with the specified maximum memory.
+	 * 
+	 * @param maximumMemory the approximate maximum number of bytes used to
+	 *        store subtree outputs
+	 */
+	public SubtreeCache(long maximumMemory) {
+		if (maximumMemory <= 0) {
+			throw new IllegalArgumentException("maximum memory must be positive");
+		}
+
+		this.maximumMemory = maximumMemory;
+	}
+
+	/**
+	 * Evaluates the program tree for each of the fitness cases and returns
+	 * the outputs. Each fitness case is a set of values for the input
+	 * variables.
+	 * 
+	 * @param root the root node of the program tree
+	 * @param variables the input variables
+	 * @param inputValueSets the values of the input variables for each fitness
+	 *        case
+	 * @return an array with the output of the program for each fitness case
+	 */
+	public Object[] evaluate(Node root, Variable[] variables, Object[][] inputValueSets) {
+		bind(variables, inputValueSets);
+
+		return outputs(root).toArray(inputValueSets.length);
+	}
+
+	/*
+	 * Clears the cache if the fitness cases are not the ones in use
+	 */
+	private void bind(Variable[] variables, Object[][] inputValueSets) {
+		if (this.variables != variables || cases != inputValueSets) {
+			clear();
+
+			this.variables = variables;
+			cases = inputValueSets;
+			columns = new IdentityHashMap<Variable, Outputs>();
+
+			for (int j = 0; j < variables.length; j++) {
+				columns.put(variables[j], Outputs.column(j, inputValueSets));
+			}
+		}
+	}
+
+	/*
+	 * Returns the outputs of the subtree
+	 */
+	private Outputs outputs(Node node) {
+		if (node instanceof Literal) {
+			return new Outputs(((Literal) node).getValue());
+		} else if (node instanceof VariableNode) {
+			Outputs column = columns.get(((VariableNode) node).getVariable());
+
+			if (column != null) {
+				return column;
+			}
+		}
+
+		Integer key = node.hashCode();
+		Entry entry = entries.get(key);
+
+		if (entry != null && entry.length == node.length() && entry.depth == node.depth()) {
+			hits++;
+			return entry.outputs;
+		}
+
+		misses++;
+
+		Outputs outputs = compute(node);
+		entry = new Entry(node.length(), node.depth(), outputs);
+
+		Entry previous = entries.put(key, entry);
+		if (previous != null) {
+			memory -= previous.bytes();
+		}
+		memory += entry.bytes();
+
+		evict();
+
+		return outputs;
+	}
+
+	/*
+	 * Computes the outputs of the node from the outputs of its children
+	 */
+	private Outputs compute(Node node) {
+		int arity = node.getArity();
+		Outputs[] arguments = new Outputs[arity];
+
+		for (int i = 0; i < arity; i++) {
+			arguments[i] = outputs(node.getChild(i));
+		}
+
+		return Outputs.compute(node, arguments, variables, cases);
+	}
+
+	/*
+	 * Removes the least recently used entries until the memory is within the
+	 * budget
+	 */
+	private void evict() {
+		Iterator<Entry> iterator = entries.values().iterator();
+
+		while (memory > maximumMemory && iterator.hasNext()) {
+			memory -= iterator.next().bytes();
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Removes all subtrees from the cache. The number of hits and misses is
+	 * not reset.
+	 */
+	public void clear() {
+		entries.clear();
+		memory = 0;
+	}
+
+	/**
+	 * Returns the number of subtrees whose outputs were found in the cache.
+	 * 
+	 * @return the number of cache hits
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of subtrees whose outputs were not found in the cache
+	 * and had to be computed.
+	 * 
+	 * @return the number of cache misses
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Returns the number of subtrees in the cache.
+	 * 
+	 * @return the number of subtrees in the cache
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the approximate number of bytes used to store subtree outputs.
+	 * 
+	 * @return the approximate memory used by the cache
+	 */
+	public long getMemory() {
+		return memory;
+	}
+
+	/**
+	 * Returns the approximate maximum number of bytes used to store subtree
+	 * outputs.
+	 * 
+	 * @return the maximum memory of the cache
+	 */
+	public long getMaximumMemory() {
+		return maximumMemory;
+	}
+
+	/*
+	 * A cached subtree
+	 */
+	private static final class Entry {
+
+		// used to detect most hash collisions
+		private final int length;
+
+		private final int depth;
+
+		private final Outputs outputs;
+
+		private Entry(int length, int depth, Outputs outputs) {
+			this.length = length;
+			this.depth = depth;
+			this.outputs = outputs;
+		}
+
+		private long bytes() {
+			return ENTRY_OVERHEAD + outputs.bytes();
+		}
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.init;
+
+import static org.epochx.Population.SIZE;
+
+import org.epochx.*;
+import org.epochx.Config.Template;
+import org.epochx.epox.Node;
+import org.epochx.event.*;
+import org.epochx.stgp.STGPIndividual;
+
+/**
+ * Base class for initialisation methods which take the program trees created
+ * by another <code>STGPInitialisation</code> method (such as <code>Grow</code>
+ * or <code>RampedHalfAndHalf</code>) and convert them to a different program
+ * representation. Subclasses implement <code>createIndividual</code> using the
+ * trees returned by {@link #createProgram()}.
+ * 
+ * <p>
+ * See the {@link #setup()} method documentation for a list of configuration
+ * parameters used to control this operator.
+ * 
+ * @since 2.0
+ */
+public abstract class DelegatingInitialisation implements STGPInitialisation, Listener<ConfigEvent> {
+
+	// The method used to create the program trees
+	private final STGPInitialisation delegate;
+
+	// Configuration settings
+	private Integer populationSize;
+	private Boolean allowDuplicates;
+
+	/**
+	 * Constructs a <code>DelegatingInitialisation</code> with control
+	 * parameters initially loaded from the config. If the
+	 * <code>autoConfig</code> argument is set to <code>true</code> then the
+	 * configuration will be automatically updated when the config is modified.
+	 * 
+	 * @param delegate the initialisation method used to create the program
+	 *        trees
+	 * @param autoConfig whether this operator should automatically update its
+	 *        configuration settings from the config
+	 */
+	protected DelegatingInitialisation(STGPInitialisation delegate, boolean autoConfig) {
+		this.delegate = delegate;
+
+		// Default config values
+		allowDuplicates = true;
+
+		setup();
+
+		if (autoConfig) {
+			EventManager.getInstance().add(ConfigEvent.class, this);
+		}
+	}
+
+	/**
+	 * Sets up this operator with the appropriate configuration settings.
+	 * This method is called whenever a <code>ConfigEvent</code> occurs for a
+	 * change in any of the following configuration parameters:
+	 * <ul>
+	 * <li>{@link Population#SIZE}
+	 * <li>{@link InitialisationMethod#ALLOW_DUPLICATES} (default: <code>true</code>)
+	 * </ul>
+	 */
+	protected void setup() {
+		populationSize = Config.getInstance().get(SIZE);
+		allowDuplicates = Config.getInstance().get(ALLOW_DUPLICATES, allowDuplicates);
+	}
+
+	/**
+	 * Receives configuration events and triggers this operator to configure its
+	 * parameters if the <code>ConfigEvent</code> is for one of its required
+	 * parameters.
+	 * 
+	 * @param event {@inheritDoc}
+	 */
+	@Override
+	public void onEvent(ConfigEvent event) {
+		if (event.isKindOf(Template.TEMPLATE, SIZE, ALLOW_DUPLICATES)) {
+			setup();
+		}
+	}
+
+	/**
+	 * Creates a population of new individuals. Each individual is created by a
+	 * call to the <code>createIndividual</code> method. The size of the
+	 * population will be equal to the {@link Population#SIZE} config
+	 * parameter. If the {@link InitialisationMethod#ALLOW_DUPLICATES} config
+	 * parameter is set to <code>false</code> then the individuals in the
+	 * population will be unique according to their <code>equals</code> methods.
+	 * 
+	 * @return a population of new individuals
+	 */
+	@Override
+	public Population createPopulation() {
+		EventManager.getInstance().fire(new InitialisationEvent.StartInitialisation());
+
+		Population population = new Population();
+
+		for (int i = 0; i < populationSize; i++) {
+			Individual individual;
+
+			do {
+				individual = createIndividual();
+			} while (!allowDuplicates && population.contains(individual));
+
+			population.add(individual);
+		}
+
+		EventManager.getInstance().fire(new InitialisationEvent.EndInitialisation(population));
+
+		return population;
+	}
+
+	/**
+	 * Returns the root of a new program tree created by the underlying
+	 * initialisation method.
+	 * 
+	 * @return the root node of a new program tree
+	 */
+	protected Node createProgram() {
+		STGPIndividual individual = (STGPIndividual) delegate.createIndividual();
+		return individual.getRoot();
+	}
+
+	/**
+	 * Returns the initialisation method used to create the program trees.
+	 * 
+	 * @return the underlying initialisation method
+	 */
+	public STGPInitialisation getDelegate() {
+		return delegate;
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.linear;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.epochx.epox.Literal;
+import org.epochx.epox.Node;
+
+/**
+ * An <code>InstructionSet</code> assigns an integer opcode to each function and
+ * terminal of a syntax, so that program trees built from the syntax can be
+ * represented as {@link LinearProgram}s. Literal values (including ephemeral
+ * random constants) do not have an opcode; they are stored in the constant
+ * pool of each program.
+ * 
+ * <p>
+ * Nodes are matched to opcodes by their identifier and arity, which are
+ * expected to be unique within a syntax. The node instances of the syntax are
+ * used as prototypes when programs are decoded or evaluated.
+ * </p>
+ * 
+ * @since 2.0
+ */
+public class InstructionSet {
+
+	/**
+	 * The prototype of each opcode.
+	 */
+	private final Node[] prototypes;
+
+	/**
+	 * The arity of each opcode.
+	 */
+	private final int[] arities;
+
+	/**
+	 * The mapping of node key (identifier and arity) to opcode.
+	 */
+	private final Map<String, Integer> opcodes;
+
+	/**
+	 * The evaluator used by each thread.
+	 */
+	private final ThreadLocal<LinearEvaluator> evaluators = new ThreadLocal<LinearEvaluator>() {
+
+		@Override
+		protected LinearEvaluator initialValue() {
+			return new LinearEvaluator(InstructionSet.this);
+		}
+	};
+
+	/**
+	 * Constructs an <code>InstructionSet</code> for the specified syntax.
+	 * 
+	 * @param syntax the functions and terminals that programs may contain.
+	 */
+	public InstructionSet(Node ... syntax) {
+		List<Node> instructions = new ArrayList<Node>(syntax.length);
+		opcodes = new HashMap<String, Integer>(syntax.length * 2);
+
+		for (Node node: syntax) {
+			if (!(node instanceof Literal)) {
+				String key = key(node);
+
+				if (!opcodes.containsKey(key)) {
+					opcodes.put(key, instructions.size());
+					instructions.add(node);
+				}
+			}
+		}
+
+		prototypes = instructions.toArray(new Node[instructions.size()]);
+		arities = new int[prototypes.length];
+
+		for (int i = 0; i < prototypes.length; i++) {
+			arities[i] = prototypes[i].getArity();
+		}
+	}
+
+	/**
+	 * Returns the opcode of the specified node.
+	 * 
+	 * @param node the node, which must not be a literal.
+	 * @return the opcode of the node.
+	 * @throws IllegalArgumentException if the node is not part of the syntax.
+	 */
+	public int opcode(Node node) {
+		Integer opcode = opcodes.get(key(node));
+
+		if (opcode == null) {
+			throw new IllegalArgumentException("Node not in the instruction set: " + node.getIdentifier());
+		}
+
+		return opcode;
+	}
+
+	/**
+	 * Returns the arity of the specified opcode.
+	 * 
+	 * @param opcode the opcode.
+	 * @return the arity of the opcode.
+	 */
+	public int arity(int opcode) {
+		return arities[opcode];
+	}
+
+	/**
+	 * Returns the prototype node of the specified opcode. The returned node
+	 * must not be modified.
+	 * 
+	 * @param opcode the opcode.
+	 * @return the prototype node of the opcode.
+	 */
+	public Node prototype(int opcode) {
+		return prototypes[opcode];
+	}
+
+	/**
+	 * Returns the number of opcodes.
+	 * 
+	 * @return the number of opcodes.
+	 */
+	public int size() {
+		return prototypes.length;
+	}
+
+	/**
+	 * Returns the evaluator of the current thread.
+	 * 
+	 * @return the evaluator of the current thread.
+	 */
+	public LinearEvaluator getEvaluator() {
+		return evaluators.get();
+	}
+
+	/*
+	 * Returns the key of the node in the opcode mapping.
+	 */
+	private static String key(Node node) {
+		return node.getIdentifier() + '/' + node.getArity();
+	}
+}
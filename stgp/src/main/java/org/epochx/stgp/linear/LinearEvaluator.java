@@ -0,0 +1,178 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.linear;
+
+import org.epochx.epox.Node;
+
+/**
+ * Evaluates {@link LinearProgram}s directly from their opcode array, without
+ * decoding them into node trees.
+ * 
+ * <p>
+ * The semantics of each function are those of its prototype node in the
+ * {@link InstructionSet}, so no function needs to be reimplemented. For each
+ * opcode and depth the evaluator keeps one instance of the prototype whose
+ * children are lightweight argument references to positions of the program;
+ * evaluating a node binds the argument references of its instance to the
+ * positions of its subtrees and calls <code>evaluate()</code>. Arguments are
+ * evaluated when (and as many times as) the function requests them, so
+ * non-strict functions such as <code>If</code> or the sequence and ant
+ * functions behave exactly as in the tree representation. Since the instances
+ * are indexed by depth, a node never rebinds the arguments of one of its
+ * ancestors. Apart from the boxing performed by the functions themselves,
+ * evaluation does not allocate.
+ * </p>
+ * 
+ * <p>
+ * An evaluator is not thread-safe; {@link InstructionSet#getEvaluator()}
+ * provides one evaluator for each thread.
+ * </p>
+ * 
+ * @since 2.0
+ */
+public class LinearEvaluator {
+
+	/**
+	 * The instruction set of the programs evaluated.
+	 */
+	private final InstructionSet instructions;
+
+	/**
+	 * The bound instance of each opcode at each depth, created on demand.
+	 */
+	private Node[][] instances = new Node[0][];
+
+	/**
+	 * The program being evaluated.
+	 */
+	private LinearProgram program;
+
+	/**
+	 * Constructs a <code>LinearEvaluator</code>.
+	 * 
+	 * @param instructions the instruction set of the programs to be evaluated.
+	 */
+	public LinearEvaluator(InstructionSet instructions) {
+		this.instructions = instructions;
+	}
+
+	/**
+	 * Evaluates the specified program.
+	 * 
+	 * @param program the program to be evaluated.
+	 * @return the result of the evaluation.
+	 */
+	public Object evaluate(LinearProgram program) {
+		if (program.getInstructionSet() != instructions) {
+			throw new IllegalArgumentException("Program uses a different instruction set");
+		}
+
+		LinearProgram previous = this.program;
+		this.program = program;
+
+		try {
+			return evaluate(0, 0);
+		} finally {
+			this.program = previous;
+		}
+	}
+
+	/*
+	 * Evaluates the subtree at the specified position and depth.
+	 */
+	private Object evaluate(int position, int depth) {
+		int opcode = program.opcode(position);
+
+		if (opcode < 0) {
+			return program.constant(position).evaluate();
+		}
+
+		Node node = instance(opcode, depth);
+		int child = position + 1;
+
+		for (int i = 0; i < node.getArity(); i++) {
+			((Argument) node.getChild(i)).position = child;
+			child = program.end(child);
+		}
+
+		return node.evaluate();
+	}
+
+	/*
+	 * Returns the instance of the opcode for the depth, creating it if needed.
+	 */
+	private Node instance(int opcode, int depth) {
+		if (depth >= instances.length) {
+			Node[][] grown = new Node[Math.max(depth + 1, instances.length * 2)][];
+			System.arraycopy(instances, 0, grown, 0, instances.length);
+			instances = grown;
+		}
+
+		if (instances[depth] == null) {
+			instances[depth] = new Node[instructions.size()];
+		}
+
+		Node node = instances[depth][opcode];
+
+		if (node == null) {
+			node = instructions.prototype(opcode).newInstance();
+
+			for (int i = 0; i < node.getArity(); i++) {
+				node.setChild(i, new Argument(depth + 1));
+			}
+
+			instances[depth][opcode] = node;
+		}
+
+		return node;
+	}
+
+	/**
+	 * A child node that evaluates the subtree of the program at a position.
+	 */
+	private class Argument extends Node {
+
+		private final int depth;
+
+		private int position;
+
+		private Argument(int depth) {
+			this.depth = depth;
+		}
+
+		@Override
+		public Object evaluate() {
+			return LinearEvaluator.this.evaluate(position, depth);
+		}
+
+		@Override
+		public String getIdentifier() {
+			return "ARG" + position;
+		}
+
+		@Override
+		public Class<?> dataType(Class<?> ... inputTypes) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.linear;
+
+import org.epochx.epox.Node;
+import org.epochx.stgp.STGPIndividual;
+
+/**
+ * An <code>STGPIndividual</code> whose program is stored as a
+ * {@link LinearProgram} instead of a tree of <code>Node</code> objects. Cloning
+ * an individual does not copy the program, since linear programs are
+ * immutable; evaluation runs directly on the opcode array.
+ * 
+ * <p>
+ * This class can be used with all components that accept an
+ * <code>STGPIndividual</code>. The tree based methods are supported through
+ * conversion: {@link #getRoot()} and {@link #getNode(int)} return a decoded
+ * copy of the program (changes made to it are not reflected in the
+ * individual), and {@link #setRoot(Node)} and {@link #setNode(int, Node)}
+ * encode the new nodes. Operators designed for this representation, such as
+ * {@link LinearSubtreeCrossover} and {@link LinearSubtreeMutation}, avoid the
+ * conversions altogether.
+ * 
+ * @since 2.0
+ */
+public class LinearIndividual extends STGPIndividual {
+
+	private static final long serialVersionUID = 6312838155346384651L;
+
+	private InstructionSet instructions;
+
+	private LinearProgram program;
+
+	/**
+	 * Constructs a <code>LinearIndividual</code> with the specified program.
+	 * 
+	 * @param program the program of this individual.
+	 */
+	public LinearIndividual(LinearProgram program) {
+		this.program = program;
+		this.instructions = program.getInstructionSet();
+	}
+
+	/**
+	 * Constructs a <code>LinearIndividual</code> with the linear representation
+	 * of the specified node tree.
+	 * 
+	 * @param root the root of the program tree.
+	 * @param instructions the instruction set used to encode the tree.
+	 */
+	public LinearIndividual(Node root, InstructionSet instructions) {
+		this(LinearProgram.encode(root, instructions));
+	}
+
+	/**
+	 * Evaluates the program with the evaluator of the current thread.
+	 * 
+	 * @return the result of evaluating the program
+	 */
+	@Override
+	public Object evaluate() {
+		return program.evaluate();
+	}
+
+	/**
+	 * Returns the program of this individual.
+	 * 
+	 * @return the program of this individual
+	 */
+	public LinearProgram getProgram() {
+		return program;
+	}
+
+	/**
+	 * Sets the program of this individual.
+	 * 
+	 * @param program the new program
+	 */
+	public void setProgram(LinearProgram program) {
+		this.program = program;
+		this.instructions = program.getInstructionSet();
+
+		setOutputTrace(null);
+	}
+
+	/**
+	 * Returns a node tree decoded from the program. Changes made to the
+	 * returned tree are not reflected in this individual.
+	 * 
+	 * @return a copy of the program tree
+	 */
+	@Override
+	public Node getRoot() {
+		return program.decode();
+	}
+
+	/**
+	 * Replaces the program with the linear representation of the specified
+	 * node tree.
+	 * 
+	 * @param root the root of the new program tree
+	 */
+	@Override
+	public void setRoot(Node root) {
+		setProgram(LinearProgram.encode(root, instructions));
+	}
+
+	/**
+	 * Returns a node tree decoded from the subtree at the specified index.
+	 * Changes made to the returned tree are not reflected in this individual.
+	 * 
+	 * @param index the index of the subtree
+	 * @return a copy of the subtree at the specified index
+	 */
+	@Override
+	public Node getNode(int index) {
+		if (index < 0 || index >= program.length()) {
+			throw new IndexOutOfBoundsException("attempt to get node at index " + index);
+		}
+
+		return program.decode(index);
+	}
+
+	/**
+	 * Replaces the subtree at the specified index with the linear
+	 * representation of the specified node tree.
+	 * 
+	 * @param index the index of the subtree to be replaced
+	 * @param node the root of the new subtree
+	 * @return a node tree decoded from the replaced subtree
+	 */
+	@Override
+	public Node setNode(int index, Node node) {
+		Node old = getNode(index);
+		setProgram(program.replace(index, LinearProgram.encode(node, instructions), 0));
+
+		return old;
+	}
+
+	/**
+	 * Returns the depth of the program tree.
+	 * 
+	 * @return the depth of the program tree
+	 */
+	@Override
+	public int depth() {
+		return program.depth();
+	}
+
+	/**
+	 * Returns the number of nodes in the program.
+	 * 
+	 * @return the number of nodes in the program
+	 */
+	@Override
+	public int length() {
+		return program.length();
+	}
+
+	/**
+	 * Returns the data-type of the values returned by the program.
+	 * 
+	 * @return the object <code>Class</code> of the values returned
+	 */
+	@Override
+	public Class<?> dataType() {
+		return program.dataType(0);
+	}
+
+	/**
+	 * Creates a copy of this individual. The program is shared with the copy,
+	 * since it is immutable.
+	 * 
+	 * @return a copy of this individual
+	 */
+	@Override
+	public LinearIndividual clone() {
+		return (LinearIndividual) super.clone();
+	}
+
+	/**
+	 * Returns a string representation of the program tree.
+	 * 
+	 * @return a string representation of the program tree
+	 */
+	@Override
+	public String toString() {
+		return program.toString();
+	}
+
+	/**
+	 * Compares the given object to this instance for equality. Equivalence is
+	 * defined as them both being instances of <code>LinearIndividual</code> and
+	 * having equal programs.
+	 * 
+	 * @param obj an object to be compared for equivalence.
+	 * @return true if this individual is equivalent to the specified object and
+	 *         false otherwise.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return (obj instanceof LinearIndividual) && program.equals(((LinearIndividual) obj).program);
+	}
+
+	/**
+	 * Returns a hash code value for the object.
+	 * 
+	 * @return a hash code value for this object
+	 */
+	@Override
+	public int hashCode() {
+		return program.hashCode();
+	}
+}
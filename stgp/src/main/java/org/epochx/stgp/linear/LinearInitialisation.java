@@ -0,0 +1,129 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.linear;
+
+import static org.epochx.stgp.STGPIndividual.SYNTAX;
+
+import org.epochx.*;
+import org.epochx.Config.Template;
+import org.epochx.epox.Node;
+import org.epochx.event.ConfigEvent;
+import org.epochx.stgp.STGPIndividual;
+import org.epochx.stgp.init.*;
+
+/**
+ * Initialisation method which produces {@link LinearIndividual}s. The program
+ * trees are created by another <code>STGPInitialisation</code> method (such as
+ * <code>Grow</code> or <code>RampedHalfAndHalf</code>) and encoded with an
+ * {@link InstructionSet} built from the syntax.
+ * 
+ * <p>
+ * See the {@link #setup()} method documentation for a list of configuration
+ * parameters used to control this operator.
+ * 
+ * @since 2.0
+ */
+public class LinearInitialisation extends DelegatingInitialisation {
+
+	private InstructionSet instructions;
+
+	/**
+	 * Constructs a <code>LinearInitialisation</code> with control parameters
+	 * automatically loaded from the config
+	 * 
+	 * @param delegate the initialisation method used to create the program
+	 *        trees
+	 */
+	public LinearInitialisation(STGPInitialisation delegate) {
+		this(delegate, true);
+	}
+
+	/**
+	 * Constructs a <code>LinearInitialisation</code> with control parameters
+	 * initially loaded from the config. If the <code>autoConfig</code> argument
+	 * is set to <code>true</code> then the configuration will be automatically
+	 * updated when the config is modified.
+	 * 
+	 * @param delegate the initialisation method used to create the program
+	 *        trees
+	 * @param autoConfig whether this operator should automatically update its
+	 *        configuration settings from the config
+	 */
+	public LinearInitialisation(STGPInitialisation delegate, boolean autoConfig) {
+		super(delegate, autoConfig);
+	}
+
+	/**
+	 * Sets up this operator with the appropriate configuration settings.
+	 * This method is called whenever a <code>ConfigEvent</code> occurs for a
+	 * change in any of the following configuration parameters:
+	 * <ul>
+	 * <li>{@link Population#SIZE}
+	 * <li>{@link STGPIndividual#SYNTAX}
+	 * <li>{@link InitialisationMethod#ALLOW_DUPLICATES} (default: <code>true</code>)
+	 * </ul>
+	 */
+	@Override
+	protected void setup() {
+		super.setup();
+
+		Node[] syntax = Config.getInstance().get(SYNTAX);
+		instructions = (syntax == null) ? null : new InstructionSet(syntax);
+	}
+
+	/**
+	 * Receives configuration events and triggers this operator to configure its
+	 * parameters if the <code>ConfigEvent</code> is for one of its required
+	 * parameters.
+	 * 
+	 * @param event {@inheritDoc}
+	 */
+	@Override
+	public void onEvent(ConfigEvent event) {
+		if (event.isKindOf(Template.TEMPLATE, SYNTAX)) {
+			setup();
+		} else {
+			super.onEvent(event);
+		}
+	}
+
+	/**
+	 * Constructs a new <code>LinearIndividual</code> from a program tree created
+	 * by the underlying initialisation method.
+	 * 
+	 * @return a new individual with a linear program
+	 */
+	@Override
+	public LinearIndividual createIndividual() {
+		return new LinearIndividual(createProgram(), instructions);
+	}
+
+	/**
+	 * Returns the instruction set used to encode the program trees.
+	 * 
+	 * @return the instruction set
+	 */
+	public InstructionSet getInstructionSet() {
+		return instructions;
+	}
+}
@@ -0,0 +1,419 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.linear;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.epochx.epox.Literal;
+import org.epochx.epox.Node;
+
+/**
+ * A program tree represented as a flat array of opcodes in prefix order. Each
+ * element of the array corresponds to one node of the tree: a non-negative
+ * value is an opcode of the {@link InstructionSet}, while a negative value
+ * <code>v</code> refers to the literal at index <code>~v</code> of the
+ * constant pool. For each position, the (exclusive) end offset of the subtree
+ * rooted at that position is precomputed, so a subtree is located in constant
+ * time as the range <code>[i, end(i))</code>.
+ * 
+ * <p>
+ * Instances of this class are immutable: the operations that modify a
+ * program, such as {@link #replace(int, LinearProgram, int)}, return a new
+ * program built with array copies. The literals of the constant pool are
+ * shared between programs and must not be modified.
+ * </p>
+ * 
+ * @since 2.0
+ */
+public class LinearProgram {
+
+	/**
+	 * The instruction set that defines the opcodes.
+	 */
+	private final InstructionSet instructions;
+
+	/**
+	 * The opcodes (or constant references) in prefix order.
+	 */
+	private final int[] code;
+
+	/**
+	 * The end offset of the subtree rooted at each position.
+	 */
+	private final int[] end;
+
+	/**
+	 * The constant pool.
+	 */
+	private final Literal[] constants;
+
+	/**
+	 * Constructs a <code>LinearProgram</code>. The end offsets are computed from
+	 * the code.
+	 */
+	private LinearProgram(InstructionSet instructions, int[] code, Literal[] constants) {
+		this.instructions = instructions;
+		this.code = code;
+		this.constants = constants;
+
+		end = new int[code.length];
+
+		// in reverse prefix order the children of a node are already known
+		for (int i = code.length - 1; i >= 0; i--) {
+			int next = i + 1;
+
+			if (code[i] >= 0) {
+				for (int j = instructions.arity(code[i]); j > 0; j--) {
+					next = end[next];
+				}
+			}
+
+			end[i] = next;
+		}
+	}
+
+	/**
+	 * Returns the linear representation of the specified node tree.
+	 * 
+	 * @param root the root of the node tree.
+	 * @param instructions the instruction set that contains all functions and
+	 *        terminals of the tree.
+	 * @return the linear representation of the node tree.
+	 */
+	public static LinearProgram encode(Node root, InstructionSet instructions) {
+		int[] code = new int[root.length()];
+		List<Literal> constants = new ArrayList<Literal>();
+
+		encode(root, instructions, code, 0, constants);
+
+		return new LinearProgram(instructions, code, constants.toArray(new Literal[constants.size()]));
+	}
+
+	/*
+	 * Writes the node tree at the specified position and returns the position
+	 * after its last node.
+	 */
+	private static int encode(Node node, InstructionSet instructions, int[] code, int position, List<Literal> constants) {
+		if (node instanceof Literal) {
+			code[position] = ~constants.size();
+			constants.add((Literal) node);
+			return position + 1;
+		}
+
+		code[position++] = instructions.opcode(node);
+
+		for (int i = 0; i < node.getArity(); i++) {
+			position = encode(node.getChild(i), instructions, code, position, constants);
+		}
+
+		return position;
+	}
+
+	/**
+	 * Returns a node tree equivalent to this program.
+	 * 
+	 * @return a node tree equivalent to this program.
+	 */
+	public Node decode() {
+		return decode(0);
+	}
+
+	/**
+	 * Returns a node tree equivalent to the subtree at the specified position.
+	 * 
+	 * @param position the position of the subtree.
+	 * @return a node tree equivalent to the subtree.
+	 */
+	public Node decode(int position) {
+		if (code[position] < 0) {
+			return constants[~code[position]].clone();
+		}
+
+		Node node = instructions.prototype(code[position]).newInstance();
+		int child = position + 1;
+
+		for (int i = 0; i < node.getArity(); i++) {
+			node.setChild(i, decode(child));
+			child = end[child];
+		}
+
+		return node;
+	}
+
+	/**
+	 * Returns a new program in which the subtree at the specified position is
+	 * replaced by the subtree of the donor program at the donor position. This
+	 * program and the donor are not modified. Only the literals referenced by
+	 * the new program are kept in its constant pool.
+	 * 
+	 * @param position the position of the subtree to be replaced.
+	 * @param donor the program that provides the new subtree.
+	 * @param donorPosition the position of the new subtree in the donor.
+	 * @return the new program.
+	 */
+	public LinearProgram replace(int position, LinearProgram donor, int donorPosition) {
+		int removed = end[position] - position;
+		int inserted = donor.end[donorPosition] - donorPosition;
+		int[] spliced = new int[code.length - removed + inserted];
+
+		System.arraycopy(code, 0, spliced, 0, position);
+		System.arraycopy(donor.code, donorPosition, spliced, position, inserted);
+		System.arraycopy(code, end[position], spliced, position + inserted, code.length - end[position]);
+
+		// renumbers the constant references, dropping the unused literals
+		List<Literal> pool = new ArrayList<Literal>();
+
+		for (int i = 0; i < spliced.length; i++) {
+			if (spliced[i] < 0) {
+				boolean fromDonor = (i >= position) && (i < position + inserted);
+				Literal literal = (fromDonor ? donor.constants : constants)[~spliced[i]];
+
+				spliced[i] = ~pool.size();
+				pool.add(literal);
+			}
+		}
+
+		return new LinearProgram(instructions, spliced, pool.toArray(new Literal[pool.size()]));
+	}
+
+	/**
+	 * Returns the instruction set of this program.
+	 * 
+	 * @return the instruction set of this program.
+	 */
+	public InstructionSet getInstructionSet() {
+		return instructions;
+	}
+
+	/**
+	 * Returns the number of nodes of this program.
+	 * 
+	 * @return the number of nodes of this program.
+	 */
+	public int length() {
+		return code.length;
+	}
+
+	/**
+	 * Returns the opcode at the specified position, or a negative value if the
+	 * position holds a literal.
+	 * 
+	 * @param position the position.
+	 * @return the opcode at the specified position.
+	 */
+	public int opcode(int position) {
+		return code[position];
+	}
+
+	/**
+	 * Returns the literal at the specified position.
+	 * 
+	 * @param position the position, which must hold a literal.
+	 * @return the literal at the specified position.
+	 */
+	public Literal constant(int position) {
+		return constants[~code[position]];
+	}
+
+	/**
+	 * Returns the (exclusive) end offset of the subtree at the specified
+	 * position.
+	 * 
+	 * @param position the position of the subtree.
+	 * @return the end offset of the subtree.
+	 */
+	public int end(int position) {
+		return end[position];
+	}
+
+	/**
+	 * Returns the arity of the node at the specified position.
+	 * 
+	 * @param position the position of the node.
+	 * @return the arity of the node.
+	 */
+	public int arity(int position) {
+		return (code[position] < 0) ? 0 : instructions.arity(code[position]);
+	}
+
+	/**
+	 * Returns the depth of each node of this program, where the root has a
+	 * depth of <code>0</code>.
+	 * 
+	 * @return an array with the depth of each node.
+	 */
+	public int[] depths() {
+		int[] depths = new int[code.length];
+		// the end offsets of the ancestors of the current position
+		int[] ancestors = new int[code.length];
+		int open = 0;
+
+		for (int i = 0; i < code.length; i++) {
+			while ((open > 0) && (ancestors[open - 1] <= i)) {
+				open--;
+			}
+
+			depths[i] = open;
+
+			if (end[i] > i + 1) {
+				ancestors[open++] = end[i];
+			}
+		}
+
+		return depths;
+	}
+
+	/**
+	 * Returns the depth of the program tree.
+	 * 
+	 * @return the depth of the program tree.
+	 */
+	public int depth() {
+		int max = 0;
+
+		for (int depth: depths()) {
+			if (depth > max) {
+				max = depth;
+			}
+		}
+
+		return max;
+	}
+
+	/**
+	 * Returns the data-type of the subtree at the specified position.
+	 * 
+	 * @param position the position of the subtree.
+	 * @return the data-type of the subtree, or <code>null</code> if the subtree
+	 *         is not valid.
+	 */
+	public Class<?> dataType(int position) {
+		return dataTypes(position, end[position])[0];
+	}
+
+	/**
+	 * Returns the data-type of each subtree of this program.
+	 * 
+	 * @return an array with the data-type of the subtree at each position; an
+	 *         element is <code>null</code> if the subtree is not valid.
+	 */
+	public Class<?>[] dataTypes() {
+		return dataTypes(0, code.length);
+	}
+
+	/*
+	 * Returns the data-types of the subtrees in the range [from, to), which
+	 * must be a whole subtree; the element i refers to the position from + i.
+	 */
+	private Class<?>[] dataTypes(int from, int to) {
+		Class<?>[] types = new Class<?>[to - from];
+
+		// in reverse prefix order the types of the children are already known
+		for (int i = to - 1; i >= from; i--) {
+			if (code[i] < 0) {
+				types[i - from] = constants[~code[i]].dataType();
+			} else {
+				Class<?>[] inputs = new Class<?>[instructions.arity(code[i])];
+				boolean valid = true;
+				int child = i + 1;
+
+				for (int j = 0; j < inputs.length; j++) {
+					inputs[j] = types[child - from];
+					valid &= (inputs[j] != null);
+					child = end[child];
+				}
+
+				types[i - from] = valid ? instructions.prototype(code[i]).dataType(inputs) : null;
+			}
+		}
+
+		return types;
+	}
+
+	/**
+	 * Evaluates this program with the evaluator of the current thread.
+	 * 
+	 * @return the result of the evaluation.
+	 */
+	public Object evaluate() {
+		return instructions.getEvaluator().evaluate(this);
+	}
+
+	/**
+	 * Compares the given object to this instance for equality. Two programs are
+	 * equal if they have the same opcodes and equal literals.
+	 * 
+	 * @param obj an object to be compared for equivalence.
+	 * @return true if this program is equivalent to the specified object and
+	 *         false otherwise.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof LinearProgram)) {
+			return false;
+		}
+
+		LinearProgram other = (LinearProgram) obj;
+
+		if (other.instructions != instructions || !Arrays.equals(other.code, code)) {
+			return false;
+		}
+
+		for (int i = 0; i < constants.length; i++) {
+			if (!constants[i].equals(other.constants[i])) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns a hash code value for the object.
+	 * 
+	 * @return a hash code value for this object
+	 */
+	@Override
+	public int hashCode() {
+		int hash = Arrays.hashCode(code);
+
+		for (Literal constant: constants) {
+			hash = 37 * hash + constant.hashCode();
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Returns a string representation of this program, which is the same as the
+	 * string representation of the equivalent node tree.
+	 * 
+	 * @return a string representation of this program.
+	 */
+	@Override
+	public String toString() {
+		return decode().toString();
+	}
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.operator;
+
+import static org.epochx.Config.Template.TEMPLATE;
+
+import org.epochx.AbstractOperator;
+import org.epochx.Config;
+import org.epochx.Config.ConfigKey;
+import org.epochx.Individual;
+import org.epochx.epox.Node;
+import org.epochx.epox.Simplifier;
+import org.epochx.event.ConfigEvent;
+import org.epochx.event.EventManager;
+import org.epochx.event.Listener;
+import org.epochx.event.OperatorEvent.EndOperator;
+import org.epochx.stgp.STGPIndividual;
+
+/**
+ * This class represents an editing operator for <code>STGPIndividual</code>s,
+ * which reduces bloat by replacing the program tree of an individual with its
+ * simplified equivalent. The simplification is performed by a
+ * {@link Simplifier}, which removes dead code such as <code>ADD(x, 0)</code>
+ * and folds constant subtrees. The individual is returned unchanged if its
+ * program cannot be simplified.
+ * 
+ * <p>
+ * See the {@link #setup()} method documentation for a list of configuration
+ * parameters used to control this operator.
+ * 
+ * @since 2.0
+ */
+public class Editing extends AbstractOperator implements Listener<ConfigEvent> {
+
+	/**
+	 * The key for setting and retrieving the probability of this operator being applied
+	 */
+	public static final ConfigKey<Double> PROBABILITY = new ConfigKey<Double>();
+
+	// Configuration settings
+	private Double probability;
+
+	private Simplifier simplifier;
+
+	/**
+	 * Constructs an <code>Editing</code> operator with control parameters
+	 * automatically loaded from the config
+	 */
+	public Editing() {
+		this(true);
+	}
+
+	/**
+	 * Constructs an <code>Editing</code> operator with control parameters
+	 * initially loaded from the config. If the <code>autoConfig</code> argument
+	 * is set to <code>true</code> then the configuration will be automatically
+	 * updated when the config is modified.
+	 * 
+	 * @param autoConfig whether this operator should automatically update its
+	 *        configuration settings from the config
+	 */
+	public Editing(boolean autoConfig) {
+		simplifier = new Simplifier();
+
+		setup();
+
+		if (autoConfig) {
+			EventManager.getInstance().add(ConfigEvent.class, this);
+		}
+	}
+
+	/**
+	 * Sets up this operator with the appropriate configuration settings.
+	 * This method is called whenever a <code>ConfigEvent</code> occurs for a
+	 * change in any of the following configuration parameters:
+	 * <ul>
+	 * <li>{@link #PROBABILITY}
+	 * </ul>
+	 */
+	protected void setup() {
+		probability = Config.getInstance().get(PROBABILITY);
+	}
+
+	/**
+	 * Receives configuration events and triggers this operator to configure its
+	 * parameters if the <code>ConfigEvent</code> is for one of its required
+	 * parameters.
+	 * 
+	 * @param event {@inheritDoc}
+	 */
+	@Override
+	public void onEvent(ConfigEvent event) {
+		if (event.isKindOf(TEMPLATE, PROBABILITY)) {
+			setup();
+		}
+	}
+
+	/**
+	 * Performs the editing operation on the given individual, replacing its
+	 * program tree with the simplified program tree if it has fewer nodes.
+	 * 
+	 * @param event the <code>EndOperator</code> event to be filled with
+	 *        information about this operation
+	 * @param parents an array of one individual to be edited. It must be an
+	 *        instance of <code>STGPIndividual</code>.
+	 * @return an array containing one <code>STGPIndividual</code> that is the
+	 *         result of the editing
+	 */
+	@Override
+	public STGPIndividual[] perform(EndOperator event, Individual ... parents) {
+		STGPIndividual child = (STGPIndividual) parents[0];
+		Node simplified = simplifier.simplify(child.getRoot());
+
+		if (simplified.length() < child.length()) {
+			child.setRoot(simplified);
+		}
+
+		return new STGPIndividual[]{child};
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * The editing operator operates on 1 individual.
+	 * 
+	 * @return {@inheritDoc}
+	 */
+	@Override
+	public int inputSize() {
+		return 1;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double probability() {
+		return probability;
+	}
+
+	/**
+	 * Sets the probability of this operator being selected
+	 * 
+	 * @param probability the new probability to set
+	 */
+	public void setProbability(double probability) {
+		this.probability = probability;
+	}
+
+	/**
+	 * Returns the simplifier used to edit the program trees
+	 * 
+	 * @return the simplifier in use
+	 */
+	public Simplifier getSimplifier() {
+		return simplifier;
+	}
+
+	/**
+	 * Sets the simplifier used to edit the program trees
+	 * 
+	 * @param simplifier the simplifier to use
+	 */
+	public void setSimplifier(Simplifier simplifier) {
+		this.simplifier = simplifier;
+	}
+}
@@ -33,6 +33,7 @@ import org.epochx.epox.Node;
 import org.epochx.event.*;
 import org.epochx.event.OperatorEvent.EndOperator;
 import org.epochx.stgp.STGPIndividual;
+import org.epochx.stgp.fitness.OutputTrace;
 
 /**
  * A crossover operator for <code>STGPIndividual</code>s that exchanges subtrees 
@@ -162,8 +163,19 @@ public class SubtreeCrossover extends AbstractOperator implements Listener<Confi
 			Node subtree2 = matchingNodes.get(index);
 			int swapPoint2 = matchingIndexes.get(index);
 
+			OutputTrace trace1 = program1.getOutputTrace();
+			OutputTrace trace2 = program2.getOutputTrace();
+
 			program1.setNode(swapPoint1, subtree2);
 			program2.setNode(swapPoint2, subtree1);
+
+			// Record the exchange, so that the offspring can be evaluated incrementally
+			if (trace1 != null) {
+				program1.setOutputTrace((trace2 == null) ? trace1.replace(swapPoint1, subtree2) : trace1.replace(swapPoint1, trace2, swapPoint2));
+			}
+			if (trace2 != null) {
+				program2.setOutputTrace((trace1 == null) ? trace2.replace(swapPoint2, subtree1) : trace2.replace(swapPoint2, trace1, swapPoint1));
+			}
 			
 			// Check the depths are valid
 			int depth1 = program1.depth();
@@ -283,6 +295,70 @@ public class SubtreeCrossover extends AbstractOperator implements Listener<Confi
 		}
 	}
 
+	/**
+	 * Selects a position in a program whose data-type is the one given and
+	 * returns the index. The position is selected at random from those that
+	 * match, but the probability that a terminal will be selected is equal to
+	 * the result of the <code>getTerminalProbability()</code> method. If the
+	 * terminal probability is set to -1.0 then all matching positions are
+	 * selected from with equal probability. This allows representations that
+	 * do not hold their programs as <code>Node</code> trees to select crossover
+	 * points in the same way.
+	 * 
+	 * @param arities the arity of the node at each position of the program
+	 * @param types the data-type of the node at each position of the program,
+	 *        or <code>null</code> if any position may be selected
+	 * @param type the data-type the selected position must have
+	 * @return the index of the position that was selected, or -1 if no
+	 *         position has the given data-type
+	 */
+	protected int selectPosition(int[] arities, Class<?>[] types, Class<?> type) {
+		int terminals = 0;
+		int nonTerminals = 0;
+
+		for (int i = 0; i < arities.length; i++) {
+			if (types == null || types[i] == type) {
+				if (arities[i] == 0) {
+					terminals++;
+				} else {
+					nonTerminals++;
+				}
+			}
+		}
+
+		if (terminals + nonTerminals == 0) {
+			return -1;
+		}
+
+		double terminalProbability = getTerminalProbability();
+		int n;
+		int kind;
+
+		if (terminalProbability == -1.0) {
+			// any matching position
+			n = random.nextInt(terminals + nonTerminals);
+			kind = -1;
+		} else if ((nonTerminals > 0) && (random.nextDouble() >= terminalProbability)) {
+			n = random.nextInt(nonTerminals);
+			kind = 1;
+		} else {
+			n = random.nextInt(terminals);
+			kind = 0;
+		}
+
+		for (int i = 0; i < arities.length; i++) {
+			if (types == null || types[i] == type) {
+				boolean terminal = (arities[i] == 0);
+
+				if ((kind == -1 || (kind == 0) == terminal) && (n-- == 0)) {
+					return i;
+				}
+			}
+		}
+
+		return -1;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
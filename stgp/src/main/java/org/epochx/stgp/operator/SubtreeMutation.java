@@ -31,6 +31,7 @@ import org.epochx.epox.Node;
 import org.epochx.event.*;
 import org.epochx.event.OperatorEvent.EndOperator;
 import org.epochx.stgp.STGPIndividual;
+import org.epochx.stgp.fitness.OutputTrace;
 import org.epochx.stgp.init.Grow;
 
 /**
@@ -146,12 +147,16 @@ public class SubtreeMutation extends AbstractOperator implements Listener<Config
 		// Grow a new subtree using the GrowInitialisation
 		Node originalSubtree = child.getNode(mutationPoint);
 		// TODO This should be using the parent's required type not the subtree's type
-		grower.setReturnType(originalSubtree.dataType());
-		grower.setMaximumDepth(maxSubtreeDepth);
-		Node subtree = grower.createTree();
+		Node subtree = createSubtree(originalSubtree.dataType(), maxSubtreeDepth);
 
+		OutputTrace trace = child.getOutputTrace();
 		child.setNode(mutationPoint, subtree);
 
+		// Record the replacement, so that the offspring can be evaluated incrementally
+		if (trace != null) {
+			child.setOutputTrace(trace.replace(mutationPoint, subtree));
+		}
+
 		((SubtreeMutationEndEvent) event).setMutationPoint(mutationPoint);
 		((SubtreeMutationEndEvent) event).setSubtree(subtree);
 
@@ -167,6 +172,21 @@ public class SubtreeMutation extends AbstractOperator implements Listener<Config
 		return new SubtreeMutationEndEvent(this, parents);
 	}
 	
+	/**
+	 * Grows a new random subtree with the specified data-type and maximum
+	 * depth, using the syntax and random sequence of this operator.
+	 * 
+	 * @param returnType the required data-type of the subtree
+	 * @param maxSubtreeDepth the maximum depth of the subtree
+	 * @return the root node of the new subtree
+	 */
+	protected Node createSubtree(Class<?> returnType, int maxSubtreeDepth) {
+		grower.setReturnType(returnType);
+		grower.setMaximumDepth(maxSubtreeDepth);
+
+		return grower.createTree();
+	}
+
 	/*
 	 * Finds what depth a node with a given index is at. Returns -1 if the index
 	 * is not found.
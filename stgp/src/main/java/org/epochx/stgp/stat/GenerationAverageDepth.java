@@ -44,7 +44,7 @@ public class GenerationAverageDepth extends AbstractStat<EndGeneration> {
 	 * dependencies
 	 */
 	public GenerationAverageDepth() {
-		super(GenerationDepths.class);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -57,14 +57,7 @@ public class GenerationAverageDepth extends AbstractStat<EndGeneration> {
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		int[] depths = AbstractStat.get(GenerationDepths.class).getDepths();
-		average = 0;
-
-		for (int depth: depths) {
-			average += depth;
-		}
-
-		average /= depths.length;
+		average = AbstractStat.get(GenerationTreeMetrics.class).getMean(GenerationTreeMetrics.DEPTH);
 	}
 
 	/**
@@ -44,7 +44,7 @@ public class GenerationAverageLength extends AbstractStat<EndGeneration> {
 	 * dependencies
 	 */
 	public GenerationAverageLength() {
-		super(GenerationLengths.class);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -57,14 +57,7 @@ public class GenerationAverageLength extends AbstractStat<EndGeneration> {
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		int[] lengths = AbstractStat.get(GenerationLengths.class).getLengths();
-		average = 0;
-
-		for (int length: lengths) {
-			average += length;
-		}
-
-		average /= lengths.length;
+		average = AbstractStat.get(GenerationTreeMetrics.class).getMean(GenerationTreeMetrics.LENGTH);
 	}
 	
 	/**
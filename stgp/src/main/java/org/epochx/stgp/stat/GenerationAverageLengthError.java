@@ -22,7 +22,6 @@
 
 package org.epochx.stgp.stat;
 
-import org.epochx.*;
 import org.epochx.event.GenerationEvent.EndGeneration;
 import org.epochx.event.stat.AbstractStat;
 
@@ -45,7 +44,7 @@ public class GenerationAverageLengthError extends AbstractStat<EndGeneration> {
 	 * dependencies
 	 */
 	public GenerationAverageLengthError() {
-		super(GenerationStandardDeviationLength.class);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -58,10 +57,7 @@ public class GenerationAverageLengthError extends AbstractStat<EndGeneration> {
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		double stdev = AbstractStat.get(GenerationStandardDeviationLength.class).getStandardDeviation();
-		Population population = event.getPopulation();
-
-		error = stdev / Math.sqrt(population.size());
+		error = AbstractStat.get(GenerationTreeMetrics.class).getStandardError(GenerationTreeMetrics.LENGTH);
 	}
 
 	/**
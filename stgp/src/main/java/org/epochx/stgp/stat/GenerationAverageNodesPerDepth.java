@@ -24,10 +24,8 @@ package org.epochx.stgp.stat;
 
 import java.util.Arrays;
 
-import org.epochx.*;
 import org.epochx.event.GenerationEvent.EndGeneration;
 import org.epochx.event.stat.AbstractStat;
-import org.epochx.stgp.STGPIndividual;
 
 /**
  * A stat that returns the average number of nodes at each depth level of the 
@@ -45,7 +43,7 @@ public class GenerationAverageNodesPerDepth extends AbstractStat<EndGeneration>
 	 * its dependencies
 	 */
 	public GenerationAverageNodesPerDepth() {
-		super(GenerationAverageDepth.class);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -58,22 +56,7 @@ public class GenerationAverageNodesPerDepth extends AbstractStat<EndGeneration>
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		int maxDepth = AbstractStat.get(GenerationMaximumDepth.class).getMaximum();
-		Population population = event.getPopulation();
-		
-		averages = new double[maxDepth];
-
-		// For each depth calculate an average
-		for (int d = 0; d < maxDepth; d++) {
-			// Get number of nodes for each program
-			int noNodes = 0;
-			for (Individual individual: population) {
-				if (individual instanceof STGPIndividual) {
-					noNodes += ((STGPIndividual) individual).getRoot().nodesAtDepth(d).size();
-				}
-			}
-			averages[d] = noNodes / (double) population.size();
-		}
+		averages = AbstractStat.get(GenerationTreeMetrics.class).getAverageNodesPerDepth();
 	}
 	
 	/**
@@ -44,7 +44,7 @@ public class GenerationAverageNonTerminals extends AbstractStat<EndGeneration> {
 	 * its dependencies
 	 */
 	public GenerationAverageNonTerminals() {
-		super(GenerationNonTerminals.class);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -57,14 +57,7 @@ public class GenerationAverageNonTerminals extends AbstractStat<EndGeneration> {
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		int[] nonTerminals = AbstractStat.get(GenerationNonTerminals.class).getNonTerminals();
-		average = 0;
-
-		for (int nt: nonTerminals) {
-			average += nt;
-		}
-
-		average /= nonTerminals.length;
+		average = AbstractStat.get(GenerationTreeMetrics.class).getMean(GenerationTreeMetrics.NON_TERMINALS);
 	}
 	
 	/**
@@ -44,7 +44,7 @@ public class GenerationAverageTerminals extends AbstractStat<EndGeneration> {
 	 * its dependencies
 	 */
 	public GenerationAverageTerminals() {
-		super(GenerationTerminals.class);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -57,14 +57,7 @@ public class GenerationAverageTerminals extends AbstractStat<EndGeneration> {
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		int[] terminals = AbstractStat.get(GenerationTerminals.class).getTerminals();
-		average = 0;
-
-		for (int t: terminals) {
-			average += t;
-		}
-
-		average /= terminals.length;
+		average = AbstractStat.get(GenerationTreeMetrics.class).getMean(GenerationTreeMetrics.TERMINALS);
 	}
 
 	/**
@@ -24,11 +24,8 @@ package org.epochx.stgp.stat;
 
 import java.util.Arrays;
 
-import org.epochx.Individual;
-import org.epochx.Population;
 import org.epochx.event.GenerationEvent.EndGeneration;
 import org.epochx.event.stat.AbstractStat;
-import org.epochx.stgp.STGPIndividual;
 
 /**
  * A stat that returns the depth of all program trees in the population from
@@ -46,7 +43,7 @@ public class GenerationDepths extends AbstractStat<EndGeneration> {
 	 * its dependencies
 	 */
 	public GenerationDepths() {
-		super(NO_DEPENDENCIES);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -59,15 +56,7 @@ public class GenerationDepths extends AbstractStat<EndGeneration> {
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		Population population = event.getPopulation();
-		depths = new int[population.size()];
-		int index = 0;
-
-		for (Individual individual: population) {
-			if (individual instanceof STGPIndividual) {
-				depths[index++] = ((STGPIndividual) individual).depth();
-			}
-		}
+		depths = AbstractStat.get(GenerationTreeMetrics.class).getValues(GenerationTreeMetrics.DEPTH);
 	}
 	
 	/**
@@ -24,11 +24,8 @@ package org.epochx.stgp.stat;
 
 import java.util.Arrays;
 
-import org.epochx.Individual;
-import org.epochx.Population;
 import org.epochx.event.GenerationEvent.EndGeneration;
 import org.epochx.event.stat.AbstractStat;
-import org.epochx.stgp.STGPIndividual;
 
 /**
  * A stat that returns the length of all program trees in the population from
@@ -46,7 +43,7 @@ public class GenerationLengths extends AbstractStat<EndGeneration> {
 	 * its dependencies
 	 */
 	public GenerationLengths() {
-		super(NO_DEPENDENCIES);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -59,15 +56,7 @@ public class GenerationLengths extends AbstractStat<EndGeneration> {
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		Population population = event.getPopulation();
-		lengths = new int[population.size()];
-		int index = 0;
-
-		for (Individual individual: population) {
-			if (individual instanceof STGPIndividual) {
-				lengths[index++] = ((STGPIndividual) individual).length();
-			}
-		}
+		lengths = AbstractStat.get(GenerationTreeMetrics.class).getValues(GenerationTreeMetrics.LENGTH);
 	}
 
 	/**
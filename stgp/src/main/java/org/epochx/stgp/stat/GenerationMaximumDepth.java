@@ -43,7 +43,7 @@ public class GenerationMaximumDepth extends AbstractStat<EndGeneration> {
 	 * dependencies
 	 */
 	public GenerationMaximumDepth() {
-		super(GenerationDepths.class);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -56,14 +56,7 @@ public class GenerationMaximumDepth extends AbstractStat<EndGeneration> {
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		int[] depths = AbstractStat.get(GenerationDepths.class).getDepths();
-		max = -1;
-
-		for (int depth: depths) {
-			if (depth > max) {
-				max = depth;
-			}
-		}
+		max = AbstractStat.get(GenerationTreeMetrics.class).getMaximum(GenerationTreeMetrics.DEPTH);
 	}
 	
 	/**
@@ -43,7 +43,7 @@ public class GenerationMaximumLength extends AbstractStat<EndGeneration> {
 	 * dependencies
 	 */
 	public GenerationMaximumLength() {
-		super(GenerationLengths.class);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -56,14 +56,7 @@ public class GenerationMaximumLength extends AbstractStat<EndGeneration> {
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		int[] lengths = AbstractStat.get(GenerationLengths.class).getLengths();
-		max = -1;
-
-		for (int length: lengths) {
-			if (length > max) {
-				max = length;
-			}
-		}
+		max = AbstractStat.get(GenerationTreeMetrics.class).getMaximum(GenerationTreeMetrics.LENGTH);
 	}
 
 	/**
@@ -44,7 +44,7 @@ public class GenerationMaximumNonTerminals extends AbstractStat<EndGeneration> {
 	 * dependencies
 	 */
 	public GenerationMaximumNonTerminals() {
-		super(GenerationNonTerminals.class);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -57,14 +57,7 @@ public class GenerationMaximumNonTerminals extends AbstractStat<EndGeneration> {
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		int[] nonTerminals = AbstractStat.get(GenerationNonTerminals.class).getNonTerminals();
-		max = -1;
-
-		for (int t: nonTerminals) {
-			if (t > max) {
-				max = t;
-			}
-		}
+		max = AbstractStat.get(GenerationTreeMetrics.class).getMaximum(GenerationTreeMetrics.NON_TERMINALS);
 	}
 	
 	/**
@@ -44,7 +44,7 @@ public class GenerationMaximumTerminals extends AbstractStat<EndGeneration> {
 	 * dependencies
 	 */
 	public GenerationMaximumTerminals() {
-		super(GenerationTerminals.class);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -57,14 +57,7 @@ public class GenerationMaximumTerminals extends AbstractStat<EndGeneration> {
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		int[] terminals = AbstractStat.get(GenerationTerminals.class).getTerminals();
-		max = -1;
-
-		for (int t: terminals) {
-			if (t > max) {
-				max = t;
-			}
-		}
+		max = AbstractStat.get(GenerationTreeMetrics.class).getMaximum(GenerationTreeMetrics.TERMINALS);
 	}
 	
 	/**
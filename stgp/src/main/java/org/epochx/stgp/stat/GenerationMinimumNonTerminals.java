@@ -44,7 +44,7 @@ public class GenerationMinimumNonTerminals extends AbstractStat<EndGeneration> {
 	 * dependencies
 	 */
 	public GenerationMinimumNonTerminals() {
-		super(GenerationNonTerminals.class);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -57,14 +57,7 @@ public class GenerationMinimumNonTerminals extends AbstractStat<EndGeneration> {
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		int[] nonTerminals = AbstractStat.get(GenerationNonTerminals.class).getNonTerminals();
-		min = Integer.MAX_VALUE;
-
-		for (int t: nonTerminals) {
-			if (t < min) {
-				min = t;
-			}
-		}
+		min = AbstractStat.get(GenerationTreeMetrics.class).getMinimum(GenerationTreeMetrics.NON_TERMINALS);
 	}
 	
 	/**
@@ -44,7 +44,7 @@ public class GenerationMinimumTerminals extends AbstractStat<EndGeneration> {
 	 * dependencies
 	 */
 	public GenerationMinimumTerminals() {
-		super(GenerationTerminals.class);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -57,14 +57,7 @@ public class GenerationMinimumTerminals extends AbstractStat<EndGeneration> {
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		int[] terminals = AbstractStat.get(GenerationTerminals.class).getTerminals();
-		min = Integer.MAX_VALUE;
-
-		for (int t: terminals) {
-			if (t < min) {
-				min = t;
-			}
-		}
+		min = AbstractStat.get(GenerationTreeMetrics.class).getMinimum(GenerationTreeMetrics.TERMINALS);
 	}
 	
 	/**
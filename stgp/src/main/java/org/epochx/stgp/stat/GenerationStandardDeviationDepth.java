@@ -23,7 +23,7 @@
 package org.epochx.stgp.stat;
 
 import org.epochx.event.GenerationEvent.EndGeneration;
-import org.epochx.event.stat.*;
+import org.epochx.event.stat.AbstractStat;
 
 /**
  * A stat that returns the standard deviation of the mean depth of the program 
@@ -43,9 +43,8 @@ public class GenerationStandardDeviationDepth extends AbstractStat<EndGeneration
 	 * Constructs a <code>GenerationStandardDeviationDepth</code> stat and registers
 	 * its dependencies
 	 */
-	@SuppressWarnings("unchecked")
 	public GenerationStandardDeviationDepth() {
-		super(GenerationDepths.class, GenerationAverageDepth.class);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -58,17 +57,7 @@ public class GenerationStandardDeviationDepth extends AbstractStat<EndGeneration
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		int[] depths = AbstractStat.get(GenerationDepths.class).getDepths();
-		double average = AbstractStat.get(GenerationAverageDepth.class).getAverage();
-		
-		// Sum the squared differences
-		double sqDiff = 0.0;
-		for (int depth: depths) {
-			sqDiff += Math.pow(depth - average, 2);
-		}
-
-		// Take the square root of the average
-		stdev = Math.sqrt(sqDiff / depths.length);
+		stdev = AbstractStat.get(GenerationTreeMetrics.class).getStandardDeviation(GenerationTreeMetrics.DEPTH);
 	}
 	
 	/**
@@ -23,7 +23,7 @@
 package org.epochx.stgp.stat;
 
 import org.epochx.event.GenerationEvent.EndGeneration;
-import org.epochx.event.stat.*;
+import org.epochx.event.stat.AbstractStat;
 
 /**
  * A stat that returns the standard deviation of the mean length of the program 
@@ -43,9 +43,8 @@ public class GenerationStandardDeviationLength extends AbstractStat<EndGeneratio
 	 * Constructs a <code>GenerationStandardDeviationLength</code> stat and 
 	 * registers its dependencies
 	 */
-	@SuppressWarnings("unchecked")
 	public GenerationStandardDeviationLength() {
-		super(GenerationLengths.class, GenerationAverageLength.class);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -58,17 +57,7 @@ public class GenerationStandardDeviationLength extends AbstractStat<EndGeneratio
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		int[] lengths = AbstractStat.get(GenerationLengths.class).getLengths();
-		double average = AbstractStat.get(GenerationAverageLength.class).getAverage();
-		
-		// Sum the squared differences
-		double sqDiff = 0.0;
-		for (int depth: lengths) {
-			sqDiff += Math.pow(depth - average, 2);
-		}
-
-		// Take the square root of the average
-		stdev = Math.sqrt(sqDiff / lengths.length);
+		stdev = AbstractStat.get(GenerationTreeMetrics.class).getStandardDeviation(GenerationTreeMetrics.LENGTH);
 	}
 	
 	/**
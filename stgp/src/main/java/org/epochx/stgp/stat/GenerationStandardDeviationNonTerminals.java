@@ -23,7 +23,7 @@
 package org.epochx.stgp.stat;
 
 import org.epochx.event.GenerationEvent.EndGeneration;
-import org.epochx.event.stat.*;
+import org.epochx.event.stat.AbstractStat;
 
 /**
  * A stat that returns the standard deviation of the mean number of 
@@ -44,9 +44,8 @@ public class GenerationStandardDeviationNonTerminals extends AbstractStat<EndGen
 	 * Constructs a <code>GenerationStandardDeviationNonTerminals</code> stat and 
 	 * registers its dependencies
 	 */
-	@SuppressWarnings("unchecked")
 	public GenerationStandardDeviationNonTerminals() {
-		super(GenerationNonTerminals.class, GenerationAverageNonTerminals.class);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -59,17 +58,7 @@ public class GenerationStandardDeviationNonTerminals extends AbstractStat<EndGen
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		int[] nonTerminals = AbstractStat.get(GenerationNonTerminals.class).getNonTerminals();
-		double average = AbstractStat.get(GenerationAverageNonTerminals.class).getAverage();
-		
-		// Sum the squared differences
-		double sqDiff = 0.0;
-		for (int nt: nonTerminals) {
-			sqDiff += Math.pow(nt - average, 2);
-		}
-
-		// Take the square root of the average
-		stdev = Math.sqrt(sqDiff / nonTerminals.length);
+		stdev = AbstractStat.get(GenerationTreeMetrics.class).getStandardDeviation(GenerationTreeMetrics.NON_TERMINALS);
 	}
 	
 	/**
@@ -23,7 +23,7 @@
 package org.epochx.stgp.stat;
 
 import org.epochx.event.GenerationEvent.EndGeneration;
-import org.epochx.event.stat.*;
+import org.epochx.event.stat.AbstractStat;
 
 /**
  * A stat that returns the standard deviation of the mean number of 
@@ -44,9 +44,8 @@ public class GenerationStandardDeviationTerminals extends AbstractStat<EndGenera
 	 * Constructs a <code>GenerationStandardDeviationTerminals</code> stat and 
 	 * registers its dependencies
 	 */
-	@SuppressWarnings("unchecked")
 	public GenerationStandardDeviationTerminals() {
-		super(GenerationTerminals.class, GenerationAverageTerminals.class);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -59,17 +58,7 @@ public class GenerationStandardDeviationTerminals extends AbstractStat<EndGenera
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		int[] terminals = AbstractStat.get(GenerationTerminals.class).getTerminals();
-		double average = AbstractStat.get(GenerationAverageTerminals.class).getAverage();
-		
-		// Sum the squared differences
-		double sqDiff = 0.0;
-		for (int t: terminals) {
-			sqDiff += Math.pow(t - average, 2);
-		}
-
-		// Take the square root of the average
-		stdev = Math.sqrt(sqDiff / terminals.length);
+		stdev = AbstractStat.get(GenerationTreeMetrics.class).getStandardDeviation(GenerationTreeMetrics.TERMINALS);
 	}
 	
 	/**
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.stat;
+
+import org.epochx.Individual;
+import org.epochx.Population;
+import org.epochx.epox.Node;
+import org.epochx.event.GenerationEvent.EndGeneration;
+import org.epochx.event.stat.AbstractStat;
+import org.epochx.event.stat.sketch.Hashing;
+import org.epochx.event.stat.sketch.HyperLogLog;
+import org.epochx.event.stat.sketch.MinHash;
+import org.epochx.stgp.STGPIndividual;
+
+/**
+ * A stat that estimates the structural diversity of the program trees in the
+ * population from the previous generation. Each tree is traversed once to
+ * compute a 64-bit structural hash of every subtree, from which three
+ * measures are derived in bounded memory:
+ * 
+ * <ul>
+ * <li>the number of distinct programs, counted with a {@link HyperLogLog}
+ * sketch of the root hashes (this is the value returned by
+ * {@link #toString()});</li>
+ * <li>the number of distinct subtrees, counted with a {@link HyperLogLog}
+ * sketch of all subtree hashes (see {@link GenerationDistinctSubtrees});</li>
+ * <li>the subtree overlap, the mean Jaccard similarity between the sets of
+ * subtrees of two programs, estimated with {@link MinHash} signatures of a
+ * fixed size sample of the population (see {@link GenerationSubtreeOverlap}).
+ * </li>
+ * </ul>
+ * 
+ * All individuals in the population must be instances of
+ * <code>STGPIndividual</code>.
+ * 
+ * @since 2.0
+ */
+public class GenerationStructuralDiversity extends AbstractStat<EndGeneration> {
+
+	/**
+	 * The default number of individuals sampled to estimate the subtree overlap.
+	 */
+	public static final int DEFAULT_SAMPLE_SIZE = 256;
+
+	private final HyperLogLog programs;
+
+	private final HyperLogLog subtrees;
+
+	private final MinHash[] signatures;
+
+	private long distinctPrograms;
+
+	private long distinctSubtrees;
+
+	private long totalSubtrees;
+
+	private double overlap;
+
+	/**
+	 * Constructs a <code>GenerationStructuralDiversity</code> stat with the
+	 * default sketch sizes.
+	 */
+	public GenerationStructuralDiversity() {
+		this(HyperLogLog.DEFAULT_PRECISION, DEFAULT_SAMPLE_SIZE, MinHash.DEFAULT_BINS);
+	}
+
+	/**
+	 * Constructs a <code>GenerationStructuralDiversity</code> stat with the
+	 * specified sketch sizes. Subclasses may use this constructor to trade
+	 * accuracy for memory.
+	 * 
+	 * @param precision the precision of the <code>HyperLogLog</code> sketches.
+	 * @param sampleSize the number of individuals sampled to estimate the
+	 *        subtree overlap.
+	 * @param bins the number of bins of the <code>MinHash</code> signatures.
+	 */
+	protected GenerationStructuralDiversity(int precision, int sampleSize, int bins) {
+		super(true, NO_DEPENDENCIES);
+
+		programs = new HyperLogLog(precision);
+		subtrees = new HyperLogLog(precision);
+		signatures = new MinHash[sampleSize];
+
+		for (int i = 0; i < sampleSize; i++) {
+			signatures[i] = new MinHash(bins);
+		}
+	}
+
+	/**
+	 * Triggers the generation of an updated value for this stat. Once this stat
+	 * has been registered, this method will be called on each
+	 * <code>EndGeneration</code> event.
+	 * 
+	 * @param event an object that encapsulates information about the event that
+	 *        occurred
+	 */
+	@Override
+	public void refresh(EndGeneration event) {
+		Population population = event.getPopulation();
+		// individuals are sampled at a fixed stride, which does not interfere
+		// with the random sequence used by the evolution
+		int stride = Math.max(1, (population.size() + signatures.length - 1) / signatures.length);
+		int index = 0;
+		int sampled = 0;
+
+		programs.clear();
+		subtrees.clear();
+		totalSubtrees = 0;
+
+		for (Individual individual: population) {
+			if (individual instanceof STGPIndividual) {
+				MinHash signature = null;
+
+				if ((index % stride == 0) && (sampled < signatures.length)) {
+					signature = signatures[sampled++];
+					signature.clear();
+				}
+
+				programs.add(hash(((STGPIndividual) individual).getRoot(), signature));
+				index++;
+			}
+		}
+
+		distinctPrograms = programs.cardinality();
+		distinctSubtrees = subtrees.cardinality();
+		overlap = overlap(sampled);
+	}
+
+	/*
+	 * Returns the structural hash of the node tree, adding the hash of each
+	 * subtree to the subtree sketch and to the signature (if not null).
+	 */
+	private long hash(Node node, MinHash signature) {
+		long hash = Hashing.hash(node.getIdentifier());
+		int arity = node.getArity();
+
+		for (int i = 0; i < arity; i++) {
+			hash = Hashing.combine(hash, hash(node.getChild(i), signature));
+		}
+
+		hash = Hashing.combine(hash, arity);
+
+		subtrees.add(hash);
+		totalSubtrees++;
+
+		if (signature != null) {
+			signature.add(hash);
+		}
+
+		return hash;
+	}
+
+	/*
+	 * Returns the mean pairwise similarity of the first n signatures.
+	 */
+	private double overlap(int n) {
+		if (n < 2) {
+			return Double.NaN;
+		}
+
+		double sum = 0;
+
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				sum += signatures[i].similarity(signatures[j]);
+			}
+		}
+
+		return sum / ((n * (n - 1)) / 2);
+	}
+
+	/**
+	 * Returns the estimated number of distinct programs in the previous
+	 * generation
+	 * 
+	 * @return the estimated number of distinct programs
+	 */
+	public long getDistinctPrograms() {
+		return distinctPrograms;
+	}
+
+	/**
+	 * Returns the estimated number of distinct subtrees in the previous
+	 * generation
+	 * 
+	 * @return the estimated number of distinct subtrees
+	 */
+	public long getDistinctSubtrees() {
+		return distinctSubtrees;
+	}
+
+	/**
+	 * Returns the total number of subtrees (i.e. nodes) in the previous
+	 * generation
+	 * 
+	 * @return the total number of subtrees
+	 */
+	public long getTotalSubtrees() {
+		return totalSubtrees;
+	}
+
+	/**
+	 * Returns the estimated mean Jaccard similarity between the sets of
+	 * subtrees of two programs in the previous generation, or <code>NaN</code>
+	 * if the population has less than two programs
+	 * 
+	 * @return the estimated subtree overlap
+	 */
+	public double getSubtreeOverlap() {
+		return overlap;
+	}
+
+	/**
+	 * Returns a string representation of the value of this stat
+	 * 
+	 * @return a <code>String</code> that represents the value of this stat
+	 */
+	@Override
+	public String toString() {
+		return Long.toString(distinctPrograms);
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.stat;
+
+import org.epochx.Config;
+import org.epochx.event.GenerationEvent.EndGeneration;
+import org.epochx.event.stat.AbstractStat;
+import org.epochx.stgp.fitness.STGPFitnessFunction;
+import org.epochx.stgp.fitness.SubtreeCache;
+
+/**
+ * A stat that returns the hit rate of the subtree cache set with the
+ * {@link STGPFitnessFunction#SUBTREE_CACHE} config key during the previous
+ * generation: the proportion of subtree evaluations whose outputs were found
+ * in the cache. The hit rate is <code>NaN</code> if no cache is set or no
+ * subtree was evaluated.
+ * 
+ * @see SubtreeCache
+ * 
+ * @since 2.0
+ */
+public class GenerationSubtreeCacheHitRate extends AbstractStat<EndGeneration> {
+
+	private long hits;
+
+	private long misses;
+
+	// the cumulative counts at the end of the last generation
+	private long totalHits;
+
+	private long totalMisses;
+
+	/**
+	 * Constructs a <code>GenerationSubtreeCacheHitRate</code> stat.
+	 */
+	public GenerationSubtreeCacheHitRate() {
+		super(NO_DEPENDENCIES);
+	}
+
+	/**
+	 * Triggers the generation of an updated value for this stat. Once this stat
+	 * has been registered, this method will be called on each
+	 * <code>EndGeneration</code> event.
+	 * 
+	 * @param event an object that encapsulates information about the event that
+	 *        occurred
+	 */
+	@Override
+	public void refresh(EndGeneration event) {
+		SubtreeCache cache = Config.getInstance().get(STGPFitnessFunction.SUBTREE_CACHE);
+
+		if (cache == null) {
+			hits = 0;
+			misses = 0;
+		} else {
+			hits = cache.getHits() - totalHits;
+			misses = cache.getMisses() - totalMisses;
+			totalHits = cache.getHits();
+			totalMisses = cache.getMisses();
+		}
+	}
+
+	/**
+	 * Returns the number of cache hits in the previous generation.
+	 * 
+	 * @return the number of cache hits
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of cache misses in the previous generation.
+	 * 
+	 * @return the number of cache misses
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Returns the hit rate of the cache in the previous generation.
+	 * 
+	 * @return the hit rate of the cache
+	 */
+	public double getHitRate() {
+		return (double) hits / (hits + misses);
+	}
+
+	/**
+	 * Returns a string representation of the value of this stat
+	 * 
+	 * @return a <code>String</code> that represents the value of this stat
+	 */
+	@Override
+	public String toString() {
+		return Double.toString(getHitRate());
+	}
+}
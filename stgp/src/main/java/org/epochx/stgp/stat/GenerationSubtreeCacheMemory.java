@@ -0,0 +1,97 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.stat;
+
+import org.epochx.Config;
+import org.epochx.event.GenerationEvent.EndGeneration;
+import org.epochx.event.stat.AbstractStat;
+import org.epochx.stgp.fitness.STGPFitnessFunction;
+import org.epochx.stgp.fitness.SubtreeCache;
+
+/**
+ * A stat that returns the approximate number of bytes used by the subtree
+ * cache set with the {@link STGPFitnessFunction#SUBTREE_CACHE} config key at
+ * the end of the previous generation, and the number of subtrees it contains.
+ * Both values are <code>0</code> if no cache is set.
+ * 
+ * @see SubtreeCache
+ * 
+ * @since 2.0
+ */
+public class GenerationSubtreeCacheMemory extends AbstractStat<EndGeneration> {
+
+	private long memory;
+
+	private int size;
+
+	/**
+	 * Constructs a <code>GenerationSubtreeCacheMemory</code> stat.
+	 */
+	public GenerationSubtreeCacheMemory() {
+		super(NO_DEPENDENCIES);
+	}
+
+	/**
+	 * Triggers the generation of an updated value for this stat. Once this stat
+	 * has been registered, this method will be called on each
+	 * <code>EndGeneration</code> event.
+	 * 
+	 * @param event an object that encapsulates information about the event that
+	 *        occurred
+	 */
+	@Override
+	public void refresh(EndGeneration event) {
+		SubtreeCache cache = Config.getInstance().get(STGPFitnessFunction.SUBTREE_CACHE);
+
+		memory = (cache == null) ? 0 : cache.getMemory();
+		size = (cache == null) ? 0 : cache.size();
+	}
+
+	/**
+	 * Returns the approximate number of bytes used by the cache.
+	 * 
+	 * @return the memory used by the cache
+	 */
+	public long getMemory() {
+		return memory;
+	}
+
+	/**
+	 * Returns the number of subtrees in the cache.
+	 * 
+	 * @return the number of subtrees in the cache
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns a string representation of the value of this stat
+	 * 
+	 * @return a <code>String</code> that represents the value of this stat
+	 */
+	@Override
+	public String toString() {
+		return Long.toString(memory);
+	}
+}
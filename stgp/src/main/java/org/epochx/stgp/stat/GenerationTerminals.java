@@ -24,11 +24,8 @@ package org.epochx.stgp.stat;
 
 import java.util.Arrays;
 
-import org.epochx.Individual;
-import org.epochx.Population;
 import org.epochx.event.GenerationEvent.EndGeneration;
 import org.epochx.event.stat.AbstractStat;
-import org.epochx.stgp.STGPIndividual;
 
 /**
  * A stat that returns the number of terminals in all program trees in the 
@@ -46,7 +43,7 @@ public class GenerationTerminals extends AbstractStat<EndGeneration> {
 	 * its dependencies
 	 */
 	public GenerationTerminals() {
-		super(NO_DEPENDENCIES);
+		super(true, GenerationTreeMetrics.class);
 	}
 
 	/**
@@ -59,15 +56,7 @@ public class GenerationTerminals extends AbstractStat<EndGeneration> {
 	 */
 	@Override
 	public void refresh(EndGeneration event) {
-		Population population = event.getPopulation();
-		terminals = new int[population.size()];
-		int index = 0;
-
-		for (Individual individual: population) {
-			if (individual instanceof STGPIndividual) {
-				terminals[index++] = ((STGPIndividual) individual).getRoot().countTerminals();
-			}
-		}
+		terminals = AbstractStat.get(GenerationTreeMetrics.class).getValues(GenerationTreeMetrics.TERMINALS);
 	}
 	
 	/**
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.stat;
+
+import java.util.Arrays;
+
+import org.epochx.Individual;
+import org.epochx.Population;
+import org.epochx.epox.Node;
+import org.epochx.event.GenerationEvent.EndGeneration;
+import org.epochx.event.stat.AbstractStat;
+import org.epochx.event.stat.OnlineStatistics;
+import org.epochx.stgp.STGPIndividual;
+
+/**
+ * A stat that collects the size and shape metrics of all program trees in the
+ * population from the previous generation. Each tree is traversed exactly
+ * once per generation to obtain its depth, length, number of terminals and
+ * non-terminals and the number of nodes at each depth; the summary values
+ * (mean, standard deviation, minimum and maximum) are accumulated during the
+ * same traversal. The other tree stats of this package are views over this
+ * stat. All individuals in the population must be instances of
+ * <code>STGPIndividual</code>.
+ * 
+ * @since 2.0
+ */
+public class GenerationTreeMetrics extends AbstractStat<EndGeneration> {
+
+	/**
+	 * The index of the depth metric.
+	 */
+	public static final int DEPTH = 0;
+
+	/**
+	 * The index of the length metric.
+	 */
+	public static final int LENGTH = 1;
+
+	/**
+	 * The index of the terminals metric.
+	 */
+	public static final int TERMINALS = 2;
+
+	/**
+	 * The index of the non-terminals metric.
+	 */
+	public static final int NON_TERMINALS = 3;
+
+	/**
+	 * The number of metrics.
+	 */
+	private static final int METRICS = 4;
+
+	// The running mean, variance and range of each metric over the population
+	private final OnlineStatistics statistics = new OnlineStatistics(METRICS);
+
+	// The value of each metric for each individual, indexed by metric
+	private int[][] values = new int[METRICS][0];
+
+	// The mean number of nodes at each depth over the population
+	private double[] nodesPerDepth = new double[0];
+
+	// The depth of the tree being traversed
+	private int depth;
+
+	// The number of nodes of the tree being traversed
+	private int length;
+
+	// The number of terminals of the tree being traversed
+	private int terminals;
+
+	// The number of nodes at each depth, summed over the population
+	private long[] levels = new long[16];
+
+	/**
+	 * Constructs a <code>GenerationTreeMetrics</code> stat.
+	 */
+	public GenerationTreeMetrics() {
+		super(true, NO_DEPENDENCIES);
+	}
+
+	/**
+	 * Triggers the generation of an updated value for this stat. Once this stat
+	 * has been registered, this method will be called on each
+	 * <code>EndGeneration</code> event.
+	 * 
+	 * @param event an object that encapsulates information about the event that
+	 *        occurred
+	 */
+	@Override
+	public void refresh(EndGeneration event) {
+		Population population = event.getPopulation();
+		int size = population.size();
+
+		values = new int[METRICS][size];
+		statistics.reset();
+		Arrays.fill(levels, 0);
+
+		int index = 0;
+		int maxDepth = -1;
+
+		for (Individual individual: population) {
+			if (individual instanceof STGPIndividual) {
+				depth = 0;
+				length = 0;
+				terminals = 0;
+
+				traverse(((STGPIndividual) individual).getRoot(), 0);
+
+				record(DEPTH, index, depth);
+				record(LENGTH, index, length);
+				record(TERMINALS, index, terminals);
+				record(NON_TERMINALS, index, length - terminals);
+
+				if (depth > maxDepth) {
+					maxDepth = depth;
+				}
+
+				index++;
+			}
+		}
+
+		nodesPerDepth = new double[maxDepth + 1];
+
+		for (int d = 0; d < nodesPerDepth.length; d++) {
+			nodesPerDepth[d] = levels[d] / (double) size;
+		}
+	}
+
+	/*
+	 * Stores the value of a metric for the individual at the specified index.
+	 */
+	private void record(int metric, int index, int value) {
+		values[metric][index] = value;
+		statistics.add(metric, value);
+	}
+
+	/*
+	 * Updates the per-tree counters with the node and its descendants.
+	 */
+	private void traverse(Node node, int current) {
+		length++;
+
+		if (current > depth) {
+			depth = current;
+		}
+		if (current == levels.length) {
+			levels = Arrays.copyOf(levels, levels.length * 2);
+		}
+		levels[current]++;
+
+		int arity = node.getArity();
+
+		if (arity == 0) {
+			terminals++;
+		} else {
+			for (int i = 0; i < arity; i++) {
+				traverse(node.getChild(i), current + 1);
+			}
+		}
+	}
+
+	/**
+	 * Returns an array of the values of the specified metric for each program
+	 * tree in the population from the previous generation. The returned array
+	 * must not be modified.
+	 * 
+	 * @param metric the metric index, one of {@link #DEPTH}, {@link #LENGTH},
+	 *        {@link #TERMINALS} or {@link #NON_TERMINALS}.
+	 * @return an array of the values of the metric
+	 */
+	public int[] getValues(int metric) {
+		return values[metric];
+	}
+
+	/**
+	 * Returns the mean of the specified metric.
+	 * 
+	 * @param metric the metric index.
+	 * @return the mean of the metric
+	 */
+	public double getMean(int metric) {
+		return statistics.getMean(metric);
+	}
+
+	/**
+	 * Returns the standard deviation of the specified metric.
+	 * 
+	 * @param metric the metric index.
+	 * @return the standard deviation of the metric
+	 */
+	public double getStandardDeviation(int metric) {
+		return statistics.getStandardDeviation(metric);
+	}
+
+	/**
+	 * Returns the standard error of the mean of the specified metric.
+	 * 
+	 * @param metric the metric index.
+	 * @return the standard error of the mean of the metric
+	 */
+	public double getStandardError(int metric) {
+		return statistics.getStandardError(metric);
+	}
+
+	/**
+	 * Returns the minimum value of the specified metric, or
+	 * <code>Integer.MAX_VALUE</code> if there are no program trees.
+	 * 
+	 * @param metric the metric index.
+	 * @return the minimum value of the metric
+	 */
+	public int getMinimum(int metric) {
+		return (int) statistics.getMinimum(metric);
+	}
+
+	/**
+	 * Returns the maximum value of the specified metric, or <code>-1</code> if
+	 * there are no program trees.
+	 * 
+	 * @param metric the metric index.
+	 * @return the maximum value of the metric
+	 */
+	public int getMaximum(int metric) {
+		return (statistics.getCount(metric) == 0) ? -1 : (int) statistics.getMaximum(metric);
+	}
+
+	/**
+	 * Returns the average number of nodes at each depth, from the root (depth
+	 * <code>0</code>) to the maximum depth of the program trees. The returned
+	 * array must not be modified.
+	 * 
+	 * @return the average number of nodes at each depth
+	 */
+	public double[] getAverageNodesPerDepth() {
+		return nodesPerDepth;
+	}
+
+	/**
+	 * Returns a string representation of the value of this stat
+	 * 
+	 * @return a <code>String</code> that represents the value of this stat
+	 */
+	@Override
+	public String toString() {
+		return Arrays.deepToString(values);
+	}
+}
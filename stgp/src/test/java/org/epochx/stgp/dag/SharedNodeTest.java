@@ -0,0 +1,138 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.dag;
+
+import junit.framework.TestCase;
+
+import org.epochx.epox.*;
+import org.epochx.epox.math.*;
+import org.epochx.random.JavaRandom;
+
+/**
+ * Unit tests for {@link org.epochx.stgp.dag.SharedNode}.
+ */
+public class SharedNodeTest extends TestCase {
+
+	private Variable x;
+
+	private NodePool pool;
+
+	@Override
+	protected void setUp() throws Exception {
+		x = new Variable("X", Double.class);
+		pool = new NodePool();
+	}
+
+	/*
+	 * Returns the tree (X + 2.0) - X
+	 */
+	private Node tree() {
+		return new Subtract(new Add(new VariableNode(x), new Literal(2.0)), new VariableNode(x));
+	}
+
+	/**
+	 * Tests that structurally equal trees are interned as the same instance
+	 * and that equal subtrees are shared.
+	 */
+	public void testIntern() {
+		SharedNode program1 = pool.intern(tree());
+		SharedNode program2 = pool.intern(tree());
+
+		assertSame("equal trees not shared", program1, program2);
+		assertSame("equal subtrees not shared", program1.getNode(2), program1.getNode(4));
+		assertNotSame("different variables shared", program1,
+				pool.intern(new Subtract(new Add(new VariableNode(new Variable("X", Double.class)), new Literal(2.0)),
+						new VariableNode(x))));
+		assertNotSame("different literals shared", pool.intern(new Literal(2.0)), pool.intern(new Literal(3.0)));
+
+		assertEquals("incorrect length", 5, program1.length());
+		assertEquals("incorrect depth", 2, program1.depth());
+		assertEquals("incorrect data-type", Double.class, program1.dataType());
+		assertEquals("incorrect string", tree().toString(), program1.toString());
+	}
+
+	/**
+	 * Tests that the evaluation of a shared program matches the evaluation of
+	 * the tree.
+	 */
+	public void testEvaluate() {
+		Node root = tree();
+		SharedNode program = pool.intern(root);
+
+		for (double value = -2.0; value <= 2.0; value += 0.5) {
+			x.setValue(value);
+			assertEquals("incorrect result", root.evaluate(), program.evaluate());
+		}
+	}
+
+	/**
+	 * Tests that replacing a subtree is equivalent to setting the node in the
+	 * tree, and that the original program is not modified.
+	 */
+	public void testReplace() {
+		Node root = tree();
+		SharedNode program = pool.intern(root);
+
+		SharedNode child = program.replace(1, pool.intern(new Literal(5.0)));
+		root.setChild(0, new Literal(5.0));
+
+		assertSame("replaced program not interned", pool.intern(root), child);
+		assertSame("unchanged subtree not shared", program.getChild(1), child.getChild(1));
+		assertEquals("original program modified", tree().toString(), program.toString());
+		assertEquals("incorrect depth", 1, child.depthOf(1));
+		assertEquals("incorrect depth", 2, program.depthOf(3));
+	}
+
+	/**
+	 * Tests that individuals with equal programs are equal.
+	 */
+	public void testIndividualEquals() {
+		DAGIndividual individual1 = new DAGIndividual(pool.intern(tree()));
+		DAGIndividual individual2 = new DAGIndividual(pool.intern(tree()));
+
+		assertEquals("equal programs not equal", individual1, individual2);
+		assertEquals("equal programs with different hashes", individual1.hashCode(), individual2.hashCode());
+		assertEquals("clone not equal", individual1, individual1.clone());
+
+		individual2.setNode(3, new Literal(1.0));
+
+		assertFalse("different programs equal", individual1.equals(individual2));
+		assertEquals("incorrect program", "SUB(ADD(X 1.0) X)", individual2.toString());
+	}
+
+	/**
+	 * Tests that ephemeral random constants keep their values when interned and
+	 * converted back to a tree.
+	 */
+	public void testERC() {
+		Node root = new Add(new VariableNode(x), new DoubleERC(new JavaRandom(3), 0.0, 5.0, 3));
+		SharedNode program = pool.intern(root);
+
+		assertEquals("constant changed by interning", root, program.toNode());
+		assertEquals("constant changed by conversion", program.toString(), program.toString());
+		assertSame("equal tree not shared", program, pool.intern(root));
+
+		x.setValue(1.0);
+		assertEquals("incorrect result", root.evaluate(), program.evaluate());
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.fitness;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.epochx.epox.*;
+import org.epochx.epox.math.*;
+
+/**
+ * Unit tests for {@link org.epochx.stgp.fitness.OutputTrace}
+ */
+public class OutputTraceTest extends TestCase {
+
+	private Variable x;
+
+	private Variable[] variables;
+
+	private Object[][] cases;
+
+	@Override
+	protected void setUp() throws Exception {
+		x = new Variable("X", Double.class);
+		variables = new Variable[]{x};
+		cases = new Object[10][];
+
+		for (int i = 0; i < cases.length; i++) {
+			cases[i] = new Object[]{i - 5.0};
+		}
+	}
+
+	/*
+	 * Returns the outputs of the program tree, evaluated one case at a time
+	 */
+	private Object[] outputs(Node root) {
+		Object[] outputs = new Object[cases.length];
+
+		for (int i = 0; i < cases.length; i++) {
+			x.setValue(cases[i][0]);
+			outputs[i] = root.evaluate();
+		}
+
+		return outputs;
+	}
+
+	/**
+	 * Tests that the outputs after replacing a subtree are those of the new
+	 * program tree.
+	 */
+	public void testReplaceSubtree() {
+		Node root = new Add(new Multiply(new VariableNode(x), new VariableNode(x)), new Subtract(new VariableNode(x),
+				new Literal(1.0)));
+		OutputTrace trace = OutputTrace.evaluate(root, null, variables, cases);
+
+		assertTrue("incorrect outputs", Arrays.equals(outputs(root), trace.getOutputs()));
+
+		Node subtree = new Add(new VariableNode(x), new Literal(3.0));
+		root.setNode(5, subtree);
+		trace = trace.replace(5, subtree);
+
+		assertEquals("incorrect length", root.length(), trace.length());
+		assertTrue("incorrect outputs", Arrays.equals(outputs(root),
+				OutputTrace.evaluate(root, trace, variables, cases).getOutputs()));
+	}
+
+	/**
+	 * Tests that the outputs after exchanging subtrees with another program
+	 * are those of the new program trees.
+	 */
+	public void testReplaceDonor() {
+		Node root1 = new Add(new VariableNode(x), new Multiply(new VariableNode(x), new Literal(2.0)));
+		Node root2 = new Subtract(new Add(new Literal(1.0), new VariableNode(x)), new VariableNode(x));
+		OutputTrace trace1 = OutputTrace.evaluate(root1, null, variables, cases);
+		OutputTrace trace2 = OutputTrace.evaluate(root2, null, variables, cases);
+
+		Node subtree1 = root1.getNode(2);
+		Node subtree2 = root2.getNode(1);
+		root1.setNode(2, subtree2);
+		root2.setNode(1, subtree1);
+
+		OutputTrace child1 = trace1.replace(2, trace2, 1);
+		OutputTrace child2 = trace2.replace(1, trace1, 2);
+
+		assertTrue("incorrect outputs", Arrays.equals(outputs(root1),
+				OutputTrace.evaluate(root1, child1, variables, cases).getOutputs()));
+		assertTrue("incorrect outputs", Arrays.equals(outputs(root2),
+				OutputTrace.evaluate(root2, child2, variables, cases).getOutputs()));
+
+		// the root output is unknown until the program is evaluated
+		try {
+			child1.getOutputs();
+			fail("outputs of a modified program should be unknown");
+		} catch (IllegalStateException expected) {
+		}
+	}
+}
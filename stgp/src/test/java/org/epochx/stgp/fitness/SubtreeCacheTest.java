@@ -0,0 +1,107 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.fitness;
+
+import junit.framework.TestCase;
+
+import org.epochx.epox.*;
+import org.epochx.epox.lang.If;
+import org.epochx.epox.bool.*;
+import org.epochx.epox.math.*;
+
+/**
+ * Unit tests for {@link org.epochx.stgp.fitness.SubtreeCache}
+ */
+public class SubtreeCacheTest extends TestCase {
+
+	private Variable x;
+
+	private Variable[] variables;
+
+	private Object[][] cases;
+
+	@Override
+	protected void setUp() throws Exception {
+		x = new Variable("X", Double.class);
+		variables = new Variable[]{x};
+		cases = new Object[10][];
+
+		for (int i = 0; i < cases.length; i++) {
+			cases[i] = new Object[]{i - 5.0};
+		}
+	}
+
+	/**
+	 * Tests that the outputs are those of the program tree.
+	 */
+	public void testEvaluate() {
+		SubtreeCache cache = new SubtreeCache();
+		Node program = new If(new GreaterThan(new VariableNode(x), new Literal(0.0)), new Multiply(new VariableNode(x),
+				new VariableNode(x)), new Subtract(new Literal(1.0), new VariableNode(x)));
+
+		Object[] outputs = cache.evaluate(program, variables, cases);
+
+		for (int i = 0; i < cases.length; i++) {
+			x.setValue(cases[i][0]);
+			assertEquals("incorrect output", program.evaluate(), outputs[i]);
+		}
+	}
+
+	/**
+	 * Tests that shared subtrees are only computed once.
+	 */
+	public void testHits() {
+		SubtreeCache cache = new SubtreeCache();
+		Node subtree = new Multiply(new VariableNode(x), new Add(new VariableNode(x), new Literal(2.0)));
+
+		cache.evaluate(new Add(subtree, new Literal(1.0)), variables, cases);
+		assertEquals("incorrect hits", 0, cache.getHits());
+		assertEquals("incorrect misses", 3, cache.getMisses());
+
+		cache.evaluate(new Subtract(subtree.clone(), new VariableNode(x)), variables, cases);
+		assertEquals("incorrect hits", 1, cache.getHits());
+		assertEquals("incorrect misses", 4, cache.getMisses());
+		assertEquals("incorrect size", 4, cache.size());
+
+		// a new set of fitness cases clears the cache
+		cache.evaluate(subtree, variables, new Object[][]{{1.0}});
+		assertEquals("incorrect size", 2, cache.size());
+	}
+
+	/**
+	 * Tests that the memory used is within the maximum.
+	 */
+	public void testEviction() {
+		SubtreeCache cache = new SubtreeCache(400);
+		Node program = new VariableNode(x);
+
+		for (int i = 0; i < 20; i++) {
+			program = new Add(program, new Literal((double) i));
+			cache.evaluate(program, variables, cases);
+
+			assertTrue("maximum memory exceeded", cache.getMemory() <= cache.getMaximumMemory());
+		}
+
+		assertTrue("nothing cached", cache.size() > 0);
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2007-2013
+ * Licensed under GNU Lesser General Public License
+ * 
+ * This file is part of EpochX
+ * 
+ * EpochX is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * EpochX is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with EpochX. If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The latest version is available from: http://www.epochx.org
+ */
+
+package org.epochx.stgp.linear;
+
+import junit.framework.TestCase;
+
+import org.epochx.epox.*;
+import org.epochx.epox.math.*;
+
+/**
+ * Unit tests for {@link org.epochx.stgp.linear.LinearProgram}.
+ */
+public class LinearProgramTest extends TestCase {
+
+	private Variable x;
+
+	private InstructionSet instructions;
+
+	@Override
+	protected void setUp() throws Exception {
+		x = new Variable("X", Double.class);
+		instructions = new InstructionSet(new Add(), new Subtract(), new VariableNode(x));
+	}
+
+	/*
+	 * Returns the tree (X + 2.0) - X
+	 */
+	private Node tree() {
+		return new Subtract(new Add(new VariableNode(x), new Literal(2.0)), new VariableNode(x));
+	}
+
+	/**
+	 * Tests that decoding an encoded tree produces an equal tree.
+	 */
+	public void testEncodeDecode() {
+		Node root = tree();
+		LinearProgram program = LinearProgram.encode(root, instructions);
+
+		assertEquals("incorrect program length", root.length(), program.length());
+		assertEquals("incorrect program depth", root.depth(), program.depth());
+		assertEquals("decoded tree differs", root.toString(), program.decode().toString());
+		assertEquals("decoded subtree differs", root.getChild(0).toString(), program.decode(1).toString());
+		assertEquals("incorrect subtree end", 4, program.end(1));
+	}
+
+	/**
+	 * Tests that the evaluation of a linear program matches the evaluation of
+	 * the tree.
+	 */
+	public void testEvaluate() {
+		Node root = tree();
+		LinearProgram program = LinearProgram.encode(root, instructions);
+
+		for (double value = -2.0; value <= 2.0; value += 0.5) {
+			x.setValue(value);
+			assertEquals("incorrect result", root.evaluate(), program.evaluate());
+		}
+	}
+
+	/**
+	 * Tests that replacing a subtree is equivalent to setting the node in the
+	 * tree.
+	 */
+	public void testReplace() {
+		Node root = tree();
+		LinearProgram program = LinearProgram.encode(root, instructions);
+		LinearProgram donor = LinearProgram.encode(new Literal(5.0), instructions);
+
+		LinearProgram child = program.replace(1, donor, 0);
+		root.setChild(0, new Literal(5.0));
+
+		assertEquals("replaced tree differs", root.toString(), child.toString());
+		assertEquals("incorrect program length", root.length(), child.length());
+		assertEquals("original program modified", tree().toString(), program.toString());
+		assertEquals("incorrect data-type", Double.class, child.dataType(0));
+	}
+}